@@ -212,6 +212,68 @@ public class JavaLanguageTemplateHelper extends BaseFreemarkerLanguageTemplateHe
         }
     }
 
+    /**
+     * Checks if count arrays of the given type can be read in bulk into a list value backed by an array of
+     * primitives (e.g. a PlcREALArray backed by a float[]), instead of a PlcList of individual values.
+     */
+    public boolean isPlcValueArrayTypeReference(TypeReference typeReference) {
+        return getPlcValueArrayReadExpression(typeReference, "0") != null;
+    }
+
+    /**
+     * @return expression reading a count array of the given type in bulk into a list value backed by an array of
+     * primitives, or null, if there is no such list value for the given type.
+     */
+    public String getPlcValueArrayReadExpression(TypeReference typeReference, String countExpression) {
+        if(!(typeReference instanceof SimpleTypeReference)) {
+            return null;
+        }
+        SimpleTypeReference simpleTypeReference = (SimpleTypeReference) typeReference;
+        switch (simpleTypeReference.getBaseType()) {
+            case BIT: {
+                return "new PlcBOOLArray(io.readBitArray(" + countExpression + "), " + countExpression + ")";
+            }
+            case UINT: {
+                switch (((IntegerTypeReference) simpleTypeReference).getSizeInBits()) {
+                    case 8:
+                        return "new PlcUSINTArray(io.readUnsignedShortArray(" + countExpression + "))";
+                    case 16:
+                        return "new PlcUINTArray(io.readUnsignedIntArray(" + countExpression + "))";
+                    case 32:
+                        return "new PlcUDINTArray(io.readUnsignedLongArray(" + countExpression + "))";
+                    default:
+                        return null;
+                }
+            }
+            case INT: {
+                switch (((IntegerTypeReference) simpleTypeReference).getSizeInBits()) {
+                    case 8:
+                        return "new PlcSINTArray(io.readByteArray(" + countExpression + "))";
+                    case 16:
+                        return "new PlcINTArray(io.readShortArray(" + countExpression + "))";
+                    case 32:
+                        return "new PlcDINTArray(io.readIntArray(" + countExpression + "))";
+                    case 64:
+                        return "new PlcLINTArray(io.readLongArray(" + countExpression + "))";
+                    default:
+                        return null;
+                }
+            }
+            case FLOAT: {
+                switch (((FloatTypeReference) simpleTypeReference).getSizeInBits()) {
+                    case 32:
+                        return "new PlcREALArray(io.readFloatArray(" + countExpression + "))";
+                    case 64:
+                        return "new PlcLREALArray(io.readDoubleArray(" + countExpression + "))";
+                    default:
+                        return null;
+                }
+            }
+            default:
+                return null;
+        }
+    }
+
     @Override
     public String getNullValueForTypeReference(TypeReference typeReference) {
         if(typeReference instanceof SimpleTypeReference) {
@@ -22,14 +22,11 @@ import (
     "encoding/xml"
     "errors"
     "io"
-    log "github.com/sirupsen/logrus"
     "github.com/apache/plc4x/plc4go/internal/plc4go/utils"
 )
 
 // The data-structure of this message
 type ModbusSerialADU struct {
-    TransactionId uint16
-    Length uint16
     Address uint8
     Pdu *ModbusPDU
     IModbusSerialADU
@@ -43,8 +40,8 @@ type IModbusSerialADU interface {
     xml.Marshaler
 }
 
-func NewModbusSerialADU(transactionId uint16, length uint16, address uint8, pdu *ModbusPDU) *ModbusSerialADU {
-    return &ModbusSerialADU{TransactionId: transactionId, Length: length, Address: address, Pdu: pdu}
+func NewModbusSerialADU(address uint8, pdu *ModbusPDU) *ModbusSerialADU {
+    return &ModbusSerialADU{Address: address, Pdu: pdu}
 }
 
 func CastModbusSerialADU(structType interface{}) *ModbusSerialADU {
@@ -67,15 +64,6 @@ func (m *ModbusSerialADU) GetTypeName() string {
 func (m *ModbusSerialADU) LengthInBits() uint16 {
     lengthInBits := uint16(0)
 
-    // Simple field (transactionId)
-    lengthInBits += 16
-
-    // Reserved Field (reserved)
-    lengthInBits += 16
-
-    // Simple field (length)
-    lengthInBits += 16
-
     // Simple field (address)
     lengthInBits += 8
 
@@ -91,32 +79,6 @@ func (m *ModbusSerialADU) LengthInBytes() uint16 {
 
 func ModbusSerialADUParse(io *utils.ReadBuffer, response bool) (*ModbusSerialADU, error) {
 
-    // Simple Field (transactionId)
-    transactionId, _transactionIdErr := io.ReadUint16(16)
-    if _transactionIdErr != nil {
-        return nil, errors.New("Error parsing 'transactionId' field " + _transactionIdErr.Error())
-    }
-
-    // Reserved Field (Compartmentalized so the "reserved" variable can't leak)
-    {
-        reserved, _err := io.ReadUint16(16)
-        if _err != nil {
-            return nil, errors.New("Error parsing 'reserved' field " + _err.Error())
-        }
-        if reserved != uint16(0x0000) {
-            log.WithFields(log.Fields{
-                "expected value": uint16(0x0000),
-                "got value": reserved,
-            }).Info("Got unexpected response.")
-        }
-    }
-
-    // Simple Field (length)
-    length, _lengthErr := io.ReadUint16(16)
-    if _lengthErr != nil {
-        return nil, errors.New("Error parsing 'length' field " + _lengthErr.Error())
-    }
-
     // Simple Field (address)
     address, _addressErr := io.ReadUint8(8)
     if _addressErr != nil {
@@ -130,33 +92,11 @@ func ModbusSerialADUParse(io *utils.ReadBuffer, response bool) (*ModbusSerialADU
     }
 
     // Create the instance
-    return NewModbusSerialADU(transactionId, length, address, pdu), nil
+    return NewModbusSerialADU(address, pdu), nil
 }
 
 func (m *ModbusSerialADU) Serialize(io utils.WriteBuffer) error {
 
-    // Simple Field (transactionId)
-    transactionId := uint16(m.TransactionId)
-    _transactionIdErr := io.WriteUint16(16, (transactionId))
-    if _transactionIdErr != nil {
-        return errors.New("Error serializing 'transactionId' field " + _transactionIdErr.Error())
-    }
-
-    // Reserved Field (reserved)
-    {
-        _err := io.WriteUint16(16, uint16(0x0000))
-        if _err != nil {
-            return errors.New("Error serializing 'reserved' field " + _err.Error())
-        }
-    }
-
-    // Simple Field (length)
-    length := uint16(m.Length)
-    _lengthErr := io.WriteUint16(16, (length))
-    if _lengthErr != nil {
-        return errors.New("Error serializing 'length' field " + _lengthErr.Error())
-    }
-
     // Simple Field (address)
     address := uint8(m.Address)
     _addressErr := io.WriteUint8(8, (address))
@@ -188,18 +128,6 @@ func (m *ModbusSerialADU) UnmarshalXML(d *xml.Decoder, start xml.StartElement) e
         case xml.StartElement:
             tok := token.(xml.StartElement)
             switch tok.Name.Local {
-            case "transactionId":
-                var data uint16
-                if err := d.DecodeElement(&data, &tok); err != nil {
-                    return err
-                }
-                m.TransactionId = data
-            case "length":
-                var data uint16
-                if err := d.DecodeElement(&data, &tok); err != nil {
-                    return err
-                }
-                m.Length = data
             case "address":
                 var data uint8
                 if err := d.DecodeElement(&data, &tok); err != nil {
@@ -224,12 +152,6 @@ func (m *ModbusSerialADU) MarshalXML(e *xml.Encoder, start xml.StartElement) err
         }}); err != nil {
         return err
     }
-    if err := e.EncodeElement(m.TransactionId, xml.StartElement{Name: xml.Name{Local: "transactionId"}}); err != nil {
-        return err
-    }
-    if err := e.EncodeElement(m.Length, xml.StartElement{Name: xml.Name{Local: "length"}}); err != nil {
-        return err
-    }
     if err := e.EncodeElement(m.Address, xml.StartElement{Name: xml.Name{Local: "address"}}); err != nil {
         return err
     }
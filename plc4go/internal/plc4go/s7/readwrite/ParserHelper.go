@@ -55,7 +55,15 @@ func (m S7ParserHelper) Parse(typeName string, arguments []string, io *utils.Rea
         if err != nil {
             return nil, err
         }
-        return model.S7PayloadUserDataItemParse(io, cpuFunctionType)
+        cpuFunctionGroup, err := utils.StrToUint8(arguments[1])
+        if err != nil {
+            return nil, err
+        }
+        cpuSubfunction, err := utils.StrToUint8(arguments[2])
+        if err != nil {
+            return nil, err
+        }
+        return model.S7PayloadUserDataItemParse(io, cpuFunctionType, cpuFunctionGroup, cpuSubfunction)
     case "COTPParameter":
         rest, err := utils.StrToUint8(arguments[0])
         if err != nil {
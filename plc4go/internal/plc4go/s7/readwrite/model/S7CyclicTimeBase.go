@@ -0,0 +1,108 @@
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+package model
+
+import (
+    "github.com/apache/plc4x/plc4go/internal/plc4go/utils"
+)
+
+type S7CyclicTimeBase uint8
+
+type IS7CyclicTimeBase interface {
+    Milliseconds() uint16
+    Serialize(io utils.WriteBuffer) error
+}
+
+const(
+    S7CyclicTimeBase_B01SEC S7CyclicTimeBase = 0x00
+    S7CyclicTimeBase_B1SEC S7CyclicTimeBase = 0x01
+    S7CyclicTimeBase_B10SEC S7CyclicTimeBase = 0x02
+)
+
+
+func (e S7CyclicTimeBase) Milliseconds() uint16 {
+    switch e  {
+        case 0x00: { /* '0x00' */
+            return 100
+        }
+        case 0x01: { /* '0x01' */
+            return 1000
+        }
+        case 0x02: { /* '0x02' */
+            return 10000
+        }
+        default: {
+            return 0
+        }
+    }
+}
+func S7CyclicTimeBaseValueOf(value uint8) S7CyclicTimeBase {
+    switch value {
+        case 0x00:
+            return S7CyclicTimeBase_B01SEC
+        case 0x01:
+            return S7CyclicTimeBase_B1SEC
+        case 0x02:
+            return S7CyclicTimeBase_B10SEC
+    }
+    return 0
+}
+
+func CastS7CyclicTimeBase(structType interface{}) S7CyclicTimeBase {
+    castFunc := func(typ interface{}) S7CyclicTimeBase {
+        if sS7CyclicTimeBase, ok := typ.(S7CyclicTimeBase); ok {
+            return sS7CyclicTimeBase
+        }
+        return 0
+    }
+    return castFunc(structType)
+}
+
+func (m S7CyclicTimeBase) LengthInBits() uint16 {
+    return 8
+}
+
+func (m S7CyclicTimeBase) LengthInBytes() uint16 {
+    return m.LengthInBits() / 8
+}
+
+func S7CyclicTimeBaseParse(io *utils.ReadBuffer) (S7CyclicTimeBase, error) {
+    val, err := io.ReadUint8(8)
+    if err != nil {
+        return 0, nil
+    }
+    return S7CyclicTimeBaseValueOf(val), nil
+}
+
+func (e S7CyclicTimeBase) Serialize(io utils.WriteBuffer) error {
+    err := io.WriteUint8(8, uint8(e))
+    return err
+}
+
+func (e S7CyclicTimeBase) String() string {
+    switch e {
+    case S7CyclicTimeBase_B01SEC:
+        return "B01SEC"
+    case S7CyclicTimeBase_B1SEC:
+        return "B1SEC"
+    case S7CyclicTimeBase_B10SEC:
+        return "B10SEC"
+    }
+    return ""
+}
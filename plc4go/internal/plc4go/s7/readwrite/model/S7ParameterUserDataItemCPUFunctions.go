@@ -180,7 +180,7 @@ func S7ParameterUserDataItemCPUFunctionsParse(io *utils.ReadBuffer) (*S7Paramete
 
     // Optional Field (dataUnitReferenceNumber) (Can be skipped, if a given expression evaluates to false)
     var dataUnitReferenceNumber *uint8 = nil
-    if bool((cpuFunctionType) == ((8))) {
+    if bool(bool((cpuFunctionType) == ((8))) || bool((cpuFunctionType) == ((0)))) {
         _val, _err := io.ReadUint8(8)
         if _err != nil {
             return nil, errors.New("Error parsing 'dataUnitReferenceNumber' field " + _err.Error())
@@ -191,7 +191,7 @@ func S7ParameterUserDataItemCPUFunctionsParse(io *utils.ReadBuffer) (*S7Paramete
 
     // Optional Field (lastDataUnit) (Can be skipped, if a given expression evaluates to false)
     var lastDataUnit *uint8 = nil
-    if bool((cpuFunctionType) == ((8))) {
+    if bool(bool((cpuFunctionType) == ((8))) || bool((cpuFunctionType) == ((0)))) {
         _val, _err := io.ReadUint8(8)
         if _err != nil {
             return nil, errors.New("Error parsing 'lastDataUnit' field " + _err.Error())
@@ -202,7 +202,7 @@ func S7ParameterUserDataItemCPUFunctionsParse(io *utils.ReadBuffer) (*S7Paramete
 
     // Optional Field (errorCode) (Can be skipped, if a given expression evaluates to false)
     var errorCode *uint16 = nil
-    if bool((cpuFunctionType) == ((8))) {
+    if bool(bool((cpuFunctionType) == ((8))) || bool((cpuFunctionType) == ((0)))) {
         _val, _err := io.ReadUint16(16)
         if _err != nil {
             return nil, errors.New("Error parsing 'errorCode' field " + _err.Error())
@@ -31,8 +31,6 @@ import (
 type S7PayloadUserDataItem struct {
     ReturnCode DataTransportErrorCode
     TransportSize DataTransportSize
-    SzlId *SzlId
-    SzlIndex uint16
     Child IS7PayloadUserDataItemChild
     IS7PayloadUserDataItem
     IS7PayloadUserDataItemParent
@@ -40,7 +38,9 @@ type S7PayloadUserDataItem struct {
 
 // The corresponding interface
 type IS7PayloadUserDataItem interface {
+    CpuFunctionGroup() uint8
     CpuFunctionType() uint8
+    CpuSubfunction() uint8
     LengthInBytes() uint16
     LengthInBits() uint16
     Serialize(io utils.WriteBuffer) error
@@ -54,13 +54,13 @@ type IS7PayloadUserDataItemParent interface {
 
 type IS7PayloadUserDataItemChild interface {
     Serialize(io utils.WriteBuffer) error
-    InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize, szlId *SzlId, szlIndex uint16)
+    InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize)
     GetTypeName() string
     IS7PayloadUserDataItem
 }
 
-func NewS7PayloadUserDataItem(returnCode DataTransportErrorCode, transportSize DataTransportSize, szlId *SzlId, szlIndex uint16) *S7PayloadUserDataItem {
-    return &S7PayloadUserDataItem{ReturnCode: returnCode, TransportSize: transportSize, SzlId: szlId, SzlIndex: szlIndex}
+func NewS7PayloadUserDataItem(returnCode DataTransportErrorCode, transportSize DataTransportSize) *S7PayloadUserDataItem {
+    return &S7PayloadUserDataItem{ReturnCode: returnCode, TransportSize: transportSize}
 }
 
 func CastS7PayloadUserDataItem(structType interface{}) *S7PayloadUserDataItem {
@@ -92,12 +92,6 @@ func (m *S7PayloadUserDataItem) LengthInBits() uint16 {
     // Implicit Field (dataLength)
     lengthInBits += 16
 
-    // Simple field (szlId)
-    lengthInBits += m.SzlId.LengthInBits()
-
-    // Simple field (szlIndex)
-    lengthInBits += 16
-
     // Length of sub-type elements will be added by sub-type...
     lengthInBits += m.Child.LengthInBits()
 
@@ -108,7 +102,7 @@ func (m *S7PayloadUserDataItem) LengthInBytes() uint16 {
     return m.LengthInBits() / 8
 }
 
-func S7PayloadUserDataItemParse(io *utils.ReadBuffer, cpuFunctionType uint8) (*S7PayloadUserDataItem, error) {
+func S7PayloadUserDataItemParse(io *utils.ReadBuffer, cpuFunctionType uint8, cpuFunctionGroup uint8, cpuSubfunction uint8) (*S7PayloadUserDataItem, error) {
 
     // Enum field (returnCode)
     returnCode, _returnCodeErr := DataTransportErrorCodeParse(io)
@@ -128,22 +122,20 @@ func S7PayloadUserDataItemParse(io *utils.ReadBuffer, cpuFunctionType uint8) (*S
         return nil, errors.New("Error parsing 'dataLength' field " + _dataLengthErr.Error())
     }
 
-    // Simple Field (szlId)
-    szlId, _szlIdErr := SzlIdParse(io)
-    if _szlIdErr != nil {
-        return nil, errors.New("Error parsing 'szlId' field " + _szlIdErr.Error())
-    }
-
-    // Simple Field (szlIndex)
-    szlIndex, _szlIndexErr := io.ReadUint16(16)
-    if _szlIndexErr != nil {
-        return nil, errors.New("Error parsing 'szlIndex' field " + _szlIndexErr.Error())
-    }
-
     // Switch Field (Depending on the discriminator values, passes the instantiation to a sub-type)
     var _parent *S7PayloadUserDataItem
     var typeSwitchError error
     switch {
+    case cpuFunctionType == 0x00 && cpuFunctionGroup == 0x02:
+        _parent, typeSwitchError = S7PayloadUserDataItemCyclicServicesPushParse(io)
+    case cpuFunctionType == 0x04 && cpuFunctionGroup == 0x02 && cpuSubfunction == 0x04:
+        _parent, typeSwitchError = S7PayloadUserDataItemCyclicServicesUnsubscribeRequestParse(io)
+    case cpuFunctionType == 0x04 && cpuFunctionGroup == 0x02:
+        _parent, typeSwitchError = S7PayloadUserDataItemCyclicServicesSubscribeRequestParse(io)
+    case cpuFunctionType == 0x08 && cpuFunctionGroup == 0x02 && cpuSubfunction == 0x04:
+        _parent, typeSwitchError = S7PayloadUserDataItemCyclicServicesUnsubscribeResponseParse(io)
+    case cpuFunctionType == 0x08 && cpuFunctionGroup == 0x02:
+        _parent, typeSwitchError = S7PayloadUserDataItemCyclicServicesSubscribeResponseParse(io)
     case cpuFunctionType == 0x04:
         _parent, typeSwitchError = S7PayloadUserDataItemCpuFunctionReadSzlRequestParse(io)
     case cpuFunctionType == 0x08:
@@ -154,7 +146,7 @@ func S7PayloadUserDataItemParse(io *utils.ReadBuffer, cpuFunctionType uint8) (*S
     }
 
     // Finish initializing
-    _parent.Child.InitializeParent(_parent, returnCode, transportSize, szlId, szlIndex)
+    _parent.Child.InitializeParent(_parent, returnCode, transportSize)
     return _parent, nil
 }
 
@@ -185,19 +177,6 @@ func (m *S7PayloadUserDataItem) SerializeParent(io utils.WriteBuffer, child IS7P
         return errors.New("Error serializing 'dataLength' field " + _dataLengthErr.Error())
     }
 
-    // Simple Field (szlId)
-    _szlIdErr := m.SzlId.Serialize(io)
-    if _szlIdErr != nil {
-        return errors.New("Error serializing 'szlId' field " + _szlIdErr.Error())
-    }
-
-    // Simple Field (szlIndex)
-    szlIndex := uint16(m.SzlIndex)
-    _szlIndexErr := io.WriteUint16(16, (szlIndex))
-    if _szlIndexErr != nil {
-        return errors.New("Error serializing 'szlIndex' field " + _szlIndexErr.Error())
-    }
-
     // Switch field (Depending on the discriminator values, passes the serialization to a sub-type)
     _typeSwitchErr := serializeChildFunction()
     if _typeSwitchErr != nil {
@@ -234,20 +213,68 @@ func (m *S7PayloadUserDataItem) UnmarshalXML(d *xml.Decoder, start xml.StartElem
                     return err
                 }
                 m.TransportSize = data
-            case "szlId":
-                var data *SzlId
-                if err := d.DecodeElement(data, &tok); err != nil {
-                    return err
-                }
-                m.SzlId = data
-            case "szlIndex":
-                var data uint16
-                if err := d.DecodeElement(&data, &tok); err != nil {
-                    return err
-                }
-                m.SzlIndex = data
                 default:
                     switch start.Attr[0].Value {
+                        case "org.apache.plc4x.java.s7.readwrite.S7PayloadUserDataItemCyclicServicesPush":
+                            var dt *S7PayloadUserDataItemCyclicServicesPush
+                            if m.Child != nil {
+                                dt = m.Child.(*S7PayloadUserDataItemCyclicServicesPush)
+                            }
+                            if err := d.DecodeElement(&dt, &tok); err != nil {
+                                return err
+                            }
+                            if m.Child == nil {
+                                dt.Parent = m
+                                m.Child = dt
+                            }
+                        case "org.apache.plc4x.java.s7.readwrite.S7PayloadUserDataItemCyclicServicesUnsubscribeRequest":
+                            var dt *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest
+                            if m.Child != nil {
+                                dt = m.Child.(*S7PayloadUserDataItemCyclicServicesUnsubscribeRequest)
+                            }
+                            if err := d.DecodeElement(&dt, &tok); err != nil {
+                                return err
+                            }
+                            if m.Child == nil {
+                                dt.Parent = m
+                                m.Child = dt
+                            }
+                        case "org.apache.plc4x.java.s7.readwrite.S7PayloadUserDataItemCyclicServicesSubscribeRequest":
+                            var dt *S7PayloadUserDataItemCyclicServicesSubscribeRequest
+                            if m.Child != nil {
+                                dt = m.Child.(*S7PayloadUserDataItemCyclicServicesSubscribeRequest)
+                            }
+                            if err := d.DecodeElement(&dt, &tok); err != nil {
+                                return err
+                            }
+                            if m.Child == nil {
+                                dt.Parent = m
+                                m.Child = dt
+                            }
+                        case "org.apache.plc4x.java.s7.readwrite.S7PayloadUserDataItemCyclicServicesUnsubscribeResponse":
+                            var dt *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse
+                            if m.Child != nil {
+                                dt = m.Child.(*S7PayloadUserDataItemCyclicServicesUnsubscribeResponse)
+                            }
+                            if err := d.DecodeElement(&dt, &tok); err != nil {
+                                return err
+                            }
+                            if m.Child == nil {
+                                dt.Parent = m
+                                m.Child = dt
+                            }
+                        case "org.apache.plc4x.java.s7.readwrite.S7PayloadUserDataItemCyclicServicesSubscribeResponse":
+                            var dt *S7PayloadUserDataItemCyclicServicesSubscribeResponse
+                            if m.Child != nil {
+                                dt = m.Child.(*S7PayloadUserDataItemCyclicServicesSubscribeResponse)
+                            }
+                            if err := d.DecodeElement(&dt, &tok); err != nil {
+                                return err
+                            }
+                            if m.Child == nil {
+                                dt.Parent = m
+                                m.Child = dt
+                            }
                         case "org.apache.plc4x.java.s7.readwrite.S7PayloadUserDataItemCpuFunctionReadSzlRequest":
                             var dt *S7PayloadUserDataItemCpuFunctionReadSzlRequest
                             if m.Child != nil {
@@ -292,12 +319,6 @@ func (m *S7PayloadUserDataItem) MarshalXML(e *xml.Encoder, start xml.StartElemen
     if err := e.EncodeElement(m.TransportSize, xml.StartElement{Name: xml.Name{Local: "transportSize"}}); err != nil {
         return err
     }
-    if err := e.EncodeElement(m.SzlId, xml.StartElement{Name: xml.Name{Local: "szlId"}}); err != nil {
-        return err
-    }
-    if err := e.EncodeElement(m.SzlIndex, xml.StartElement{Name: xml.Name{Local: "szlIndex"}}); err != nil {
-        return err
-    }
     marshaller, ok := m.Child.(xml.Marshaler)
     if !ok {
         return errors.New("child is not castable to Marshaler")
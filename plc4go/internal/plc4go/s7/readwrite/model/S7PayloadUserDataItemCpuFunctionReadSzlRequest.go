@@ -20,12 +20,15 @@ package model
 
 import (
     "encoding/xml"
+    "errors"
     "io"
     "github.com/apache/plc4x/plc4go/internal/plc4go/utils"
 )
 
 // The data-structure of this message
 type S7PayloadUserDataItemCpuFunctionReadSzlRequest struct {
+    SzlId *SzlId
+    SzlIndex uint16
     Parent *S7PayloadUserDataItem
     IS7PayloadUserDataItemCpuFunctionReadSzlRequest
 }
@@ -45,17 +48,25 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) CpuFunctionType() uint8
     return 0x04
 }
 
+func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) CpuFunctionGroup() uint8 {
+    return 0
+}
+
+func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) CpuSubfunction() uint8 {
+    return 0
+}
+
 
-func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize, szlId *SzlId, szlIndex uint16) {
+func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) {
     m.Parent.ReturnCode = returnCode
     m.Parent.TransportSize = transportSize
-    m.Parent.SzlId = szlId
-    m.Parent.SzlIndex = szlIndex
 }
 
-func NewS7PayloadUserDataItemCpuFunctionReadSzlRequest(returnCode DataTransportErrorCode, transportSize DataTransportSize, szlId *SzlId, szlIndex uint16) *S7PayloadUserDataItem {
+func NewS7PayloadUserDataItemCpuFunctionReadSzlRequest(szlId *SzlId, szlIndex uint16, returnCode DataTransportErrorCode, transportSize DataTransportSize) *S7PayloadUserDataItem {
     child := &S7PayloadUserDataItemCpuFunctionReadSzlRequest{
-        Parent: NewS7PayloadUserDataItem(returnCode, transportSize, szlId, szlIndex),
+        SzlId: szlId,
+        SzlIndex: szlIndex,
+        Parent: NewS7PayloadUserDataItem(returnCode, transportSize),
     }
     child.Parent.Child = child
     return child.Parent
@@ -87,6 +98,12 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) GetTypeName() string {
 func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) LengthInBits() uint16 {
     lengthInBits := uint16(0)
 
+    // Simple field (szlId)
+    lengthInBits += m.SzlId.LengthInBits()
+
+    // Simple field (szlIndex)
+    lengthInBits += 16
+
     return lengthInBits
 }
 
@@ -96,8 +113,22 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) LengthInBytes() uint16
 
 func S7PayloadUserDataItemCpuFunctionReadSzlRequestParse(io *utils.ReadBuffer) (*S7PayloadUserDataItem, error) {
 
+    // Simple Field (szlId)
+    szlId, _szlIdErr := SzlIdParse(io)
+    if _szlIdErr != nil {
+        return nil, errors.New("Error parsing 'szlId' field " + _szlIdErr.Error())
+    }
+
+    // Simple Field (szlIndex)
+    szlIndex, _szlIndexErr := io.ReadUint16(16)
+    if _szlIndexErr != nil {
+        return nil, errors.New("Error parsing 'szlIndex' field " + _szlIndexErr.Error())
+    }
+
     // Create a partially initialized instance
     _child := &S7PayloadUserDataItemCpuFunctionReadSzlRequest{
+        SzlId: szlId,
+        SzlIndex: szlIndex,
         Parent: &S7PayloadUserDataItem{},
     }
     _child.Parent.Child = _child
@@ -107,6 +138,19 @@ func S7PayloadUserDataItemCpuFunctionReadSzlRequestParse(io *utils.ReadBuffer) (
 func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) Serialize(io utils.WriteBuffer) error {
     ser := func() error {
 
+    // Simple Field (szlId)
+    _szlIdErr := m.SzlId.Serialize(io)
+    if _szlIdErr != nil {
+        return errors.New("Error serializing 'szlId' field " + _szlIdErr.Error())
+    }
+
+    // Simple Field (szlIndex)
+    szlIndex := uint16(m.SzlIndex)
+    _szlIndexErr := io.WriteUint16(16, (szlIndex))
+    if _szlIndexErr != nil {
+        return errors.New("Error serializing 'szlIndex' field " + _szlIndexErr.Error())
+    }
+
         return nil
     }
     return m.Parent.SerializeParent(io, m, ser)
@@ -121,6 +165,18 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) UnmarshalXML(d *xml.Dec
         case xml.StartElement:
             tok := token.(xml.StartElement)
             switch tok.Name.Local {
+            case "szlId":
+                var dt *SzlId
+                if err := d.DecodeElement(&dt, &tok); err != nil {
+                    return err
+                }
+                m.SzlId = dt
+            case "szlIndex":
+                var data uint16
+                if err := d.DecodeElement(&data, &tok); err != nil {
+                    return err
+                }
+                m.SzlIndex = data
             }
         }
         token, err = d.Token()
@@ -134,6 +190,12 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) UnmarshalXML(d *xml.Dec
 }
 
 func (m *S7PayloadUserDataItemCpuFunctionReadSzlRequest) MarshalXML(e *xml.Encoder, start xml.StartElement) error {
+    if err := e.EncodeElement(m.SzlId, xml.StartElement{Name: xml.Name{Local: "szlId"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeElement(m.SzlIndex, xml.StartElement{Name: xml.Name{Local: "szlIndex"}}); err != nil {
+        return err
+    }
     return nil
 }
 
@@ -31,6 +31,8 @@ const S7PayloadUserDataItemCpuFunctionReadSzlResponse_SZLITEMLENGTH uint16 = 28
 
 // The data-structure of this message
 type S7PayloadUserDataItemCpuFunctionReadSzlResponse struct {
+    SzlId *SzlId
+    SzlIndex uint16
     Items []*SzlDataTreeItem
     Parent *S7PayloadUserDataItem
     IS7PayloadUserDataItemCpuFunctionReadSzlResponse
@@ -51,18 +53,26 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) CpuFunctionType() uint
     return 0x08
 }
 
+func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) CpuFunctionGroup() uint8 {
+    return 0
+}
+
+func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) CpuSubfunction() uint8 {
+    return 0
+}
 
-func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize, szlId *SzlId, szlIndex uint16) {
+
+func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) {
     m.Parent.ReturnCode = returnCode
     m.Parent.TransportSize = transportSize
-    m.Parent.SzlId = szlId
-    m.Parent.SzlIndex = szlIndex
 }
 
-func NewS7PayloadUserDataItemCpuFunctionReadSzlResponse(items []*SzlDataTreeItem, returnCode DataTransportErrorCode, transportSize DataTransportSize, szlId *SzlId, szlIndex uint16) *S7PayloadUserDataItem {
+func NewS7PayloadUserDataItemCpuFunctionReadSzlResponse(szlId *SzlId, szlIndex uint16, items []*SzlDataTreeItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) *S7PayloadUserDataItem {
     child := &S7PayloadUserDataItemCpuFunctionReadSzlResponse{
+        SzlId: szlId,
+        SzlIndex: szlIndex,
         Items: items,
-        Parent: NewS7PayloadUserDataItem(returnCode, transportSize, szlId, szlIndex),
+        Parent: NewS7PayloadUserDataItem(returnCode, transportSize),
     }
     child.Parent.Child = child
     return child.Parent
@@ -94,6 +104,12 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) GetTypeName() string {
 func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) LengthInBits() uint16 {
     lengthInBits := uint16(0)
 
+    // Simple field (szlId)
+    lengthInBits += m.SzlId.LengthInBits()
+
+    // Simple field (szlIndex)
+    lengthInBits += 16
+
     // Const Field (szlItemLength)
     lengthInBits += 16
 
@@ -116,6 +132,18 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) LengthInBytes() uint16
 
 func S7PayloadUserDataItemCpuFunctionReadSzlResponseParse(io *utils.ReadBuffer) (*S7PayloadUserDataItem, error) {
 
+    // Simple Field (szlId)
+    szlId, _szlIdErr := SzlIdParse(io)
+    if _szlIdErr != nil {
+        return nil, errors.New("Error parsing 'szlId' field " + _szlIdErr.Error())
+    }
+
+    // Simple Field (szlIndex)
+    szlIndex, _szlIndexErr := io.ReadUint16(16)
+    if _szlIndexErr != nil {
+        return nil, errors.New("Error parsing 'szlIndex' field " + _szlIndexErr.Error())
+    }
+
     // Const Field (szlItemLength)
     szlItemLength, _szlItemLengthErr := io.ReadUint16(16)
     if _szlItemLengthErr != nil {
@@ -144,6 +172,8 @@ func S7PayloadUserDataItemCpuFunctionReadSzlResponseParse(io *utils.ReadBuffer)
 
     // Create a partially initialized instance
     _child := &S7PayloadUserDataItemCpuFunctionReadSzlResponse{
+        SzlId: szlId,
+        SzlIndex: szlIndex,
         Items: items,
         Parent: &S7PayloadUserDataItem{},
     }
@@ -154,6 +184,19 @@ func S7PayloadUserDataItemCpuFunctionReadSzlResponseParse(io *utils.ReadBuffer)
 func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) Serialize(io utils.WriteBuffer) error {
     ser := func() error {
 
+    // Simple Field (szlId)
+    _szlIdErr := m.SzlId.Serialize(io)
+    if _szlIdErr != nil {
+        return errors.New("Error serializing 'szlId' field " + _szlIdErr.Error())
+    }
+
+    // Simple Field (szlIndex)
+    szlIndex := uint16(m.SzlIndex)
+    _szlIndexErr := io.WriteUint16(16, (szlIndex))
+    if _szlIndexErr != nil {
+        return errors.New("Error serializing 'szlIndex' field " + _szlIndexErr.Error())
+    }
+
     // Const Field (szlItemLength)
     _szlItemLengthErr := io.WriteUint16(16, 28)
     if _szlItemLengthErr != nil {
@@ -191,6 +234,18 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) UnmarshalXML(d *xml.De
         case xml.StartElement:
             tok := token.(xml.StartElement)
             switch tok.Name.Local {
+            case "szlId":
+                var dt *SzlId
+                if err := d.DecodeElement(&dt, &tok); err != nil {
+                    return err
+                }
+                m.SzlId = dt
+            case "szlIndex":
+                var data uint16
+                if err := d.DecodeElement(&data, &tok); err != nil {
+                    return err
+                }
+                m.SzlIndex = data
             case "items":
                 var data []*SzlDataTreeItem
                 if err := d.DecodeElement(&data, &tok); err != nil {
@@ -210,6 +265,12 @@ func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) UnmarshalXML(d *xml.De
 }
 
 func (m *S7PayloadUserDataItemCpuFunctionReadSzlResponse) MarshalXML(e *xml.Encoder, start xml.StartElement) error {
+    if err := e.EncodeElement(m.SzlId, xml.StartElement{Name: xml.Name{Local: "szlId"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeElement(m.SzlIndex, xml.StartElement{Name: xml.Name{Local: "szlIndex"}}); err != nil {
+        return err
+    }
     if err := e.EncodeToken(xml.StartElement{Name: xml.Name{Local: "items"}}); err != nil {
         return err
     }
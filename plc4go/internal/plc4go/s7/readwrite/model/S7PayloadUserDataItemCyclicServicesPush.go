@@ -0,0 +1,213 @@
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+package model
+
+import (
+    "encoding/xml"
+    "errors"
+    "io"
+    "github.com/apache/plc4x/plc4go/internal/plc4go/utils"
+)
+
+// The data-structure of this message
+type S7PayloadUserDataItemCyclicServicesPush struct {
+    Items []*S7VarPayloadDataItem
+    Parent *S7PayloadUserDataItem
+    IS7PayloadUserDataItemCyclicServicesPush
+}
+
+// The corresponding interface
+type IS7PayloadUserDataItemCyclicServicesPush interface {
+    LengthInBytes() uint16
+    LengthInBits() uint16
+    Serialize(io utils.WriteBuffer) error
+    xml.Marshaler
+}
+
+///////////////////////////////////////////////////////////
+// Accessors for discriminator values.
+///////////////////////////////////////////////////////////
+func (m *S7PayloadUserDataItemCyclicServicesPush) CpuFunctionType() uint8 {
+    return 0x00
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) CpuFunctionGroup() uint8 {
+    return 0x02
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) CpuSubfunction() uint8 {
+    return 0
+}
+
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) {
+    m.Parent.ReturnCode = returnCode
+    m.Parent.TransportSize = transportSize
+}
+
+func NewS7PayloadUserDataItemCyclicServicesPush(items []*S7VarPayloadDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) *S7PayloadUserDataItem {
+    child := &S7PayloadUserDataItemCyclicServicesPush{
+        Items: items,
+        Parent: NewS7PayloadUserDataItem(returnCode, transportSize),
+    }
+    child.Parent.Child = child
+    return child.Parent
+}
+
+func CastS7PayloadUserDataItemCyclicServicesPush(structType interface{}) *S7PayloadUserDataItemCyclicServicesPush {
+    castFunc := func(typ interface{}) *S7PayloadUserDataItemCyclicServicesPush {
+        if casted, ok := typ.(S7PayloadUserDataItemCyclicServicesPush); ok {
+            return &casted
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItemCyclicServicesPush); ok {
+            return casted
+        }
+        if casted, ok := typ.(S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesPush(casted.Child)
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesPush(casted.Child)
+        }
+        return nil
+    }
+    return castFunc(structType)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) GetTypeName() string {
+    return "S7PayloadUserDataItemCyclicServicesPush"
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) LengthInBits() uint16 {
+    lengthInBits := uint16(0)
+
+    // Implicit Field (itemsCount)
+    lengthInBits += 16
+
+    // Array field
+    if len(m.Items) > 0 {
+        for _, element := range m.Items {
+            lengthInBits += element.LengthInBits()
+        }
+    }
+
+    return lengthInBits
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) LengthInBytes() uint16 {
+    return m.LengthInBits() / 8
+}
+
+func S7PayloadUserDataItemCyclicServicesPushParse(io *utils.ReadBuffer) (*S7PayloadUserDataItem, error) {
+
+    // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+    itemsCount, _itemsCountErr := io.ReadUint16(16)
+    if _itemsCountErr != nil {
+        return nil, errors.New("Error parsing 'itemsCount' field " + _itemsCountErr.Error())
+    }
+
+    // Array field (items)
+    // Count array
+    items := make([]*S7VarPayloadDataItem, itemsCount)
+    for curItem := uint16(0); curItem < uint16(itemsCount); curItem++ {
+        lastItem := curItem == uint16(itemsCount - 1)
+        _item, _err := S7VarPayloadDataItemParse(io, lastItem)
+        if _err != nil {
+            return nil, errors.New("Error parsing 'items' field " + _err.Error())
+        }
+        items[curItem] = _item
+    }
+
+    // Create a partially initialized instance
+    _child := &S7PayloadUserDataItemCyclicServicesPush{
+        Items: items,
+        Parent: &S7PayloadUserDataItem{},
+    }
+    _child.Parent.Child = _child
+    return _child.Parent, nil
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) Serialize(io utils.WriteBuffer) error {
+    ser := func() error {
+
+    // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+    itemsCount := uint16(uint16(len(m.Items)))
+    _itemsCountErr := io.WriteUint16(16, (itemsCount))
+    if _itemsCountErr != nil {
+        return errors.New("Error serializing 'itemsCount' field " + _itemsCountErr.Error())
+    }
+
+    // Array Field (items)
+    if m.Items != nil {
+        itemCount := uint16(len(m.Items))
+        var curItem uint16 = 0
+        for _, _element := range m.Items {
+            var lastItem bool = curItem == (itemCount - 1)
+            _elementErr := _element.Serialize(io, lastItem)
+            if _elementErr != nil {
+                return errors.New("Error serializing 'items' field " + _elementErr.Error())
+            }
+            curItem++
+        }
+    }
+
+        return nil
+    }
+    return m.Parent.SerializeParent(io, m, ser)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) UnmarshalXML(d *xml.Decoder, start xml.StartElement) error {
+    var token xml.Token
+    var err error
+    token = start
+    for {
+        switch token.(type) {
+        case xml.StartElement:
+            tok := token.(xml.StartElement)
+            switch tok.Name.Local {
+            case "items":
+                var data []*S7VarPayloadDataItem
+                if err := d.DecodeElement(&data, &tok); err != nil {
+                    return err
+                }
+                m.Items = data
+            }
+        }
+        token, err = d.Token()
+        if err != nil {
+            if err == io.EOF {
+                return nil
+            }
+            return err
+        }
+    }
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesPush) MarshalXML(e *xml.Encoder, start xml.StartElement) error {
+    if err := e.EncodeToken(xml.StartElement{Name: xml.Name{Local: "items"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeElement(m.Items, xml.StartElement{Name: xml.Name{Local: "items"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeToken(xml.EndElement{Name: xml.Name{Local: "items"}}); err != nil {
+        return err
+    }
+    return nil
+}
+
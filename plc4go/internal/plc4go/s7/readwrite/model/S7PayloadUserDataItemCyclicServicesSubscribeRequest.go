@@ -0,0 +1,266 @@
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+package model
+
+import (
+    "encoding/xml"
+    "errors"
+    "io"
+    "github.com/apache/plc4x/plc4go/internal/plc4go/utils"
+)
+
+// The data-structure of this message
+type S7PayloadUserDataItemCyclicServicesSubscribeRequest struct {
+    TimeBase S7CyclicTimeBase
+    TimeFactor uint8
+    Items []*S7VarRequestParameterItem
+    Parent *S7PayloadUserDataItem
+    IS7PayloadUserDataItemCyclicServicesSubscribeRequest
+}
+
+// The corresponding interface
+type IS7PayloadUserDataItemCyclicServicesSubscribeRequest interface {
+    LengthInBytes() uint16
+    LengthInBits() uint16
+    Serialize(io utils.WriteBuffer) error
+    xml.Marshaler
+}
+
+///////////////////////////////////////////////////////////
+// Accessors for discriminator values.
+///////////////////////////////////////////////////////////
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) CpuFunctionType() uint8 {
+    return 0x04
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) CpuFunctionGroup() uint8 {
+    return 0x02
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) CpuSubfunction() uint8 {
+    return 0
+}
+
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) {
+    m.Parent.ReturnCode = returnCode
+    m.Parent.TransportSize = transportSize
+}
+
+func NewS7PayloadUserDataItemCyclicServicesSubscribeRequest(timeBase S7CyclicTimeBase, timeFactor uint8, items []*S7VarRequestParameterItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) *S7PayloadUserDataItem {
+    child := &S7PayloadUserDataItemCyclicServicesSubscribeRequest{
+        TimeBase: timeBase,
+        TimeFactor: timeFactor,
+        Items: items,
+        Parent: NewS7PayloadUserDataItem(returnCode, transportSize),
+    }
+    child.Parent.Child = child
+    return child.Parent
+}
+
+func CastS7PayloadUserDataItemCyclicServicesSubscribeRequest(structType interface{}) *S7PayloadUserDataItemCyclicServicesSubscribeRequest {
+    castFunc := func(typ interface{}) *S7PayloadUserDataItemCyclicServicesSubscribeRequest {
+        if casted, ok := typ.(S7PayloadUserDataItemCyclicServicesSubscribeRequest); ok {
+            return &casted
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItemCyclicServicesSubscribeRequest); ok {
+            return casted
+        }
+        if casted, ok := typ.(S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesSubscribeRequest(casted.Child)
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesSubscribeRequest(casted.Child)
+        }
+        return nil
+    }
+    return castFunc(structType)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) GetTypeName() string {
+    return "S7PayloadUserDataItemCyclicServicesSubscribeRequest"
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) LengthInBits() uint16 {
+    lengthInBits := uint16(0)
+
+    // Implicit Field (itemsCount)
+    lengthInBits += 16
+
+    // Enum Field (timeBase)
+    lengthInBits += 8
+
+    // Simple field (timeFactor)
+    lengthInBits += 8
+
+    // Array field
+    if len(m.Items) > 0 {
+        for _, element := range m.Items {
+            lengthInBits += element.LengthInBits()
+        }
+    }
+
+    return lengthInBits
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) LengthInBytes() uint16 {
+    return m.LengthInBits() / 8
+}
+
+func S7PayloadUserDataItemCyclicServicesSubscribeRequestParse(io *utils.ReadBuffer) (*S7PayloadUserDataItem, error) {
+
+    // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+    itemsCount, _itemsCountErr := io.ReadUint16(16)
+    if _itemsCountErr != nil {
+        return nil, errors.New("Error parsing 'itemsCount' field " + _itemsCountErr.Error())
+    }
+
+    // Enum field (timeBase)
+    timeBase, _timeBaseErr := S7CyclicTimeBaseParse(io)
+    if _timeBaseErr != nil {
+        return nil, errors.New("Error parsing 'timeBase' field " + _timeBaseErr.Error())
+    }
+
+    // Simple Field (timeFactor)
+    timeFactor, _timeFactorErr := io.ReadUint8(8)
+    if _timeFactorErr != nil {
+        return nil, errors.New("Error parsing 'timeFactor' field " + _timeFactorErr.Error())
+    }
+
+    // Array field (items)
+    // Count array
+    items := make([]*S7VarRequestParameterItem, itemsCount)
+    for curItem := uint16(0); curItem < uint16(itemsCount); curItem++ {
+        _item, _err := S7VarRequestParameterItemParse(io)
+        if _err != nil {
+            return nil, errors.New("Error parsing 'items' field " + _err.Error())
+        }
+        items[curItem] = _item
+    }
+
+    // Create a partially initialized instance
+    _child := &S7PayloadUserDataItemCyclicServicesSubscribeRequest{
+        TimeBase: timeBase,
+        TimeFactor: timeFactor,
+        Items: items,
+        Parent: &S7PayloadUserDataItem{},
+    }
+    _child.Parent.Child = _child
+    return _child.Parent, nil
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) Serialize(io utils.WriteBuffer) error {
+    ser := func() error {
+
+    // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+    itemsCount := uint16(uint16(len(m.Items)))
+    _itemsCountErr := io.WriteUint16(16, (itemsCount))
+    if _itemsCountErr != nil {
+        return errors.New("Error serializing 'itemsCount' field " + _itemsCountErr.Error())
+    }
+
+    // Enum field (timeBase)
+    timeBase := CastS7CyclicTimeBase(m.TimeBase)
+    _timeBaseErr := timeBase.Serialize(io)
+    if _timeBaseErr != nil {
+        return errors.New("Error serializing 'timeBase' field " + _timeBaseErr.Error())
+    }
+
+    // Simple Field (timeFactor)
+    timeFactor := uint8(m.TimeFactor)
+    _timeFactorErr := io.WriteUint8(8, (timeFactor))
+    if _timeFactorErr != nil {
+        return errors.New("Error serializing 'timeFactor' field " + _timeFactorErr.Error())
+    }
+
+    // Array Field (items)
+    if m.Items != nil {
+        for _, _element := range m.Items {
+            _elementErr := _element.Serialize(io)
+            if _elementErr != nil {
+                return errors.New("Error serializing 'items' field " + _elementErr.Error())
+            }
+        }
+    }
+
+        return nil
+    }
+    return m.Parent.SerializeParent(io, m, ser)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) UnmarshalXML(d *xml.Decoder, start xml.StartElement) error {
+    var token xml.Token
+    var err error
+    token = start
+    for {
+        switch token.(type) {
+        case xml.StartElement:
+            tok := token.(xml.StartElement)
+            switch tok.Name.Local {
+            case "timeBase":
+                var data S7CyclicTimeBase
+                if err := d.DecodeElement(&data, &tok); err != nil {
+                    return err
+                }
+                m.TimeBase = data
+            case "timeFactor":
+                var data uint8
+                if err := d.DecodeElement(&data, &tok); err != nil {
+                    return err
+                }
+                m.TimeFactor = data
+            case "items":
+                var _values []*S7VarRequestParameterItem
+                var dt *S7VarRequestParameterItem
+                if err := d.DecodeElement(&dt, &tok); err != nil {
+                    return err
+                }
+                _values = append(_values, dt)
+                m.Items = _values
+            }
+        }
+        token, err = d.Token()
+        if err != nil {
+            if err == io.EOF {
+                return nil
+            }
+            return err
+        }
+    }
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesSubscribeRequest) MarshalXML(e *xml.Encoder, start xml.StartElement) error {
+    if err := e.EncodeElement(m.TimeBase, xml.StartElement{Name: xml.Name{Local: "timeBase"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeElement(m.TimeFactor, xml.StartElement{Name: xml.Name{Local: "timeFactor"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeToken(xml.StartElement{Name: xml.Name{Local: "items"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeElement(m.Items, xml.StartElement{Name: xml.Name{Local: "items"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeToken(xml.EndElement{Name: xml.Name{Local: "items"}}); err != nil {
+        return err
+    }
+    return nil
+}
+
@@ -0,0 +1,202 @@
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+package model
+
+import (
+    "encoding/xml"
+    "errors"
+    "io"
+    "github.com/apache/plc4x/plc4go/internal/plc4go/utils"
+)
+
+// The data-structure of this message
+type S7PayloadUserDataItemCyclicServicesUnsubscribeRequest struct {
+    Function uint8
+    JobId uint8
+    Parent *S7PayloadUserDataItem
+    IS7PayloadUserDataItemCyclicServicesUnsubscribeRequest
+}
+
+// The corresponding interface
+type IS7PayloadUserDataItemCyclicServicesUnsubscribeRequest interface {
+    LengthInBytes() uint16
+    LengthInBits() uint16
+    Serialize(io utils.WriteBuffer) error
+    xml.Marshaler
+}
+
+///////////////////////////////////////////////////////////
+// Accessors for discriminator values.
+///////////////////////////////////////////////////////////
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) CpuFunctionType() uint8 {
+    return 0x04
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) CpuFunctionGroup() uint8 {
+    return 0x02
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) CpuSubfunction() uint8 {
+    return 0x04
+}
+
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) {
+    m.Parent.ReturnCode = returnCode
+    m.Parent.TransportSize = transportSize
+}
+
+func NewS7PayloadUserDataItemCyclicServicesUnsubscribeRequest(function uint8, jobId uint8, returnCode DataTransportErrorCode, transportSize DataTransportSize) *S7PayloadUserDataItem {
+    child := &S7PayloadUserDataItemCyclicServicesUnsubscribeRequest{
+        Function: function,
+        JobId: jobId,
+        Parent: NewS7PayloadUserDataItem(returnCode, transportSize),
+    }
+    child.Parent.Child = child
+    return child.Parent
+}
+
+func CastS7PayloadUserDataItemCyclicServicesUnsubscribeRequest(structType interface{}) *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest {
+    castFunc := func(typ interface{}) *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest {
+        if casted, ok := typ.(S7PayloadUserDataItemCyclicServicesUnsubscribeRequest); ok {
+            return &casted
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItemCyclicServicesUnsubscribeRequest); ok {
+            return casted
+        }
+        if casted, ok := typ.(S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesUnsubscribeRequest(casted.Child)
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesUnsubscribeRequest(casted.Child)
+        }
+        return nil
+    }
+    return castFunc(structType)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) GetTypeName() string {
+    return "S7PayloadUserDataItemCyclicServicesUnsubscribeRequest"
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) LengthInBits() uint16 {
+    lengthInBits := uint16(0)
+
+    // Simple field (function)
+    lengthInBits += 8
+
+    // Simple field (jobId)
+    lengthInBits += 8
+
+    return lengthInBits
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) LengthInBytes() uint16 {
+    return m.LengthInBits() / 8
+}
+
+func S7PayloadUserDataItemCyclicServicesUnsubscribeRequestParse(io *utils.ReadBuffer) (*S7PayloadUserDataItem, error) {
+
+    // Simple Field (function)
+    function, _functionErr := io.ReadUint8(8)
+    if _functionErr != nil {
+        return nil, errors.New("Error parsing 'function' field " + _functionErr.Error())
+    }
+
+    // Simple Field (jobId)
+    jobId, _jobIdErr := io.ReadUint8(8)
+    if _jobIdErr != nil {
+        return nil, errors.New("Error parsing 'jobId' field " + _jobIdErr.Error())
+    }
+
+    // Create a partially initialized instance
+    _child := &S7PayloadUserDataItemCyclicServicesUnsubscribeRequest{
+        Function: function,
+        JobId: jobId,
+        Parent: &S7PayloadUserDataItem{},
+    }
+    _child.Parent.Child = _child
+    return _child.Parent, nil
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) Serialize(io utils.WriteBuffer) error {
+    ser := func() error {
+
+    // Simple Field (function)
+    function := uint8(m.Function)
+    _functionErr := io.WriteUint8(8, (function))
+    if _functionErr != nil {
+        return errors.New("Error serializing 'function' field " + _functionErr.Error())
+    }
+
+    // Simple Field (jobId)
+    jobId := uint8(m.JobId)
+    _jobIdErr := io.WriteUint8(8, (jobId))
+    if _jobIdErr != nil {
+        return errors.New("Error serializing 'jobId' field " + _jobIdErr.Error())
+    }
+
+        return nil
+    }
+    return m.Parent.SerializeParent(io, m, ser)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) UnmarshalXML(d *xml.Decoder, start xml.StartElement) error {
+    var token xml.Token
+    var err error
+    token = start
+    for {
+        switch token.(type) {
+        case xml.StartElement:
+            tok := token.(xml.StartElement)
+            switch tok.Name.Local {
+            case "function":
+                var data uint8
+                if err := d.DecodeElement(&data, &tok); err != nil {
+                    return err
+                }
+                m.Function = data
+            case "jobId":
+                var data uint8
+                if err := d.DecodeElement(&data, &tok); err != nil {
+                    return err
+                }
+                m.JobId = data
+            }
+        }
+        token, err = d.Token()
+        if err != nil {
+            if err == io.EOF {
+                return nil
+            }
+            return err
+        }
+    }
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeRequest) MarshalXML(e *xml.Encoder, start xml.StartElement) error {
+    if err := e.EncodeElement(m.Function, xml.StartElement{Name: xml.Name{Local: "function"}}); err != nil {
+        return err
+    }
+    if err := e.EncodeElement(m.JobId, xml.StartElement{Name: xml.Name{Local: "jobId"}}); err != nil {
+        return err
+    }
+    return nil
+}
+
@@ -0,0 +1,145 @@
+//
+// Licensed to the Apache Software Foundation (ASF) under one
+// or more contributor license agreements.  See the NOTICE file
+// distributed with this work for additional information
+// regarding copyright ownership.  The ASF licenses this file
+// to you under the Apache License, Version 2.0 (the
+// "License"); you may not use this file except in compliance
+// with the License.  You may obtain a copy of the License at
+//
+//      http://www.apache.org/licenses/LICENSE-2.0
+//
+// Unless required by applicable law or agreed to in writing,
+// software distributed under the License is distributed on an
+// "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+// KIND, either express or implied.  See the License for the
+// specific language governing permissions and limitations
+// under the License.
+//
+package model
+
+import (
+    "encoding/xml"
+    "io"
+    "github.com/apache/plc4x/plc4go/internal/plc4go/utils"
+)
+
+// The data-structure of this message
+type S7PayloadUserDataItemCyclicServicesUnsubscribeResponse struct {
+    Parent *S7PayloadUserDataItem
+    IS7PayloadUserDataItemCyclicServicesUnsubscribeResponse
+}
+
+// The corresponding interface
+type IS7PayloadUserDataItemCyclicServicesUnsubscribeResponse interface {
+    LengthInBytes() uint16
+    LengthInBits() uint16
+    Serialize(io utils.WriteBuffer) error
+    xml.Marshaler
+}
+
+///////////////////////////////////////////////////////////
+// Accessors for discriminator values.
+///////////////////////////////////////////////////////////
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) CpuFunctionType() uint8 {
+    return 0x08
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) CpuFunctionGroup() uint8 {
+    return 0x02
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) CpuSubfunction() uint8 {
+    return 0x04
+}
+
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) InitializeParent(parent *S7PayloadUserDataItem, returnCode DataTransportErrorCode, transportSize DataTransportSize) {
+    m.Parent.ReturnCode = returnCode
+    m.Parent.TransportSize = transportSize
+}
+
+func NewS7PayloadUserDataItemCyclicServicesUnsubscribeResponse(returnCode DataTransportErrorCode, transportSize DataTransportSize) *S7PayloadUserDataItem {
+    child := &S7PayloadUserDataItemCyclicServicesUnsubscribeResponse{
+        Parent: NewS7PayloadUserDataItem(returnCode, transportSize),
+    }
+    child.Parent.Child = child
+    return child.Parent
+}
+
+func CastS7PayloadUserDataItemCyclicServicesUnsubscribeResponse(structType interface{}) *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse {
+    castFunc := func(typ interface{}) *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse {
+        if casted, ok := typ.(S7PayloadUserDataItemCyclicServicesUnsubscribeResponse); ok {
+            return &casted
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItemCyclicServicesUnsubscribeResponse); ok {
+            return casted
+        }
+        if casted, ok := typ.(S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesUnsubscribeResponse(casted.Child)
+        }
+        if casted, ok := typ.(*S7PayloadUserDataItem); ok {
+            return CastS7PayloadUserDataItemCyclicServicesUnsubscribeResponse(casted.Child)
+        }
+        return nil
+    }
+    return castFunc(structType)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) GetTypeName() string {
+    return "S7PayloadUserDataItemCyclicServicesUnsubscribeResponse"
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) LengthInBits() uint16 {
+    lengthInBits := uint16(0)
+
+    return lengthInBits
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) LengthInBytes() uint16 {
+    return m.LengthInBits() / 8
+}
+
+func S7PayloadUserDataItemCyclicServicesUnsubscribeResponseParse(io *utils.ReadBuffer) (*S7PayloadUserDataItem, error) {
+
+    // Create a partially initialized instance
+    _child := &S7PayloadUserDataItemCyclicServicesUnsubscribeResponse{
+        Parent: &S7PayloadUserDataItem{},
+    }
+    _child.Parent.Child = _child
+    return _child.Parent, nil
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) Serialize(io utils.WriteBuffer) error {
+    ser := func() error {
+
+        return nil
+    }
+    return m.Parent.SerializeParent(io, m, ser)
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) UnmarshalXML(d *xml.Decoder, start xml.StartElement) error {
+    var token xml.Token
+    var err error
+    token = start
+    for {
+        switch token.(type) {
+        case xml.StartElement:
+            tok := token.(xml.StartElement)
+            switch tok.Name.Local {
+            }
+        }
+        token, err = d.Token()
+        if err != nil {
+            if err == io.EOF {
+                return nil
+            }
+            return err
+        }
+    }
+}
+
+func (m *S7PayloadUserDataItemCyclicServicesUnsubscribeResponse) MarshalXML(e *xml.Encoder, start xml.StartElement) error {
+    return nil
+}
+
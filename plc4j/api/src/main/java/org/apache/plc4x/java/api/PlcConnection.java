@@ -22,7 +22,9 @@ import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
+import org.apache.plc4x.java.api.messages.PlcPreparedRead;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
 import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
@@ -85,6 +87,31 @@ public interface PlcConnection extends AutoCloseable {
      */
     PlcReadRequest.Builder readRequestBuilder();
 
+    /**
+     * Prepares a read request for repeated execution.
+     * Connections supporting this keep the optimized sub-requests and their encoded messages between
+     * executions and only rebuild them if the negotiated connection parameters change.
+     * By default the request is simply executed every time.
+     *
+     * @param readRequest read request built by this connection's {@link #readRequestBuilder()}
+     * @return handle for executing the read request.
+     * @throws PlcUnsupportedOperationException if the connection does not support reading
+     */
+    default PlcPreparedRead prepareRead(PlcReadRequest readRequest) {
+        return new PlcPreparedRead() {
+            @Override
+            public PlcReadRequest getRequest() {
+                return readRequest;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public CompletableFuture<PlcReadResponse> execute() {
+                return (CompletableFuture<PlcReadResponse>) readRequest.execute();
+            }
+        };
+    }
+
     /**
      * Obtain write request builder.
      * @throws PlcUnsupportedOperationException if the connection does not support writing
@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.api.messages;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handle to a read request that is executed repeatedly.
+ * Drivers may keep everything derived from the request (the split into sub-requests, the encoded
+ * messages and the plan for decoding the responses) between executions, so only the actual
+ * communication has to be done every time {@link #execute()} is called.
+ */
+public interface PlcPreparedRead {
+
+    /**
+     * @return the read request this handle was prepared for.
+     */
+    PlcReadRequest getRequest();
+
+    /**
+     * Executes the prepared read request.
+     *
+     * @return future completed with the response to the read request.
+     */
+    CompletableFuture<PlcReadResponse> execute();
+
+}
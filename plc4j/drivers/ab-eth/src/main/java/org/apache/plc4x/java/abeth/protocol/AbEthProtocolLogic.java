@@ -65,6 +65,11 @@ public class AbEthProtocolLogic extends Plc4xProtocolBase<CIPEncapsulationPacket
         this.tm = new RequestTransactionManager(1);
     }
 
+    @Override
+    public RequestTransactionManager getTransactionManager() {
+        return tm;
+    }
+
     @Override
     public void onConnect(ConversationContext<CIPEncapsulationPacket> context) {
         logger.debug("Sending COTP Connection Request");
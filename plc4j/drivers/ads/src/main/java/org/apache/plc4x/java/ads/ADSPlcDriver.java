@@ -63,6 +63,11 @@ public class ADSPlcDriver extends GeneratedDriverBase<AmsTCPPacket> {
         return true;
     }
 
+    @Override
+    protected boolean canSubscribe() {
+        return true;
+    }
+
     @Override
     protected Class<? extends Configuration> getConfigurationType() {
         return AdsConfiguration.class;
@@ -26,6 +26,7 @@ import org.apache.plc4x.java.spi.configuration.ConfigurationParameterConverter;
 import org.apache.plc4x.java.spi.configuration.annotations.ConfigurationParameter;
 import org.apache.plc4x.java.spi.configuration.annotations.ParameterConverter;
 import org.apache.plc4x.java.spi.configuration.annotations.Required;
+import org.apache.plc4x.java.spi.configuration.annotations.defaults.BooleanDefaultValue;
 import org.apache.plc4x.java.spi.configuration.annotations.defaults.IntDefaultValue;
 import org.apache.plc4x.java.transport.serial.SerialTransportConfiguration;
 import org.apache.plc4x.java.transport.tcp.TcpTransportConfiguration;
@@ -64,6 +65,17 @@ public class AdsConfiguration implements Configuration, TcpTransportConfiguratio
     @IntDefaultValue(4000)
     protected int timeoutRequest;
 
+    @ConfigurationParameter("notification-max-delay")
+    @IntDefaultValue(0)
+    protected int notificationMaxDelay;
+
+    @ConfigurationParameter("symbol-table")
+    @BooleanDefaultValue(false)
+    protected boolean symbolTable;
+
+    @ConfigurationParameter("symbol-table-cache-dir")
+    protected String symbolTableCacheDir;
+
     public AmsNetId getTargetAmsNetId() {
         return targetAmsNetId;
     }
@@ -112,6 +124,30 @@ public class AdsConfiguration implements Configuration, TcpTransportConfiguratio
         this.timeoutRequest = timeoutRequest;
     }
 
+    public int getNotificationMaxDelay() {
+        return notificationMaxDelay;
+    }
+
+    public void setNotificationMaxDelay(int notificationMaxDelay) {
+        this.notificationMaxDelay = notificationMaxDelay;
+    }
+
+    public boolean isSymbolTable() {
+        return symbolTable;
+    }
+
+    public void setSymbolTable(boolean symbolTable) {
+        this.symbolTable = symbolTable;
+    }
+
+    public String getSymbolTableCacheDir() {
+        return symbolTableCacheDir;
+    }
+
+    public void setSymbolTableCacheDir(String symbolTableCacheDir) {
+        this.symbolTableCacheDir = symbolTableCacheDir;
+    }
+
     @Override
     public int getDefaultPort() {
         return ADSPlcDriver.TCP_PORT;
@@ -18,6 +18,7 @@ under the License.
 */
 package org.apache.plc4x.java.ads.model;
 
+import org.apache.plc4x.java.ads.field.AdsField;
 import org.apache.plc4x.java.ads.readwrite.types.AdsDataType;
 import org.apache.plc4x.java.spi.messages.PlcSubscriber;
 import org.apache.plc4x.java.spi.model.DefaultPlcSubscriptionHandle;
@@ -28,14 +29,14 @@ public class AdsSubscriptionHandle extends DefaultPlcSubscriptionHandle {
 
     private final String plcFieldName;
 
-    private final AdsDataType adsDataType;
+    private final AdsField field;
 
     private final Long notificationHandle;
 
-    public AdsSubscriptionHandle(PlcSubscriber plcSubscriber, String plcFieldName, AdsDataType adsDataType, Long notificationHandle) {
+    public AdsSubscriptionHandle(PlcSubscriber plcSubscriber, String plcFieldName, AdsField field, Long notificationHandle) {
         super(plcSubscriber);
         this.plcFieldName = plcFieldName;
-        this.adsDataType = adsDataType;
+        this.field = field;
         this.notificationHandle = notificationHandle;
     }
 
@@ -43,8 +44,12 @@ public class AdsSubscriptionHandle extends DefaultPlcSubscriptionHandle {
         return plcFieldName;
     }
 
+    public AdsField getField() {
+        return field;
+    }
+
     public AdsDataType getAdsDataType() {
-        return adsDataType;
+        return field.getAdsDataType();
     }
 
     public Long getNotificationHandle() {
@@ -64,20 +69,20 @@ public class AdsSubscriptionHandle extends DefaultPlcSubscriptionHandle {
         }
         AdsSubscriptionHandle that = (AdsSubscriptionHandle) o;
         return Objects.equals(plcFieldName, that.plcFieldName) &&
-            adsDataType == that.adsDataType &&
+            Objects.equals(field, that.field) &&
             Objects.equals(notificationHandle, that.notificationHandle);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(super.hashCode(), plcFieldName, adsDataType, notificationHandle);
+        return Objects.hash(super.hashCode(), plcFieldName, field, notificationHandle);
     }
 
     @Override
     public String toString() {
         return "AdsSubscriptionHandle{" +
             "plcFieldName='" + plcFieldName + '\'' +
-            ", adsDataType=" + adsDataType +
+            ", field=" + field +
             ", notificationHandle=" + notificationHandle +
             "} " + super.toString();
     }
@@ -0,0 +1,98 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.ads.model;
+
+import java.util.Objects;
+
+/**
+ * One entry of the symbol table uploaded from the PLC.
+ */
+public class AdsSymbol {
+
+    private final String name;
+
+    private final long indexGroup;
+
+    private final long indexOffset;
+
+    private final long size;
+
+    private final String dataTypeName;
+
+    public AdsSymbol(String name, long indexGroup, long indexOffset, long size, String dataTypeName) {
+        this.name = name;
+        this.indexGroup = indexGroup;
+        this.indexOffset = indexOffset;
+        this.size = size;
+        this.dataTypeName = dataTypeName;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getIndexGroup() {
+        return indexGroup;
+    }
+
+    public long getIndexOffset() {
+        return indexOffset;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public String getDataTypeName() {
+        return dataTypeName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AdsSymbol)) {
+            return false;
+        }
+        AdsSymbol that = (AdsSymbol) o;
+        return indexGroup == that.indexGroup &&
+            indexOffset == that.indexOffset &&
+            size == that.size &&
+            Objects.equals(name, that.name) &&
+            Objects.equals(dataTypeName, that.dataTypeName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, indexGroup, indexOffset, size, dataTypeName);
+    }
+
+    @Override
+    public String toString() {
+        return "AdsSymbol{" +
+            "name='" + name + '\'' +
+            ", indexGroup=" + indexGroup +
+            ", indexOffset=" + indexOffset +
+            ", size=" + size +
+            ", dataTypeName='" + dataTypeName + '\'' +
+            '}';
+    }
+
+}
@@ -0,0 +1,183 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.ads.model;
+
+import org.apache.plc4x.java.spi.generation.ParseException;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Symbol table of a PLC, as uploaded using the index group ADSIGRP_SYM_UPLOAD.
+ * <p>
+ * Symbols are looked up case-insensitive, as TwinCAT handles symbol names that way.
+ * The table is only valid as long as the symbol version of the PLC doesn't change (which happens with every online
+ * change or download), so the version the table was uploaded with is kept with it.
+ */
+public class AdsSymbolTable {
+
+    /** Version of the format used by {@link #writeTo(OutputStream)} */
+    private static final int FORMAT_VERSION = 1;
+
+    private final int symbolVersion;
+
+    private final Map<String, AdsSymbol> symbols;
+
+    public AdsSymbolTable(int symbolVersion, Collection<AdsSymbol> symbols) {
+        this.symbolVersion = symbolVersion;
+        Map<String, AdsSymbol> symbolMap = new HashMap<>(symbols.size() * 2);
+        for (AdsSymbol symbol : symbols) {
+            symbolMap.put(symbol.getName().toUpperCase(Locale.ROOT), symbol);
+        }
+        this.symbols = Collections.unmodifiableMap(symbolMap);
+    }
+
+    public int getSymbolVersion() {
+        return symbolVersion;
+    }
+
+    public int getNumberOfSymbols() {
+        return symbols.size();
+    }
+
+    public Collection<AdsSymbol> getSymbols() {
+        return symbols.values();
+    }
+
+    /**
+     * @param name name of the symbol (e.g. "MAIN.fbTest.bRunning").
+     * @return the symbol or null, if the table doesn't contain a symbol with that name.
+     */
+    public AdsSymbol getSymbol(String name) {
+        return symbols.get(name.toUpperCase(Locale.ROOT));
+    }
+
+    /**
+     * Parses the data uploaded from the PLC. Each entry consists of:
+     * entry length, index group, index offset, size, data type, flags (4 bytes each),
+     * length of the name, type and comment (2 bytes each) followed by the null terminated name, type and comment.
+     *
+     * @param symbolVersion version of the symbols the data was uploaded with.
+     * @param data          data returned by the PLC.
+     * @return the symbol table.
+     * @throws ParseException if the data is invalid.
+     */
+    public static AdsSymbolTable parse(int symbolVersion, byte[] data) throws ParseException {
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        Map<String, AdsSymbol> symbols = new HashMap<>();
+        try {
+            while (buffer.remaining() >= 4) {
+                int entryStart = buffer.position();
+                long entryLength = Integer.toUnsignedLong(buffer.getInt());
+                if ((entryLength < 30) || (entryStart + entryLength > data.length)) {
+                    throw new ParseException("Invalid symbol entry length " + entryLength + " at position " + entryStart);
+                }
+                long indexGroup = Integer.toUnsignedLong(buffer.getInt());
+                long indexOffset = Integer.toUnsignedLong(buffer.getInt());
+                long size = Integer.toUnsignedLong(buffer.getInt());
+                // Data type id and flags aren't used.
+                buffer.getInt();
+                buffer.getInt();
+                int nameLength = Short.toUnsignedInt(buffer.getShort());
+                int typeLength = Short.toUnsignedInt(buffer.getShort());
+                // Length of the comment
+                buffer.getShort();
+                String name = readString(buffer, nameLength);
+                String typeName = readString(buffer, typeLength);
+                symbols.put(name, new AdsSymbol(name, indexGroup, indexOffset, size, typeName));
+                // Skip the comment and any additional data of newer TwinCAT versions.
+                buffer.position((int) (entryStart + entryLength));
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new ParseException("Error parsing symbol table", e);
+        }
+        return new AdsSymbolTable(symbolVersion, symbols.values());
+    }
+
+    private static String readString(ByteBuffer buffer, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        // Skip the terminating null byte.
+        buffer.get();
+        return new String(bytes, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Writes the table in a compact binary format, which can be read with {@link #readFrom(InputStream)}.
+     *
+     * @param outputStream stream to write to.
+     * @throws IOException if writing fails.
+     */
+    public void writeTo(OutputStream outputStream) throws IOException {
+        DataOutputStream out = new DataOutputStream(outputStream);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(symbolVersion);
+        out.writeInt(symbols.size());
+        for (AdsSymbol symbol : symbols.values()) {
+            out.writeUTF(symbol.getName());
+            out.writeLong(symbol.getIndexGroup());
+            out.writeLong(symbol.getIndexOffset());
+            out.writeLong(symbol.getSize());
+            out.writeUTF(symbol.getDataTypeName());
+        }
+        out.flush();
+    }
+
+    /**
+     * @param inputStream stream to read from.
+     * @return the table written by {@link #writeTo(OutputStream)}.
+     * @throws IOException if reading fails or the data was written in a different format.
+     */
+    public static AdsSymbolTable readFrom(InputStream inputStream) throws IOException {
+        DataInputStream in = new DataInputStream(inputStream);
+        int formatVersion = in.readInt();
+        if (formatVersion != FORMAT_VERSION) {
+            throw new IOException("Unsupported symbol table format version " + formatVersion);
+        }
+        int symbolVersion = in.readInt();
+        int numSymbols = in.readInt();
+        Map<String, AdsSymbol> symbols = new HashMap<>(numSymbols * 2);
+        for (int i = 0; i < numSymbols; i++) {
+            String name = in.readUTF();
+            symbols.put(name, new AdsSymbol(name, in.readLong(), in.readLong(), in.readLong(), in.readUTF()));
+        }
+        return new AdsSymbolTable(symbolVersion, symbols.values());
+    }
+
+    @Override
+    public String toString() {
+        return "AdsSymbolTable{" +
+            "symbolVersion=" + symbolVersion +
+            ", numberOfSymbols=" + symbols.size() +
+            '}';
+    }
+
+}
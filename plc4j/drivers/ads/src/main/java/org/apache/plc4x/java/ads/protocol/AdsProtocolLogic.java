@@ -20,6 +20,9 @@ package org.apache.plc4x.java.ads.protocol;
 
 import org.apache.plc4x.java.ads.configuration.AdsConfiguration;
 import org.apache.plc4x.java.ads.field.*;
+import org.apache.plc4x.java.ads.model.AdsSubscriptionHandle;
+import org.apache.plc4x.java.ads.model.AdsSymbol;
+import org.apache.plc4x.java.ads.model.AdsSymbolTable;
 import org.apache.plc4x.java.ads.readwrite.*;
 import org.apache.plc4x.java.ads.readwrite.io.DataItemIO;
 import org.apache.plc4x.java.ads.readwrite.types.AdsDataType;
@@ -30,10 +33,18 @@ import org.apache.plc4x.java.api.exceptions.PlcException;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionEvent;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionResponse;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
 import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.types.PlcSubscriptionType;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.spi.ConversationContext;
 import org.apache.plc4x.java.spi.Plc4xProtocolBase;
@@ -42,28 +53,55 @@ import org.apache.plc4x.java.spi.generation.ParseException;
 import org.apache.plc4x.java.spi.generation.ReadBuffer;
 import org.apache.plc4x.java.spi.generation.WriteBuffer;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcSubscriptionEvent;
+import org.apache.plc4x.java.spi.messages.DefaultPlcSubscriptionResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcUnsubscriptionRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcUnsubscriptionResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteResponse;
+import org.apache.plc4x.java.spi.messages.PlcSubscriber;
 import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.apache.plc4x.java.spi.model.DefaultPlcConsumerRegistration;
+import org.apache.plc4x.java.spi.model.DefaultPlcSubscriptionField;
 import org.apache.plc4x.java.spi.transaction.RequestTransactionManager;
 import org.apache.plc4x.java.spi.values.IEC61131ValueHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements HasConfiguration<AdsConfiguration> {
+public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements HasConfiguration<AdsConfiguration>, PlcSubscriber {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AdsProtocolLogic.class);
 
+    /** ADSTRANSMODE: The samples are sent cyclically */
+    private static final long ADSTRANS_SERVERCYCLE = 3;
+    /** ADSTRANSMODE: The samples are only sent, if the value changed */
+    private static final long ADSTRANS_SERVERONCHA = 4;
+    /** Number of 100ns intervals between 1601-01-01 and 1970-01-01 */
+    private static final long FILETIME_EPOCH_OFFSET = 116444736000000000L;
+
     private AdsConfiguration configuration;
     public static final State DEFAULT_COMMAND_STATE = new State(
         false, false, false, false, false, true, false, false, false);
@@ -75,6 +113,13 @@ public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements
     private ConcurrentHashMap<SymbolicAdsField, DirectAdsField> symbolicFieldMapping;
     private ConcurrentHashMap<SymbolicAdsField, CompletableFuture<Void>> pendingResolutionRequests;
 
+    private final Map<DefaultPlcConsumerRegistration, Consumer<PlcSubscriptionEvent>> consumers = new ConcurrentHashMap<>();
+    private final Map<Long, AdsSubscriptionHandle> subscriptionHandles = new ConcurrentHashMap<>();
+
+    // Only used if the "symbol-table" option is enabled.
+    private volatile AdsSymbolTable symbolTable;
+    private volatile Long symbolVersionNotificationHandle;
+
     public AdsProtocolLogic() {
         symbolicFieldMapping = new ConcurrentHashMap<>();
         pendingResolutionRequests = new ConcurrentHashMap<>();
@@ -87,6 +132,11 @@ public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements
         this.tm = new RequestTransactionManager(1);
     }
 
+    @Override
+    public RequestTransactionManager getTransactionManager() {
+        return tm;
+    }
+
     @Override
     public void setConfiguration(AdsConfiguration configuration) {
         this.configuration = configuration;
@@ -106,13 +156,25 @@ public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements
     @Override
     public void onConnect(ConversationContext<AmsTCPPacket> context) {
         // AMS/ADS doesn't know a concept of a connect.
-        context.fireConnected();
+        if (!configuration.isSymbolTable()) {
+            context.fireConnected();
+            return;
+        }
+        // If there's a problem with the symbol table, the connection is still usable
+        // as symbolic addresses are then resolved using handles.
+        loadSymbolTable().whenComplete((unused, throwable) -> {
+            if (throwable != null) {
+                LOGGER.warn("Error loading the symbol table, falling back to resolving symbols by handle", throwable);
+            }
+            context.fireConnected();
+        });
     }
 
     @Override
     public void onDisconnect(ConversationContext<AmsTCPPacket> context) {
         super.onDisconnect(context);
         // TODO: Here we have to clean up all of the handles this connection acquired.
+        symbolVersionNotificationHandle = null;
     }
 
     @Override
@@ -178,20 +240,8 @@ public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements
     protected CompletableFuture<PlcReadResponse> singleRead(PlcReadRequest readRequest, DirectAdsField directAdsField) {
         CompletableFuture<PlcReadResponse> future = new CompletableFuture<>();
 
-        long size;
-        if (directAdsField.getAdsDataType() == AdsDataType.STRING) {
-            // If an explicit size is given with the string, use this, if not use 256
-            size = (directAdsField instanceof  AdsStringField) ?
-                ((AdsStringField) directAdsField).getStringLength() + 1 : 81;
-        } else if (directAdsField.getAdsDataType() == AdsDataType.WSTRING) {
-            // If an explicit size is given with the string, use this, if not use 512
-            size = (directAdsField instanceof  AdsStringField) ?
-                ((long) ((AdsStringField) directAdsField).getStringLength() + 1) * 2: 162;
-        } else {
-            size = directAdsField.getAdsDataType().getNumBytes();
-        }
         AdsData adsData = new AdsReadRequest(directAdsField.getIndexGroup(), directAdsField.getIndexOffset(),
-            size * directAdsField.getNumberOfElements());
+            getLengthInBytes(directAdsField));
         AmsPacket amsPacket = new AmsPacket(configuration.getTargetAmsNetId(), configuration.getTargetAmsPort(),
             configuration.getSourceAmsNetId(), configuration.getSourceAmsPort(),
             CommandId.ADS_READ, DEFAULT_COMMAND_STATE, 0, getInvokeId(), adsData);
@@ -220,6 +270,26 @@ public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements
         return future;
     }
 
+    /**
+     * @param field field.
+     * @return number of bytes of the value of the given field.
+     */
+    protected long getLengthInBytes(AdsField field) {
+        long size;
+        if (field.getAdsDataType() == AdsDataType.STRING) {
+            // If an explicit size is given with the string, use this, if not use 256
+            size = (field instanceof  AdsStringField) ?
+                ((AdsStringField) field).getStringLength() + 1 : 81;
+        } else if (field.getAdsDataType() == AdsDataType.WSTRING) {
+            // If an explicit size is given with the string, use this, if not use 512
+            size = (field instanceof  AdsStringField) ?
+                ((long) ((AdsStringField) field).getStringLength() + 1) * 2: 162;
+        } else {
+            size = field.getAdsDataType().getNumBytes();
+        }
+        return size * field.getNumberOfElements();
+    }
+
     protected CompletableFuture<PlcReadResponse> multiRead(PlcReadRequest readRequest, List<DirectAdsField> directAdsFields) {
         CompletableFuture<PlcReadResponse> future = new CompletableFuture<>();
 
@@ -553,13 +623,424 @@ public class AdsProtocolLogic extends Plc4xProtocolBase<AmsTCPPacket> implements
         return new DefaultPlcWriteResponse(writeRequest, responseCodes);
     }
 
+    @Override
+    public CompletableFuture<PlcSubscriptionResponse> subscribe(PlcSubscriptionRequest subscriptionRequest) {
+        Map<String, ResponseItem<PlcSubscriptionHandle>> values = new ConcurrentHashMap<>();
+        List<String> fieldNames = new ArrayList<>(subscriptionRequest.getNumberOfFields());
+        List<PlcField> fields = new ArrayList<>(subscriptionRequest.getNumberOfFields());
+        for (String fieldName : subscriptionRequest.getFieldNames()) {
+            final DefaultPlcSubscriptionField field = (DefaultPlcSubscriptionField) subscriptionRequest.getField(fieldName);
+            if (!(field.getPlcField() instanceof AdsField)) {
+                values.put(fieldName, new ResponseItem<>(PlcResponseCode.INVALID_ADDRESS, null));
+            } else if (field.getPlcSubscriptionType() == PlcSubscriptionType.EVENT) {
+                values.put(fieldName, new ResponseItem<>(PlcResponseCode.UNSUPPORTED, null));
+            } else if ((field.getPlcSubscriptionType() == PlcSubscriptionType.CYCLIC) && !field.getDuration().isPresent()) {
+                values.put(fieldName, new ResponseItem<>(PlcResponseCode.INVALID_DATA, null));
+            } else {
+                fieldNames.add(fieldName);
+                fields.add(field.getPlcField());
+            }
+        }
+
+        // Symbolic fields have to be resolved first, then one notification is added for every field.
+        return getDirectAddresses(fields)
+            .thenCompose(directAdsFields -> {
+                CompletableFuture<?>[] futures = new CompletableFuture<?>[directAdsFields.size()];
+                for (int i = 0; i < directAdsFields.size(); i++) {
+                    final String fieldName = fieldNames.get(i);
+                    futures[i] = addDeviceNotification(fieldName,
+                        (DefaultPlcSubscriptionField) subscriptionRequest.getField(fieldName), directAdsFields.get(i))
+                        .thenAccept(responseItem -> values.put(fieldName, responseItem));
+                }
+                return CompletableFuture.allOf(futures);
+            })
+            .handle((unused, throwable) -> {
+                if (throwable != null) {
+                    LOGGER.warn("Error resolving the fields of the subscription request", throwable);
+                    for (String fieldName : fieldNames) {
+                        values.putIfAbsent(fieldName, new ResponseItem<>(getPlcResponseCode(throwable), null));
+                    }
+                }
+                return new DefaultPlcSubscriptionResponse(subscriptionRequest, values);
+            });
+    }
+
+    /**
+     * Adds a device notification for one field.
+     * The returned future is always completed normally, errors are reported as response codes.
+     */
+    protected CompletableFuture<ResponseItem<PlcSubscriptionHandle>> addDeviceNotification(
+            String fieldName, DefaultPlcSubscriptionField subscriptionField, DirectAdsField directAdsField) {
+        final AdsField field = (AdsField) subscriptionField.getPlcField();
+        final long transmissionMode =
+            (subscriptionField.getPlcSubscriptionType() == PlcSubscriptionType.CHANGE_OF_STATE) ?
+                ADSTRANS_SERVERONCHA : ADSTRANS_SERVERCYCLE;
+        // For change-of-state subscriptions this is the interval the server checks for changes.
+        final long cycleTime = subscriptionField.getDuration().map(Duration::toMillis).orElse(0L);
+        // Without a max-delay every sample is sent immediately, otherwise the server collects the
+        // samples of all notifications and sends them in one frame after at most this time.
+        AdsData adsData = new AdsAddDeviceNotificationRequest(directAdsField.getIndexGroup(),
+            directAdsField.getIndexOffset(), getLengthInBytes(field), transmissionMode,
+            configuration.getNotificationMaxDelay(), cycleTime);
+        return sendRequest(CommandId.ADS_ADD_DEVICE_NOTIFICATION, adsData, AdsAddDeviceNotificationResponse.class)
+            .handle((response, throwable) -> {
+                if (throwable != null) {
+                    return new ResponseItem<>(getPlcResponseCode(throwable), null);
+                }
+                if (response.getResult() != ReturnCode.OK) {
+                    return new ResponseItem<>(parsePlcResponseCode(response.getResult()), null);
+                }
+                AdsSubscriptionHandle handle =
+                    new AdsSubscriptionHandle(this, fieldName, field, response.getNotificationHandle());
+                subscriptionHandles.put(response.getNotificationHandle(), handle);
+                return new ResponseItem<>(PlcResponseCode.OK, handle);
+            });
+    }
+
+    @Override
+    public CompletableFuture<PlcUnsubscriptionResponse> unsubscribe(PlcUnsubscriptionRequest unsubscriptionRequest) {
+        DefaultPlcUnsubscriptionRequest request = (DefaultPlcUnsubscriptionRequest) unsubscriptionRequest;
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (PlcSubscriptionHandle subscriptionHandle : request.getSubscriptionHandles()) {
+            if (!(subscriptionHandle instanceof AdsSubscriptionHandle)) {
+                continue;
+            }
+            final Long notificationHandle = ((AdsSubscriptionHandle) subscriptionHandle).getNotificationHandle();
+            // Samples still arriving for this handle are ignored from now on.
+            if (subscriptionHandles.remove(notificationHandle) == null) {
+                continue;
+            }
+            futures.add(sendRequest(CommandId.ADS_DELETE_DEVICE_NOTIFICATION,
+                new AdsDeleteDeviceNotificationRequest(notificationHandle), AdsDeleteDeviceNotificationResponse.class)
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        LOGGER.warn("Error deleting notification {}", notificationHandle, throwable);
+                    } else if (response.getResult() != ReturnCode.OK) {
+                        LOGGER.warn("Error deleting notification {}: {}", notificationHandle, response.getResult());
+                    }
+                    return null;
+                }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(unused -> new DefaultPlcUnsubscriptionResponse(unsubscriptionRequest));
+    }
+
+    @Override
+    public PlcConsumerRegistration register(Consumer<PlcSubscriptionEvent> consumer, Collection<PlcSubscriptionHandle> handles) {
+        final DefaultPlcConsumerRegistration consumerRegistration =
+            new DefaultPlcConsumerRegistration(this, consumer, handles.toArray(new PlcSubscriptionHandle[0]));
+        consumers.put(consumerRegistration, consumer);
+        return consumerRegistration;
+    }
+
+    @Override
+    public void unregister(PlcConsumerRegistration registration) {
+        consumers.remove((DefaultPlcConsumerRegistration) registration);
+    }
+
+    /**
+     * One notification frame contains samples for multiple time-stamps and notification handles.
+     * Every sample is parsed exactly once and then handed to all consumers registered for its handle,
+     * with one event per consumer and time-stamp.
+     */
+    protected void publishNotification(AdsDeviceNotificationRequest notification) {
+        for (AdsStampHeader stampHeader : notification.getAdsStampHeaders()) {
+            final Instant timestamp = toInstant(stampHeader.getTimestamp());
+            Map<PlcSubscriptionHandle, ResponseItem<PlcValue>> values =
+                new HashMap<>(stampHeader.getAdsNotificationSamples().length * 2);
+            for (AdsNotificationSample sample : stampHeader.getAdsNotificationSamples()) {
+                if (Long.valueOf(sample.getNotificationHandle()).equals(symbolVersionNotificationHandle)) {
+                    onSymbolVersionChanged(Byte.toUnsignedInt(sample.getData()[0]));
+                    continue;
+                }
+                AdsSubscriptionHandle handle = subscriptionHandles.get(sample.getNotificationHandle());
+                if (handle == null) {
+                    LOGGER.debug("Ignoring sample for unknown notification handle {}", sample.getNotificationHandle());
+                    continue;
+                }
+                values.put(handle, parsePlcValue(handle.getField(), new ReadBuffer(sample.getData(), true)));
+            }
+            if (values.isEmpty()) {
+                continue;
+            }
+
+            for (Map.Entry<DefaultPlcConsumerRegistration, Consumer<PlcSubscriptionEvent>> entry : consumers.entrySet()) {
+                Map<String, ResponseItem<PlcValue>> fields = new HashMap<>();
+                for (PlcSubscriptionHandle handle : entry.getKey().getSubscriptionHandles()) {
+                    ResponseItem<PlcValue> value = values.get(handle);
+                    if (value != null) {
+                        fields.put(((AdsSubscriptionHandle) handle).getPlcFieldName(), value);
+                    }
+                }
+                if (fields.isEmpty()) {
+                    continue;
+                }
+                try {
+                    entry.getValue().accept(new DefaultPlcSubscriptionEvent(timestamp, fields));
+                } catch (Exception e) {
+                    LOGGER.warn("Error in subscription consumer", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Converts the time-stamp of a notification (Windows FILETIME: 100ns intervals since 1601-01-01 UTC).
+     */
+    protected static Instant toInstant(BigInteger fileTime) {
+        long unixTime = fileTime.longValue() - FILETIME_EPOCH_OFFSET;
+        return Instant.ofEpochSecond(Math.floorDiv(unixTime, 10_000_000L), Math.floorMod(unixTime, 10_000_000L) * 100);
+    }
+
+    private <T extends AdsData> CompletableFuture<T> sendRequest(CommandId commandId, AdsData adsData,
+                                                                 Class<T> responseType) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        AmsPacket amsPacket = new AmsPacket(configuration.getTargetAmsNetId(), configuration.getTargetAmsPort(),
+            configuration.getSourceAmsNetId(), configuration.getSourceAmsPort(),
+            commandId, DEFAULT_COMMAND_STATE, 0, getInvokeId(), adsData);
+        AmsTCPPacket amsTCPPacket = new AmsTCPPacket(amsPacket);
+
+        // Start a new request-transaction (Is ended in the response-handler)
+        RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
+        transaction.submit(() -> context.sendRequest(amsTCPPacket)
+            .expectResponse(AmsTCPPacket.class, Duration.ofMillis(configuration.getTimeoutRequest()))
+            .onTimeout(e -> {
+                future.completeExceptionally(e);
+                transaction.endRequest();
+            })
+            .onError((p, e) -> future.completeExceptionally(e))
+            .check(responseAmsPacket -> responseAmsPacket.getUserdata().getInvokeId() == amsPacket.getInvokeId())
+            .unwrap(response -> response.getUserdata().getData())
+            .check(responseType::isInstance)
+            .unwrap(responseType::cast)
+            .handle(responseAdsData -> {
+                future.complete(responseAdsData);
+                // Finish the request-transaction.
+                transaction.endRequest();
+            }));
+        return future;
+    }
+
+    private static PlcResponseCode getPlcResponseCode(Throwable throwable) {
+        if ((throwable instanceof CompletionException) && (throwable.getCause() != null)) {
+            throwable = throwable.getCause();
+        }
+        if (throwable instanceof TimeoutException) {
+            return PlcResponseCode.REMOTE_BUSY;
+        }
+        // Resolving symbolic addresses fails for unknown symbols.
+        return (throwable instanceof PlcException) ? PlcResponseCode.INVALID_ADDRESS : PlcResponseCode.INTERNAL_ERROR;
+    }
+
     @Override
     protected void decode(ConversationContext<AmsTCPPacket> context, AmsTCPPacket msg) throws Exception {
+        // Device notifications are sent by the PLC without being requested.
+        if (msg.getUserdata().getData() instanceof AdsDeviceNotificationRequest) {
+            publishNotification((AdsDeviceNotificationRequest) msg.getUserdata().getData());
+            return;
+        }
         super.decode(context, msg);
     }
 
-    protected CompletableFuture<List<DirectAdsField>> getDirectAddresses(List<PlcField> fields) {
+    /**
+     * Loads the symbol table from the local cache or, if the cached table is outdated, uploads it from the PLC.
+     * Afterwards a notification for the symbol version is added, so the table (as well as all handles) can be
+     * invalidated as soon as the symbols on the PLC change.
+     */
+    protected CompletableFuture<Void> loadSymbolTable() {
+        return readSymbolVersion()
+            .thenCompose(symbolVersion -> {
+                AdsSymbolTable cachedSymbolTable = readCachedSymbolTable();
+                if ((cachedSymbolTable != null) && (cachedSymbolTable.getSymbolVersion() == symbolVersion)) {
+                    LOGGER.debug("Using cached symbol table with {} symbols", cachedSymbolTable.getNumberOfSymbols());
+                    symbolTable = cachedSymbolTable;
+                    return CompletableFuture.completedFuture(null);
+                }
+                return uploadSymbolTable(symbolVersion);
+            })
+            .thenCompose(unused -> sendRequest(CommandId.ADS_ADD_DEVICE_NOTIFICATION,
+                new AdsAddDeviceNotificationRequest(ReservedIndexGroups.ADSIGRP_SYM_VERSION.getValue(), 0, 1,
+                    ADSTRANS_SERVERONCHA, 0, 0), AdsAddDeviceNotificationResponse.class))
+            .thenAccept(response -> {
+                if (response.getResult() != ReturnCode.OK) {
+                    throw new PlcRuntimeException(
+                        "Error adding notification for the symbol version: " + response.getResult());
+                }
+                symbolVersionNotificationHandle = response.getNotificationHandle();
+            });
+    }
+
+    protected CompletableFuture<Integer> readSymbolVersion() {
+        return readData(ReservedIndexGroups.ADSIGRP_SYM_VERSION.getValue(), 0, 1)
+            .thenApply(data -> Byte.toUnsignedInt(data[0]));
+    }
+
+    /**
+     * Uploads the symbol table: First the size of the table is read, then the table itself.
+     */
+    protected CompletableFuture<Void> uploadSymbolTable(int symbolVersion) {
+        return readData(ReservedIndexGroups.ADSIGRP_SYM_UPLOADINFO.getValue(), 0, 8)
+            .thenCompose(uploadInfo -> {
+                ReadBuffer readBuffer = new ReadBuffer(uploadInfo, true);
+                try {
+                    // Number of symbols.
+                    readBuffer.readUnsignedLong(32);
+                    long symbolTableLength = readBuffer.readUnsignedLong(32);
+                    return readData(ReservedIndexGroups.ADSIGRP_SYM_UPLOAD.getValue(), 0, symbolTableLength);
+                } catch (ParseException e) {
+                    throw new CompletionException(e);
+                }
+            })
+            .thenAccept(data -> {
+                try {
+                    AdsSymbolTable uploadedSymbolTable = AdsSymbolTable.parse(symbolVersion, data);
+                    LOGGER.debug("Uploaded symbol table with {} symbols", uploadedSymbolTable.getNumberOfSymbols());
+                    symbolTable = uploadedSymbolTable;
+                    writeCachedSymbolTable(uploadedSymbolTable);
+                } catch (ParseException e) {
+                    throw new CompletionException(e);
+                }
+            });
+    }
+
+    /**
+     * Called for every change of the symbol version (online change or download of a new program).
+     * All symbol information and handles are outdated then.
+     */
+    protected void onSymbolVersionChanged(int symbolVersion) {
+        final AdsSymbolTable currentSymbolTable = symbolTable;
+        // The first notification is sent immediately after adding the notification.
+        if ((currentSymbolTable != null) && (currentSymbolTable.getSymbolVersion() == symbolVersion)) {
+            return;
+        }
+        LOGGER.info("Symbol version changed to {}, reloading the symbol table", symbolVersion);
+        symbolTable = null;
+        List<Long> handles = symbolicFieldMapping.values().stream()
+            .filter(directAdsField -> directAdsField.getIndexGroup() == ReservedIndexGroups.ADSIGRP_SYM_VALBYHND.getValue())
+            .map(DirectAdsField::getIndexOffset)
+            .collect(Collectors.toList());
+        symbolicFieldMapping.clear();
+        pendingResolutionRequests.clear();
+        try {
+            Files.deleteIfExists(getSymbolTableCacheFile());
+        } catch (IOException e) {
+            LOGGER.warn("Error deleting the cached symbol table", e);
+        }
+        // Release the handles of the old symbols before uploading the new table.
+        releaseSymbolHandles(handles)
+            .thenCompose(unused -> uploadSymbolTable(symbolVersion))
+            .whenComplete((unused, throwable) -> {
+                if (throwable != null) {
+                    LOGGER.warn("Error uploading the symbol table", throwable);
+                }
+            });
+    }
+
+    /**
+     * Releases the given symbol handles on the PLC. This is best effort: Handles the PLC doesn't know anymore
+     * are only logged, so the returned future always completes normally.
+     */
+    protected CompletableFuture<Void> releaseSymbolHandles(Collection<Long> handles) {
+        return CompletableFuture.allOf(handles.stream().<CompletableFuture<Void>>map(handle -> {
+            WriteBuffer writeBuffer = new WriteBuffer(4, true);
+            try {
+                writeBuffer.writeUnsignedLong(32, handle);
+            } catch (ParseException e) {
+                return CompletableFuture.completedFuture(null);
+            }
+            return sendRequest(CommandId.ADS_WRITE, new AdsWriteRequest(
+                ReservedIndexGroups.ADSIGRP_SYM_RELEASEHND.getValue(), 0, writeBuffer.getData()), AdsWriteResponse.class)
+                .handle((response, throwable) -> {
+                    if (throwable != null) {
+                        LOGGER.debug("Error releasing symbol handle {}", handle, throwable);
+                    } else if (response.getResult() != ReturnCode.OK) {
+                        LOGGER.debug("Error releasing symbol handle {}: {}", handle, response.getResult());
+                    }
+                    return null;
+                });
+        }).toArray(CompletableFuture[]::new));
+    }
+
+    /**
+     * The cache contains one file per target AMS Net ID and port (every runtime has its own symbols).
+     */
+    protected Path getSymbolTableCacheFile() {
+        Path cacheDir = (configuration.getSymbolTableCacheDir() != null) ?
+            Paths.get(configuration.getSymbolTableCacheDir()) :
+            Paths.get(System.getProperty("java.io.tmpdir"), "plc4x-ads-symbols");
+        AmsNetId amsNetId = configuration.getTargetAmsNetId();
+        return cacheDir.resolve(amsNetId.getOctet1() + "." + amsNetId.getOctet2() + "." + amsNetId.getOctet3() + "." +
+            amsNetId.getOctet4() + "." + amsNetId.getOctet5() + "." + amsNetId.getOctet6() + "_" +
+            configuration.getTargetAmsPort() + ".symbols");
+    }
+
+    private AdsSymbolTable readCachedSymbolTable() {
+        Path cacheFile = getSymbolTableCacheFile();
+        if (!Files.exists(cacheFile)) {
+            return null;
+        }
+        try (InputStream inputStream = Files.newInputStream(cacheFile)) {
+            return AdsSymbolTable.readFrom(inputStream);
+        } catch (IOException e) {
+            LOGGER.warn("Error reading the cached symbol table {}", cacheFile, e);
+            return null;
+        }
+    }
+
+    private void writeCachedSymbolTable(AdsSymbolTable table) {
+        Path cacheFile = getSymbolTableCacheFile();
+        try {
+            Files.createDirectories(cacheFile.getParent());
+            // Write to a temporary file first, so other connections never read a partially written table.
+            Path tempFile = Files.createTempFile(cacheFile.getParent(), cacheFile.getFileName().toString(), ".tmp");
+            try (OutputStream outputStream = Files.newOutputStream(tempFile)) {
+                table.writeTo(outputStream);
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Error writing the symbol table to {}", cacheFile, e);
+        }
+    }
+
+    private CompletableFuture<byte[]> readData(long indexGroup, long indexOffset, long length) {
+        return sendRequest(CommandId.ADS_READ, new AdsReadRequest(indexGroup, indexOffset, length),
+            AdsReadResponse.class)
+            .thenApply(response -> {
+                if (response.getResult() != ReturnCode.OK) {
+                    throw new PlcRuntimeException("Error reading index group " + indexGroup + ": " + response.getResult());
+                }
+                return response.getData();
+            });
+    }
+
+    /**
+     * Symbolic fields for symbols contained in the symbol table are replaced by direct fields,
+     * so they don't need a handle.
+     */
+    private List<PlcField> resolveFromSymbolTable(List<PlcField> fields) {
+        final AdsSymbolTable currentSymbolTable = symbolTable;
+        if (currentSymbolTable == null) {
+            return fields;
+        }
+        List<PlcField> resolvedFields = new ArrayList<>(fields.size());
+        for (PlcField field : fields) {
+            if (field instanceof SymbolicAdsField) {
+                SymbolicAdsField symbolicAdsField = (SymbolicAdsField) field;
+                AdsSymbol symbol = currentSymbolTable.getSymbol(symbolicAdsField.getSymbolicAddress());
+                if (symbol != null) {
+                    field = new DirectAdsField(symbol.getIndexGroup(), symbol.getIndexOffset(),
+                        symbolicAdsField.getAdsDataType(), symbolicAdsField.getNumberOfElements());
+                }
+            }
+            resolvedFields.add(field);
+        }
+        return resolvedFields;
+    }
+
+    protected CompletableFuture<List<DirectAdsField>> getDirectAddresses(List<PlcField> requestFields) {
         CompletableFuture<List<DirectAdsField>> future = new CompletableFuture<>();
+        // Symbols known from the symbol table don't need to be resolved (all others, like array elements, do).
+        final List<PlcField> fields = resolveFromSymbolTable(requestFields);
 
         // Get all symbolic fields from the current request.
         // These potentially need to be resolved to direct addresses, if this has not been done before.
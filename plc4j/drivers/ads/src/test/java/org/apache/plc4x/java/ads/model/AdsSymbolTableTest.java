@@ -0,0 +1,109 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.ads.model;
+
+import org.apache.plc4x.java.spi.generation.ParseException;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdsSymbolTableTest {
+
+    @Test
+    public void parseSymbolTable() throws Exception {
+        byte[] data = concat(
+            symbolEntry("MAIN.bRunning", "BOOL", "Running flag", 0x4020, 0, 1),
+            symbolEntry("GVL.rTemperature", "REAL", "", 0x4040, 12, 4));
+
+        AdsSymbolTable symbolTable = AdsSymbolTable.parse(42, data);
+
+        assertEquals(42, symbolTable.getSymbolVersion());
+        assertEquals(2, symbolTable.getNumberOfSymbols());
+        assertEquals(new AdsSymbol("GVL.rTemperature", 0x4040, 12, 4, "REAL"),
+            symbolTable.getSymbol("GVL.rTemperature"));
+        // TwinCAT symbol names are case-insensitive.
+        AdsSymbol symbol = symbolTable.getSymbol("main.BRUNNING");
+        assertNotNull(symbol);
+        assertEquals("MAIN.bRunning", symbol.getName());
+        assertEquals(0x4020, symbol.getIndexGroup());
+        assertEquals("BOOL", symbol.getDataTypeName());
+        assertNull(symbolTable.getSymbol("MAIN.unknown"));
+    }
+
+    @Test
+    public void parseInvalidSymbolTable() {
+        byte[] data = symbolEntry("MAIN.bRunning", "BOOL", "", 0x4020, 0, 1);
+        assertThrows(ParseException.class, () -> AdsSymbolTable.parse(1, Arrays.copyOf(data, data.length - 4)));
+    }
+
+    @Test
+    public void writeAndReadSymbolTable() throws Exception {
+        AdsSymbolTable symbolTable = AdsSymbolTable.parse(7, concat(
+            symbolEntry("MAIN.bRunning", "BOOL", "", 0x4020, 0, 1),
+            symbolEntry("MAIN.arrValues", "ARRAY [0..9] OF INT", "", 0x4020, 2, 20)));
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        symbolTable.writeTo(outputStream);
+        AdsSymbolTable readSymbolTable =
+            AdsSymbolTable.readFrom(new ByteArrayInputStream(outputStream.toByteArray()));
+
+        assertEquals(7, readSymbolTable.getSymbolVersion());
+        assertEquals(2, readSymbolTable.getNumberOfSymbols());
+        for (AdsSymbol symbol : symbolTable.getSymbols()) {
+            assertEquals(symbol, readSymbolTable.getSymbol(symbol.getName()));
+        }
+    }
+
+    private static byte[] symbolEntry(String name, String type, String comment, long indexGroup, long indexOffset,
+                                      long size) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] typeBytes = type.getBytes(StandardCharsets.ISO_8859_1);
+        byte[] commentBytes = comment.getBytes(StandardCharsets.ISO_8859_1);
+        int length = 30 + nameBytes.length + typeBytes.length + commentBytes.length + 3;
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(length);
+        buffer.putInt((int) indexGroup);
+        buffer.putInt((int) indexOffset);
+        buffer.putInt((int) size);
+        // Data type and flags
+        buffer.putInt(0);
+        buffer.putInt(0);
+        buffer.putShort((short) nameBytes.length);
+        buffer.putShort((short) typeBytes.length);
+        buffer.putShort((short) commentBytes.length);
+        buffer.put(nameBytes).put((byte) 0);
+        buffer.put(typeBytes).put((byte) 0);
+        buffer.put(commentBytes).put((byte) 0);
+        return buffer.array();
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+}
@@ -0,0 +1,148 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.ads.protocol;
+
+import org.apache.plc4x.java.ads.field.DirectAdsField;
+import org.apache.plc4x.java.ads.model.AdsSubscriptionHandle;
+import org.apache.plc4x.java.ads.readwrite.AdsDeviceNotificationRequest;
+import org.apache.plc4x.java.ads.readwrite.AdsNotificationSample;
+import org.apache.plc4x.java.ads.readwrite.AdsStampHeader;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionEvent;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AdsProtocolLogicTest {
+
+    /** 2021-01-01T00:00:00Z as Windows FILETIME */
+    private static final long FILETIME_2021 = 132539328000000000L;
+
+    private AdsProtocolLogic protocolLogic;
+    private AdsSubscriptionHandle temperature;
+    private AdsSubscriptionHandle pressure;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        protocolLogic = new AdsProtocolLogic();
+        temperature = addSubscriptionHandle("temperature", "0x4020/0:UDINT", 1L);
+        pressure = addSubscriptionHandle("pressure", "0x4020/4:UINT", 2L);
+    }
+
+    @Test
+    public void convertFileTimeToInstant() {
+        assertEquals(Instant.EPOCH, AdsProtocolLogic.toInstant(BigInteger.valueOf(116444736000000000L)));
+        assertEquals(Instant.parse("1601-01-01T00:00:00Z"), AdsProtocolLogic.toInstant(BigInteger.ZERO));
+        assertEquals(Instant.parse("2021-01-01T00:00:00Z"), AdsProtocolLogic.toInstant(BigInteger.valueOf(FILETIME_2021)));
+        // The resolution of a FILETIME is 100ns.
+        assertEquals(Instant.parse("2021-01-01T00:00:00.1234567Z"),
+            AdsProtocolLogic.toInstant(BigInteger.valueOf(FILETIME_2021 + 1234567)));
+        assertEquals(Instant.parse("1969-12-31T23:59:59.9999999Z"),
+            AdsProtocolLogic.toInstant(BigInteger.valueOf(116444736000000000L - 1)));
+    }
+
+    @Test
+    public void publishNotificationToRegisteredConsumers() {
+        List<PlcSubscriptionEvent> temperatureEvents = new ArrayList<>();
+        List<PlcSubscriptionEvent> allEvents = new ArrayList<>();
+        List<PlcSubscriptionEvent> pressureEvents = new ArrayList<>();
+        protocolLogic.register(temperatureEvents::add, Collections.singletonList(temperature));
+        protocolLogic.register(allEvents::add, Arrays.asList(temperature, pressure));
+        // A failing consumer must not keep the others from receiving their events.
+        protocolLogic.register(event -> {
+            throw new IllegalStateException("failing consumer");
+        }, Collections.singletonList(pressure));
+        protocolLogic.register(pressureEvents::add, Collections.singletonList(pressure));
+
+        // One frame with two time-stamps, the second one also contains a sample for an unknown handle.
+        protocolLogic.publishNotification(notification(
+            stampHeader(FILETIME_2021, sample(1L, 42, 0, 0, 0), sample(2L, 7, 0)),
+            stampHeader(FILETIME_2021 + 10_000_000L, sample(2L, 8, 0), sample(99L, 1))));
+
+        assertEquals(1, temperatureEvents.size());
+        assertEquals(Instant.parse("2021-01-01T00:00:00Z"), temperatureEvents.get(0).getTimestamp());
+        assertEquals(Collections.singletonList("temperature"), new ArrayList<>(temperatureEvents.get(0).getFieldNames()));
+        assertEquals(42, temperatureEvents.get(0).getInteger("temperature"));
+
+        assertEquals(2, allEvents.size());
+        assertEquals(2, allEvents.get(0).getFieldNames().size());
+        assertEquals(42, allEvents.get(0).getInteger("temperature"));
+        assertEquals(7, allEvents.get(0).getInteger("pressure"));
+        assertEquals(Instant.parse("2021-01-01T00:00:01Z"), allEvents.get(1).getTimestamp());
+        assertEquals(Collections.singletonList("pressure"), new ArrayList<>(allEvents.get(1).getFieldNames()));
+        assertEquals(8, allEvents.get(1).getInteger("pressure"));
+
+        assertEquals(2, pressureEvents.size());
+        assertEquals(7, pressureEvents.get(0).getInteger("pressure"));
+        assertEquals(8, pressureEvents.get(1).getInteger("pressure"));
+    }
+
+    @Test
+    public void noEventsAfterUnregistering() {
+        List<PlcSubscriptionEvent> events = new ArrayList<>();
+        PlcConsumerRegistration registration =
+            protocolLogic.register(events::add, Collections.singletonList(temperature));
+
+        protocolLogic.publishNotification(notification(stampHeader(FILETIME_2021, sample(1L, 1, 0, 0, 0))));
+        protocolLogic.unregister(registration);
+        protocolLogic.publishNotification(notification(stampHeader(FILETIME_2021, sample(1L, 2, 0, 0, 0))));
+
+        assertEquals(1, events.size());
+        assertEquals(1, events.get(0).getInteger("temperature"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private AdsSubscriptionHandle addSubscriptionHandle(String fieldName, String address, Long notificationHandle)
+            throws Exception {
+        AdsSubscriptionHandle handle =
+            new AdsSubscriptionHandle(protocolLogic, fieldName, DirectAdsField.of(address), notificationHandle);
+        Field field = AdsProtocolLogic.class.getDeclaredField("subscriptionHandles");
+        field.setAccessible(true);
+        ((Map<Long, AdsSubscriptionHandle>) field.get(protocolLogic)).put(notificationHandle, handle);
+        return handle;
+    }
+
+    private static AdsDeviceNotificationRequest notification(AdsStampHeader... stampHeaders) {
+        // The length is only needed for serializing the notification.
+        return new AdsDeviceNotificationRequest(0, stampHeaders.length, stampHeaders);
+    }
+
+    private static AdsStampHeader stampHeader(long fileTime, AdsNotificationSample... samples) {
+        return new AdsStampHeader(BigInteger.valueOf(fileTime), samples.length, samples);
+    }
+
+    private static AdsNotificationSample sample(long notificationHandle, int... data) {
+        byte[] bytes = new byte[data.length];
+        for (int i = 0; i < data.length; i++) {
+            bytes[i] = (byte) data[i];
+        }
+        return new AdsNotificationSample(notificationHandle, bytes.length, bytes);
+    }
+
+}
@@ -70,6 +70,11 @@ public class EipProtocolLogic extends Plc4xProtocolBase<EipPacket> implements Ha
         this.tm = new RequestTransactionManager(1);
     }
 
+    @Override
+    public RequestTransactionManager getTransactionManager() {
+        return tm;
+    }
+
     @Override
     public void onConnect(ConversationContext<EipPacket> context) {
         logger.debug("Sending RegisterSession EIP Package");
@@ -23,7 +23,6 @@ import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.model.PlcField;
-import org.apache.plc4x.java.spi.values.PlcList;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.firmata.readwrite.*;
 import org.apache.plc4x.java.firmata.readwrite.field.FirmataFieldAnalog;
@@ -55,11 +54,11 @@ public class FirmataDriverContext implements DriverContext {
 
             FirmataFieldDigital digitalField = (FirmataFieldDigital) writeRequest.getField(fieldName);
             final PlcValue plcValue = writeRequest.getPlcValue(fieldName);
+            // Lists might be PlcList or primitive array values, so only rely on the PlcValue interface here.
             if((digitalField.getNumberOfElements() > 1) && plcValue.isList()) {
-                final PlcList plcList = (PlcList) plcValue;
-                if(plcList.getList().size() != digitalField.getNumberOfElements()) {
+                if(plcValue.getLength() != digitalField.getNumberOfElements()) {
                     throw new PlcRuntimeException(
-                        "Required " + digitalField.getNumberOfElements() + " but got " + plcList.getList().size());
+                        "Required " + digitalField.getNumberOfElements() + " but got " + plcValue.getLength());
                 }
             }
 
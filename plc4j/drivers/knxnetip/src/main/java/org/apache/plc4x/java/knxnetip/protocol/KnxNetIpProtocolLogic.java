@@ -90,6 +90,11 @@ public class KnxNetIpProtocolLogic extends Plc4xProtocolBase<KnxNetIpMessage> im
         this.tm = new RequestTransactionManager(1);
     }
 
+    @Override
+    public RequestTransactionManager getTransactionManager() {
+        return tm;
+    }
+
     @Override
     public void onConnect(ConversationContext<KnxNetIpMessage> context) {
         // Only the UDP transport supports login.
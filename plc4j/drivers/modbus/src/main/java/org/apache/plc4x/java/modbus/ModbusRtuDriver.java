@@ -0,0 +1,104 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus;
+
+import org.apache.plc4x.java.api.value.PlcValueHandler;
+import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.modbus.field.ModbusField;
+import org.apache.plc4x.java.modbus.field.ModbusFieldHandler;
+import org.apache.plc4x.java.modbus.optimizer.ModbusOptimizer;
+import org.apache.plc4x.java.modbus.readwrite.ModbusSerialADU;
+import org.apache.plc4x.java.modbus.serial.ModbusSerialStackConfigurer;
+import org.apache.plc4x.java.spi.configuration.Configuration;
+import org.apache.plc4x.java.spi.connection.GeneratedDriverBase;
+import org.apache.plc4x.java.spi.connection.ProtocolStackConfigurer;
+import org.apache.plc4x.java.spi.optimizer.BaseOptimizer;
+import org.apache.plc4x.java.spi.values.IEC61131ValueHandler;
+
+/**
+ * Modbus RTU on a serial line (e.g. RS-485 with multiple devices, addressed by prefixing the fields with the
+ * unit identifier: "modbus-rtu:serial:///dev/ttyUSB0?baud-rate=9600" with fields like "3/holding-register:1").
+ */
+public class ModbusRtuDriver extends GeneratedDriverBase<ModbusSerialADU> {
+
+    @Override
+    public String getProtocolCode() {
+        return "modbus-rtu";
+    }
+
+    @Override
+    public String getProtocolName() {
+        return "Modbus RTU";
+    }
+
+    @Override
+    protected Class<? extends Configuration> getConfigurationType() {
+        return ModbusConfiguration.class;
+    }
+
+    @Override
+    protected String getDefaultTransport() {
+        return "serial";
+    }
+
+    /**
+     * Modbus doesn't have a login procedure, so there is no need to wait for a login to finish.
+     * @return false
+     */
+    @Override
+    protected boolean awaitSetupComplete() {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead() {
+        return true;
+    }
+
+    @Override
+    protected boolean canWrite() {
+        return true;
+    }
+
+    @Override
+    protected BaseOptimizer getOptimizer() {
+        return new ModbusOptimizer();
+    }
+
+    @Override
+    protected ModbusFieldHandler getFieldHandler() {
+        return new ModbusFieldHandler();
+    }
+
+    @Override
+    protected PlcValueHandler getValueHandler() {
+        return new IEC61131ValueHandler();
+    }
+
+    @Override
+    protected ProtocolStackConfigurer<ModbusSerialADU> getStackConfigurer() {
+        return ModbusSerialStackConfigurer.rtu();
+    }
+
+    @Override
+    public ModbusField prepareField(String query){
+        return ModbusField.of(query);
+    }
+
+}
@@ -22,9 +22,10 @@ import org.apache.plc4x.java.modbus.readwrite.ModbusConstants;
 import org.apache.plc4x.java.spi.configuration.Configuration;
 import org.apache.plc4x.java.spi.configuration.annotations.ConfigurationParameter;
 import org.apache.plc4x.java.spi.configuration.annotations.defaults.IntDefaultValue;
+import org.apache.plc4x.java.transport.serial.SerialTransportConfiguration;
 import org.apache.plc4x.java.transport.tcp.TcpTransportConfiguration;
 
-public class ModbusConfiguration implements Configuration, TcpTransportConfiguration {
+public class ModbusConfiguration implements Configuration, TcpTransportConfiguration, SerialTransportConfiguration {
 
     @ConfigurationParameter("request-timeout")
     @IntDefaultValue(5_000)
@@ -34,6 +35,45 @@ public class ModbusConfiguration implements Configuration, TcpTransportConfigura
     @IntDefaultValue(1)
     private int unitIdentifier;
 
+    /**
+     * Maximum number of transactions sent to the device without waiting for their responses.
+     * Modbus TCP correlates the responses by their transaction identifier, however not all devices support this.
+     */
+    @ConfigurationParameter("max-in-flight")
+    @IntDefaultValue(1)
+    private int maxInFlight;
+
+    /**
+     * Number of unrequested registers two fields of the same type may be apart
+     * in order to still be read with one request.
+     */
+    @ConfigurationParameter("max-register-gap")
+    @IntDefaultValue(0)
+    private int maxRegisterGap;
+
+    /**
+     * Number of unrequested coils (or discrete inputs) two fields of the same type may be apart
+     * in order to still be read with one request.
+     */
+    @ConfigurationParameter("max-coil-gap")
+    @IntDefaultValue(0)
+    private int maxCoilGap;
+
+    /**
+     * Baud rate of the serial line (Modbus RTU and ASCII only).
+     * It is also used to calculate the inter-frame delay of Modbus RTU.
+     */
+    @ConfigurationParameter("baud-rate")
+    @IntDefaultValue(19200)
+    private int baudRate;
+
+    /**
+     * Request timeouts for individual units (Modbus RTU and ASCII only), as comma separated list of unit identifier
+     * and timeout in milliseconds (e.g. "1:500,7:2000"). Units not listed use the "request-timeout".
+     */
+    @ConfigurationParameter("unit-request-timeouts")
+    private String unitRequestTimeouts;
+
     public int getRequestTimeout() {
         return requestTimeout;
     }
@@ -50,6 +90,47 @@ public class ModbusConfiguration implements Configuration, TcpTransportConfigura
         this.unitIdentifier = unitIdentifier;
     }
 
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public int getMaxRegisterGap() {
+        return maxRegisterGap;
+    }
+
+    public void setMaxRegisterGap(int maxRegisterGap) {
+        this.maxRegisterGap = maxRegisterGap;
+    }
+
+    public int getMaxCoilGap() {
+        return maxCoilGap;
+    }
+
+    public void setMaxCoilGap(int maxCoilGap) {
+        this.maxCoilGap = maxCoilGap;
+    }
+
+    @Override
+    public int getBaudRate() {
+        return baudRate;
+    }
+
+    public void setBaudRate(int baudRate) {
+        this.baudRate = baudRate;
+    }
+
+    public String getUnitRequestTimeouts() {
+        return unitRequestTimeouts;
+    }
+
+    public void setUnitRequestTimeouts(String unitRequestTimeouts) {
+        this.unitRequestTimeouts = unitRequestTimeouts;
+    }
+
     @Override
     public int getDefaultPort() {
         return ModbusConstants.MODBUSTCPDEFAULTPORT;
@@ -0,0 +1,52 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.context;
+
+import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.spi.configuration.HasConfiguration;
+import org.apache.plc4x.java.spi.context.DriverContext;
+
+public class ModbusDriverContext implements DriverContext, HasConfiguration<ModbusConfiguration> {
+
+    private int maxRegisterGap;
+    private int maxCoilGap;
+
+    @Override
+    public void setConfiguration(ModbusConfiguration configuration) {
+        this.maxRegisterGap = Math.max(configuration.getMaxRegisterGap(), 0);
+        this.maxCoilGap = Math.max(configuration.getMaxCoilGap(), 0);
+    }
+
+    public int getMaxRegisterGap() {
+        return maxRegisterGap;
+    }
+
+    public void setMaxRegisterGap(int maxRegisterGap) {
+        this.maxRegisterGap = maxRegisterGap;
+    }
+
+    public int getMaxCoilGap() {
+        return maxCoilGap;
+    }
+
+    public void setMaxCoilGap(int maxCoilGap) {
+        this.maxCoilGap = maxCoilGap;
+    }
+
+}
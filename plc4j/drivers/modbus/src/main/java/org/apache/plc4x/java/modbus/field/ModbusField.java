@@ -27,22 +27,45 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 
 import java.util.Objects;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public abstract class ModbusField implements PlcField, XmlSerializable {
 
     public static final Pattern ADDRESS_PATTERN = Pattern.compile("(?<address>\\d+)(:(?<datatype>[a-zA-Z_]+))?(\\[(?<quantity>\\d+)])?");
+    /**
+     * Fields may be prefixed with the unit identifier of the device (e.g. "3/holding-register:1"), which allows
+     * addressing multiple devices on one serial line (or behind one gateway) with one connection.
+     */
+    public static final Pattern UNIT_IDENTIFIER_PATTERN = Pattern.compile("(?<unitIdentifier>\\d{1,3})/(?<field>.+)");
     public static final Pattern FIXED_DIGIT_MODBUS_PATTERN = Pattern.compile("(?<address>\\d{4,5})?(:(?<datatype>[a-zA-Z_]+))?(\\[(?<quantity>\\d+)])?");
 
     protected static final int PROTOCOL_ADDRESS_OFFSET = 1;
 
+    /** Highest unit identifier usable for a device (248 - 255 are reserved) */
+    protected static final int MAX_UNIT_IDENTIFIER = 247;
+
     private final int address;
 
     private final int quantity;
 
     private final String dataType;
 
+    // Only set by of(), if the address contains a unit identifier.
+    private Integer unitIdentifier;
+
     public static ModbusField of(String addressString) {
+        Matcher unitIdentifierMatcher = UNIT_IDENTIFIER_PATTERN.matcher(addressString);
+        if(unitIdentifierMatcher.matches()) {
+            int unitIdentifier = Integer.parseInt(unitIdentifierMatcher.group("unitIdentifier"));
+            if (unitIdentifier > MAX_UNIT_IDENTIFIER) {
+                throw new PlcInvalidFieldException("Unit identifier must be less than or equal to " +
+                    MAX_UNIT_IDENTIFIER + ". Was " + unitIdentifier);
+            }
+            ModbusField field = of(unitIdentifierMatcher.group("field"));
+            field.unitIdentifier = unitIdentifier;
+            return field;
+        }
         if(ModbusFieldCoil.matches(addressString)) {
             return ModbusFieldCoil.of(addressString);
         }
@@ -95,6 +118,14 @@ public abstract class ModbusField implements PlcField, XmlSerializable {
         return dataType;
     }
 
+    /**
+     * @return the unit identifier given in the address or null, if the unit identifier of the connection is used.
+     */
+    @JsonIgnore
+    public Integer getUnitIdentifier() {
+        return unitIdentifier;
+    }
+
     @Override
     public String getPlcDataType() {
         return dataType;
@@ -113,17 +144,19 @@ public abstract class ModbusField implements PlcField, XmlSerializable {
             return false;
         }
         ModbusField that = (ModbusField) o;
-        return address == that.address;
+        return address == that.address &&
+            Objects.equals(unitIdentifier, that.unitIdentifier);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(address);
+        return Objects.hash(address, unitIdentifier);
     }
 
     @Override
     public String toString() {
         return "ModbusField{" +
+            (unitIdentifier != null ? "unitIdentifier=" + unitIdentifier + ", " : "") +
             "address=" + address +
             "datatype=" + dataType +
             "quantity=" + quantity +
@@ -146,6 +179,12 @@ public abstract class ModbusField implements PlcField, XmlSerializable {
         Element datatypeElement = doc.createElement("dataType");
         datatypeElement.appendChild(doc.createTextNode(getDataType()));
         messageElement.appendChild(datatypeElement);
+
+        if (unitIdentifier != null) {
+            Element unitIdentifierElement = doc.createElement("unitIdentifier");
+            unitIdentifierElement.appendChild(doc.createTextNode(Integer.toString(unitIdentifier)));
+            messageElement.appendChild(unitIdentifierElement);
+        }
     }
 
 }
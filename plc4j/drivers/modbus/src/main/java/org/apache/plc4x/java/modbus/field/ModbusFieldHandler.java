@@ -26,6 +26,9 @@ public class ModbusFieldHandler implements PlcFieldHandler {
 
     @Override
     public PlcField createField(String fieldQuery) {
+        if (ModbusField.UNIT_IDENTIFIER_PATTERN.matcher(fieldQuery).matches()) {
+            return ModbusField.of(fieldQuery);
+        }
         if (ModbusFieldDiscreteInput.matches(fieldQuery)) {
             return ModbusFieldDiscreteInput.of(fieldQuery);
         } else if (ModbusFieldHoldingRegister.matches(fieldQuery)) {
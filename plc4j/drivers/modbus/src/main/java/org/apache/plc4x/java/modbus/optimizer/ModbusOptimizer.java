@@ -0,0 +1,151 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.optimizer;
+
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.modbus.context.ModbusDriverContext;
+import org.apache.plc4x.java.modbus.field.ModbusField;
+import org.apache.plc4x.java.modbus.field.ModbusFieldCoil;
+import org.apache.plc4x.java.modbus.field.ModbusFieldDiscreteInput;
+import org.apache.plc4x.java.modbus.field.ModbusFieldHoldingRegister;
+import org.apache.plc4x.java.modbus.field.ModbusFieldInputRegister;
+import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.optimizer.SingleFieldOptimizer;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Optimizer merging fields of the same type (coils, discrete inputs, input registers and holding registers)
+ * located close to each other into one read request, as long as the resulting range fits into one Modbus PDU.
+ * The protocol logic reads such a request with one single PDU and slices the result back into the individual fields.
+ * All other fields (extended registers) and all writes are sent as single field requests.
+ */
+public class ModbusOptimizer extends SingleFieldOptimizer {
+
+    /** Maximum number of coils or discrete inputs that can be read with one request */
+    public static final int MAX_COILS_PER_REQUEST = 2000;
+    /** Maximum number of input or holding registers that can be read with one request */
+    public static final int MAX_REGISTERS_PER_REQUEST = 125;
+
+    @Override
+    protected List<PlcRequest> processReadRequest(PlcReadRequest readRequest, DriverContext driverContext) {
+        int maxRegisterGap = 0;
+        int maxCoilGap = 0;
+        if (driverContext instanceof ModbusDriverContext) {
+            maxRegisterGap = ((ModbusDriverContext) driverContext).getMaxRegisterGap();
+            maxCoilGap = ((ModbusDriverContext) driverContext).getMaxCoilGap();
+        }
+
+        // Sort the fields by unit and type, fields that can't be merged get a request of their own.
+        Map<Integer, Map<Class<? extends ModbusField>, List<String>>> fieldNamesByUnitAndType = new LinkedHashMap<>();
+        List<List<String>> blocks = new ArrayList<>();
+        for (String fieldName : readRequest.getFieldNames()) {
+            PlcField field = readRequest.getField(fieldName);
+            if (isMergeable(field)) {
+                fieldNamesByUnitAndType
+                    .computeIfAbsent(((ModbusField) field).getUnitIdentifier(), unit -> new LinkedHashMap<>())
+                    .computeIfAbsent(((ModbusField) field).getClass(), type -> new ArrayList<>())
+                    .add(fieldName);
+            } else {
+                blocks.add(Collections.singletonList(fieldName));
+            }
+        }
+
+        // Inside every type, go through the fields ordered by address and add each one to the current block,
+        // as long as the gap to the previous fields is small enough and the block still fits into one PDU.
+        for (Map.Entry<Class<? extends ModbusField>, List<String>> typeEntry : fieldNamesByUnitAndType.values().stream()
+                .flatMap(fieldNamesByType -> fieldNamesByType.entrySet().stream()).collect(Collectors.toList())) {
+            boolean coils = isCoilType(typeEntry.getKey());
+            int maxGap = coils ? maxCoilGap : maxRegisterGap;
+            int maxQuantity = getMaxReadQuantity(typeEntry.getKey());
+            List<String> fieldNames = typeEntry.getValue();
+            fieldNames.sort(Comparator.comparingInt(fieldName -> ((ModbusField) readRequest.getField(fieldName)).getAddress()));
+
+            List<String> curBlock = null;
+            int curStart = 0;
+            int curEnd = 0;
+            for (String fieldName : fieldNames) {
+                ModbusField field = (ModbusField) readRequest.getField(fieldName);
+                int start = field.getAddress();
+                int end = start + getReadQuantity(field);
+                if ((curBlock != null) && (start <= curEnd + maxGap) && (Math.max(curEnd, end) - curStart <= maxQuantity)) {
+                    curBlock.add(fieldName);
+                    curEnd = Math.max(curEnd, end);
+                } else {
+                    curBlock = new ArrayList<>();
+                    curBlock.add(fieldName);
+                    blocks.add(curBlock);
+                    curStart = start;
+                    curEnd = end;
+                }
+            }
+        }
+
+        // If everything fits into one request, there's no need to split anything up.
+        if (blocks.size() == 1) {
+            return Collections.singletonList(readRequest);
+        }
+        List<PlcRequest> subRequests = new ArrayList<>(blocks.size());
+        for (List<String> block : blocks) {
+            LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+            for (String fieldName : block) {
+                fields.put(fieldName, readRequest.getField(fieldName));
+            }
+            subRequests.add(new DefaultPlcReadRequest(((DefaultPlcReadRequest) readRequest).getReader(), fields));
+        }
+        return subRequests;
+    }
+
+    /**
+     * @param field field to check.
+     * @return true, if the field can be read together with other fields of the same type.
+     */
+    public static boolean isMergeable(PlcField field) {
+        return (field instanceof ModbusFieldCoil) || (field instanceof ModbusFieldDiscreteInput) ||
+            (field instanceof ModbusFieldInputRegister) || (field instanceof ModbusFieldHoldingRegister);
+    }
+
+    /**
+     * @param field field to check.
+     * @return number of coils or registers that have to be read for the given field.
+     */
+    public static int getReadQuantity(ModbusField field) {
+        if (isCoilType(field.getClass())) {
+            return field.getNumberOfElements();
+        }
+        return Math.max(field.getLengthWords(), 1);
+    }
+
+    /**
+     * @param type type of field.
+     * @return maximum number of coils or registers that can be read for the given type with one request.
+     */
+    public static int getMaxReadQuantity(Class<? extends ModbusField> type) {
+        return isCoilType(type) ? MAX_COILS_PER_REQUEST : MAX_REGISTERS_PER_REQUEST;
+    }
+
+    private static boolean isCoilType(Class<? extends ModbusField> type) {
+        return ModbusFieldCoil.class.isAssignableFrom(type) || ModbusFieldDiscreteInput.class.isAssignableFrom(type);
+    }
+
+}
@@ -0,0 +1,117 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.protocol;
+
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.modbus.readwrite.ModbusPDU;
+import org.apache.plc4x.java.modbus.readwrite.ModbusSerialADU;
+import org.apache.plc4x.java.modbus.serial.ModbusBusScheduler;
+import org.apache.plc4x.java.modbus.serial.ModbusSerialUtils;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Modbus RTU and ASCII: The PDUs are wrapped in {@link ModbusSerialADU}s. As there's no transaction identifier,
+ * only one request can be on the bus at a time, so all requests go through the {@link ModbusBusScheduler}.
+ * Every unit can have its own request timeout, so a slow (or dead) device doesn't slow down the others.
+ */
+public class ModbusSerialProtocolLogic extends AbstractModbusProtocolLogic<ModbusSerialADU> {
+
+    private Map<Short, Duration> unitRequestTimeouts;
+    private long interFrameDelayNanos;
+    private ModbusBusScheduler scheduler;
+
+    @Override
+    public void setConfiguration(ModbusConfiguration configuration) {
+        super.setConfiguration(configuration);
+        this.unitRequestTimeouts = parseUnitRequestTimeouts(configuration.getUnitRequestTimeouts());
+        this.interFrameDelayNanos = ModbusSerialUtils.getInterFrameDelayNanos(configuration.getBaudRate());
+    }
+
+    @Override
+    protected CompletableFuture<ModbusPDU> sendRequestPdu(short unitIdentifier, ModbusPDU requestPdu) {
+        CompletableFuture<ModbusPDU> future = new CompletableFuture<>();
+        ModbusSerialADU modbusSerialADU = new ModbusSerialADU(unitIdentifier, requestPdu);
+        Duration timeout = getRequestTimeout(unitIdentifier);
+        getScheduler().submit(unitIdentifier, done -> context.sendRequest(modbusSerialADU)
+            .expectResponse(ModbusSerialADU.class, timeout)
+            .onTimeout(e -> {
+                future.completeExceptionally(e);
+                done.run();
+            })
+            .onError((p, e) -> {
+                future.completeExceptionally(e);
+                done.run();
+            })
+            .check(p -> p.getAddress() == unitIdentifier)
+            .unwrap(ModbusSerialADU::getPdu)
+            .handle(responsePdu -> {
+                future.complete(responsePdu);
+                // Release the bus for the next request.
+                done.run();
+            }));
+        return future;
+    }
+
+    /**
+     * @param unitIdentifier unit.
+     * @return the timeout configured for the unit or the default request timeout.
+     */
+    protected Duration getRequestTimeout(short unitIdentifier) {
+        return unitRequestTimeouts.getOrDefault(unitIdentifier, requestTimeout);
+    }
+
+    private synchronized ModbusBusScheduler getScheduler() {
+        // The requests are started on the event loop of the channel.
+        if (scheduler == null) {
+            scheduler = new ModbusBusScheduler(context.getChannel().eventLoop(), interFrameDelayNanos);
+        }
+        return scheduler;
+    }
+
+    /**
+     * @param unitRequestTimeouts comma separated list of unit identifiers and timeouts in milliseconds
+     *                            (e.g. "1:500,7:2000").
+     * @return the timeouts by unit identifier.
+     */
+    static Map<Short, Duration> parseUnitRequestTimeouts(String unitRequestTimeouts) {
+        if ((unitRequestTimeouts == null) || unitRequestTimeouts.trim().isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Short, Duration> timeouts = new HashMap<>();
+        for (String entry : unitRequestTimeouts.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new PlcRuntimeException("Invalid unit request timeout '" + entry + "', expected <unit>:<millis>");
+            }
+            try {
+                timeouts.put(Short.parseShort(parts[0].trim()), Duration.ofMillis(Long.parseLong(parts[1].trim())));
+            } catch (NumberFormatException e) {
+                throw new PlcRuntimeException("Invalid unit request timeout '" + entry + "', expected <unit>:<millis>", e);
+            }
+        }
+        return timeouts;
+    }
+
+}
@@ -0,0 +1,118 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Splits the data received on a serial line into Modbus ASCII frames (":" followed by the hex encoded address,
+ * PDU and LRC, terminated by CR LF), decodes them and checks their LRC.
+ * The emitted buffers contain the address and the PDU of one frame (without LRC).
+ * A ":" always starts a new frame, so the rest of an incomplete frame is discarded as soon as the next one starts.
+ */
+public class ModbusAsciiFrameDecoder extends ByteToMessageDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusAsciiFrameDecoder.class);
+
+    static final byte START = ':';
+    static final byte CR = '\r';
+    static final byte LF = '\n';
+
+    /** Start character, 2 characters for each of the 256 bytes of address, PDU and LRC, CR and LF */
+    private static final int MAX_FRAME_LENGTH = 1 + 2 * 256 + 2;
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        while (in.isReadable()) {
+            int start = in.indexOf(in.readerIndex(), in.writerIndex(), START);
+            if (start < 0) {
+                // Anything outside a frame is ignored.
+                in.skipBytes(in.readableBytes());
+                return;
+            }
+            in.readerIndex(start);
+            int end = in.indexOf(start + 1, in.writerIndex(), LF);
+            if (end < 0) {
+                int nextStart = in.indexOf(start + 1, in.writerIndex(), START);
+                if (nextStart >= 0) {
+                    in.readerIndex(nextStart);
+                    continue;
+                }
+                if (in.readableBytes() > MAX_FRAME_LENGTH) {
+                    in.skipBytes(1);
+                    continue;
+                }
+                return;
+            }
+            // Another start character means the previous frame was incomplete.
+            int nextStart = in.indexOf(start + 1, end, START);
+            if (nextStart >= 0) {
+                in.readerIndex(nextStart);
+                continue;
+            }
+            ByteBuf frame = decodeFrame(ctx, in, start + 1, end);
+            in.readerIndex(end + 1);
+            if (frame != null) {
+                out.add(frame);
+            }
+        }
+    }
+
+    /**
+     * @return the decoded address and PDU or null, if the frame is invalid.
+     */
+    private ByteBuf decodeFrame(ChannelHandlerContext ctx, ByteBuf in, int start, int end) {
+        if (in.getByte(end - 1) != CR) {
+            logger.debug("Discarding frame not terminated by CR LF");
+            return null;
+        }
+        int numChars = end - 1 - start;
+        // At least address, function code and LRC.
+        if ((numChars < 6) || ((numChars % 2) != 0)) {
+            logger.debug("Discarding frame with invalid length {}", numChars);
+            return null;
+        }
+        ByteBuf frame = ctx.alloc().buffer(numChars / 2);
+        for (int i = start; i < end - 1; i += 2) {
+            int high = Character.digit(in.getByte(i), 16);
+            int low = Character.digit(in.getByte(i + 1), 16);
+            if ((high < 0) || (low < 0)) {
+                logger.debug("Discarding frame with invalid characters");
+                frame.release();
+                return null;
+            }
+            frame.writeByte((high << 4) | low);
+        }
+        int lrc = ModbusSerialUtils.lrc(frame, frame.readerIndex(), frame.readableBytes() - 1);
+        if (lrc != frame.getUnsignedByte(frame.writerIndex() - 1)) {
+            logger.debug("Discarding frame with invalid LRC");
+            frame.release();
+            return null;
+        }
+        frame.writerIndex(frame.writerIndex() - 1);
+        return frame;
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * Encodes the serialized address and PDU as Modbus ASCII frame:
+ * ":" followed by the hex encoded address, PDU and LRC, terminated by CR LF.
+ */
+public class ModbusAsciiFrameEncoder extends MessageToByteEncoder<ByteBuf> {
+
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes();
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
+        out.ensureWritable(1 + 2 * (msg.readableBytes() + 1) + 2);
+        out.writeByte(ModbusAsciiFrameDecoder.START);
+        for (int i = msg.readerIndex(); i < msg.writerIndex(); i++) {
+            writeHex(out, msg.getUnsignedByte(i));
+        }
+        writeHex(out, ModbusSerialUtils.lrc(msg, msg.readerIndex(), msg.readableBytes()));
+        out.writeByte(ModbusAsciiFrameDecoder.CR);
+        out.writeByte(ModbusAsciiFrameDecoder.LF);
+        msg.skipBytes(msg.readableBytes());
+    }
+
+    private static void writeHex(ByteBuf out, short value) {
+        out.writeByte(HEX_DIGITS[(value >> 4) & 0x0F]);
+        out.writeByte(HEX_DIGITS[value & 0x0F]);
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Schedules the requests on a (half-duplex, multi-drop) serial line, where only one request may be outstanding at
+ * a time and every request has to be preceded by the inter-frame silence.
+ * <p>
+ * The requests are queued per unit and the units with pending requests take turns (round robin). So a unit with
+ * lots of requests, or a unit not responding at all and running into its timeout with every request, only delays
+ * the requests of the other units by one request per turn instead of blocking the bus until its queue is empty.
+ */
+public class ModbusBusScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusBusScheduler.class);
+
+    /**
+     * One request on the bus.
+     */
+    @FunctionalInterface
+    public interface BusRequest {
+
+        /**
+         * Sends the request.
+         *
+         * @param done has to be called as soon as the request is finished (response, timeout or error),
+         *             which releases the bus for the next request.
+         */
+        void start(Runnable done);
+
+    }
+
+    private final ScheduledExecutorService executor;
+    private final long interFrameDelayNanos;
+
+    private final Map<Short, Queue<BusRequest>> queues = new HashMap<>();
+    // Units with pending requests in the order they get their next turn.
+    private final Deque<Short> pendingUnits = new ArrayDeque<>();
+    private boolean busy;
+    private long idleSinceNanos;
+
+    /**
+     * @param executor             executor used to start the requests.
+     * @param interFrameDelayNanos silence required on the bus before sending the next request.
+     */
+    public ModbusBusScheduler(ScheduledExecutorService executor, long interFrameDelayNanos) {
+        this.executor = executor;
+        this.interFrameDelayNanos = interFrameDelayNanos;
+        this.idleSinceNanos = System.nanoTime();
+    }
+
+    /**
+     * Queues a request, which is started as soon as it is the turn of its unit.
+     *
+     * @param unitIdentifier unit the request is addressed to.
+     * @param request        the request.
+     */
+    public synchronized void submit(short unitIdentifier, BusRequest request) {
+        Queue<BusRequest> queue = queues.computeIfAbsent(unitIdentifier, unit -> new ArrayDeque<>());
+        if (queue.isEmpty()) {
+            pendingUnits.addLast(unitIdentifier);
+        }
+        queue.add(request);
+        if (!busy) {
+            startNext();
+        }
+    }
+
+    /**
+     * @return number of requests waiting for the bus (not including the one currently being processed).
+     */
+    public synchronized int getNumberOfQueuedRequests() {
+        return queues.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    /**
+     * @param unitIdentifier unit.
+     * @return number of requests for the given unit waiting for the bus.
+     */
+    public synchronized int getNumberOfQueuedRequests(short unitIdentifier) {
+        Queue<BusRequest> queue = queues.get(unitIdentifier);
+        return (queue != null) ? queue.size() : 0;
+    }
+
+    private void startNext() {
+        Short unitIdentifier = pendingUnits.pollFirst();
+        if (unitIdentifier == null) {
+            busy = false;
+            return;
+        }
+        Queue<BusRequest> queue = queues.get(unitIdentifier);
+        BusRequest request = queue.poll();
+        // If the unit has more requests, it's its turn again after all other units.
+        if (!queue.isEmpty()) {
+            pendingUnits.addLast(unitIdentifier);
+        }
+        busy = true;
+
+        AtomicBoolean finished = new AtomicBoolean();
+        Runnable done = () -> {
+            if (finished.compareAndSet(false, true)) {
+                onRequestDone();
+            }
+        };
+        Runnable start = () -> {
+            try {
+                request.start(done);
+            } catch (Exception e) {
+                logger.warn("Error starting request for unit {}", unitIdentifier, e);
+                done.run();
+            }
+        };
+        long delayNanos = interFrameDelayNanos - (System.nanoTime() - idleSinceNanos);
+        if (delayNanos > 0) {
+            executor.schedule(start, delayNanos, TimeUnit.NANOSECONDS);
+        } else {
+            executor.execute(start);
+        }
+    }
+
+    private synchronized void onRequestDone() {
+        idleSinceNanos = System.nanoTime();
+        startNext();
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.ByteToMessageDecoder;
+import io.netty.util.concurrent.ScheduledFuture;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits the data received on a serial line into Modbus RTU frames and checks their CRC.
+ * The emitted buffers contain the address and the PDU of one frame (without CRC).
+ * <p>
+ * RTU frames don't contain their length, instead they are separated by a silence of at least 3.5 characters.
+ * As the serial channel delivers the data in chunks, the length of a frame is determined from its content
+ * (function code and byte count) where possible and confirmed by the CRC. The silence is used to discard the rest
+ * of incomplete or corrupt frames and to terminate frames whose length can't be determined from their content.
+ * <p>
+ * The serial channel polls the port, so the gaps between two chunks of data don't exactly match the gaps on the line:
+ * A frame might be delivered in two chunks, even if there was no silence on the line. So the remaining bytes of
+ * a frame are only discarded, if no data was received for the time needed to transmit the rest of the frame plus
+ * the inter-frame delay, and never for less than {@link #MIN_SILENCE_NANOS}.
+ */
+public class ModbusRtuFrameDecoder extends ByteToMessageDecoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModbusRtuFrameDecoder.class);
+
+    /** Address, function code and CRC */
+    private static final int MIN_FRAME_LENGTH = 4;
+
+    /** Shortest silence that can be reliably detected with a polled serial port */
+    private static final long MIN_SILENCE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final long interFrameDelayNanos;
+    private final long characterNanos;
+
+    private long lastReceivedNanos;
+    private int pendingBytes;
+    private ScheduledFuture<?> silenceTimeout;
+
+    public ModbusRtuFrameDecoder(int baudRate) {
+        this.interFrameDelayNanos = ModbusSerialUtils.getInterFrameDelayNanos(baudRate);
+        this.characterNanos = ModbusSerialUtils.getCharacterNanos(baudRate);
+    }
+
+    @Override
+    protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) {
+        cancelSilenceTimeout();
+        long now = System.nanoTime();
+        // Bytes received before a silence can't belong to the same frame as the new ones.
+        if ((pendingBytes > 0) && (now - lastReceivedNanos >= getSilenceNanos(in, pendingBytes))) {
+            logger.debug("Discarding {} bytes of an incomplete frame", pendingBytes);
+            in.skipBytes(Math.min(pendingBytes, in.readableBytes()));
+        }
+        lastReceivedNanos = now;
+
+        while (in.isReadable()) {
+            int frameLength = ModbusSerialUtils.getRtuResponseFrameLength(in);
+            if (frameLength == -2) {
+                // Only the silence after the frame tells where it ends.
+                scheduleSilenceTimeout(ctx);
+                break;
+            }
+            if ((frameLength == -1) || (in.readableBytes() < frameLength)) {
+                break;
+            }
+            if (!readFrame(in, frameLength, out)) {
+                // Skip one byte and try to synchronize to the beginning of the next frame.
+                in.skipBytes(1);
+            }
+        }
+        pendingBytes = in.readableBytes();
+    }
+
+    /**
+     * @param in           buffer starting with the pending bytes.
+     * @param pendingBytes number of bytes of the incomplete frame.
+     * @return time after which the incomplete frame is considered to be terminated by a silence.
+     */
+    private long getSilenceNanos(ByteBuf in, int pendingBytes) {
+        int frameLength = ModbusSerialUtils.getRtuResponseFrameLength(in.slice(in.readerIndex(), pendingBytes));
+        int missingBytes = ((frameLength > 0) ? frameLength : ModbusSerialUtils.MAX_RTU_FRAME_LENGTH) - pendingBytes;
+        return Math.max(interFrameDelayNanos + Math.max(missingBytes, 0) * characterNanos, MIN_SILENCE_NANOS);
+    }
+
+    private boolean readFrame(ByteBuf in, int frameLength, List<Object> out) {
+        if (frameLength < MIN_FRAME_LENGTH) {
+            return false;
+        }
+        int index = in.readerIndex();
+        int crc = ModbusSerialUtils.crc16(in, index, frameLength - 2);
+        if (crc != in.getUnsignedShortLE(index + frameLength - 2)) {
+            if (logger.isDebugEnabled()) {
+                logger.debug("Invalid CRC in frame {}", ByteBufUtil.hexDump(in, index, frameLength));
+            }
+            return false;
+        }
+        out.add(in.readRetainedSlice(frameLength - 2));
+        in.skipBytes(2);
+        return true;
+    }
+
+    private void scheduleSilenceTimeout(ChannelHandlerContext ctx) {
+        silenceTimeout = ctx.executor().schedule(() -> {
+            silenceTimeout = null;
+            ByteBuf in = internalBuffer();
+            int frameLength = in.readableBytes();
+            if ((frameLength >= MIN_FRAME_LENGTH) && (ModbusSerialUtils.crc16(in, in.readerIndex(), frameLength - 2) ==
+                in.getUnsignedShortLE(in.readerIndex() + frameLength - 2))) {
+                ByteBuf frame = in.readRetainedSlice(frameLength - 2);
+                in.skipBytes(2);
+                ctx.fireChannelRead(frame);
+                ctx.fireChannelReadComplete();
+            } else if (frameLength > 0) {
+                logger.debug("Discarding {} bytes not forming a valid frame", frameLength);
+                in.skipBytes(frameLength);
+            }
+            pendingBytes = 0;
+        }, Math.max(interFrameDelayNanos, MIN_SILENCE_NANOS), TimeUnit.NANOSECONDS);
+    }
+
+    private void cancelSilenceTimeout() {
+        if (silenceTimeout != null) {
+            silenceTimeout.cancel(false);
+            silenceTimeout = null;
+        }
+    }
+
+    @Override
+    protected void handlerRemoved0(ChannelHandlerContext ctx) throws Exception {
+        cancelSilenceTimeout();
+        super.handlerRemoved0(ctx);
+    }
+
+}
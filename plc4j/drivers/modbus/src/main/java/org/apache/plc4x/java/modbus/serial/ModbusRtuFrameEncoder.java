@@ -16,22 +16,22 @@ KIND, either express or implied.  See the License for the
 specific language governing permissions and limitations
 under the License.
 */
-package org.apache.plc4x.java.spi.generation.io;
-
-import com.github.jinahya.bit.io.BufferByteOutput;
-import com.github.jinahya.bit.io.DefaultBitOutput;
-
-import java.nio.ByteBuffer;
-
-public class MyDefaultBitOutput extends DefaultBitOutput<BufferByteOutput> {
-
-    public MyDefaultBitOutput(BufferByteOutput delegate) {
-        super(delegate);
-    }
-
-    @SuppressWarnings("unchecked")
-    public long getPos() {
-        return ((BufferByteOutput<ByteBuffer>) getDelegate()).getTarget().position();
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.MessageToByteEncoder;
+
+/**
+ * Appends the CRC to the serialized address and PDU, which makes it a Modbus RTU frame.
+ */
+public class ModbusRtuFrameEncoder extends MessageToByteEncoder<ByteBuf> {
+
+    @Override
+    protected void encode(ChannelHandlerContext ctx, ByteBuf msg, ByteBuf out) {
+        int index = out.writerIndex();
+        out.writeBytes(msg);
+        out.writeShortLE(ModbusSerialUtils.crc16(out, index, out.writerIndex() - index));
     }
 
 }
@@ -0,0 +1,84 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.channel.ChannelPipeline;
+import io.netty.util.Timer;
+import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.modbus.context.ModbusDriverContext;
+import org.apache.plc4x.java.modbus.protocol.ModbusSerialProtocolLogic;
+import org.apache.plc4x.java.modbus.readwrite.ModbusSerialADU;
+import org.apache.plc4x.java.modbus.readwrite.io.ModbusSerialADUIO;
+import org.apache.plc4x.java.spi.Plc4xProtocolBase;
+import org.apache.plc4x.java.spi.configuration.Configuration;
+import org.apache.plc4x.java.spi.connection.ProtocolStackConfigurer;
+import org.apache.plc4x.java.spi.connection.SingleProtocolStackConfigurer;
+
+/**
+ * Protocol stack for Modbus RTU and ASCII: The frame decoder and encoder handle the framing of the serial variant,
+ * so the generated codec only has to deal with the address and the PDU contained in the frames.
+ */
+public class ModbusSerialStackConfigurer implements ProtocolStackConfigurer<ModbusSerialADU> {
+
+    private final boolean ascii;
+
+    private final ProtocolStackConfigurer<ModbusSerialADU> delegate =
+        SingleProtocolStackConfigurer.builder(ModbusSerialADU.class, ModbusSerialADUIO.class)
+            .withProtocol(ModbusSerialProtocolLogic.class)
+            .withDriverContext(ModbusDriverContext.class)
+            // Every incoming message is to be treated as a response.
+            .withParserArgs(true)
+            .build();
+
+    public static ModbusSerialStackConfigurer rtu() {
+        return new ModbusSerialStackConfigurer(false);
+    }
+
+    public static ModbusSerialStackConfigurer ascii() {
+        return new ModbusSerialStackConfigurer(true);
+    }
+
+    private ModbusSerialStackConfigurer(boolean ascii) {
+        this.ascii = ascii;
+    }
+
+    @Override
+    public Plc4xProtocolBase<ModbusSerialADU> configurePipeline(Configuration configuration, ChannelPipeline pipeline,
+                                                                boolean passive) {
+        addFrameCodecs(configuration, pipeline);
+        return delegate.configurePipeline(configuration, pipeline, passive);
+    }
+
+    @Override
+    public Plc4xProtocolBase<ModbusSerialADU> configurePipeline(Configuration configuration, ChannelPipeline pipeline,
+                                                                boolean passive, Timer timer) {
+        addFrameCodecs(configuration, pipeline);
+        return delegate.configurePipeline(configuration, pipeline, passive, timer);
+    }
+
+    private void addFrameCodecs(Configuration configuration, ChannelPipeline pipeline) {
+        if (ascii) {
+            pipeline.addLast(new ModbusAsciiFrameDecoder(), new ModbusAsciiFrameEncoder());
+        } else {
+            pipeline.addLast(new ModbusRtuFrameDecoder(((ModbusConfiguration) configuration).getBaudRate()),
+                new ModbusRtuFrameEncoder());
+        }
+    }
+
+}
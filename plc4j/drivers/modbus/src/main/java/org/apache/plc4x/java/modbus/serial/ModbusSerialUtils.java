@@ -0,0 +1,170 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Checksums and timings of the Modbus serial line protocol (Modbus over Serial Line Specification V1.02).
+ */
+public class ModbusSerialUtils {
+
+    /** Every character on the line consists of 11 bits (start bit, 8 data bits, parity or second stop bit, stop bit) */
+    private static final int BITS_PER_CHARACTER = 11;
+
+    /** Above this baud rate, fixed values are used for the inter-character and inter-frame timeouts */
+    private static final int FIXED_TIMING_BAUD_RATE = 19200;
+
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private ModbusSerialUtils() {
+        // Utility class
+    }
+
+    /** Maximum length of an RTU frame (address, 253 bytes PDU and CRC) */
+    public static final int MAX_RTU_FRAME_LENGTH = 256;
+
+    /**
+     * @param baudRate baud rate of the serial line.
+     * @return time it takes to transmit one character.
+     */
+    public static long getCharacterNanos(int baudRate) {
+        return (NANOS_PER_SECOND * BITS_PER_CHARACTER) / Math.max(baudRate, 1);
+    }
+
+    /**
+     * @param baudRate baud rate of the serial line.
+     * @return minimum silence between two RTU frames (3.5 character times, at least 1750us).
+     */
+    public static long getInterFrameDelayNanos(int baudRate) {
+        if ((baudRate <= 0) || (baudRate > FIXED_TIMING_BAUD_RATE)) {
+            return 1_750_000L;
+        }
+        return (NANOS_PER_SECOND * BITS_PER_CHARACTER * 7) / (2L * baudRate);
+    }
+
+    /**
+     * @param baudRate baud rate of the serial line.
+     * @return maximum silence between two characters of one RTU frame (1.5 character times, at least 750us).
+     */
+    public static long getInterCharacterDelayNanos(int baudRate) {
+        if ((baudRate <= 0) || (baudRate > FIXED_TIMING_BAUD_RATE)) {
+            return 750_000L;
+        }
+        return (NANOS_PER_SECOND * BITS_PER_CHARACTER * 3) / (2L * baudRate);
+    }
+
+    /**
+     * @param buffer buffer containing the frame.
+     * @param index  index of the first byte.
+     * @param length number of bytes.
+     * @return CRC-16 (polynomial 0xA001, initial value 0xFFFF) of the given bytes, as used by Modbus RTU.
+     * The low byte of the result is transmitted first.
+     */
+    public static int crc16(ByteBuf buffer, int index, int length) {
+        int crc = 0xFFFF;
+        for (int i = index; i < index + length; i++) {
+            crc ^= buffer.getUnsignedByte(i);
+            for (int bit = 0; bit < 8; bit++) {
+                if ((crc & 0x0001) != 0) {
+                    crc = (crc >>> 1) ^ 0xA001;
+                } else {
+                    crc >>>= 1;
+                }
+            }
+        }
+        return crc;
+    }
+
+    /**
+     * @param buffer buffer containing the frame.
+     * @param index  index of the first byte.
+     * @param length number of bytes.
+     * @return longitudinal redundancy check (two's complement of the sum of all bytes) as used by Modbus ASCII.
+     */
+    public static short lrc(ByteBuf buffer, int index, int length) {
+        int sum = 0;
+        for (int i = index; i < index + length; i++) {
+            sum += buffer.getUnsignedByte(i);
+        }
+        return (short) ((-sum) & 0xFF);
+    }
+
+    /**
+     * Determines the length of an RTU response frame from its function code (and byte count, if the
+     * response has a variable length).
+     *
+     * @param buffer buffer containing the beginning of the frame (starting at the reader index).
+     * @return length of the frame including address and CRC, -1 if not enough data is available yet or
+     * -2 if the length can't be determined from the content (in this case only the silence marks the end).
+     */
+    public static int getRtuResponseFrameLength(ByteBuf buffer) {
+        int index = buffer.readerIndex();
+        if (buffer.readableBytes() < 2) {
+            return -1;
+        }
+        short functionCode = buffer.getUnsignedByte(index + 1);
+        // Exception response: Address, function code, exception code and CRC.
+        if ((functionCode & 0x80) != 0) {
+            return 5;
+        }
+        switch (functionCode) {
+            // Read coils, discrete inputs, holding registers, input registers, get comm event log,
+            // report server id, read file record, write file record, read/write multiple registers:
+            // Address, function code, byte count, data and CRC
+            case 0x01:
+            case 0x02:
+            case 0x03:
+            case 0x04:
+            case 0x0C:
+            case 0x11:
+            case 0x14:
+            case 0x15:
+            case 0x17:
+                if (buffer.readableBytes() < 3) {
+                    return -1;
+                }
+                return 3 + buffer.getUnsignedByte(index + 2) + 2;
+            // Read exception status: Address, function code, status and CRC.
+            case 0x07:
+                return 5;
+            // Write single coil or register, write multiple coils or registers, diagnostics, get comm event counter:
+            // Address, function code, two 16 bit values and CRC.
+            case 0x05:
+            case 0x06:
+            case 0x08:
+            case 0x0B:
+            case 0x0F:
+            case 0x10:
+                return 8;
+            // Mask write register: Address, function code, three 16 bit values and CRC.
+            case 0x16:
+                return 10;
+            // Read FIFO queue: Address, function code, 16 bit byte count, data and CRC.
+            case 0x18:
+                if (buffer.readableBytes() < 4) {
+                    return -1;
+                }
+                return 4 + buffer.getUnsignedShort(index + 2) + 2;
+            default:
+                return -2;
+        }
+    }
+
+}
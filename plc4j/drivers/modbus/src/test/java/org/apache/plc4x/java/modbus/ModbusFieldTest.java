@@ -23,6 +23,7 @@ import org.apache.plc4x.java.modbus.field.ModbusFieldInputRegister;
 import org.apache.plc4x.java.modbus.field.ModbusExtendedRegister;
 import org.apache.plc4x.java.modbus.field.ModbusFieldDiscreteInput;
 import org.apache.plc4x.java.modbus.field.ModbusFieldCoil;
+import org.apache.plc4x.java.modbus.field.ModbusField;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
@@ -68,4 +69,14 @@ public class ModbusFieldTest {
         }
     }
 
+    @Test
+    public void testUnitIdentifierPrefix() {
+        final ModbusField field = ModbusField.of("3/holding-register:1:UINT[2]");
+        Assertions.assertTrue(field instanceof ModbusFieldHoldingRegister);
+        Assertions.assertEquals(Integer.valueOf(3), field.getUnitIdentifier());
+        Assertions.assertEquals(0, field.getAddress());
+        Assertions.assertEquals(2, field.getNumberOfElements());
+        Assertions.assertNull(ModbusField.of("holding-register:1").getUnitIdentifier());
+    }
+
 }
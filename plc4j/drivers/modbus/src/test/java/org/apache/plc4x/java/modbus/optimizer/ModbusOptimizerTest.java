@@ -0,0 +1,96 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.optimizer;
+
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.modbus.context.ModbusDriverContext;
+import org.apache.plc4x.java.modbus.field.ModbusField;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public class ModbusOptimizerTest {
+
+    private final ModbusOptimizer optimizer = new ModbusOptimizer();
+
+    @Test
+    public void adjacentFieldsAreMerged() {
+        PlcReadRequest request = readRequest("holding-register:1", "holding-register:2:DINT", "holding-register:4[2]");
+        List<PlcRequest> subRequests = optimizer.processReadRequest(request, new ModbusDriverContext());
+        assertEquals(1, subRequests.size());
+        assertSame(request, subRequests.get(0));
+    }
+
+    @Test
+    public void differentTypesAreNotMerged() {
+        PlcReadRequest request = readRequest("holding-register:1", "input-register:2", "coil:1", "coil:2", "extended-register:3");
+        List<PlcRequest> subRequests = optimizer.processReadRequest(request, new ModbusDriverContext());
+        assertEquals(4, subRequests.size());
+        assertEquals(2, getFieldNames(subRequests).stream().filter(fieldNames -> fieldNames.size() == 2)
+            .findFirst().orElseThrow(AssertionError::new).stream().filter(name -> name.startsWith("coil")).count());
+    }
+
+    @Test
+    public void gapToleranceIsRespected() {
+        PlcReadRequest request = readRequest("holding-register:1", "holding-register:5", "holding-register:20");
+        ModbusDriverContext driverContext = new ModbusDriverContext();
+        assertEquals(3, optimizer.processReadRequest(request, driverContext).size());
+        driverContext.setMaxRegisterGap(3);
+        assertEquals(2, optimizer.processReadRequest(request, driverContext).size());
+        driverContext.setMaxRegisterGap(100);
+        assertEquals(1, optimizer.processReadRequest(request, driverContext).size());
+    }
+
+    @Test
+    public void pduLimitIsRespected() {
+        PlcReadRequest request = readRequest("holding-register:1[100]", "holding-register:101[25]", "holding-register:126",
+            "coil:1[1999]", "coil:2000", "coil:2001");
+        List<List<String>> fieldNames = getFieldNames(optimizer.processReadRequest(request, new ModbusDriverContext()));
+        assertEquals(4, fieldNames.size());
+        assertEquals(2, fieldNames.get(0).size());
+        assertEquals(1, fieldNames.get(1).size());
+        assertEquals(2, fieldNames.get(2).size());
+        assertEquals(1, fieldNames.get(3).size());
+    }
+
+    private static PlcReadRequest readRequest(String... addresses) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (String address : addresses) {
+            fields.put(address, ModbusField.of(address));
+        }
+        return new DefaultPlcReadRequest(null, fields);
+    }
+
+    private static List<List<String>> getFieldNames(List<PlcRequest> subRequests) {
+        List<List<String>> fieldNames = new ArrayList<>();
+        for (PlcRequest subRequest : subRequests) {
+            fieldNames.add(new ArrayList<>(((PlcReadRequest) subRequest).getFieldNames()));
+        }
+        return fieldNames;
+    }
+
+}
@@ -0,0 +1,210 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.protocol;
+
+import io.vavr.control.Either;
+import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.apache.plc4x.java.modbus.readwrite.ModbusPDU;
+import org.apache.plc4x.java.modbus.readwrite.ModbusPDUError;
+import org.apache.plc4x.java.modbus.readwrite.ModbusPDUReadHoldingRegistersRequest;
+import org.apache.plc4x.java.modbus.readwrite.ModbusPDUReadHoldingRegistersResponse;
+import org.apache.plc4x.java.modbus.readwrite.ModbusTcpADU;
+import org.apache.plc4x.java.modbus.readwrite.types.ModbusErrorCode;
+import org.apache.plc4x.java.spi.ConversationContext;
+import org.apache.plc4x.java.spi.internal.DefaultSendRequestContext;
+import org.apache.plc4x.java.spi.internal.HandlerRegistration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Covers the pipelining of Modbus TCP transactions (max-in-flight).
+ */
+public class ModbusProtocolLogicTest {
+
+    private static final short UNIT = 1;
+
+    private ModbusProtocolLogic protocolLogic;
+    private List<ModbusTcpADU> sentAdus;
+    private List<HandlerRegistration> registrations;
+
+    @SuppressWarnings("unchecked")
+    private void connect(int maxInFlight) {
+        ModbusConfiguration configuration = new ModbusConfiguration();
+        configuration.setRequestTimeout(1000);
+        configuration.setMaxInFlight(maxInFlight);
+        protocolLogic = new ModbusProtocolLogic();
+        protocolLogic.setConfiguration(configuration);
+
+        ConversationContext<ModbusTcpADU> context = mock(ConversationContext.class);
+        when(context.sendRequest(any())).thenAnswer(invocation -> {
+            ModbusTcpADU adu = invocation.getArgument(0);
+            sentAdus.add(adu);
+            return new DefaultSendRequestContext<>(registrations::add, adu, context);
+        });
+        protocolLogic.setContext(context);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        sentAdus = new ArrayList<>();
+        registrations = new ArrayList<>();
+    }
+
+    @Test
+    public void responsesAreCorrelatedByTransactionIdentifier() throws Exception {
+        connect(3);
+        CompletableFuture<ModbusPDU> first = read(0);
+        CompletableFuture<ModbusPDU> second = read(10);
+        CompletableFuture<ModbusPDU> third = read(20);
+
+        // All requests are on the wire without waiting for the responses.
+        assertEquals(3, sentAdus.size());
+        assertEquals(1, sentAdus.get(0).getTransactionIdentifier());
+        assertEquals(2, sentAdus.get(1).getTransactionIdentifier());
+        assertEquals(3, sentAdus.get(2).getTransactionIdentifier());
+
+        respond(3, registers(3));
+        respond(1, registers(1));
+        assertFalse(second.isDone());
+        respond(2, registers(2));
+
+        assertArrayEquals(registers(1).getValue(), ((ModbusPDUReadHoldingRegistersResponse) first.get()).getValue());
+        assertArrayEquals(registers(2).getValue(), ((ModbusPDUReadHoldingRegistersResponse) second.get()).getValue());
+        assertArrayEquals(registers(3).getValue(), ((ModbusPDUReadHoldingRegistersResponse) third.get()).getValue());
+        assertEquals(0, protocolLogic.getTransactionManager().getNumberOfActiveRequests());
+        assertEquals(3, protocolLogic.getTransactionManager().getNumberOfConcurrentRequests());
+    }
+
+    @Test
+    public void busyResponseFallsBackToSerialMode() throws Exception {
+        connect(2);
+        CompletableFuture<ModbusPDU> first = read(0);
+        read(10);
+        respond(1, new ModbusPDUError(ModbusErrorCode.SLAVE_DEVICE_BUSY));
+
+        // The error is still returned to the caller.
+        assertTrue(first.get() instanceof ModbusPDUError);
+        assertEquals(1, protocolLogic.getTransactionManager().getNumberOfConcurrentRequests());
+
+        // From now on, the next request is only sent after the previous one is answered.
+        CompletableFuture<ModbusPDU> third = read(20);
+        assertEquals(2, sentAdus.size());
+        respond(2, registers(2));
+        assertEquals(3, sentAdus.size());
+        respond(3, registers(3));
+        assertTrue(third.isDone());
+    }
+
+    @Test
+    public void timeoutWithRequestsInFlightFallsBackToSerialMode() {
+        connect(2);
+        CompletableFuture<ModbusPDU> first = read(0);
+        CompletableFuture<ModbusPDU> second = read(10);
+        timeout(1);
+
+        assertTimedOut(first);
+        assertFalse(second.isDone());
+        assertEquals(1, protocolLogic.getTransactionManager().getNumberOfConcurrentRequests());
+    }
+
+    @Test
+    public void busyResponseWithoutOtherRequestsInFlightKeepsPipelining() throws Exception {
+        connect(2);
+        read(0);
+        respond(1, new ModbusPDUError(ModbusErrorCode.SLAVE_DEVICE_BUSY));
+
+        assertEquals(2, protocolLogic.getTransactionManager().getNumberOfConcurrentRequests());
+    }
+
+    @Test
+    public void timedOutRequestReleasesItsTransaction() throws Exception {
+        connect(1);
+        CompletableFuture<ModbusPDU> first = read(0);
+        CompletableFuture<ModbusPDU> second = read(10);
+        assertEquals(1, sentAdus.size());
+
+        timeout(1);
+
+        assertTimedOut(first);
+        // The queued request is sent as soon as the slot of the timed-out one is free.
+        assertEquals(2, sentAdus.size());
+        respond(2, registers(2));
+        assertTrue(second.get() instanceof ModbusPDUReadHoldingRegistersResponse);
+        assertEquals(0, protocolLogic.getTransactionManager().getNumberOfActiveRequests());
+    }
+
+    private CompletableFuture<ModbusPDU> read(int address) {
+        return protocolLogic.sendRequestPdu(UNIT, new ModbusPDUReadHoldingRegistersRequest(address, 1));
+    }
+
+    private static ModbusPDUReadHoldingRegistersResponse registers(int value) {
+        return new ModbusPDUReadHoldingRegistersResponse(new byte[]{0, (byte) value});
+    }
+
+    /**
+     * Hands the response to the request waiting for its transaction identifier, just like the Plc4xNettyWrapper does.
+     */
+    @SuppressWarnings("unchecked")
+    private void respond(int transactionIdentifier, ModbusPDU pdu) {
+        HandlerRegistration registration = removeRegistration(transactionIdentifier);
+        Object instance = new ModbusTcpADU(transactionIdentifier, UNIT, pdu);
+        for (Either<Function<?, ?>, Predicate<?>> command : registration.getCommands()) {
+            if (command.isLeft()) {
+                instance = ((Function<Object, Object>) command.getLeft()).apply(instance);
+            } else {
+                assertTrue(((Predicate<Object>) command.get()).test(instance));
+            }
+        }
+        ((Consumer<Object>) registration.getPacketConsumer()).accept(instance);
+    }
+
+    private void timeout(int transactionIdentifier) {
+        removeRegistration(transactionIdentifier).getOnTimeoutConsumer().accept(new TimeoutException());
+    }
+
+    private HandlerRegistration removeRegistration(int transactionIdentifier) {
+        for (HandlerRegistration registration : registrations) {
+            if (registration.getCorrelationKey().equals(transactionIdentifier)) {
+                registrations.remove(registration);
+                return registration;
+            }
+        }
+        throw new AssertionError("No request waiting for transaction " + transactionIdentifier);
+    }
+
+    private static void assertTimedOut(CompletableFuture<ModbusPDU> future) {
+        ExecutionException e = assertThrows(ExecutionException.class, future::get);
+        assertTrue(e.getCause() instanceof TimeoutException);
+    }
+
+}
@@ -0,0 +1,70 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.protocol;
+
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.modbus.config.ModbusConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ModbusSerialProtocolLogicTest {
+
+    @Test
+    public void parseUnitRequestTimeouts() {
+        Map<Short, Duration> timeouts = ModbusSerialProtocolLogic.parseUnitRequestTimeouts("1:500, 7 : 2000");
+        assertEquals(2, timeouts.size());
+        assertEquals(Duration.ofMillis(500), timeouts.get((short) 1));
+        assertEquals(Duration.ofMillis(2000), timeouts.get((short) 7));
+    }
+
+    @Test
+    public void parseMissingUnitRequestTimeouts() {
+        assertTrue(ModbusSerialProtocolLogic.parseUnitRequestTimeouts(null).isEmpty());
+        assertTrue(ModbusSerialProtocolLogic.parseUnitRequestTimeouts(" ").isEmpty());
+    }
+
+    @Test
+    public void rejectInvalidUnitRequestTimeouts() {
+        assertThrows(PlcRuntimeException.class, () -> ModbusSerialProtocolLogic.parseUnitRequestTimeouts("1:500,7"));
+        assertThrows(PlcRuntimeException.class, () -> ModbusSerialProtocolLogic.parseUnitRequestTimeouts("1:500:2"));
+        assertThrows(PlcRuntimeException.class, () -> ModbusSerialProtocolLogic.parseUnitRequestTimeouts("one:500"));
+        assertThrows(PlcRuntimeException.class, () -> ModbusSerialProtocolLogic.parseUnitRequestTimeouts("1:500ms"));
+    }
+
+    @Test
+    public void requestTimeoutPerUnit() {
+        ModbusConfiguration configuration = new ModbusConfiguration();
+        configuration.setRequestTimeout(1000);
+        configuration.setBaudRate(9600);
+        configuration.setUnitRequestTimeouts("7:2000");
+        ModbusSerialProtocolLogic protocolLogic = new ModbusSerialProtocolLogic();
+        protocolLogic.setConfiguration(configuration);
+
+        assertEquals(Duration.ofMillis(2000), protocolLogic.getRequestTimeout((short) 7));
+        // Units without a timeout of their own use the request timeout of the connection.
+        assertEquals(Duration.ofMillis(1000), protocolLogic.getRequestTimeout((short) 1));
+    }
+
+}
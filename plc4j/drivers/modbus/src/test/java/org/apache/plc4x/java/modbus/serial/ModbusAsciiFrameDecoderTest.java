@@ -0,0 +1,135 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ModbusAsciiFrameDecoderTest {
+
+    /** Request of unit 1 to read ten holding registers starting at address 0 */
+    private static final byte[] READ_REQUEST = {0x01, 0x03, 0x00, 0x00, 0x00, 0x0A};
+    private static final String READ_REQUEST_FRAME = ":01030000000AF2\r\n";
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    public void setUp() {
+        channel = new EmbeddedChannel(new ModbusAsciiFrameDecoder());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void decodeFrame() {
+        writeInbound(READ_REQUEST_FRAME);
+        assertFrame(READ_REQUEST);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void decodeFrameReceivedInChunks() {
+        writeInbound(":0103");
+        writeInbound("0000000A");
+        writeInbound("F2\r");
+        assertNull(channel.readInbound());
+        writeInbound("\n");
+        assertFrame(READ_REQUEST);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void decodeFramesOfOneChunkIgnoringDataOutsideFrames() {
+        writeInbound("noise" + READ_REQUEST_FRAME + "\r\n" + READ_REQUEST_FRAME + "noise");
+        assertFrame(READ_REQUEST);
+        assertFrame(READ_REQUEST);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void rejectInvalidLrc() {
+        writeInbound(":01030000000AF3\r\n");
+        assertNull(channel.readInbound());
+        writeInbound(READ_REQUEST_FRAME);
+        assertFrame(READ_REQUEST);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void discardIncompleteFrameOnNextStart() {
+        writeInbound(":0103");
+        writeInbound(READ_REQUEST_FRAME);
+        assertFrame(READ_REQUEST);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void rejectMalformedFrames() {
+        // Invalid characters, missing CR and odd number of characters.
+        writeInbound(":01030000000XF2\r\n:01030000000AF2\n:01030000000AF\r\n");
+        assertNull(channel.readInbound());
+        writeInbound(READ_REQUEST_FRAME);
+        assertFrame(READ_REQUEST);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void decodeEncodedFrame() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new ModbusAsciiFrameEncoder());
+        try {
+            encoder.writeOutbound(Unpooled.wrappedBuffer(READ_REQUEST));
+            ByteBuf encoded = encoder.readOutbound();
+            assertEquals(READ_REQUEST_FRAME, encoded.toString(StandardCharsets.US_ASCII));
+            channel.writeInbound(encoded);
+            assertFrame(READ_REQUEST);
+        } finally {
+            encoder.finishAndReleaseAll();
+        }
+    }
+
+    private void writeInbound(String data) {
+        channel.writeInbound(Unpooled.copiedBuffer(data, StandardCharsets.US_ASCII));
+    }
+
+    private void assertFrame(byte[] expected) {
+        ByteBuf frame = channel.readInbound();
+        assertNotNull(frame);
+        try {
+            assertArrayEquals(expected, ByteBufUtil.getBytes(frame));
+        } finally {
+            frame.release();
+        }
+    }
+
+}
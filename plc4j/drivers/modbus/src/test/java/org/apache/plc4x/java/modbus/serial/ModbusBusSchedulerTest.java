@@ -0,0 +1,178 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ModbusBusSchedulerTest {
+
+    private static final short UNIT_A = 1;
+    private static final short UNIT_B = 2;
+    private static final short UNIT_C = 3;
+
+    private ScheduledExecutorService executor;
+
+    @BeforeEach
+    public void setUp() {
+        executor = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void oneRequestAtATimeWithUnitsTakingTurns() throws Exception {
+        ModbusBusScheduler scheduler = new ModbusBusScheduler(executor, 0);
+        BlockingQueue<Started> started = new LinkedBlockingQueue<>();
+
+        scheduler.submit(UNIT_A, request("A1", started));
+        Started a1 = poll(started);
+        assertEquals("A1", a1.name);
+
+        scheduler.submit(UNIT_A, request("A2", started));
+        scheduler.submit(UNIT_A, request("A3", started));
+        scheduler.submit(UNIT_B, request("B1", started));
+        scheduler.submit(UNIT_C, request("C1", started));
+        // The bus is still occupied by the first request.
+        assertNull(started.poll(50, TimeUnit.MILLISECONDS));
+        assertEquals(4, scheduler.getNumberOfQueuedRequests());
+        assertEquals(2, scheduler.getNumberOfQueuedRequests(UNIT_A));
+        assertEquals(1, scheduler.getNumberOfQueuedRequests(UNIT_B));
+
+        a1.done.run();
+        // Finishing a request again must not release the bus a second time.
+        a1.done.run();
+        List<String> order = new ArrayList<>(Arrays.asList(a1.name));
+        for (int i = 0; i < 4; i++) {
+            Started next = poll(started);
+            assertNull(started.poll(20, TimeUnit.MILLISECONDS));
+            order.add(next.name);
+            next.done.run();
+        }
+        assertEquals(Arrays.asList("A1", "A2", "B1", "C1", "A3"), order);
+        assertEquals(0, scheduler.getNumberOfQueuedRequests());
+    }
+
+    @Test
+    public void keepInterFrameDelayBetweenRequests() throws Exception {
+        long interFrameDelayNanos = TimeUnit.MILLISECONDS.toNanos(50);
+        ModbusBusScheduler scheduler = new ModbusBusScheduler(executor, interFrameDelayNanos);
+        long[] startNanos = new long[2];
+        long[] doneNanos = new long[1];
+        CountDownLatch finished = new CountDownLatch(1);
+
+        scheduler.submit(UNIT_A, done -> {
+            startNanos[0] = System.nanoTime();
+            doneNanos[0] = System.nanoTime();
+            done.run();
+        });
+        scheduler.submit(UNIT_B, done -> {
+            startNanos[1] = System.nanoTime();
+            done.run();
+            finished.countDown();
+        });
+
+        assertTrue(finished.await(1, TimeUnit.SECONDS));
+        assertTrue(startNanos[1] - doneNanos[0] >= interFrameDelayNanos);
+    }
+
+    @Test
+    public void unitRunningIntoTimeoutsOnlyDelaysOtherUnitsByOneRequest() throws Exception {
+        ModbusBusScheduler scheduler = new ModbusBusScheduler(executor, 0);
+        List<String> order = new ArrayList<>();
+        CountDownLatch finished = new CountDownLatch(6);
+
+        for (int i = 1; i <= 3; i++) {
+            String name = "D" + i;
+            // A dead unit, every request is finished by its timeout.
+            scheduler.submit(UNIT_A, done -> {
+                order.add(name);
+                finished.countDown();
+                executor.schedule(done, 100, TimeUnit.MILLISECONDS);
+            });
+        }
+        for (int i = 1; i <= 3; i++) {
+            String name = "L" + i;
+            scheduler.submit(UNIT_B, done -> {
+                order.add(name);
+                finished.countDown();
+                done.run();
+            });
+        }
+
+        assertTrue(finished.await(2, TimeUnit.SECONDS));
+        assertEquals(Arrays.asList("D1", "D2", "L1", "D3", "L2", "L3"), order);
+    }
+
+    @Test
+    public void failingRequestReleasesBus() throws Exception {
+        ModbusBusScheduler scheduler = new ModbusBusScheduler(executor, 0);
+        BlockingQueue<Started> started = new LinkedBlockingQueue<>();
+
+        scheduler.submit(UNIT_A, done -> {
+            throw new IllegalStateException("Channel closed");
+        });
+        scheduler.submit(UNIT_A, request("A2", started));
+
+        Started next = poll(started);
+        assertEquals("A2", next.name);
+    }
+
+    private static ModbusBusScheduler.BusRequest request(String name, BlockingQueue<Started> started) {
+        return done -> started.add(new Started(name, done));
+    }
+
+    private static Started poll(BlockingQueue<Started> started) throws InterruptedException {
+        Started next = started.poll(1, TimeUnit.SECONDS);
+        assertNotNull(next);
+        return next;
+    }
+
+    private static class Started {
+
+        private final String name;
+        private final Runnable done;
+
+        private Started(String name, Runnable done) {
+            this.name = name;
+            this.done = done;
+        }
+
+    }
+
+}
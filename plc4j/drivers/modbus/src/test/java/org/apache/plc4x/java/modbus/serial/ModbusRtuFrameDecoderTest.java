@@ -0,0 +1,174 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ModbusRtuFrameDecoderTest {
+
+    /** Longer than any silence detected by the decoder at 9600 baud */
+    private static final long SILENCE_MILLIS = 50;
+
+    /** Response of unit 1 to reading two holding registers (values 10 and 11), without CRC */
+    private static final byte[] READ_RESPONSE = bytes(0x01, 0x03, 0x04, 0x00, 0x0A, 0x00, 0x0B);
+
+    private EmbeddedChannel channel;
+
+    @BeforeEach
+    public void setUp() {
+        channel = new EmbeddedChannel(new ModbusRtuFrameDecoder(9600));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        channel.finishAndReleaseAll();
+    }
+
+    @Test
+    public void decodeFrame() {
+        writeInbound(withCrc(READ_RESPONSE));
+        assertFrame(READ_RESPONSE);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void decodeFrameReceivedInChunks() {
+        byte[] frame = withCrc(READ_RESPONSE);
+        writeInbound(Arrays.copyOfRange(frame, 0, 1));
+        writeInbound(Arrays.copyOfRange(frame, 1, 4));
+        assertNull(channel.readInbound());
+        writeInbound(Arrays.copyOfRange(frame, 4, frame.length));
+        assertFrame(READ_RESPONSE);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void decodeFramesOfOneChunk() {
+        byte[] exceptionResponse = bytes(0x01, 0x83, 0x02);
+        writeInbound(concat(withCrc(READ_RESPONSE), withCrc(exceptionResponse)));
+        assertFrame(READ_RESPONSE);
+        assertFrame(exceptionResponse);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void discardIncompleteFrameAfterSilence() throws Exception {
+        writeInbound(Arrays.copyOfRange(withCrc(READ_RESPONSE), 0, 4));
+        Thread.sleep(SILENCE_MILLIS);
+        // The rest of the incomplete frame never arrives, the next frame is decoded nevertheless.
+        writeInbound(withCrc(READ_RESPONSE));
+        assertFrame(READ_RESPONSE);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void rejectInvalidCrc() throws Exception {
+        byte[] frame = withCrc(READ_RESPONSE);
+        frame[frame.length - 1] ^= 0xFF;
+        writeInbound(frame);
+        assertNull(channel.readInbound());
+        // After the silence the rest of the invalid frame is discarded as well.
+        Thread.sleep(SILENCE_MILLIS);
+        channel.runScheduledPendingTasks();
+        assertNull(channel.readInbound());
+
+        writeInbound(withCrc(READ_RESPONSE));
+        assertFrame(READ_RESPONSE);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void resynchronizeAfterNoise() {
+        writeInbound(concat(bytes(0x00), withCrc(READ_RESPONSE)));
+        assertFrame(READ_RESPONSE);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void decodeFrameTerminatedBySilence() throws Exception {
+        // The length of a response with an unknown function code can't be determined from its content.
+        byte[] response = bytes(0x01, 0x2B, 0x0E, 0x01, 0x01);
+        writeInbound(withCrc(response));
+        assertNull(channel.readInbound());
+        Thread.sleep(SILENCE_MILLIS);
+        channel.runScheduledPendingTasks();
+        assertFrame(response);
+        assertNull(channel.readInbound());
+    }
+
+    @Test
+    public void decodeEncodedFrame() {
+        EmbeddedChannel encoder = new EmbeddedChannel(new ModbusRtuFrameEncoder());
+        try {
+            encoder.writeOutbound(Unpooled.wrappedBuffer(bytes(0x01, 0x03, 0x00, 0x00, 0x00, 0x0A)));
+            ByteBuf encoded = encoder.readOutbound();
+            assertArrayEquals(bytes(0x01, 0x03, 0x00, 0x00, 0x00, 0x0A, 0xC5, 0xCD), ByteBufUtil.getBytes(encoded));
+            channel.writeInbound(encoded);
+            assertFrame(bytes(0x01, 0x03, 0x00, 0x00, 0x00, 0x0A));
+        } finally {
+            encoder.finishAndReleaseAll();
+        }
+    }
+
+    private void writeInbound(byte[] data) {
+        channel.writeInbound(Unpooled.wrappedBuffer(data));
+    }
+
+    private void assertFrame(byte[] expected) {
+        ByteBuf frame = channel.readInbound();
+        assertNotNull(frame);
+        try {
+            assertArrayEquals(expected, ByteBufUtil.getBytes(frame));
+        } finally {
+            frame.release();
+        }
+    }
+
+    private static byte[] withCrc(byte[] data) {
+        int crc = ModbusSerialUtils.crc16(Unpooled.wrappedBuffer(data), 0, data.length);
+        return concat(data, bytes(crc & 0xFF, crc >> 8));
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,61 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.modbus.serial;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class ModbusSerialUtilsTest {
+
+    @Test
+    public void crc16() {
+        // Read 10 holding registers of unit 1, the CRC is transmitted as C5 CD.
+        ByteBuf frame = Unpooled.wrappedBuffer(new byte[]{0x01, 0x03, 0x00, 0x00, 0x00, 0x0A});
+        assertEquals(0xCDC5, ModbusSerialUtils.crc16(frame, 0, frame.readableBytes()));
+    }
+
+    @Test
+    public void lrc() {
+        // Read 10 holding registers of unit 1, as ASCII frame ":01030000000AF2".
+        ByteBuf frame = Unpooled.wrappedBuffer(new byte[]{0x01, 0x03, 0x00, 0x00, 0x00, 0x0A});
+        assertEquals((short) 0xF2, ModbusSerialUtils.lrc(frame, 0, frame.readableBytes()));
+    }
+
+    @Test
+    public void rtuResponseFrameLength() {
+        assertEquals(-1, ModbusSerialUtils.getRtuResponseFrameLength(Unpooled.wrappedBuffer(new byte[]{0x01})));
+        assertEquals(-1, ModbusSerialUtils.getRtuResponseFrameLength(Unpooled.wrappedBuffer(new byte[]{0x01, 0x03})));
+        assertEquals(9, ModbusSerialUtils.getRtuResponseFrameLength(Unpooled.wrappedBuffer(new byte[]{0x01, 0x03, 0x04})));
+        assertEquals(5, ModbusSerialUtils.getRtuResponseFrameLength(Unpooled.wrappedBuffer(new byte[]{0x01, (byte) 0x83})));
+        assertEquals(8, ModbusSerialUtils.getRtuResponseFrameLength(Unpooled.wrappedBuffer(new byte[]{0x01, 0x10})));
+        assertEquals(-2, ModbusSerialUtils.getRtuResponseFrameLength(Unpooled.wrappedBuffer(new byte[]{0x01, 0x2B})));
+    }
+
+    @Test
+    public void interFrameDelay() {
+        // 11 bits per character at 9600 baud: 3.5 characters take ~4010us.
+        assertEquals(4_010_416L, ModbusSerialUtils.getInterFrameDelayNanos(9600));
+        // Above 19200 baud the delay is fixed.
+        assertEquals(1_750_000L, ModbusSerialUtils.getInterFrameDelayNanos(115200));
+    }
+
+}
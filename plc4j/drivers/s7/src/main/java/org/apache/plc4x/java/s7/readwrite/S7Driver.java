@@ -71,6 +71,11 @@ public class S7Driver extends GeneratedDriverBase<TPKTPacket> {
         return true;
     }
 
+    @Override
+    protected boolean canSubscribe() {
+        return true;
+    }
+
     @Override
     protected BaseOptimizer getOptimizer() {
         return new S7Optimizer();
@@ -55,6 +55,10 @@ public class S7Configuration implements Configuration, TcpTransportConfiguration
     @IntDefaultValue(8)
     public int maxAmqCallee = 8;
 
+    @ConfigurationParameter("max-cyclic-jobs")
+    @IntDefaultValue(4)
+    public int maxCyclicJobs = 4;
+
     @ConfigurationParameter("controller-type")
     public String controllerType;
 
@@ -114,6 +118,14 @@ public class S7Configuration implements Configuration, TcpTransportConfiguration
         this.maxAmqCallee = maxAmqCallee;
     }
 
+    public int getMaxCyclicJobs() {
+        return maxCyclicJobs;
+    }
+
+    public void setMaxCyclicJobs(int maxCyclicJobs) {
+        this.maxCyclicJobs = maxCyclicJobs;
+    }
+
     public String getControllerType() {
         return controllerType;
     }
@@ -141,6 +153,7 @@ public class S7Configuration implements Configuration, TcpTransportConfiguration
             ", pduSize=" + pduSize +
             ", maxAmqCaller=" + maxAmqCaller +
             ", maxAmqCallee=" + maxAmqCallee +
+            ", maxCyclicJobs=" + maxCyclicJobs +
             ", controllerType='" + controllerType + '\'' +
             '}';
     }
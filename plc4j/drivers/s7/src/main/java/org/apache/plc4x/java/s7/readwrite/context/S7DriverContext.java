@@ -35,6 +35,7 @@ public class S7DriverContext implements DriverContext, HasConfiguration<S7Config
     private int pduSize;
     private int maxAmqCaller;
     private int maxAmqCallee;
+    private int maxCyclicJobs;
     private S7ControllerType controllerType;
 
     @Override
@@ -60,6 +61,7 @@ public class S7DriverContext implements DriverContext, HasConfiguration<S7Config
         this.pduSize = cotpTpduSize.getSizeInBytes() - 16;
         this.maxAmqCaller = configuration.maxAmqCaller;
         this.maxAmqCallee = configuration.maxAmqCallee;
+        this.maxCyclicJobs = configuration.maxCyclicJobs;
     }
 
     public boolean isPassiveMode() {
@@ -118,6 +120,14 @@ public class S7DriverContext implements DriverContext, HasConfiguration<S7Config
         this.maxAmqCallee = maxAmqCallee;
     }
 
+    public int getMaxCyclicJobs() {
+        return maxCyclicJobs;
+    }
+
+    public void setMaxCyclicJobs(int maxCyclicJobs) {
+        this.maxCyclicJobs = maxCyclicJobs;
+    }
+
     public S7ControllerType getControllerType() {
         return controllerType;
     }
@@ -122,6 +122,18 @@ public class S7Field implements PlcField, XmlSerializable {
         return numElements;
     }
 
+    /**
+     * Creates a field of the same type and memory area, addressing a given number of elements
+     * starting at another byte offset (used for splitting up large arrays).
+     *
+     * @param byteOffset byte offset of the first element.
+     * @param numElements number of elements.
+     * @return new field instance.
+     */
+    public S7Field withElements(int byteOffset, int numElements) {
+        return new S7Field(dataType, memoryArea, blockNumber, byteOffset, bitOffset, numElements);
+    }
+
     public static boolean matches(String fieldString) {
         return
             DATA_BLOCK_STRING_ADDRESS_PATTERN.matcher(fieldString).matches() ||
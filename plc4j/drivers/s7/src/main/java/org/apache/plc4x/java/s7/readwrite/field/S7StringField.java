@@ -42,6 +42,12 @@ public class S7StringField extends S7Field {
         return stringLength;
     }
 
+    @Override
+    public S7StringField withElements(int byteOffset, int numElements) {
+        return new S7StringField(getDataType(), getMemoryArea(), getBlockNumber(), byteOffset, getBitOffset(),
+            numElements, stringLength);
+    }
+
     @Override
     public void xmlSerialize(Element parent) {
         super.xmlSerialize(parent);
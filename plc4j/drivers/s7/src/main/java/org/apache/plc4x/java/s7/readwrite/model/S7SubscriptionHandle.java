@@ -0,0 +1,73 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.readwrite.model;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.plc4x.java.api.types.PlcSubscriptionType;
+import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.spi.messages.PlcSubscriber;
+import org.apache.plc4x.java.spi.model.DefaultPlcSubscriptionHandle;
+
+/**
+ * Handle for one field of a cyclic (or change-driven) job registered at the PLC.
+ * All fields registered with the same job share the same job id.
+ */
+public class S7SubscriptionHandle extends DefaultPlcSubscriptionHandle {
+
+    private final String fieldName;
+    private final S7Field field;
+    private final PlcSubscriptionType subscriptionType;
+    private final short jobId;
+
+    public S7SubscriptionHandle(PlcSubscriber plcSubscriber, String fieldName, S7Field field,
+                                PlcSubscriptionType subscriptionType, short jobId) {
+        super(plcSubscriber);
+        this.fieldName = fieldName;
+        this.field = field;
+        this.subscriptionType = subscriptionType;
+        this.jobId = jobId;
+    }
+
+    public String getFieldName() {
+        return fieldName;
+    }
+
+    public S7Field getField() {
+        return field;
+    }
+
+    public PlcSubscriptionType getSubscriptionType() {
+        return subscriptionType;
+    }
+
+    public short getJobId() {
+        return jobId;
+    }
+
+    @Override
+    public String toString() {
+        return new ToStringBuilder(this)
+            .append("fieldName", fieldName)
+            .append("field", field)
+            .append("subscriptionType", subscriptionType)
+            .append("jobId", jobId)
+            .toString();
+    }
+
+}
@@ -36,9 +36,9 @@ import java.util.concurrent.atomic.AtomicInteger;
  *   could exceed the PDU size: The requests has to be split up into multiple requests
  *   where each requests response doesn't exceed the PDU size.
  *
- * The following optimizations should be implemented:
+ * The following optimizations are implemented for reads by the {@link S7Optimizer}:
  * - If blocks are read which are in near proximity to each other it could be better
- *   to replace multiple requests by one that includes multiple blocks.
+ *   to replace multiple requests by one that includes multiple blocks (see {@link S7ReadBlock}).
  * - Rearranging the order of request items could reduce the number of needed PDUs.
  */
 public class DefaultS7MessageProcessor implements S7MessageProcessor {
@@ -18,9 +18,11 @@ under the License.
 */
 package org.apache.plc4x.java.s7.readwrite.optimizer;
 
+import io.vavr.control.Either;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.*;
 import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.s7.readwrite.*;
 import org.apache.plc4x.java.s7.readwrite.context.S7DriverContext;
@@ -29,9 +31,14 @@ import org.apache.plc4x.java.s7.readwrite.types.MemoryArea;
 import org.apache.plc4x.java.s7.readwrite.types.TransportSize;
 import org.apache.plc4x.java.spi.context.DriverContext;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.PlcReader;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteRequest;
 import org.apache.plc4x.java.spi.messages.utils.FieldValueItem;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
 import org.apache.plc4x.java.spi.optimizer.BaseOptimizer;
+import org.apache.plc4x.java.spi.values.PlcList;
+import org.apache.plc4x.java.spi.values.PlcPrimitiveArray;
 
 import java.util.*;
 
@@ -48,65 +55,145 @@ public class S7Optimizer extends BaseOptimizer {
     public static final int S7_ADDRESS_ANY_SIZE = 2 +
         new S7AddressAny(TransportSize.INT, 1, 1, MemoryArea.DATA_BLOCKS, 1, (byte) 0).getLengthInBytes();
 
+    /**
+     * Separator used for naming the parts of a field too big to be read with one single PDU.
+     */
+    static final String CHUNK_SEPARATOR = "#chunk-";
+
+    /**
+     * The split of read requests depends on the negotiated pdu size only.
+     */
+    @Override
+    protected Object getPreparedReadKey(DriverContext driverContext) {
+        return ((S7DriverContext) driverContext).getPduSize();
+    }
+
     @Override
     protected List<PlcRequest> processReadRequest(PlcReadRequest readRequest, DriverContext driverContext) {
         S7DriverContext s7DriverContext = (S7DriverContext) driverContext;
+        int pduSize = s7DriverContext.getPduSize();
+        int maxLength = S7ReadBlock.getMaxLength(pduSize);
+        PlcReader reader = ((DefaultPlcReadRequest) readRequest).getReader();
         List<PlcRequest> processedRequests = new LinkedList<>();
 
-        // This calculates the size of the header for the request and response.
-        int curRequestSize = EMPTY_READ_REQUEST_SIZE;
-        // An empty response has the same size as an empty request.
-        int curResponseSize = EMPTY_READ_RESPONSE_SIZE;
-
-        // List of all items in the current request.
-        LinkedHashMap<String, PlcField> curFields = new LinkedHashMap<>();
-
-        for (String fieldName : readRequest.getFieldNames()) {
-            S7Field field = (S7Field) readRequest.getField(fieldName);
+        // Merge fields close to each other into blocks, which are read with one single item.
+        List<S7ReadBlock> blocks = new ArrayList<>();
+        for (S7ReadBlock block : S7ReadBlock.of(readRequest, maxLength)) {
+            if (block.getLength() <= maxLength) {
+                blocks.add(block);
+            } else {
+                // Fields too big for one PDU are split up into several requests, which are merged again
+                // when processing the responses.
+                Map.Entry<String, S7Field> fieldEntry = block.getFields().entrySet().iterator().next();
+                processedRequests.addAll(splitField(reader, fieldEntry.getKey(), fieldEntry.getValue(), maxLength));
+            }
+        }
 
-            int readRequestItemSize = S7_ADDRESS_ANY_SIZE;
-            int readResponseItemSize = 4 + (field.getNumberOfElements() * field.getDataType().getSizeInBytes());
-            // If it's an odd number of bytes, add one to make it even
-            if (readResponseItemSize % 2 == 1) {
-                readResponseItemSize++;
+        // Distribute the blocks to as few requests as possible (first fit decreasing bin packing).
+        blocks.sort(Comparator.comparingInt(S7ReadBlock::getResponseItemSize).reversed());
+        List<ReadBin> bins = new ArrayList<>();
+        for (S7ReadBlock block : blocks) {
+            ReadBin bin = null;
+            for (ReadBin curBin : bins) {
+                if (curBin.fits(block, pduSize)) {
+                    bin = curBin;
+                    break;
+                }
+            }
+            if (bin == null) {
+                bin = new ReadBin();
+                bins.add(bin);
             }
+            bin.add(block);
+        }
 
-            // If adding the item would not exceed the sizes, add it to the current request.
-            if (((curRequestSize + readRequestItemSize) <= s7DriverContext.getPduSize()) &&
-                ((curResponseSize + readResponseItemSize) <= s7DriverContext.getPduSize())) {
-                // Increase the current request sizes.
-                curRequestSize += readRequestItemSize;
-                curResponseSize += readResponseItemSize;
+        // If everything fits into one PDU, the request can be sent as it is.
+        if (processedRequests.isEmpty() && (bins.size() == 1)) {
+            return Collections.singletonList(readRequest);
+        }
+        for (ReadBin bin : bins) {
+            processedRequests.add(new DefaultPlcReadRequest(reader, bin.fields));
+        }
+        return processedRequests;
+    }
 
-                // Add the item.
+    @Override
+    protected PlcReadResponse processReadResponses(PlcReadRequest readRequest, Map<PlcRequest, Either<PlcResponse, Exception>> readResponses) {
+        Map<String, ResponseItem<PlcValue>> fields = new HashMap<>(getMapCapacity(readRequest.getNumberOfFields()));
+        Map<String, SortedMap<Integer, ResponseItem<PlcValue>>> chunks = new HashMap<>();
+        for (Map.Entry<PlcRequest, Either<PlcResponse, Exception>> requestsEntries : readResponses.entrySet()) {
+            PlcReadRequest curRequest = (PlcReadRequest) requestsEntries.getKey();
+            Either<PlcResponse, Exception> readResponse = requestsEntries.getValue();
+            for (String fieldName : curRequest.getFieldNames()) {
+                ResponseItem<PlcValue> responseItem = getResponseItem(readResponse, fieldName);
+                int chunkSeparatorIndex = fieldName.lastIndexOf(CHUNK_SEPARATOR);
+                if ((readRequest.getField(fieldName) == null) && (chunkSeparatorIndex != -1)) {
+                    int chunkIndex = Integer.parseInt(fieldName.substring(chunkSeparatorIndex + CHUNK_SEPARATOR.length()));
+                    chunks.computeIfAbsent(fieldName.substring(0, chunkSeparatorIndex), name -> new TreeMap<>())
+                        .put(chunkIndex, responseItem);
+                } else {
+                    fields.put(fieldName, responseItem);
+                }
             }
-            // If they would exceed, start a new request.
-            else {
-                // Create a new PlcReadRequest containing the current field item.
-                processedRequests.add(new DefaultPlcReadRequest(
-                    ((DefaultPlcReadRequest) readRequest).getReader(), curFields));
-
-                // Reset the size and item lists.
-                curRequestSize = EMPTY_READ_REQUEST_SIZE;
-                curResponseSize = EMPTY_READ_RESPONSE_SIZE;
-                curFields = new LinkedHashMap<>();
+        }
 
-                // Splitting of huge fields not yet implemented, throw an exception instead.
-                if(((curRequestSize + readRequestItemSize) > s7DriverContext.getPduSize()) &&
-                    ((curResponseSize + readResponseItemSize) > s7DriverContext.getPduSize())) {
-                    throw new PlcRuntimeException("Field size exceeds maximum payload for one item.");
+        // Put the parts of split up fields back together.
+        for (Map.Entry<String, SortedMap<Integer, ResponseItem<PlcValue>>> chunkEntry : chunks.entrySet()) {
+            List<PlcValue> chunkValues = new ArrayList<>(chunkEntry.getValue().size());
+            PlcResponseCode responseCode = PlcResponseCode.OK;
+            for (ResponseItem<PlcValue> chunk : chunkEntry.getValue().values()) {
+                if (chunk.getCode() != PlcResponseCode.OK) {
+                    responseCode = chunk.getCode();
+                    break;
                 }
+                chunkValues.add(chunk.getValue());
             }
-            curFields.put(fieldName, field);
+            fields.put(chunkEntry.getKey(), (responseCode == PlcResponseCode.OK) ?
+                new ResponseItem<>(responseCode, joinChunks(chunkValues)) : new ResponseItem<>(responseCode, null));
         }
+        return new DefaultPlcReadResponse(readRequest, fields);
+    }
 
-        // Create a new PlcReadRequest from the remaining field items.
-        if(!curFields.isEmpty()) {
-            processedRequests.add(new DefaultPlcReadRequest(
-                ((DefaultPlcReadRequest) readRequest).getReader(), curFields));
+    /**
+     * Numeric arrays are parsed into primitive arrays, so their chunks are joined into one of the same type.
+     * All other values are joined into a {@link PlcList}.
+     */
+    private PlcValue joinChunks(List<PlcValue> chunkValues) {
+        PlcPrimitiveArray primitiveArray = PlcPrimitiveArray.concat(chunkValues);
+        if (primitiveArray != null) {
+            return primitiveArray;
+        }
+        List<PlcValue> values = new ArrayList<>();
+        for (PlcValue chunkValue : chunkValues) {
+            if (chunkValue.isList()) {
+                values.addAll(chunkValue.getList());
+            } else {
+                values.add(chunkValue);
+            }
         }
+        return new PlcList(values);
+    }
 
-        return processedRequests;
+    /**
+     * Splits an array field, which is too big for one PDU, up into several requests each reading a part of it.
+     */
+    private List<PlcRequest> splitField(PlcReader reader, String fieldName, S7Field field, int maxLength) {
+        int elementSize = S7ReadBlock.getLengthInBytes(field) / field.getNumberOfElements();
+        // Single elements can't be split up and the elements of boolean arrays aren't byte addressed.
+        if ((elementSize > maxLength) || (field.getDataType() == TransportSize.BOOL)) {
+            throw new PlcRuntimeException("Field size exceeds maximum payload for one item.");
+        }
+        int maxNumElements = maxLength / elementSize;
+        List<PlcRequest> chunkRequests = new ArrayList<>();
+        int chunkIndex = 0;
+        for (int element = 0; element < field.getNumberOfElements(); element += maxNumElements) {
+            int numElements = Math.min(maxNumElements, field.getNumberOfElements() - element);
+            S7Field chunk = field.withElements(field.getByteOffset() + (element * elementSize), numElements);
+            LinkedHashMap<String, PlcField> chunkFields = new LinkedHashMap<>();
+            chunkFields.put(fieldName + CHUNK_SEPARATOR + chunkIndex++, chunk);
+            chunkRequests.add(new DefaultPlcReadRequest(reader, chunkFields));
+        }
+        return chunkRequests;
     }
 
     @Override
@@ -171,4 +258,26 @@ public class S7Optimizer extends BaseOptimizer {
         return processedRequests;
     }
 
+    /**
+     * Sub-request being filled with blocks.
+     */
+    private static class ReadBin {
+
+        private int requestSize = EMPTY_READ_REQUEST_SIZE;
+        private int responseSize = EMPTY_READ_RESPONSE_SIZE;
+        private final LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+
+        private boolean fits(S7ReadBlock block, int pduSize) {
+            return ((requestSize + S7_ADDRESS_ANY_SIZE) <= pduSize) &&
+                ((responseSize + block.getResponseItemSize()) <= pduSize);
+        }
+
+        private void add(S7ReadBlock block) {
+            requestSize += S7_ADDRESS_ANY_SIZE;
+            responseSize += block.getResponseItemSize();
+            fields.putAll(block.getFields());
+        }
+
+    }
+
 }
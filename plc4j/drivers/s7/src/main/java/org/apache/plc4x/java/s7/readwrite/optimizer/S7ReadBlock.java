@@ -0,0 +1,209 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.readwrite.optimizer;
+
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.s7.readwrite.field.S7StringField;
+import org.apache.plc4x.java.s7.readwrite.types.MemoryArea;
+import org.apache.plc4x.java.s7.readwrite.types.TransportSize;
+
+import java.util.*;
+
+/**
+ * One item of a S7 read request. Usually this is exactly one field, however fields located in the same memory area
+ * (and data block) close to each other are merged into one block, which is read as one single byte array and sliced
+ * back into the individual fields after reading.
+ * <p>
+ * The {@link S7Optimizer} uses the blocks to decide how many fields fit into one PDU and the protocol logic uses
+ * the same blocks for creating the request items and decoding the response, so both always agree on the layout.
+ */
+public class S7ReadBlock {
+
+    /**
+     * Maximum number of unrequested bytes between two fields still merged into one block.
+     * Reading these bytes is cheaper than the overhead of an additional item in the request and response.
+     */
+    public static final int MAX_GAP = S7Optimizer.S7_ADDRESS_ANY_SIZE + 4;
+
+    private final MemoryArea memoryArea;
+    private final int blockNumber;
+    private final int byteOffset;
+    private int length;
+    private final LinkedHashMap<String, S7Field> fields;
+
+    private S7ReadBlock(String fieldName, S7Field field) {
+        this.memoryArea = field.getMemoryArea();
+        this.blockNumber = field.getBlockNumber();
+        this.byteOffset = field.getByteOffset();
+        this.length = getLengthInBytes(field);
+        this.fields = new LinkedHashMap<>();
+        this.fields.put(fieldName, field);
+    }
+
+    /**
+     * Splits the fields of a read request up into blocks.
+     *
+     * @param readRequest request containing only {@link S7Field}s.
+     * @param maxLength maximum number of bytes a merged block may contain.
+     * @return list of blocks.
+     */
+    public static List<S7ReadBlock> of(PlcReadRequest readRequest, int maxLength) {
+        List<S7ReadBlock> blocks = new ArrayList<>(readRequest.getNumberOfFields());
+        List<S7ReadBlock> mergeable = new ArrayList<>(readRequest.getNumberOfFields());
+        for (String fieldName : readRequest.getFieldNames()) {
+            S7Field field = (S7Field) readRequest.getField(fieldName);
+            S7ReadBlock block = new S7ReadBlock(fieldName, field);
+            if (isMergeable(field) && (block.length <= maxLength)) {
+                mergeable.add(block);
+            } else {
+                blocks.add(block);
+            }
+        }
+        if (mergeable.isEmpty()) {
+            return blocks;
+        }
+
+        // Order by memory area, data block and address, so candidates for merging are next to each other.
+        mergeable.sort(Comparator.comparing((S7ReadBlock block) -> block.memoryArea)
+            .thenComparingInt(block -> block.blockNumber)
+            .thenComparingInt(block -> block.byteOffset));
+        S7ReadBlock curBlock = null;
+        for (S7ReadBlock block : mergeable) {
+            if ((curBlock != null) && curBlock.canMerge(block, maxLength)) {
+                curBlock.length = Math.max(curBlock.getEndOffset(), block.getEndOffset()) - curBlock.byteOffset;
+                curBlock.fields.putAll(block.fields);
+            } else {
+                curBlock = block;
+                blocks.add(curBlock);
+            }
+        }
+        return blocks;
+    }
+
+    /**
+     * @param pduSize negotiated PDU size.
+     * @return maximum number of bytes that can be read with one item of a read request.
+     */
+    public static int getMaxLength(int pduSize) {
+        // Keep it even, as odd payloads are padded with an additional byte.
+        return (pduSize - S7Optimizer.EMPTY_READ_RESPONSE_SIZE - 4) & ~1;
+    }
+
+    /**
+     * @param field field.
+     * @return number of bytes the PLC returns when reading the given field.
+     */
+    public static int getLengthInBytes(S7Field field) {
+        TransportSize dataType = field.getDataType();
+        int stringLength = (field instanceof S7StringField) ? ((S7StringField) field).getStringLength() : 254;
+        if (dataType == TransportSize.STRING) {
+            return field.getNumberOfElements() * (stringLength + 2);
+        } else if (dataType == TransportSize.WSTRING) {
+            return field.getNumberOfElements() * (stringLength + 2) * 2;
+        }
+        return field.getNumberOfElements() * dataType.getSizeInBytes();
+    }
+
+    /**
+     * Only fields in the directly addressable memory areas returning their raw memory content can be merged.
+     * Boolean arrays are returned one byte per bit, so they have to be read individually.
+     */
+    private static boolean isMergeable(S7Field field) {
+        switch (field.getMemoryArea()) {
+            case INPUTS:
+            case OUTPUTS:
+            case FLAGS_MARKERS:
+            case DATA_BLOCKS:
+                break;
+            default:
+                return false;
+        }
+        if (field.getDataType() == TransportSize.BOOL) {
+            return field.getNumberOfElements() == 1;
+        }
+        return field.getBitOffset() == 0;
+    }
+
+    private boolean canMerge(S7ReadBlock other, int maxLength) {
+        return (memoryArea == other.memoryArea) && (blockNumber == other.blockNumber) &&
+            (other.byteOffset <= getEndOffset() + MAX_GAP) &&
+            (Math.max(getEndOffset(), other.getEndOffset()) - byteOffset <= maxLength);
+    }
+
+    public MemoryArea getMemoryArea() {
+        return memoryArea;
+    }
+
+    public int getBlockNumber() {
+        return blockNumber;
+    }
+
+    public int getByteOffset() {
+        return byteOffset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getEndOffset() {
+        return byteOffset + length;
+    }
+
+    /**
+     * @return true, if this block contains more than one field and has to be read as byte array.
+     */
+    public boolean isMerged() {
+        return fields.size() > 1;
+    }
+
+    public Map<String, S7Field> getFields() {
+        return fields;
+    }
+
+    /**
+     * @return size of the item in the payload of the response.
+     */
+    public int getResponseItemSize() {
+        int size = 4 + length;
+        // If it's an odd number of bytes, add one to make it even
+        if (size % 2 == 1) {
+            size++;
+        }
+        return size;
+    }
+
+    /**
+     * Extracts the data of one of the fields of a merged block from the data returned for the block.
+     *
+     * @param field one of the fields of this block.
+     * @param data data returned for the whole block.
+     * @return data as it would have been returned when reading the field on its own.
+     */
+    public byte[] getFieldData(S7Field field, byte[] data) {
+        int offset = field.getByteOffset() - byteOffset;
+        // Single bits are returned in the lowest bit of a byte.
+        if (field.getDataType() == TransportSize.BOOL) {
+            return new byte[]{(byte) ((data[offset] >> field.getBitOffset()) & 0x01)};
+        }
+        return Arrays.copyOfRange(data, offset, offset + getLengthInBytes(field));
+    }
+
+}
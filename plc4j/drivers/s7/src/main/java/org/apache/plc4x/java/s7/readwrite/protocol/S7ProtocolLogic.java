@@ -25,57 +25,147 @@ import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.messages.PlcResponse;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionEvent;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionResponse;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
 import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.types.PlcSubscriptionType;
 import org.apache.plc4x.java.spi.values.PlcNull;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.spi.values.IEC61131ValueHandler;
+import org.apache.plc4x.java.spi.values.PlcBOOLArray;
+import org.apache.plc4x.java.spi.values.PlcDINTArray;
+import org.apache.plc4x.java.spi.values.PlcINTArray;
+import org.apache.plc4x.java.spi.values.PlcLINTArray;
+import org.apache.plc4x.java.spi.values.PlcLREALArray;
+import org.apache.plc4x.java.spi.values.PlcREALArray;
+import org.apache.plc4x.java.spi.values.PlcSINTArray;
+import org.apache.plc4x.java.spi.values.PlcUDINTArray;
+import org.apache.plc4x.java.spi.values.PlcUINTArray;
+import org.apache.plc4x.java.spi.values.PlcUSINTArray;
 import org.apache.plc4x.java.s7.readwrite.*;
 import org.apache.plc4x.java.s7.readwrite.context.S7DriverContext;
 import org.apache.plc4x.java.s7.readwrite.field.S7StringField;
 import org.apache.plc4x.java.s7.readwrite.io.DataItemIO;
+import org.apache.plc4x.java.s7.readwrite.io.TPKTPacketIO;
+import org.apache.plc4x.java.s7.readwrite.model.S7SubscriptionHandle;
+import org.apache.plc4x.java.s7.readwrite.optimizer.S7Optimizer;
+import org.apache.plc4x.java.s7.readwrite.optimizer.S7ReadBlock;
 import org.apache.plc4x.java.s7.readwrite.types.*;
 import org.apache.plc4x.java.s7.readwrite.field.S7Field;
 import org.apache.plc4x.java.spi.ConversationContext;
 import org.apache.plc4x.java.spi.Plc4xProtocolBase;
 import org.apache.plc4x.java.spi.context.DriverContext;
 import org.apache.plc4x.java.spi.generation.ParseException;
+import org.apache.plc4x.java.spi.generation.PreSerializedMessage;
 import org.apache.plc4x.java.spi.generation.ReadBuffer;
 import org.apache.plc4x.java.spi.generation.WriteBuffer;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcSubscriptionEvent;
+import org.apache.plc4x.java.spi.messages.DefaultPlcSubscriptionResponse;
+import org.apache.plc4x.java.spi.messages.DefaultPlcUnsubscriptionRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcUnsubscriptionResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteRequest;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteResponse;
+import org.apache.plc4x.java.spi.messages.PlcSubscriber;
 import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.apache.plc4x.java.spi.model.DefaultPlcConsumerRegistration;
+import org.apache.plc4x.java.spi.model.DefaultPlcSubscriptionField;
 import org.apache.plc4x.java.spi.transaction.RequestTransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 
 /**
  * The S7 Protocol states that there can not be more then {min(maxAmqCaller, maxAmqCallee} "ongoing" requests.
  * So we need to limit those.
  * Thus, each request goes to a Work Queue and this Queue ensures, that only 3 are open at the same time.
+ *
+ * Subscriptions are implemented using the cyclic services of the user-data (CPU functions) protocol: Fields with
+ * the same subscription type and interval are registered as one job at the PLC, which then pushes the values of all
+ * fields of the job in one message. As the number of jobs a CPU can handle is limited, at most
+ * {@link S7DriverContext#getMaxCyclicJobs()} jobs are registered at the same time.
  */
-public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
+public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> implements PlcSubscriber {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(S7ProtocolLogic.class);
     public static final Duration REQUEST_TIMEOUT = Duration.ofMillis(10000);
 
+    /** With multiple requests in flight, responses are correlated to their requests by the TPDU reference */
+    private static final Function<TPKTPacket, Integer> TPDU_REFERENCE = tpktPacket -> {
+        if (!(tpktPacket.getPayload() instanceof COTPPacketData) || (tpktPacket.getPayload().getPayload() == null)) {
+            return null;
+        }
+        return tpktPacket.getPayload().getPayload().getTpduReference();
+    };
+
+    private static final short CPU_FUNCTION_METHOD_REQUEST = 0x11;
+    private static final byte CPU_FUNCTION_TYPE_PUSH = 0x0;
+    private static final byte CPU_FUNCTION_TYPE_REQUEST = 0x4;
+    private static final byte CPU_FUNCTION_TYPE_RESPONSE = 0x8;
+    private static final byte CPU_FUNCTION_GROUP_CYCLIC_SERVICES = 0x2;
+    private static final short CYCLIC_SUBFUNCTION_SUBSCRIBE = 0x01;
+    private static final short CYCLIC_SUBFUNCTION_UNSUBSCRIBE = 0x04;
+    private static final short CYCLIC_SUBFUNCTION_SUBSCRIBE_CHANGE_DRIVEN = 0x05;
+    private static final short CYCLIC_UNSUBSCRIBE_FUNCTION = 0x05;
+    /** Change-of-state fields without an explicit interval are checked at the finest possible interval */
+    private static final Duration DEFAULT_CHANGE_OF_STATE_INTERVAL = Duration.ofMillis(100);
+
+    private static final int EMPTY_CYCLIC_SUBSCRIBE_REQUEST_SIZE = new S7MessageUserData(0,
+        new S7ParameterUserData(new S7ParameterUserDataItem[]{createCyclicServicesParameter(CYCLIC_SUBFUNCTION_SUBSCRIBE)}),
+        new S7PayloadUserData(new S7PayloadUserDataItem[]{new S7PayloadUserDataItemCyclicServicesSubscribeRequest(
+            DataTransportErrorCode.OK, DataTransportSize.OCTET_STRING, S7CyclicTimeBase.B01SEC, (short) 1,
+            new S7VarRequestParameterItem[0])})).getLengthInBytes();
+    private static final int EMPTY_CYCLIC_PUSH_SIZE = new S7MessageUserData(0,
+        new S7ParameterUserData(new S7ParameterUserDataItem[]{new S7ParameterUserDataItemCPUFunctions(
+            (short) 0x12, CPU_FUNCTION_TYPE_PUSH, CPU_FUNCTION_GROUP_CYCLIC_SERVICES, CYCLIC_SUBFUNCTION_SUBSCRIBE,
+            (short) 0, (short) 0, (short) 0, 0)}),
+        new S7PayloadUserData(new S7PayloadUserDataItem[]{new S7PayloadUserDataItemCyclicServicesPush(
+            DataTransportErrorCode.OK, DataTransportSize.OCTET_STRING, new S7VarPayloadDataItem[0])})).getLengthInBytes();
+
+    /** Length of the TPKT header and of the COTP header of data packets, preceding the S7 message */
+    private static final int TPKT_HEADER_LENGTH = 4;
+    private static final int COTP_DATA_HEADER_LENGTH = 3;
+
     private S7DriverContext s7DriverContext;
     private final AtomicInteger tpduGenerator = new AtomicInteger(10);
     private RequestTransactionManager tm;
 
+    private final Map<DefaultPlcConsumerRegistration, Consumer<PlcSubscriptionEvent>> consumers = new ConcurrentHashMap<>();
+    private final Map<Short, CyclicJob> cyclicJobs = new ConcurrentHashMap<>();
+    /** Number of jobs registered (or currently being registered) at the PLC */
+    private final AtomicInteger numCyclicJobs = new AtomicInteger(0);
+
     @Override
     public void setDriverContext(DriverContext driverContext) {
         super.setDriverContext(driverContext);
@@ -89,6 +179,11 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         this.tm = new RequestTransactionManager(1);
     }
 
+    @Override
+    public RequestTransactionManager getTransactionManager() {
+        return tm;
+    }
+
     @Override
     public void onConnect(ConversationContext<TPKTPacket> context) {
         // Only the TCP transport supports login.
@@ -123,9 +218,9 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
 
                             // Update the number of concurrent requests to the negotiated number.
                             // I have never seen anything else than equal values for caller and
-                            // callee, but if they were different, we're only limiting the outgoing
-                            // requests.
-                            tm.setNumberOfConcurrentRequests(s7DriverContext.getMaxAmqCallee());
+                            // callee, but if they were different, we have to respect the lower one.
+                            tm.setNumberOfConcurrentRequests(Math.max(1,
+                                Math.min(s7DriverContext.getMaxAmqCaller(), s7DriverContext.getMaxAmqCallee())));
 
                             // If the controller type is explicitly set, were finished with the login
                             // process. If it's set to ANY, we have to query the serial number information
@@ -166,28 +261,69 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
 
     @Override
     public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
-        DefaultPlcReadRequest request = (DefaultPlcReadRequest) readRequest;
-        List<S7VarRequestParameterItem> requestItems = new ArrayList<>(request.getNumberOfFields());
-        for (PlcField field : request.getFields()) {
-            requestItems.add(new S7VarRequestParameterItemAddress(encodeS7Address(field)));
+        // Fields close to each other are read as one block of bytes.
+        List<S7ReadBlock> blocks = S7ReadBlock.of((DefaultPlcReadRequest) readRequest,
+            S7ReadBlock.getMaxLength(s7DriverContext.getPduSize()));
+
+        // Just send a single response and chain it as Response
+        return toPlcReadResponse(readRequest, blocks, readInternal(createReadMessage(blocks)));
+    }
+
+    /**
+     * Builds the blocks and the request message only once and serializes the message. For every execution
+     * only the tpduId is patched into a copy of the serialized bytes, which are then sent as they are.
+     * Everything is rebuilt if the pdu size changes.
+     */
+    @Override
+    public Supplier<CompletableFuture<PlcReadResponse>> prepareRead(PlcReadRequest readRequest) {
+        AtomicReference<PreparedReadMessage> prepared = new AtomicReference<>();
+        return () -> {
+            int pduSize = s7DriverContext.getPduSize();
+            PreparedReadMessage message = prepared.get();
+            if ((message == null) || (message.pduSize != pduSize)) {
+                List<S7ReadBlock> blocks = S7ReadBlock.of((DefaultPlcReadRequest) readRequest,
+                    S7ReadBlock.getMaxLength(pduSize));
+                S7MessageRequest request = createReadMessage(blocks);
+                message = new PreparedReadMessage(pduSize, blocks, request, serialize(request));
+                prepared.set(message);
+            }
+            return toPlcReadResponse(readRequest, message.blocks, readInternal(message.request, message.serialized));
+        };
+    }
+
+    /** Creates the read request message for the given blocks */
+    private S7MessageRequest createReadMessage(List<S7ReadBlock> blocks) {
+        List<S7VarRequestParameterItem> requestItems = new ArrayList<>(blocks.size());
+        for (S7ReadBlock block : blocks) {
+            requestItems.add(new S7VarRequestParameterItemAddress(encodeS7Address(block)));
         }
 
         // Create a read request template.
         // tpuId will be inserted before sending in #readInternal so we insert -1 as dummy here
-        final S7MessageRequest s7MessageRequest = new S7MessageRequest(-1,
+        return new S7MessageRequest(-1,
             new S7ParameterReadVarRequest(requestItems.toArray(new S7VarRequestParameterItem[0])),
             null);
+    }
 
-        // Just send a single response and chain it as Response
-        return toPlcReadResponse(readRequest, readInternal(s7MessageRequest));
+    /** Serializes the read request message (with the dummy tpduId) including the TPKT and COTP headers */
+    private static byte[] serialize(S7MessageRequest request) {
+        TPKTPacket tpktPacket = new TPKTPacket(new COTPPacketData(null, request, true, (short) 0));
+        WriteBuffer writeBuffer = new WriteBuffer(tpktPacket.getLengthInBytes());
+        try {
+            TPKTPacketIO.staticSerialize(writeBuffer, tpktPacket);
+        } catch (ParseException e) {
+            throw new PlcRuntimeException("Error serializing the read request", e);
+        }
+        return writeBuffer.getData();
     }
 
     /** Maps the S7ReadResponse of a PlcReadRequest to a PlcReadResponse */
-    private CompletableFuture<PlcReadResponse> toPlcReadResponse(PlcReadRequest readRequest, CompletableFuture<S7Message> response) {
+    private CompletableFuture<PlcReadResponse> toPlcReadResponse(PlcReadRequest readRequest, List<S7ReadBlock> blocks,
+                                                                 CompletableFuture<S7Message> response) {
         return response
             .thenApply(p -> {
                 try {
-                    return ((PlcReadResponse) decodeReadResponse(p, readRequest));
+                    return ((PlcReadResponse) decodeReadResponse(p, readRequest, blocks));
                 } catch (PlcProtocolException e) {
                     throw new PlcRuntimeException("Unable to decode Response", e);
                 }
@@ -202,27 +338,39 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
      * and does not further check that!
      */
     private CompletableFuture<S7Message> readInternal(S7MessageRequest request) {
+        return readInternal(request, null);
+    }
+
+    /**
+     * @param serialized serialized form of the request (see {@link #serialize(S7MessageRequest)}) or null,
+     *                   if the request should be serialized when being sent.
+     */
+    private CompletableFuture<S7Message> readInternal(S7MessageRequest request, byte[] serialized) {
         CompletableFuture<S7Message> future = new CompletableFuture<>();
-        int tpduId = tpduGenerator.getAndIncrement();
-        // If we've reached the max value for a 16 bit transaction identifier, reset back to 1
-        if(tpduGenerator.get() == 0xFFFF) {
-            tpduGenerator.set(1);
-        }
+        int tpduId = getNextTpduId();
 
         // Create a new Request with correct tpuId (is not known before)
         S7MessageRequest s7MessageRequest = new S7MessageRequest(tpduId, request.getParameter(), request.getPayload());
 
-        TPKTPacket tpktPacket = new TPKTPacket(new COTPPacketData(null, s7MessageRequest, true, (short) tpduId));
+        COTPPacketData cotpPacketData = new COTPPacketData(null, s7MessageRequest, true, (short) tpduId);
+        TPKTPacket tpktPacket = (serialized != null) ?
+            new PreparedTPKTPacket(cotpPacketData, withTpduId(serialized, tpduId)) : new TPKTPacket(cotpPacketData);
         // Start a new request-transaction (Is ended in the response-handler)
         RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
         transaction.submit(() -> context.sendRequest(tpktPacket)
             .expectResponse(TPKTPacket.class, REQUEST_TIMEOUT)
-            .onTimeout(future::completeExceptionally)
+            .correlate(TPDU_REFERENCE, tpduId)
+            .onTimeout(e -> {
+                future.completeExceptionally(e);
+                transaction.endRequest();
+            })
             .onError((p, e) -> future.completeExceptionally(e))
             .check(p -> p.getPayload() instanceof COTPPacketData)
             .unwrap(p -> (COTPPacketData) p.getPayload())
             .check(p -> p.getPayload()  != null)
             .unwrap(COTPPacket::getPayload)
+            // Pushed user-data messages might coincidentally use the same TPDU reference.
+            .check(p -> (p instanceof S7MessageResponseData) || (p instanceof S7MessageResponse))
             .check(p -> p.getTpduReference() == tpduId)
             .handle(p -> {
                 future.complete(p);
@@ -232,6 +380,26 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         return future;
     }
 
+    /**
+     * @return copy of the serialized request with the tpduId patched into the COTP and S7 headers.
+     */
+    private static byte[] withTpduId(byte[] serialized, int tpduId) {
+        byte[] bytes = serialized.clone();
+        // COTP data: header length, tpdu code, eot bit followed by the 7 bit tpdu reference.
+        bytes[TPKT_HEADER_LENGTH + 2] = (byte) (0x80 | (tpduId & 0x7F));
+        // S7 header: protocol id, message type, 2 reserved bytes and the 16 bit tpdu reference.
+        bytes[TPKT_HEADER_LENGTH + COTP_DATA_HEADER_LENGTH + 4] = (byte) (tpduId >> 8);
+        bytes[TPKT_HEADER_LENGTH + COTP_DATA_HEADER_LENGTH + 5] = (byte) tpduId;
+        return bytes;
+    }
+
+    /**
+     * @return the next TPDU reference (1 - 0xFFFE), safe to be used with multiple requests in flight.
+     */
+    private int getNextTpduId() {
+        return tpduGenerator.getAndUpdate(id -> (id + 1 >= 0xFFFF) ? 1 : id + 1);
+    }
+
     @Override
     public CompletableFuture<PlcWriteResponse> write(PlcWriteRequest writeRequest) {
         CompletableFuture<PlcWriteResponse> future = new CompletableFuture<>();
@@ -244,11 +412,7 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
             parameterItems.add(new S7VarRequestParameterItemAddress(encodeS7Address(field)));
             payloadItems.add(serializePlcValue(field, plcValue));
         }
-        final int tpduId = tpduGenerator.getAndIncrement();
-        // If we've reached the max value for a 16 bit transaction identifier, reset back to 1
-        if(tpduGenerator.get() == 0xFFFF) {
-            tpduGenerator.set(1);
-        }
+        final int tpduId = getNextTpduId();
 
         TPKTPacket tpktPacket = new TPKTPacket(new COTPPacketData(null,
             new S7MessageRequest(tpduId,
@@ -260,11 +424,16 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
         transaction.submit(() -> context.sendRequest(tpktPacket)
             .expectResponse(TPKTPacket.class, REQUEST_TIMEOUT)
-            .onTimeout(future::completeExceptionally)
+            .correlate(TPDU_REFERENCE, tpduId)
+            .onTimeout(e -> {
+                future.completeExceptionally(e);
+                transaction.endRequest();
+            })
             .onError((p, e) -> future.completeExceptionally(e))
             .check(p -> p.getPayload() instanceof COTPPacketData)
             .unwrap(p -> ((COTPPacketData) p.getPayload()))
             .unwrap(COTPPacket::getPayload)
+            .check(p -> (p instanceof S7MessageResponseData) || (p instanceof S7MessageResponse))
             .check(p -> p.getTpduReference() == tpduId)
             .handle(p -> {
                 try {
@@ -278,9 +447,284 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         return future;
     }
 
+    @Override
+    public CompletableFuture<PlcSubscriptionResponse> subscribe(PlcSubscriptionRequest subscriptionRequest) {
+        Map<String, ResponseItem<PlcSubscriptionHandle>> values = new ConcurrentHashMap<>();
+        // Fields with the same type and interval can be registered as one job.
+        Map<String, Map<String, S7Field>> groups = new LinkedHashMap<>();
+        Map<String, Duration> groupIntervals = new HashMap<>();
+        Map<String, PlcSubscriptionType> groupTypes = new HashMap<>();
+        for (String fieldName : subscriptionRequest.getFieldNames()) {
+            final DefaultPlcSubscriptionField field = (DefaultPlcSubscriptionField) subscriptionRequest.getField(fieldName);
+            if (!(field.getPlcField() instanceof S7Field)) {
+                values.put(fieldName, new ResponseItem<>(PlcResponseCode.INVALID_ADDRESS, null));
+            } else if (field.getPlcSubscriptionType() == PlcSubscriptionType.EVENT) {
+                values.put(fieldName, new ResponseItem<>(PlcResponseCode.UNSUPPORTED, null));
+            } else if ((field.getPlcSubscriptionType() == PlcSubscriptionType.CYCLIC) && !field.getDuration().isPresent()) {
+                values.put(fieldName, new ResponseItem<>(PlcResponseCode.INVALID_DATA, null));
+            } else {
+                Duration interval = field.getDuration().orElse(DEFAULT_CHANGE_OF_STATE_INTERVAL);
+                String groupKey = field.getPlcSubscriptionType() + "/" + interval.toMillis();
+                groups.computeIfAbsent(groupKey, key -> new LinkedHashMap<>()).put(fieldName, (S7Field) field.getPlcField());
+                groupIntervals.put(groupKey, interval);
+                groupTypes.put(groupKey, field.getPlcSubscriptionType());
+            }
+        }
+
+        // Split up the groups, so the request and every pushed message of a job fit into one PDU.
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        final int maxRequestItems = (s7DriverContext.getPduSize() - EMPTY_CYCLIC_SUBSCRIBE_REQUEST_SIZE) /
+            S7Optimizer.S7_ADDRESS_ANY_SIZE;
+        for (Map.Entry<String, Map<String, S7Field>> group : groups.entrySet()) {
+            final PlcSubscriptionType subscriptionType = groupTypes.get(group.getKey());
+            final Duration interval = groupIntervals.get(group.getKey());
+            Map<String, S7Field> jobFields = new LinkedHashMap<>();
+            int pushSize = EMPTY_CYCLIC_PUSH_SIZE;
+            for (Map.Entry<String, S7Field> fieldEntry : group.getValue().entrySet()) {
+                // Every item is prefixed by 4 bytes and padded to an even length.
+                int itemSize = 4 + ((S7ReadBlock.getLengthInBytes(fieldEntry.getValue()) + 1) & ~1);
+                if (EMPTY_CYCLIC_PUSH_SIZE + itemSize > s7DriverContext.getPduSize()) {
+                    LOGGER.warn("Field {} is too big to be pushed by the PLC", fieldEntry.getKey());
+                    values.put(fieldEntry.getKey(), new ResponseItem<>(PlcResponseCode.INVALID_ADDRESS, null));
+                    continue;
+                }
+                if (!jobFields.isEmpty() &&
+                    ((jobFields.size() >= maxRequestItems) || (pushSize + itemSize > s7DriverContext.getPduSize()))) {
+                    futures.add(subscribeCyclicJob(subscriptionType, interval, jobFields).thenAccept(values::putAll));
+                    jobFields = new LinkedHashMap<>();
+                    pushSize = EMPTY_CYCLIC_PUSH_SIZE;
+                }
+                jobFields.put(fieldEntry.getKey(), fieldEntry.getValue());
+                pushSize += itemSize;
+            }
+            if (!jobFields.isEmpty()) {
+                futures.add(subscribeCyclicJob(subscriptionType, interval, jobFields).thenAccept(values::putAll));
+            }
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(v -> new DefaultPlcSubscriptionResponse(subscriptionRequest, values));
+    }
+
+    /**
+     * Registers one job for the given fields at the PLC.
+     * The returned future is always completed normally, errors are reported as response codes of the fields.
+     */
+    private CompletableFuture<Map<String, ResponseItem<PlcSubscriptionHandle>>> subscribeCyclicJob(
+            PlcSubscriptionType subscriptionType, Duration interval, Map<String, S7Field> fields) {
+        final int maxCyclicJobs = s7DriverContext.getMaxCyclicJobs();
+        if (numCyclicJobs.getAndUpdate(num -> (num < maxCyclicJobs) ? num + 1 : num) >= maxCyclicJobs) {
+            LOGGER.warn("Maximum number of {} cyclic jobs reached", maxCyclicJobs);
+            return CompletableFuture.completedFuture(createResponseItems(fields, PlcResponseCode.REMOTE_BUSY));
+        }
+
+        // Real change-driven jobs are only supported by S7-1500 CPUs, all others are emulated using cyclic jobs.
+        final short subfunction = ((subscriptionType == PlcSubscriptionType.CHANGE_OF_STATE) &&
+            (s7DriverContext.getControllerType() == S7ControllerType.S7_1500)) ?
+            CYCLIC_SUBFUNCTION_SUBSCRIBE_CHANGE_DRIVEN : CYCLIC_SUBFUNCTION_SUBSCRIBE;
+        final S7CyclicTimeBase timeBase = getTimeBase(interval);
+        final short timeFactor = (short) Math.max(1, Math.min(255,
+            (interval.toMillis() + timeBase.getMilliseconds() - 1) / timeBase.getMilliseconds()));
+        final S7VarRequestParameterItem[] items = new S7VarRequestParameterItem[fields.size()];
+        int index = 0;
+        for (S7Field field : fields.values()) {
+            items[index++] = new S7VarRequestParameterItemAddress(encodeS7Address(field));
+        }
+
+        return userDataInternal(createCyclicServicesParameter(subfunction),
+            new S7PayloadUserDataItemCyclicServicesSubscribeRequest(DataTransportErrorCode.OK,
+                DataTransportSize.OCTET_STRING, timeBase, timeFactor, items))
+            .handle((response, e) -> {
+                PlcResponseCode responseCode = (e != null) ? getResponseCode(e) : decodeCyclicServicesResponse(response);
+                if ((responseCode != PlcResponseCode.OK) ||
+                    !(response.getPayload().getItems()[0] instanceof S7PayloadUserDataItemCyclicServicesSubscribeResponse)) {
+                    numCyclicJobs.decrementAndGet();
+                    return createResponseItems(fields, (responseCode != PlcResponseCode.OK) ?
+                        responseCode : PlcResponseCode.INTERNAL_ERROR);
+                }
+                // The PLC identifies the job by the sequence number of the response.
+                final short jobId = getCpuFunctions(response).getSequenceNumber();
+                final S7VarPayloadDataItem[] initialValues = ((S7PayloadUserDataItemCyclicServicesSubscribeResponse)
+                    response.getPayload().getItems()[0]).getItems();
+                Map<String, ResponseItem<PlcSubscriptionHandle>> values = new HashMap<>();
+                List<S7SubscriptionHandle> handles = new ArrayList<>(fields.size());
+                int itemIndex = 0;
+                for (Map.Entry<String, S7Field> fieldEntry : fields.entrySet()) {
+                    S7SubscriptionHandle handle = new S7SubscriptionHandle(
+                        this, fieldEntry.getKey(), fieldEntry.getValue(), subscriptionType, jobId);
+                    handles.add(handle);
+                    PlcResponseCode itemResponseCode = (itemIndex < initialValues.length) ?
+                        decodeResponseCode(initialValues[itemIndex].getReturnCode()) : PlcResponseCode.INTERNAL_ERROR;
+                    values.put(fieldEntry.getKey(), (itemResponseCode == PlcResponseCode.OK) ?
+                        new ResponseItem<>(PlcResponseCode.OK, handle) : new ResponseItem<>(itemResponseCode, null));
+                    itemIndex++;
+                }
+                cyclicJobs.put(jobId, new CyclicJob(jobId, subscriptionType, handles));
+                return values;
+            });
+    }
+
+    @Override
+    public CompletableFuture<PlcUnsubscriptionResponse> unsubscribe(PlcUnsubscriptionRequest unsubscriptionRequest) {
+        DefaultPlcUnsubscriptionRequest request = (DefaultPlcUnsubscriptionRequest) unsubscriptionRequest;
+        List<CompletableFuture<?>> futures = new ArrayList<>();
+        for (PlcSubscriptionHandle subscriptionHandle : request.getSubscriptionHandles()) {
+            if (!(subscriptionHandle instanceof S7SubscriptionHandle)) {
+                continue;
+            }
+            S7SubscriptionHandle handle = (S7SubscriptionHandle) subscriptionHandle;
+            CyclicJob job = cyclicJobs.get(handle.getJobId());
+            // A job can only be removed as a whole, so keep it as long as any of its fields are still used.
+            if ((job == null) || !job.deactivate(handle) || !cyclicJobs.remove(handle.getJobId(), job)) {
+                continue;
+            }
+            numCyclicJobs.decrementAndGet();
+            futures.add(userDataInternal(createCyclicServicesParameter(CYCLIC_SUBFUNCTION_UNSUBSCRIBE),
+                new S7PayloadUserDataItemCyclicServicesUnsubscribeRequest(DataTransportErrorCode.OK,
+                    DataTransportSize.OCTET_STRING, CYCLIC_UNSUBSCRIBE_FUNCTION, job.getJobId()))
+                .handle((response, e) -> {
+                    PlcResponseCode responseCode = (e != null) ? getResponseCode(e) : decodeCyclicServicesResponse(response);
+                    if (responseCode != PlcResponseCode.OK) {
+                        LOGGER.warn("Error removing cyclic job {}: {}", job.getJobId(), responseCode);
+                    }
+                    return null;
+                }));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+            .thenApply(v -> new DefaultPlcUnsubscriptionResponse(unsubscriptionRequest));
+    }
+
+    @Override
+    public PlcConsumerRegistration register(Consumer<PlcSubscriptionEvent> consumer, Collection<PlcSubscriptionHandle> handles) {
+        final DefaultPlcConsumerRegistration consumerRegistration =
+            new DefaultPlcConsumerRegistration(this, consumer, handles.toArray(new PlcSubscriptionHandle[0]));
+        consumers.put(consumerRegistration, consumer);
+        return consumerRegistration;
+    }
+
+    @Override
+    public void unregister(PlcConsumerRegistration registration) {
+        consumers.remove((DefaultPlcConsumerRegistration) registration);
+    }
+
+    /**
+     * Messages not being a response to one of our requests are values pushed by the PLC for a cyclic job.
+     */
+    @Override
+    protected void decode(ConversationContext<TPKTPacket> context, TPKTPacket msg) throws Exception {
+        if (!(msg.getPayload() instanceof COTPPacketData) ||
+            !(msg.getPayload().getPayload() instanceof S7MessageUserData)) {
+            LOGGER.debug("Ignoring unexpected message {}", msg);
+            return;
+        }
+        S7Message message = msg.getPayload().getPayload();
+        S7ParameterUserDataItemCPUFunctions cpuFunctions = getCpuFunctions(message);
+        if ((cpuFunctions == null) || (cpuFunctions.getCpuFunctionType() != CPU_FUNCTION_TYPE_PUSH) ||
+            !(message.getPayload() instanceof S7PayloadUserData)) {
+            LOGGER.debug("Ignoring unexpected user data message {}", msg);
+            return;
+        }
+        for (S7PayloadUserDataItem item : ((S7PayloadUserData) message.getPayload()).getItems()) {
+            if (item instanceof S7PayloadUserDataItemCyclicServicesPush) {
+                publishCyclicEvent(cpuFunctions.getSequenceNumber(), (S7PayloadUserDataItemCyclicServicesPush) item);
+            }
+        }
+    }
+
+    private void publishCyclicEvent(short jobId, S7PayloadUserDataItemCyclicServicesPush push) {
+        CyclicJob job = cyclicJobs.get(jobId);
+        if (job == null) {
+            LOGGER.debug("Ignoring values pushed for unknown cyclic job {}", jobId);
+            return;
+        }
+        // The items are pushed in the same order as they were registered.
+        S7VarPayloadDataItem[] items = push.getItems();
+        if (items.length != job.getHandles().size()) {
+            LOGGER.warn("Got {} items for cyclic job {}, but expected {}", items.length, jobId, job.getHandles().size());
+            return;
+        }
+        final Instant timestamp = Instant.now();
+        Map<PlcSubscriptionHandle, ResponseItem<PlcValue>> values = new HashMap<>();
+        for (int i = 0; i < items.length; i++) {
+            S7SubscriptionHandle handle = job.getHandles().get(i);
+            // For emulated change-driven jobs, only publish the values that changed since the last push.
+            if (!job.isActive(handle) || !job.update(i, items[i].getData())) {
+                continue;
+            }
+            PlcResponseCode responseCode = decodeResponseCode(items[i].getReturnCode());
+            PlcValue plcValue = (responseCode == PlcResponseCode.OK) ?
+                parsePlcValue(handle.getField(), Unpooled.wrappedBuffer(items[i].getData())) : null;
+            values.put(handle, new ResponseItem<>(responseCode, plcValue));
+        }
+        if (values.isEmpty()) {
+            return;
+        }
+
+        for (Map.Entry<DefaultPlcConsumerRegistration, Consumer<PlcSubscriptionEvent>> entry : consumers.entrySet()) {
+            Map<String, ResponseItem<PlcValue>> fields = new LinkedHashMap<>();
+            for (PlcSubscriptionHandle handle : entry.getKey().getSubscriptionHandles()) {
+                ResponseItem<PlcValue> value = values.get(handle);
+                if (value != null) {
+                    fields.put(((S7SubscriptionHandle) handle).getFieldName(), value);
+                }
+            }
+            if (fields.isEmpty()) {
+                continue;
+            }
+            try {
+                entry.getValue().accept(new DefaultPlcSubscriptionEvent(timestamp, fields));
+            } catch (Exception e) {
+                LOGGER.warn("Error in subscription consumer", e);
+            }
+        }
+    }
+
+    /**
+     * Sends one user-data request (CPU functions) over the wire and returns the matching response.
+     */
+    private CompletableFuture<S7MessageUserData> userDataInternal(S7ParameterUserDataItem parameterItem,
+                                                                  S7PayloadUserDataItem payloadItem) {
+        CompletableFuture<S7MessageUserData> future = new CompletableFuture<>();
+        int tpduId = getNextTpduId();
+
+        TPKTPacket tpktPacket = new TPKTPacket(new COTPPacketData(null,
+            new S7MessageUserData(tpduId,
+                new S7ParameterUserData(new S7ParameterUserDataItem[]{parameterItem}),
+                new S7PayloadUserData(new S7PayloadUserDataItem[]{payloadItem})),
+            true, (short) tpduId));
+        // Start a new request-transaction (Is ended in the response-handler)
+        RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
+        transaction.submit(() -> context.sendRequest(tpktPacket)
+            .expectResponse(TPKTPacket.class, REQUEST_TIMEOUT)
+            .correlate(TPDU_REFERENCE, tpduId)
+            .onTimeout(e -> {
+                future.completeExceptionally(e);
+                transaction.endRequest();
+            })
+            .onError((p, e) -> future.completeExceptionally(e))
+            .check(p -> p.getPayload() instanceof COTPPacketData)
+            .unwrap(p -> (COTPPacketData) p.getPayload())
+            .check(p -> p.getPayload() instanceof S7MessageUserData)
+            .unwrap(p -> (S7MessageUserData) p.getPayload())
+            .check(p -> p.getTpduReference() == tpduId)
+            // Pushed values are user-data messages too, so only accept responses.
+            .check(p -> (getCpuFunctions(p) != null) &&
+                (getCpuFunctions(p).getCpuFunctionType() == CPU_FUNCTION_TYPE_RESPONSE) &&
+                (p.getPayload() instanceof S7PayloadUserData) &&
+                (((S7PayloadUserData) p.getPayload()).getItems().length > 0))
+            .handle(p -> {
+                future.complete(p);
+                // Finish the request-transaction.
+                transaction.endRequest();
+            }));
+        return future;
+    }
+
     @Override
     public void close(ConversationContext<TPKTPacket> context) {
         // TODO Implement Closing on Protocol Level
+        // The jobs are removed by the PLC as soon as the connection is closed.
+        cyclicJobs.clear();
+        numCyclicJobs.set(0);
     }
 
     private void extractControllerTypeAndFireConnected(ConversationContext<TPKTPacket> context, S7PayloadUserData payloadUserData) {
@@ -354,7 +798,8 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
             }, null, (short) 0x0000, (short) 0x000F, COTPProtocolClass.CLASS_0);
     }
 
-    private PlcResponse decodeReadResponse(S7Message responseMessage, PlcReadRequest plcReadRequest) throws PlcProtocolException {
+    private PlcResponse decodeReadResponse(S7Message responseMessage, PlcReadRequest plcReadRequest,
+                                           List<S7ReadBlock> blocks) throws PlcProtocolException {
         Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
         short errorClass;
         short errorCode;
@@ -400,29 +845,32 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         // If the numbers of items don't match, we're in big trouble as the only
         // way to know how to interpret the responses is by aligning them with the
         // items from the request as this information is not returned by the PLC.
-        if (plcReadRequest.getNumberOfFields() != payload.getItems().length) {
+        if (blocks.size() != payload.getItems().length) {
             throw new PlcProtocolException(
                 "The number of requested items doesn't match the number of returned items");
         }
 
         S7VarPayloadDataItem[] payloadItems = payload.getItems();
         int index = 0;
-        for (String fieldName : plcReadRequest.getFieldNames()) {
-            S7Field field = (S7Field) plcReadRequest.getField(fieldName);
+        for (S7ReadBlock block : blocks) {
             S7VarPayloadDataItem payloadItem = payloadItems[index];
-
             PlcResponseCode responseCode = decodeResponseCode(payloadItem.getReturnCode());
-            PlcValue plcValue = null;
-            ByteBuf data = Unpooled.wrappedBuffer(payloadItem.getData());
-            if (responseCode == PlcResponseCode.OK) {
-                try {
-                    plcValue = parsePlcValue(field, data);
-                } catch(Exception e) {
-                    throw new PlcProtocolException("Error decoding PlcValue", e);
+            for (Map.Entry<String, S7Field> fieldEntry : block.getFields().entrySet()) {
+                S7Field field = fieldEntry.getValue();
+                PlcValue plcValue = null;
+                if (responseCode == PlcResponseCode.OK) {
+                    // Merged blocks contain the data of multiple fields, so extract the part of the current one.
+                    byte[] fieldData = block.isMerged() ?
+                        block.getFieldData(field, payloadItem.getData()) : payloadItem.getData();
+                    try {
+                        plcValue = parsePlcValue(field, Unpooled.wrappedBuffer(fieldData));
+                    } catch(Exception e) {
+                        throw new PlcProtocolException("Error decoding PlcValue", e);
+                    }
                 }
+                ResponseItem<PlcValue> result = new ResponseItem<>(responseCode, plcValue);
+                values.put(fieldEntry.getKey(), result);
             }
-            ResponseItem<PlcValue> result = new ResponseItem<>(responseCode, plcValue);
-            values.put(fieldName, result);
             index++;
         }
 
@@ -515,6 +963,11 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
                 return DataItemIO.staticParse(readBuffer, field.getDataType().getDataProtocolId(),
                     stringLength);
             } else {
+                // Arrays of numeric types are read in bulk into a value backed by an array of primitives.
+                PlcValue primitiveArray = parsePrimitiveArray(field, readBuffer);
+                if (primitiveArray != null) {
+                    return primitiveArray;
+                }
                 // Fetch all
                 final PlcValue[] resultItems = IntStream.range(0, field.getNumberOfElements()).mapToObj(i -> {
                     try {
@@ -533,6 +986,40 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         return null;
     }
 
+    private PlcValue parsePrimitiveArray(S7Field field, ReadBuffer readBuffer) throws ParseException {
+        int count = field.getNumberOfElements();
+        switch (field.getDataType()) {
+            case BOOL:
+                // Every element occupies one byte with the value in the least significant bit.
+                BitSet bits = new BitSet(count);
+                byte[] data = readBuffer.readByteArray(count);
+                for (int i = 0; i < count; i++) {
+                    bits.set(i, (data[i] & 0x01) != 0);
+                }
+                return new PlcBOOLArray(bits, count);
+            case SINT:
+                return new PlcSINTArray(readBuffer.readByteArray(count));
+            case USINT:
+                return new PlcUSINTArray(readBuffer.readUnsignedShortArray(count));
+            case INT:
+                return new PlcINTArray(readBuffer.readShortArray(count));
+            case UINT:
+                return new PlcUINTArray(readBuffer.readUnsignedIntArray(count));
+            case DINT:
+                return new PlcDINTArray(readBuffer.readIntArray(count));
+            case UDINT:
+                return new PlcUDINTArray(readBuffer.readUnsignedLongArray(count));
+            case LINT:
+                return new PlcLINTArray(readBuffer.readLongArray(count));
+            case REAL:
+                return new PlcREALArray(readBuffer.readFloatArray(count));
+            case LREAL:
+                return new PlcLREALArray(readBuffer.readDoubleArray(count));
+            default:
+                return null;
+        }
+    }
+
     /**
      * Helper to convert the return codes returned from the S7 into one of our standard
      * PLC4X return codes
@@ -557,6 +1044,66 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         }
     }
 
+    /**
+     * Checks the error code of a response to a cyclic services request.
+     * @param response user-data response message
+     * @return PLC4X return code.
+     */
+    private PlcResponseCode decodeCyclicServicesResponse(S7MessageUserData response) {
+        S7ParameterUserDataItemCPUFunctions cpuFunctions = getCpuFunctions(response);
+        if ((cpuFunctions.getErrorCode() != null) && (cpuFunctions.getErrorCode() != 0)) {
+            LOGGER.warn("Got an error response from the PLC. Error Code: 0x{}",
+                Integer.toHexString(cpuFunctions.getErrorCode()));
+            return PlcResponseCode.REMOTE_ERROR;
+        }
+        return decodeResponseCode(((S7PayloadUserData) response.getPayload()).getItems()[0].getReturnCode());
+    }
+
+    private static PlcResponseCode getResponseCode(Throwable e) {
+        if ((e instanceof CompletionException) && (e.getCause() != null)) {
+            e = e.getCause();
+        }
+        return (e instanceof TimeoutException) ? PlcResponseCode.REMOTE_BUSY : PlcResponseCode.INTERNAL_ERROR;
+    }
+
+    private static Map<String, ResponseItem<PlcSubscriptionHandle>> createResponseItems(Map<String, S7Field> fields,
+                                                                                       PlcResponseCode responseCode) {
+        Map<String, ResponseItem<PlcSubscriptionHandle>> values = new HashMap<>();
+        for (String fieldName : fields.keySet()) {
+            values.put(fieldName, new ResponseItem<>(responseCode, null));
+        }
+        return values;
+    }
+
+    private static S7ParameterUserDataItemCPUFunctions createCyclicServicesParameter(short subfunction) {
+        return new S7ParameterUserDataItemCPUFunctions(CPU_FUNCTION_METHOD_REQUEST, CPU_FUNCTION_TYPE_REQUEST,
+            CPU_FUNCTION_GROUP_CYCLIC_SERVICES, subfunction, (short) 0x00, null, null, null);
+    }
+
+    private static S7ParameterUserDataItemCPUFunctions getCpuFunctions(S7Message message) {
+        if (!(message.getParameter() instanceof S7ParameterUserData)) {
+            return null;
+        }
+        S7ParameterUserDataItem[] items = ((S7ParameterUserData) message.getParameter()).getItems();
+        if ((items.length == 0) || !(items[0] instanceof S7ParameterUserDataItemCPUFunctions)) {
+            return null;
+        }
+        return (S7ParameterUserDataItemCPUFunctions) items[0];
+    }
+
+    /**
+     * @param interval requested interval.
+     * @return the finest time base, the interval can be expressed with (using a factor of at most 255).
+     */
+    private static S7CyclicTimeBase getTimeBase(Duration interval) {
+        for (S7CyclicTimeBase timeBase : S7CyclicTimeBase.values()) {
+            if (interval.toMillis() <= 255L * timeBase.getMilliseconds()) {
+                return timeBase;
+            }
+        }
+        return S7CyclicTimeBase.B10SEC;
+    }
+
     /**
      * Little helper method to parse Siemens article numbers and extract the type of controller.
      *
@@ -585,6 +1132,19 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
         }
     }
 
+    /**
+     * Creates the address for a block of fields. Merged blocks are read as plain byte arrays.
+     * @param block block of one or more fields
+     * @return the S7Address
+     */
+    protected S7Address encodeS7Address(S7ReadBlock block) {
+        if (!block.isMerged()) {
+            return encodeS7Address(block.getFields().values().iterator().next());
+        }
+        return new S7AddressAny(TransportSize.BYTE, block.getLength(), block.getBlockNumber(),
+            block.getMemoryArea(), block.getByteOffset(), (byte) 0);
+    }
+
     /**
      * Currently we only support the S7 Any type of addresses. This helper simply converts the S7Field
      * from PLC4X into S7Address objects.
@@ -619,4 +1179,99 @@ public class S7ProtocolLogic extends Plc4xProtocolBase<TPKTPacket> {
             s7Field.getMemoryArea(), s7Field.getByteOffset(), s7Field.getBitOffset());
     }
 
+    /**
+     * One job registered at the PLC. The PLC always pushes the values of all fields of a job,
+     * even if some of them have already been unsubscribed.
+     */
+    private static class CyclicJob {
+
+        private final short jobId;
+        private final PlcSubscriptionType subscriptionType;
+        private final List<S7SubscriptionHandle> handles;
+        private final Set<S7SubscriptionHandle> activeHandles;
+        private final byte[][] lastData;
+
+        private CyclicJob(short jobId, PlcSubscriptionType subscriptionType, List<S7SubscriptionHandle> handles) {
+            this.jobId = jobId;
+            this.subscriptionType = subscriptionType;
+            this.handles = Collections.unmodifiableList(handles);
+            this.activeHandles = ConcurrentHashMap.newKeySet();
+            this.activeHandles.addAll(handles);
+            this.lastData = new byte[handles.size()][];
+        }
+
+        private short getJobId() {
+            return jobId;
+        }
+
+        private List<S7SubscriptionHandle> getHandles() {
+            return handles;
+        }
+
+        private boolean isActive(S7SubscriptionHandle handle) {
+            return activeHandles.contains(handle);
+        }
+
+        /**
+         * @return true, if this was the last active handle of the job.
+         */
+        private boolean deactivate(S7SubscriptionHandle handle) {
+            return activeHandles.remove(handle) && activeHandles.isEmpty();
+        }
+
+        /**
+         * @return true, if the new value has to be published.
+         */
+        private boolean update(int index, byte[] data) {
+            if (subscriptionType != PlcSubscriptionType.CHANGE_OF_STATE) {
+                return true;
+            }
+            // Pushes are decoded on the channel's event loop only, so no further synchronization is needed.
+            boolean changed = !Arrays.equals(lastData[index], data);
+            lastData[index] = data;
+            return changed;
+        }
+
+    }
+
+    /**
+     * Request message of a prepared read, its serialized form and the blocks needed for decoding its response
+     */
+    private static final class PreparedReadMessage {
+
+        private final int pduSize;
+        private final List<S7ReadBlock> blocks;
+        private final S7MessageRequest request;
+        private final byte[] serialized;
+
+        private PreparedReadMessage(int pduSize, List<S7ReadBlock> blocks, S7MessageRequest request,
+                                    byte[] serialized) {
+            this.pduSize = pduSize;
+            this.blocks = blocks;
+            this.request = request;
+            this.serialized = serialized;
+        }
+
+    }
+
+    /**
+     * Packet of a prepared read, which is sent as the given bytes instead of being serialized again.
+     * The message model is still needed for logging and for correlating the response.
+     */
+    private static final class PreparedTPKTPacket extends TPKTPacket implements PreSerializedMessage {
+
+        private final byte[] serialized;
+
+        private PreparedTPKTPacket(COTPPacket payload, byte[] serialized) {
+            super(payload);
+            this.serialized = serialized;
+        }
+
+        @Override
+        public byte[] getSerializedBytes() {
+            return serialized;
+        }
+
+    }
+
 }
@@ -0,0 +1,159 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.java.s7.readwrite.optimizer;
+
+import io.vavr.control.Either;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.messages.PlcResponse;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.s7.readwrite.context.S7DriverContext;
+import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.apache.plc4x.java.spi.values.PlcList;
+import org.apache.plc4x.java.spi.values.PlcREAL;
+import org.apache.plc4x.java.spi.values.PlcREALArray;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class S7OptimizerTest {
+
+    private final S7Optimizer optimizer = new S7Optimizer();
+
+    @Test
+    public void nearbyFieldsAreMerged() {
+        PlcReadRequest request = readRequest("%DB1.DBW0:INT", "%DB1.DBD4:REAL", "%DB1.DBX2.3:BOOL",
+            "%DB2.DBW0:INT", "%M10:BYTE");
+        List<S7ReadBlock> blocks = S7ReadBlock.of(request, S7ReadBlock.getMaxLength(1024));
+        assertEquals(3, blocks.size());
+        S7ReadBlock db1 = blocks.stream().filter(block -> block.getFields().size() == 3)
+            .findFirst().orElseThrow(AssertionError::new);
+        assertTrue(db1.isMerged());
+        assertEquals(0, db1.getByteOffset());
+        assertEquals(8, db1.getLength());
+
+        // Everything fits into one PDU, so the request is sent as it is.
+        List<PlcRequest> subRequests = optimizer.processReadRequest(request, driverContext(1024));
+        assertEquals(1, subRequests.size());
+        assertSame(request, subRequests.get(0));
+    }
+
+    @Test
+    public void mergedFieldDataIsSliced() {
+        PlcReadRequest request = readRequest("%DB1.DBW0:INT", "%DB1.DBX2.3:BOOL", "%DB1.DBW4:INT");
+        S7ReadBlock block = S7ReadBlock.of(request, S7ReadBlock.getMaxLength(1024)).get(0);
+        byte[] data = new byte[]{0x01, 0x02, 0x08, 0x00, 0x03, 0x04};
+        assertArrayEquals(new byte[]{0x01, 0x02}, block.getFieldData((S7Field) request.getField("%DB1.DBW0:INT"), data));
+        assertArrayEquals(new byte[]{0x01}, block.getFieldData((S7Field) request.getField("%DB1.DBX2.3:BOOL"), data));
+        assertArrayEquals(new byte[]{0x03, 0x04}, block.getFieldData((S7Field) request.getField("%DB1.DBW4:INT"), data));
+    }
+
+    @Test
+    public void distantFieldsAreNotMerged() {
+        PlcReadRequest request = readRequest("%DB1.DBW0:INT", "%DB1.DBW100:INT");
+        assertEquals(2, S7ReadBlock.of(request, S7ReadBlock.getMaxLength(1024)).size());
+    }
+
+    @Test
+    public void oversizedArraysAreSplitAndReassembled() {
+        PlcReadRequest request = readRequest("%DB1.DBD0:REAL[200]", "%DB1.DBW1000:INT");
+        List<PlcRequest> subRequests = optimizer.processReadRequest(request, driverContext(240));
+        assertTrue(subRequests.size() > 4);
+
+        // Answer every chunk with consecutive numbers.
+        PlcReadResponse response = optimizer.processReadResponses(request, respond(subRequests, field -> {
+            List<PlcValue> items = new ArrayList<>();
+            for (int i = 0; i < field.getNumberOfElements(); i++) {
+                items.add(new PlcREAL((float) (field.getByteOffset() / 4 + i)));
+            }
+            return new PlcList(items);
+        }));
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("%DB1.DBD0:REAL[200]"));
+        PlcValue value = response.getPlcValue("%DB1.DBD0:REAL[200]");
+        assertEquals(200, value.getLength());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, value.getIndex(i).getFloat(), 0.0);
+        }
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("%DB1.DBW1000:INT"));
+    }
+
+    @Test
+    public void splitPrimitiveArraysAreReassembledIntoOneArray() {
+        PlcReadRequest request = readRequest("%DB1.DBD0:REAL[200]");
+        List<PlcRequest> subRequests = optimizer.processReadRequest(request, driverContext(240));
+        assertTrue(subRequests.size() > 4);
+
+        // Just like the protocol logic, answer arrays with primitive arrays and single elements with plain values.
+        PlcReadResponse response = optimizer.processReadResponses(request, respond(subRequests, field -> {
+            float[] items = new float[field.getNumberOfElements()];
+            for (int i = 0; i < items.length; i++) {
+                items[i] = field.getByteOffset() / 4 + i;
+            }
+            return (items.length == 1) ? new PlcREAL(items[0]) : new PlcREALArray(items);
+        }));
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("%DB1.DBD0:REAL[200]"));
+        PlcValue value = response.getPlcValue("%DB1.DBD0:REAL[200]");
+        assertTrue(value instanceof PlcREALArray);
+        float[] values = ((PlcREALArray) value).getValues();
+        assertEquals(200, values.length);
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i, values[i], 0.0);
+        }
+    }
+
+    private static Map<PlcRequest, Either<PlcResponse, Exception>> respond(List<PlcRequest> subRequests,
+                                                                          Function<S7Field, PlcValue> valueOfField) {
+        Map<PlcRequest, Either<PlcResponse, Exception>> responses = new HashMap<>();
+        for (PlcRequest subRequest : subRequests) {
+            PlcReadRequest subReadRequest = (PlcReadRequest) subRequest;
+            Map<String, ResponseItem<PlcValue>> values = new HashMap<>();
+            for (String fieldName : subReadRequest.getFieldNames()) {
+                S7Field field = (S7Field) subReadRequest.getField(fieldName);
+                assertTrue(S7ReadBlock.getLengthInBytes(field) <= S7ReadBlock.getMaxLength(240));
+                values.put(fieldName, new ResponseItem<>(PlcResponseCode.OK, valueOfField.apply(field)));
+            }
+            responses.put(subRequest, Either.left(new DefaultPlcReadResponse(subReadRequest, values)));
+        }
+        return responses;
+    }
+
+    private static S7DriverContext driverContext(int pduSize) {
+        S7DriverContext driverContext = new S7DriverContext();
+        driverContext.setPduSize(pduSize);
+        return driverContext;
+    }
+
+    private static PlcReadRequest readRequest(String... addresses) {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (String address : addresses) {
+            fields.put(address, S7Field.of(address));
+        }
+        return new DefaultPlcReadRequest(null, fields);
+    }
+
+}
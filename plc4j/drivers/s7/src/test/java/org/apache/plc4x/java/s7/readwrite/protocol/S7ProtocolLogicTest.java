@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.s7.readwrite.protocol;
+
+import io.vavr.control.Either;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionEvent;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionField;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.types.PlcSubscriptionType;
+import org.apache.plc4x.java.s7.readwrite.TPKTPacket;
+import org.apache.plc4x.java.s7.readwrite.context.S7DriverContext;
+import org.apache.plc4x.java.s7.readwrite.field.S7Field;
+import org.apache.plc4x.java.s7.readwrite.io.TPKTPacketIO;
+import org.apache.plc4x.java.s7.readwrite.model.S7SubscriptionHandle;
+import org.apache.plc4x.java.s7.readwrite.types.S7ControllerType;
+import org.apache.plc4x.java.spi.ConversationContext;
+import org.apache.plc4x.java.spi.generation.PreSerializedMessage;
+import org.apache.plc4x.java.spi.generation.ReadBuffer;
+import org.apache.plc4x.java.spi.generation.WriteBuffer;
+import org.apache.plc4x.java.spi.internal.DefaultSendRequestContext;
+import org.apache.plc4x.java.spi.internal.HandlerRegistration;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcSubscriptionRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcUnsubscriptionRequest;
+import org.apache.plc4x.java.spi.model.DefaultPlcSubscriptionField;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives the cyclic subscriptions with the frames of the "S7 Cyclic ..." testcases of the ParserSerializerTestsuite.
+ * The job registered by {@link #SUBSCRIBE_REQUEST} contains "%DB1:0:INT" and "%DB1:2:DINT" and gets the job id 3.
+ */
+public class S7ProtocolLogicTest {
+
+    private static final String SUBSCRIBE_REQUEST = "0300003902f08a32070000000a000800200001120411420100ff09001c0002000a120a10050001000184000000120a10070001000184000010";
+    private static final String SUBSCRIBE_RESPONSE = "0300003102f08032070000000a000c0014000112081282010300000000ff0900100002ff050010002aff050020000186a0";
+    /** Response for a job only containing "%DB1:0:INT" */
+    private static final String SUBSCRIBE_SINGLE_ITEM_RESPONSE = "0300002902f08032070000000a000c000c000112081282010300000000ff0900080001ff050010002a";
+    private static final String SUBSCRIBE_ERROR_RESPONSE = "0300002302f08032070000000a000c0006000112081282010000008104ff0900020000";
+    /** Pushes 43 and 100000 */
+    private static final String PUSH = "0300003102f080320700000400000c0014000112081202010300000000ff0900100002ff050010002bff050020000186a0";
+    /** Pushes 43 and 100001 */
+    private static final String PUSH_CHANGED = "0300003102f080320700000400000c0014000112081202010300000000ff0900100002ff050010002bff050020000186a1";
+    private static final String PUSH_UNKNOWN_JOB = "0300003102f080320700000400000c0014000112081202010400000000ff0900100002ff050010002bff050020000186a0";
+    private static final String UNSUBSCRIBE_REQUEST = "0300001f02f08b32070000000b000800060001120411420400ff0900020503";
+    private static final String UNSUBSCRIBE_RESPONSE = "0300002102f08032070000000b000c0004000112081282040000000000ff090000";
+
+    private S7ProtocolLogic protocolLogic;
+    private S7DriverContext driverContext;
+    private ConversationContext<TPKTPacket> context;
+    private List<TPKTPacket> sentPackets;
+    private List<HandlerRegistration> registrations;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        driverContext = new S7DriverContext();
+        driverContext.setPduSize(240);
+        driverContext.setMaxCyclicJobs(4);
+        driverContext.setControllerType(S7ControllerType.S7_300);
+        protocolLogic = new S7ProtocolLogic();
+        protocolLogic.setDriverContext(driverContext);
+
+        sentPackets = new ArrayList<>();
+        registrations = new ArrayList<>();
+        context = mock(ConversationContext.class);
+        when(context.sendRequest(any())).thenAnswer(invocation -> {
+            TPKTPacket packet = invocation.getArgument(0);
+            sentPackets.add(packet);
+            return new DefaultSendRequestContext<>(registrations::add, packet, context);
+        });
+        protocolLogic.setContext(context);
+    }
+
+    @Test
+    public void subscribeRegistersOneJobForFieldsWithTheSameInterval() throws Exception {
+        CompletableFuture<PlcSubscriptionResponse> future =
+            protocolLogic.subscribe(subscriptionRequest(PlcSubscriptionType.CYCLIC, Duration.ofSeconds(1)));
+
+        assertEquals(1, sentPackets.size());
+        assertEquals(SUBSCRIBE_REQUEST, serialize(sentPackets.get(0)));
+        assertFalse(future.isDone());
+
+        respond(SUBSCRIBE_RESPONSE);
+        PlcSubscriptionResponse response = future.get();
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("temperature"));
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("counter"));
+        S7SubscriptionHandle temperature = (S7SubscriptionHandle) response.getSubscriptionHandle("temperature");
+        S7SubscriptionHandle counter = (S7SubscriptionHandle) response.getSubscriptionHandle("counter");
+        assertEquals(3, temperature.getJobId());
+        assertEquals(3, counter.getJobId());
+        assertEquals(PlcSubscriptionType.CYCLIC, temperature.getSubscriptionType());
+    }
+
+    @Test
+    public void subscribeReportsErrorsOfThePlc() throws Exception {
+        driverContext.setMaxCyclicJobs(1);
+        CompletableFuture<PlcSubscriptionResponse> future =
+            protocolLogic.subscribe(subscriptionRequest(PlcSubscriptionType.CYCLIC, Duration.ofSeconds(1)));
+        respond(SUBSCRIBE_ERROR_RESPONSE);
+
+        assertEquals(PlcResponseCode.REMOTE_ERROR, future.get().getResponseCode("temperature"));
+        assertEquals(PlcResponseCode.REMOTE_ERROR, future.get().getResponseCode("counter"));
+        // The failed job doesn't count towards the maximum number of jobs.
+        protocolLogic.subscribe(subscriptionRequest(PlcSubscriptionType.CYCLIC, Duration.ofSeconds(1)));
+        assertEquals(2, sentPackets.size());
+    }
+
+    @Test
+    public void subscribeRejectsJobsExceedingTheMaximum() throws Exception {
+        driverContext.setMaxCyclicJobs(1);
+        LinkedHashMap<String, PlcSubscriptionField> fields = new LinkedHashMap<>();
+        fields.put("temperature", new DefaultPlcSubscriptionField(
+            PlcSubscriptionType.CYCLIC, S7Field.of("%DB1:0:INT"), Duration.ofSeconds(1)));
+        fields.put("counter", new DefaultPlcSubscriptionField(
+            PlcSubscriptionType.CYCLIC, S7Field.of("%DB1:2:DINT"), Duration.ofSeconds(2)));
+        fields.put("alarm", new DefaultPlcSubscriptionField(
+            PlcSubscriptionType.EVENT, S7Field.of("%DB1:6:INT"), null));
+        fields.put("level", new DefaultPlcSubscriptionField(
+            PlcSubscriptionType.CYCLIC, S7Field.of("%DB1:8:INT"), null));
+        CompletableFuture<PlcSubscriptionResponse> future =
+            protocolLogic.subscribe(new DefaultPlcSubscriptionRequest(protocolLogic, fields));
+
+        // Only the job of the first interval is sent to the PLC.
+        assertEquals(1, sentPackets.size());
+        respond(SUBSCRIBE_SINGLE_ITEM_RESPONSE);
+
+        PlcSubscriptionResponse response = future.get();
+        assertEquals(PlcResponseCode.OK, response.getResponseCode("temperature"));
+        assertEquals(PlcResponseCode.REMOTE_BUSY, response.getResponseCode("counter"));
+        assertEquals(PlcResponseCode.UNSUPPORTED, response.getResponseCode("alarm"));
+        assertEquals(PlcResponseCode.INVALID_DATA, response.getResponseCode("level"));
+    }
+
+    @Test
+    public void publishPushedValuesToRegisteredConsumers() throws Exception {
+        PlcSubscriptionResponse response = subscribe(PlcSubscriptionType.CYCLIC, Duration.ofSeconds(1));
+        List<PlcSubscriptionEvent> allEvents = new ArrayList<>();
+        List<PlcSubscriptionEvent> counterEvents = new ArrayList<>();
+        protocolLogic.register(allEvents::add, response.getSubscriptionHandles());
+        // A failing consumer must not keep the others from receiving their events.
+        protocolLogic.register(event -> {
+            throw new IllegalStateException("failing consumer");
+        }, response.getSubscriptionHandles());
+        protocolLogic.register(counterEvents::add,
+            Collections.singletonList(response.getSubscriptionHandle("counter")));
+
+        protocolLogic.decode(context, parse(PUSH));
+        // Values pushed for other jobs are ignored.
+        protocolLogic.decode(context, parse(PUSH_UNKNOWN_JOB));
+        // Cyclic jobs publish every push, even if the values didn't change.
+        protocolLogic.decode(context, parse(PUSH));
+
+        assertEquals(2, allEvents.size());
+        assertEquals(2, allEvents.get(0).getFieldNames().size());
+        assertEquals(43, allEvents.get(0).getInteger("temperature"));
+        assertEquals(100000, allEvents.get(0).getInteger("counter"));
+        assertEquals(2, counterEvents.size());
+        assertEquals(Collections.singletonList("counter"), new ArrayList<>(counterEvents.get(0).getFieldNames()));
+        assertEquals(100000, counterEvents.get(1).getInteger("counter"));
+    }
+
+    @Test
+    public void emulatedChangeOfStateOnlyPublishesChangedValues() throws Exception {
+        PlcSubscriptionResponse response = subscribe(PlcSubscriptionType.CHANGE_OF_STATE, null);
+        List<PlcSubscriptionEvent> events = new ArrayList<>();
+        protocolLogic.register(events::add, Arrays.asList(
+            response.getSubscriptionHandle("temperature"), response.getSubscriptionHandle("counter")));
+
+        protocolLogic.decode(context, parse(PUSH));
+        protocolLogic.decode(context, parse(PUSH));
+        protocolLogic.decode(context, parse(PUSH_CHANGED));
+
+        assertEquals(2, events.size());
+        assertEquals(Arrays.asList("temperature", "counter"), new ArrayList<>(events.get(0).getFieldNames()));
+        assertEquals(Collections.singletonList("counter"), new ArrayList<>(events.get(1).getFieldNames()));
+        assertEquals(100001, events.get(1).getInteger("counter"));
+    }
+
+    @Test
+    public void unsubscribeRemovesTheJobWithItsLastField() throws Exception {
+        PlcSubscriptionResponse response = subscribe(PlcSubscriptionType.CYCLIC, Duration.ofSeconds(1));
+        PlcSubscriptionHandle temperature = response.getSubscriptionHandle("temperature");
+        PlcSubscriptionHandle counter = response.getSubscriptionHandle("counter");
+        List<PlcSubscriptionEvent> events = new ArrayList<>();
+        protocolLogic.register(events::add, response.getSubscriptionHandles());
+
+        // The PLC still pushes both values, but only the active field is published.
+        assertTrue(protocolLogic.unsubscribe(new DefaultPlcUnsubscriptionRequest(protocolLogic,
+            Collections.singletonList(temperature))).isDone());
+        assertEquals(1, sentPackets.size());
+        protocolLogic.decode(context, parse(PUSH));
+        assertEquals(1, events.size());
+        assertEquals(Collections.singletonList("counter"), new ArrayList<>(events.get(0).getFieldNames()));
+
+        CompletableFuture<?> future = protocolLogic.unsubscribe(new DefaultPlcUnsubscriptionRequest(protocolLogic,
+            Collections.singletonList(counter)));
+        assertEquals(2, sentPackets.size());
+        assertEquals(UNSUBSCRIBE_REQUEST, serialize(sentPackets.get(1)));
+        respond(UNSUBSCRIBE_RESPONSE);
+        assertTrue(future.isDone());
+
+        protocolLogic.decode(context, parse(PUSH));
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void closeForgetsAllJobs() throws Exception {
+        driverContext.setMaxCyclicJobs(1);
+        PlcSubscriptionResponse response = subscribe(PlcSubscriptionType.CYCLIC, Duration.ofSeconds(1));
+        List<PlcSubscriptionEvent> events = new ArrayList<>();
+        protocolLogic.register(events::add, response.getSubscriptionHandles());
+
+        protocolLogic.close(context);
+        protocolLogic.decode(context, parse(PUSH));
+
+        assertTrue(events.isEmpty());
+        // The slot of the job is available again.
+        sentPackets.clear();
+        protocolLogic.subscribe(subscriptionRequest(PlcSubscriptionType.CYCLIC, Duration.ofSeconds(1)));
+        assertEquals(1, sentPackets.size());
+    }
+
+    private PlcSubscriptionResponse subscribe(PlcSubscriptionType subscriptionType, Duration interval) throws Exception {
+        CompletableFuture<PlcSubscriptionResponse> future =
+            protocolLogic.subscribe(subscriptionRequest(subscriptionType, interval));
+        respond(SUBSCRIBE_RESPONSE);
+        assertTrue(future.isDone());
+        return future.get();
+    }
+
+    @Test
+    public void preparedReadSendsTheSerializedRequestWithTheCurrentTpduId() throws Exception {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        fields.put("temperature", S7Field.of("%DB1:0:INT"));
+        fields.put("counter", S7Field.of("%DB1:2:DINT"));
+        Supplier<CompletableFuture<PlcReadResponse>> preparedRead =
+            protocolLogic.prepareRead(new DefaultPlcReadRequest(null, fields));
+        protocolLogic.getTransactionManager().setNumberOfConcurrentRequests(2);
+
+        preparedRead.get();
+        preparedRead.get();
+
+        assertEquals(2, sentPackets.size());
+        for (TPKTPacket packet : sentPackets) {
+            // The patched bytes have to be exactly what serializing the message would give.
+            assertTrue(packet instanceof PreSerializedMessage);
+            assertEquals(serialize(packet), Hex.encodeHexString(((PreSerializedMessage) packet).getSerializedBytes()));
+        }
+        assertNotEquals(sentPackets.get(0).getPayload().getPayload().getTpduReference(),
+            sentPackets.get(1).getPayload().getPayload().getTpduReference());
+    }
+
+    private DefaultPlcSubscriptionRequest subscriptionRequest(PlcSubscriptionType subscriptionType, Duration interval) {
+        LinkedHashMap<String, PlcSubscriptionField> fields = new LinkedHashMap<>();
+        fields.put("temperature", new DefaultPlcSubscriptionField(subscriptionType, S7Field.of("%DB1:0:INT"), interval));
+        fields.put("counter", new DefaultPlcSubscriptionField(subscriptionType, S7Field.of("%DB1:2:DINT"), interval));
+        return new DefaultPlcSubscriptionRequest(protocolLogic, fields);
+    }
+
+    /**
+     * Hands the response to the first waiting request it matches, just like the Plc4xNettyWrapper does.
+     */
+    @SuppressWarnings("unchecked")
+    private void respond(String hex) throws Exception {
+        TPKTPacket response = parse(hex);
+        for (Iterator<HandlerRegistration> iterator = registrations.iterator(); iterator.hasNext(); ) {
+            HandlerRegistration registration = iterator.next();
+            if (registration.hasCorrelationKey() && !registration.getCorrelationKey().equals(
+                ((Function<Object, Object>) registration.getCorrelationKeyExtractor()).apply(response))) {
+                continue;
+            }
+            Object instance = response;
+            boolean matches = true;
+            for (Either<Function<?, ?>, Predicate<?>> command : registration.getCommands()) {
+                if (command.isLeft()) {
+                    instance = ((Function<Object, Object>) command.getLeft()).apply(instance);
+                } else if (!((Predicate<Object>) command.get()).test(instance)) {
+                    matches = false;
+                    break;
+                }
+            }
+            if (matches) {
+                iterator.remove();
+                ((Consumer<Object>) registration.getPacketConsumer()).accept(instance);
+                return;
+            }
+        }
+        fail("No request is waiting for " + hex);
+    }
+
+    private static TPKTPacket parse(String hex) throws Exception {
+        return TPKTPacketIO.staticParse(new ReadBuffer(Hex.decodeHex(hex)));
+    }
+
+    private static String serialize(TPKTPacket packet) throws Exception {
+        WriteBuffer writeBuffer = new WriteBuffer(packet.getLengthInBytes());
+        TPKTPacketIO.staticSerialize(writeBuffer, packet);
+        return Hex.encodeHexString(writeBuffer.getData());
+    }
+
+}
@@ -75,7 +75,8 @@ public class SimulatedDevice {
             case STATE:
                 return Optional.ofNullable(state.get(field));
             case RANDOM:
-                return Optional.of(randomValue(field));
+                // No value, if the random bytes couldn't be parsed.
+                return Optional.ofNullable(randomValue(field));
             case STDOUT:
                 return Optional.empty();
         }
@@ -138,11 +139,12 @@ public class SimulatedDevice {
 
     public void addCyclicSubscription(Consumer<PlcValue> consumer, PlcSubscriptionHandle handle, PlcSubscriptionField plcField, Duration duration) {
         ScheduledFuture<?> scheduledFuture = scheduler.scheduleAtFixedRate(() -> {
-            PlcValue baseDefaultPlcValue = state.get(((DefaultPlcSubscriptionField) plcField).getPlcField());
-            if (baseDefaultPlcValue == null) {
+            // Cyclic subscriptions yield the same values as reads, e.g. random values for RANDOM fields.
+            Optional<PlcValue> baseDefaultPlcValue = get((SimulatedField) ((DefaultPlcSubscriptionField) plcField).getPlcField());
+            if (!baseDefaultPlcValue.isPresent()) {
                 return;
             }
-            consumer.accept(baseDefaultPlcValue);
+            consumer.accept(baseDefaultPlcValue.get());
         }, duration.toMillis(), duration.toMillis(), TimeUnit.MILLISECONDS);
         cyclicSubscriptions.put(handle, scheduledFuture);
     }
@@ -75,7 +75,9 @@ public class Plc4xSinkConnector extends SinkConnector {
             taskConfig.put(Constants.TOPIC_CONFIG, sink.getTopic());
             taskConfig.put(Constants.RETRIES_CONFIG, sink.getRetries().toString());
             taskConfig.put(Constants.TIMEOUT_CONFIG, sink.getTimeout().toString());
+            taskConfig.put(Constants.COALESCE_CONFIG, sink.getCoalesce().toString());
             taskConfig.put(Constants.QUERIES_CONFIG, query.toString().substring(1));
+            taskConfig.put(Constants.TASK_ID_CONFIG, Integer.toString(configs.size()));
             configs.add(taskConfig);
         }
         return configs;
@@ -18,39 +18,49 @@ under the License.
 */
 package org.apache.plc4x.kafka;
 
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.common.config.ConfigDef;
 import org.apache.kafka.connect.data.*;
 
+import org.apache.kafka.connect.header.Header;
 import org.apache.kafka.connect.transforms.Transformation;
 import org.apache.kafka.connect.sink.SinkRecord;
 import org.apache.kafka.connect.sink.SinkTask;
-import org.apache.kafka.connect.errors.RetriableException;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.utils.connectionpool.PooledPlcDriverManager;
 import org.apache.plc4x.kafka.config.Constants;
 import org.apache.plc4x.kafka.util.VersionUtil;
 
-import java.util.concurrent.ExecutionException;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.management.*;
 import java.util.*;
 
 /**
- * Source Connector Task polling the data source at a given rate.
- * A timer thread is scheduled which sets the fetch flag to true every rate milliseconds.
- * When poll() is invoked, the calling thread waits until the fetch flag is set for WAIT_LIMIT_MILLIS.
- * If the flag does not become true, the method returns null, otherwise a fetch is performed.
+ * Sink Connector Task writing the fields of the received records to the PLC.
+ * Within a batch only the latest value of every field is written (unless coalescing is disabled) and
+ * all writes to one connection are sent as a single write request, which is split by the driver's optimizer.
+ * Fields failing to be written are retried individually in the following calls to put(), the offsets of
+ * records with values still waiting to be written are not committed until then.
  */
-public class Plc4xSinkTask extends SinkTask {
+public class Plc4xSinkTask extends SinkTask implements Plc4xSinkTaskMBean {
 
     private static final Logger log = LoggerFactory.getLogger(Plc4xSinkTask.class);
 
+    private static final String MX_DOMAIN = "org.apache.plc4x.kafka";
+
     /*
      * Config of the task.
      */
@@ -94,10 +104,20 @@ public class Plc4xSinkTask extends SinkTask {
                 ConfigDef.Type.INT,
                 ConfigDef.Importance.HIGH,
                 PLC4X_TIMEOUT_DOC)
+        .define(Constants.COALESCE_CONFIG,
+                ConfigDef.Type.BOOLEAN,
+                Constants.COALESCE_DEFAULT,
+                ConfigDef.Importance.LOW,
+                Constants.COALESCE_DOC)
         .define(QUERIES_CONFIG,
                 ConfigDef.Type.STRING,
                 ConfigDef.Importance.HIGH,
-                QUERIES_DOC);
+                QUERIES_DOC)
+        .define(Constants.TASK_ID_CONFIG,
+                ConfigDef.Type.INT,
+                Constants.TASK_ID_DEFAULT,
+                ConfigDef.Importance.LOW,
+                Constants.TASK_ID_DOC);
 
     /*
      * Configuration of the output.
@@ -117,22 +137,36 @@ public class Plc4xSinkTask extends SinkTask {
     private String plc4xTopic;
     private Integer plc4xRetries;
     private Integer plc4xTimeout;
-    private Integer remainingRetries;
+    private boolean coalesce;
     private AbstractConfig config;
     private Map<String, String> fields;
+    // Values not yet written by connection string and field address, in the order they were received.
+    private Map<String, Map<String, Deque<PendingWrite>>> pendingWrites;
+
+    private ObjectName objectName;
+    private final AtomicLong receivedValues = new AtomicLong();
+    private final AtomicLong coalescedValues = new AtomicLong();
+    private final AtomicLong writtenValues = new AtomicLong();
+    private final AtomicLong failedValues = new AtomicLong();
+    private final AtomicLong writeRequests = new AtomicLong();
+    private final AtomicLong totalWriteLatencyNanos = new AtomicLong();
+    private final AtomicLong maxWriteLatencyNanos = new AtomicLong();
+    private volatile long lastWriteLatencyNanos;
 
     @Override
     public void start(Map<String, String> props) {
         config = new AbstractConfig(CONFIG_DEF, props);
         String connectionName = config.getString(CONNECTION_NAME_CONFIG);
+        int taskId = config.getInt(Constants.TASK_ID_CONFIG);
         plc4xConnectionString = config.getString(PLC4X_CONNECTION_STRING_CONFIG);
         plc4xTopic = config.getString(PLC4X_TOPIC_CONFIG);
         plc4xRetries = config.getInt(PLC4X_RETRIES_CONFIG);
-        remainingRetries = plc4xRetries;
         plc4xTimeout = config.getInt(PLC4X_TIMEOUT_CONFIG);
+        coalesce = config.getBoolean(Constants.COALESCE_CONFIG);
 
         String queries = config.getString(QUERIES_CONFIG);
         fields = new HashMap<>();
+        pendingWrites = new LinkedHashMap<>();
 
         String[] fieldsConfigSegments = queries.split("\\|");
         for(int i = 0; i < fieldsConfigSegments.length; i++) {
@@ -151,40 +185,35 @@ public class Plc4xSinkTask extends SinkTask {
 
         log.info("Creating Pooled PLC4x driver manager");
         driverManager = new PooledPlcDriverManager();
+
+        // Register MBean
+        try {
+            objectName = new ObjectName(MX_DOMAIN + ":type=SinkTask,name=" + ObjectName.quote(connectionName) +
+                ",task=" + taskId);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+        } catch (InstanceAlreadyExistsException | MBeanRegistrationException | NotCompliantMBeanException | MalformedObjectNameException e) {
+            log.warn("Unable to register Sink Task {} of {} as MBean", taskId, connectionName, e);
+            objectName = null;
+        }
     }
 
     @Override
     public void stop() {
         synchronized (this) {
+            if (objectName != null) {
+                try {
+                    ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+                } catch (InstanceNotFoundException | MBeanRegistrationException e) {
+                    log.debug("Unable to unregister Sink Task MBean", e);
+                }
+                objectName = null;
+            }
             notifyAll(); // wake up thread waiting in awaitFetch
         }
     }
 
     @Override
     public void put(Collection<SinkRecord> records) {
-        if (records.isEmpty()) {
-            return;
-        }
-
-        PlcConnection connection = null;
-        try {
-            connection = driverManager.getConnection(plc4xConnectionString);
-        } catch (PlcConnectionException e) {
-            log.warn("Failed to Open Connection {}", plc4xConnectionString);
-            remainingRetries--;
-            if (remainingRetries > 0) {
-                if (context != null) {
-                    context.timeout(plc4xTimeout);
-                }
-                throw new RetriableException("Failed to Write to " + plc4xConnectionString + " retrying records that haven't expired");
-            }
-            log.warn("Failed to write after {} retries", plc4xRetries);
-            return;
-        }
-
-        PlcWriteRequest writeRequest;
-        final PlcWriteRequest.Builder builder = connection.writeRequestBuilder();
-        int validCount = 0;
         for (SinkRecord r: records) {
             Struct record = (Struct) r.value();
             String topic = r.topic();
@@ -192,6 +221,13 @@ public class Plc4xSinkTask extends SinkTask {
             Struct plcFields = record.getStruct(Constants.FIELDS_CONFIG);
             Schema plcFieldsSchema = plcFields.schema();
 
+            // Records may address another PLC than the configured one.
+            String connectionString = plc4xConnectionString;
+            Header connectionHeader = r.headers().lastWithName(Constants.CONNECTION_STRING_CONFIG);
+            if ((connectionHeader != null) && (connectionHeader.value() != null)) {
+                connectionString = connectionHeader.value().toString();
+            }
+
             for (Field plcField : plcFieldsSchema.fields()) {
                 String field = plcField.name();
                 Object value = plcFields.get(field);
@@ -211,61 +247,264 @@ public class Plc4xSinkTask extends SinkTask {
                     } else if ((System.currentTimeMillis() > expires) & !(expires == 0)) {
                         log.warn("Write request has expired {} - {}, discarding {}", expires, System.currentTimeMillis(), field);
                     } else {
-                        String address = fields.get(field);
-                        try {
-                            //If an array value is passed instead of a single value then convert to a String array
-                            if (value instanceof String) {
-                                String sValue = (String) value;
-                                if ((sValue.charAt(0) == '[') && (sValue.charAt(sValue.length() - 1) == ']')) {
-                                    String[] values = sValue.substring(1,sValue.length() - 1).split(",");
-                                    builder.addItem(address, address, values);
-                                } else {
-                                    builder.addItem(address, address, value);
-                                }
-                            } else {
-                                builder.addItem(address, address, value);
-                            }
-
-                            validCount += 1;
-                        } catch (Exception e) {
-                            //When building a request we want to discard the write if there is an error.
-                            log.warn("Invalid Address format for protocol {}", address);
-                        }
+                        addPendingWrite(new TopicPartition(topic, r.kafkaPartition()), r.kafkaOffset(),
+                            connectionString, fields.get(field), toValues(value));
                     }
                 }
 
             }
         }
 
-        if (validCount > 0) {
-            try {
-                writeRequest = builder.build();
-                writeRequest.execute().get();
-                log.debug("Wrote records to {}", plc4xConnectionString);
-            } catch (Exception e) {
-                remainingRetries--;
-                if (remainingRetries > 0) {
-                    if (context != null) {
-                        context.timeout(plc4xTimeout);
+        for (Map.Entry<String, Map<String, Deque<PendingWrite>>> connectionWrites : pendingWrites.entrySet()) {
+            write(connectionWrites.getKey(), connectionWrites.getValue());
+        }
+        pendingWrites.values().removeIf(Map::isEmpty);
+    }
+
+    /**
+     * Holds back the offsets of partitions with values still waiting to be written, so these records are
+     * consumed again if the task is restarted before they were written.
+     */
+    @Override
+    public Map<TopicPartition, OffsetAndMetadata> preCommit(Map<TopicPartition, OffsetAndMetadata> currentOffsets) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>(currentOffsets);
+        for (Map<String, Deque<PendingWrite>> connectionWrites : pendingWrites.values()) {
+            for (Deque<PendingWrite> fieldWrites : connectionWrites.values()) {
+                for (PendingWrite write : fieldWrites) {
+                    OffsetAndMetadata offset = offsets.get(write.partition);
+                    if ((offset != null) && (write.offset < offset.offset())) {
+                        offsets.put(write.partition, new OffsetAndMetadata(write.offset));
                     }
+                }
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * If an array value is passed instead of a single value then convert to a String array.
+     */
+    private static Object[] toValues(Object value) {
+        if (value instanceof String) {
+            String sValue = (String) value;
+            if ((sValue.length() > 1) && (sValue.charAt(0) == '[') && (sValue.charAt(sValue.length() - 1) == ']')) {
+                return sValue.substring(1, sValue.length() - 1).split(",");
+            }
+        }
+        return new Object[] {value};
+    }
+
+    private void addPendingWrite(TopicPartition partition, long offset,
+                                 String connectionString, String address, Object[] values) {
+        receivedValues.incrementAndGet();
+        Deque<PendingWrite> writes = pendingWrites
+            .computeIfAbsent(connectionString, key -> new LinkedHashMap<>())
+            .computeIfAbsent(address, key -> new ArrayDeque<>());
+        if (coalesce && !writes.isEmpty()) {
+            // Only the latest value is of interest, even if the previous one is still being retried.
+            coalescedValues.addAndGet(writes.size());
+            writes.clear();
+        }
+        writes.add(new PendingWrite(partition, offset, address, values, plc4xRetries));
+    }
+
+    /**
+     * Writes the oldest pending value of every field, which is due, to the connection.
+     * Without coalescing this is repeated until all values are written or a field failed.
+     */
+    private void write(String connectionString, Map<String, Deque<PendingWrite>> writes) {
+        PlcConnection connection = null;
+        try {
+            while (true) {
+                long now = System.currentTimeMillis();
+                List<PendingWrite> due = new ArrayList<>(writes.size());
+                for (Deque<PendingWrite> fieldWrites : writes.values()) {
+                    PendingWrite write = fieldWrites.peek();
+                    if ((write != null) && (write.notBefore <= now)) {
+                        due.add(write);
+                    }
+                }
+                if (due.isEmpty()) {
+                    return;
+                }
+
+                if (connection == null) {
                     try {
-                        connection.close();
-                    } catch (Exception f) {
-                        log.warn("Failed to Close {} on RetriableException", plc4xConnectionString);
+                        connection = driverManager.getConnection(connectionString);
+                    } catch (PlcConnectionException e) {
+                        log.warn("Failed to Open Connection {}", connectionString);
+                        for (PendingWrite write : due) {
+                            failed(writes, write, now);
+                        }
+                        return;
                     }
-                    throw new RetriableException("Failed to Write to " + plc4xConnectionString + " retrying records that haven't expired");
                 }
-                log.warn("Failed to write after {} retries", plc4xRetries);
+
+                if (!writeOnce(connection, connectionString, writes, due)) {
+                    return;
+                }
+            }
+        } finally {
+            writes.values().removeIf(Deque::isEmpty);
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (Exception e) {
+                    log.warn("Failed to Close {}", connectionString);
+                }
             }
         }
+    }
 
+    /**
+     * @return true, if all values were written.
+     */
+    private boolean writeOnce(PlcConnection connection, String connectionString,
+                              Map<String, Deque<PendingWrite>> writes, List<PendingWrite> due) {
+        long now = System.currentTimeMillis();
+        PlcWriteRequest.Builder builder = connection.writeRequestBuilder();
+        List<PendingWrite> requested = new ArrayList<>(due.size());
+        for (PendingWrite write : due) {
+            try {
+                builder.addItem(write.address, write.address, write.values);
+                requested.add(write);
+            } catch (Exception e) {
+                //When building a request we want to discard the write if there is an error.
+                log.warn("Invalid Address format for protocol {}", write.address);
+                writes.get(write.address).poll();
+                failedValues.incrementAndGet();
+            }
+        }
+        if (requested.isEmpty()) {
+            return true;
+        }
+
+        PlcWriteResponse response;
+        long start = System.nanoTime();
         try {
-            connection.close();
+            response = builder.build().execute().get(plc4xTimeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            requested.forEach(write -> failed(writes, write, now));
+            return false;
         } catch (Exception e) {
-            log.warn("Failed to Close {}", plc4xConnectionString);
+            log.warn("Failed to Write to {}", connectionString, e);
+            requested.forEach(write -> failed(writes, write, now));
+            return false;
+        } finally {
+            recordLatency(System.nanoTime() - start);
+        }
+
+        boolean allWritten = true;
+        for (PendingWrite write : requested) {
+            PlcResponseCode responseCode = response.getResponseCode(write.address);
+            if (responseCode == PlcResponseCode.OK) {
+                writes.get(write.address).poll();
+                writtenValues.incrementAndGet();
+            } else {
+                log.debug("Failed to write {} to {}: {}", write.address, connectionString, responseCode);
+                failed(writes, write, now);
+                allWritten = false;
+            }
+        }
+        log.debug("Wrote records to {}", connectionString);
+        return allWritten;
+    }
+
+    /**
+     * Schedules a retry of the failed value, or gives up on it after the configured number of retries.
+     */
+    private void failed(Map<String, Deque<PendingWrite>> writes, PendingWrite write, long now) {
+        write.remainingRetries--;
+        if (write.remainingRetries > 0) {
+            write.notBefore = now + plc4xTimeout;
+            return;
+        }
+        log.warn("Failed to write {} after {} retries", write.address, plc4xRetries);
+        Deque<PendingWrite> fieldWrites = writes.get(write.address);
+        fieldWrites.poll();
+        if (fieldWrites.isEmpty()) {
+            writes.remove(write.address);
+        }
+        failedValues.incrementAndGet();
+    }
+
+    private void recordLatency(long latencyNanos) {
+        writeRequests.incrementAndGet();
+        lastWriteLatencyNanos = latencyNanos;
+        totalWriteLatencyNanos.addAndGet(latencyNanos);
+        maxWriteLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+    }
+
+    // MBean methods
+    @Override
+    public long getReceivedValues() {
+        return receivedValues.get();
+    }
+
+    @Override
+    public long getCoalescedValues() {
+        return coalescedValues.get();
+    }
+
+    @Override
+    public double getCoalescingRatio() {
+        long received = receivedValues.get();
+        return (received == 0) ? 0 : (double) coalescedValues.get() / received;
+    }
+
+    @Override
+    public long getWrittenValues() {
+        return writtenValues.get();
+    }
+
+    @Override
+    public long getFailedValues() {
+        return failedValues.get();
+    }
+
+    @Override
+    public long getWriteRequests() {
+        return writeRequests.get();
+    }
+
+    @Override
+    public double getLastWriteLatencyMs() {
+        return lastWriteLatencyNanos / 1_000_000.0;
+    }
+
+    @Override
+    public double getAverageWriteLatencyMs() {
+        long requests = writeRequests.get();
+        return (requests == 0) ? 0 : totalWriteLatencyNanos.get() / 1_000_000.0 / requests;
+    }
+
+    @Override
+    public double getMaxWriteLatencyMs() {
+        return maxWriteLatencyNanos.get() / 1_000_000.0;
+    }
+
+    /**
+     * Value of a field waiting to be written.
+     */
+    private static final class PendingWrite {
+
+        // Origin of the value, its offset may not be committed before it is written.
+        private final TopicPartition partition;
+        private final long offset;
+        private final String address;
+        private final Object[] values;
+        private int remainingRetries;
+        // Earliest time of the next attempt.
+        private long notBefore;
+
+        private PendingWrite(TopicPartition partition, long offset, String address, Object[] values, int retries) {
+            this.partition = partition;
+            this.offset = offset;
+            this.address = address;
+            this.values = values;
+            this.remainingRetries = retries;
         }
 
-        remainingRetries = plc4xRetries;
-        return;
     }
 }
@@ -97,6 +97,11 @@ public class Plc4xSourceConnector extends SourceConnector {
             taskConfig.put(Constants.CONNECTION_STRING_CONFIG, source.getConnectionString());
             taskConfig.put(Constants.BUFFER_SIZE_CONFIG, source.getBufferSize().toString());
             taskConfig.put(Constants.KAFKA_POLL_RETURN_CONFIG, source.getPollReturnInterval().toString());
+            taskConfig.put(Constants.PRIMITIVE_ARRAYS_CONFIG, source.getPrimitiveArrays().toString());
+            taskConfig.put(Constants.SOURCE_MODE_CONFIG, source.getMode());
+            taskConfig.put(Constants.BUFFER_FULL_POLICY_CONFIG, source.getBufferFullPolicy());
+            taskConfig.put(Constants.POLL_BATCH_SIZE_CONFIG, source.getPollBatchSize().toString());
+            taskConfig.put(Constants.POLL_LINGER_CONFIG, source.getPollLinger().toString());
             taskConfig.put(Constants.QUERIES_CONFIG, query.toString().substring(1));
             configs.add(taskConfig);
         }
@@ -26,15 +26,27 @@ import org.apache.kafka.connect.errors.ConnectException;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.kafka.connect.source.SourceTask;
 import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.scraper.ScrapeResult;
 import org.apache.plc4x.java.scraper.config.triggeredscraper.JobConfigurationTriggeredImplBuilder;
 import org.apache.plc4x.java.scraper.config.triggeredscraper.ScraperConfigurationTriggeredImpl;
 import org.apache.plc4x.java.scraper.config.triggeredscraper.ScraperConfigurationTriggeredImplBuilder;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
+import org.apache.plc4x.java.scraper.triggeredscraper.ResultBuffer;
 import org.apache.plc4x.java.scraper.triggeredscraper.TriggeredScraperImpl;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector.TriggerCollector;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector.TriggerCollectorImpl;
+import org.apache.plc4x.java.spi.messages.PlcSubscriber;
 import org.apache.plc4x.java.utils.connectionpool.PooledPlcDriverManager;
 import org.apache.plc4x.kafka.config.Constants;
+import org.apache.plc4x.kafka.util.PrimitiveArrays;
 import org.apache.plc4x.kafka.util.VersionUtil;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,12 +60,17 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.*;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 /**
- * Source Connector Task polling the data source at a given rate.
- * A timer thread is scheduled which sets the fetch flag to true every rate milliseconds.
- * When poll() is invoked, the calling thread waits until the fetch flag is set for WAIT_LIMIT_MILLIS.
- * If the flag does not become true, the method returns null, otherwise a fetch is performed.
+ * Source Connector Task reading the data source at a given rate.
+ * Either the jobs are scraped or, in subscribe mode and if the connection supports it, cyclic subscriptions
+ * with the job's rate are used. All records are written to a bounded buffer. If it is full, scraped records
+ * either block the scraper or are dropped. Subscription events are delivered on the connection's I/O thread,
+ * so their records are always dropped (the next event of the job contains the newest values anyway).
+ * When poll() is invoked, the calling thread waits up to KAFKA_POLL_RETURN_CONFIG milliseconds for the first
+ * record and then up to POLL_LINGER_CONFIG milliseconds for the batch to fill up.
  */
 public class Plc4xSourceTask extends SourceTask {
 
@@ -78,6 +95,35 @@ public class Plc4xSourceTask extends SourceTask {
                 Constants.BUFFER_SIZE_DEFAULT,
                 ConfigDef.Importance.HIGH,
                 Constants.BUFFER_SIZE_DOC)
+        .define(Constants.PRIMITIVE_ARRAYS_CONFIG,
+                ConfigDef.Type.BOOLEAN,
+                Constants.PRIMITIVE_ARRAYS_DEFAULT,
+                ConfigDef.Importance.LOW,
+                Constants.PRIMITIVE_ARRAYS_DOC)
+        .define(Constants.SOURCE_MODE_CONFIG,
+                ConfigDef.Type.STRING,
+                Constants.SOURCE_MODE_DEFAULT,
+                ConfigDef.ValidString.in(Constants.SOURCE_MODE_SCRAPE, Constants.SOURCE_MODE_SUBSCRIBE),
+                ConfigDef.Importance.LOW,
+                Constants.SOURCE_MODE_DOC)
+        .define(Constants.BUFFER_FULL_POLICY_CONFIG,
+                ConfigDef.Type.STRING,
+                Constants.BUFFER_FULL_POLICY_DEFAULT,
+                ConfigDef.ValidString.in(Constants.BUFFER_FULL_POLICY_BLOCK, Constants.BUFFER_FULL_POLICY_DROP),
+                ConfigDef.Importance.LOW,
+                Constants.BUFFER_FULL_POLICY_DOC)
+        .define(Constants.POLL_BATCH_SIZE_CONFIG,
+                ConfigDef.Type.INT,
+                Constants.POLL_BATCH_SIZE_DEFAULT,
+                ConfigDef.Range.atLeast(1),
+                ConfigDef.Importance.LOW,
+                Constants.POLL_BATCH_SIZE_DOC)
+        .define(Constants.POLL_LINGER_CONFIG,
+                ConfigDef.Type.INT,
+                Constants.POLL_LINGER_DEFAULT,
+                ConfigDef.Range.atLeast(0),
+                ConfigDef.Importance.LOW,
+                Constants.POLL_LINGER_DOC)
         .define(Constants.QUERIES_CONFIG,
                 ConfigDef.Type.LIST,
                 ConfigDef.Importance.HIGH,
@@ -94,7 +140,19 @@ public class Plc4xSourceTask extends SourceTask {
     // Internal buffer into which all incoming scraper responses are written to.
     private ArrayBlockingQueue<SourceRecord> buffer;
     private Integer pollReturnInterval;
+    private int pollBatchSize;
+    private long pollLingerNanos;
+    private boolean dropIfFull;
+    private boolean primitiveArrays;
+    private volatile boolean running;
+    // Incremented by the scraper's and the subscriptions' threads.
+    private final AtomicLong droppedRecords = new AtomicLong();
+    // Either the scraper or the subscriptions with their connection are used.
     private TriggeredScraperImpl scraper;
+    private PlcConnection subscriptionConnection;
+    private List<PlcConsumerRegistration> registrations;
+    // Topic, source partition, key and the cached schemas of every configured job.
+    private Map<String, JobContext> jobContexts;
 
     @Override
     public String version() {
@@ -108,8 +166,16 @@ public class Plc4xSourceTask extends SourceTask {
         String plc4xConnectionString = config.getString(Constants.CONNECTION_STRING_CONFIG);
         pollReturnInterval = config.getInt(Constants.KAFKA_POLL_RETURN_CONFIG);
         Integer bufferSize = config.getInt(Constants.BUFFER_SIZE_CONFIG);
-
-        Map<String, String> topics = new HashMap<>();
+        primitiveArrays = config.getBoolean(Constants.PRIMITIVE_ARRAYS_CONFIG);
+        pollBatchSize = config.getInt(Constants.POLL_BATCH_SIZE_CONFIG);
+        pollLingerNanos = TimeUnit.MILLISECONDS.toNanos(config.getInt(Constants.POLL_LINGER_CONFIG));
+        dropIfFull = Constants.BUFFER_FULL_POLICY_DROP.equals(config.getString(Constants.BUFFER_FULL_POLICY_CONFIG));
+        boolean subscribe = Constants.SOURCE_MODE_SUBSCRIBE.equals(config.getString(Constants.SOURCE_MODE_CONFIG));
+
+        jobContexts = new HashMap<>();
+        // Rate and fields (alias to address) of every job, used to set up the subscriptions.
+        Map<String, Integer> jobRates = new LinkedHashMap<>();
+        Map<String, Map<String, String>> jobFields = new LinkedHashMap<>();
         // Create a buffer with a capacity of BUFFER_SIZE_CONFIG elements which schedules access in a fair way.
         buffer = new ArrayBlockingQueue<>(bufferSize, true);
 
@@ -131,6 +197,7 @@ public class Plc4xSourceTask extends SourceTask {
             Integer rate = Integer.valueOf(jobConfigSegments[2]);
             JobConfigurationTriggeredImplBuilder jobBuilder = builder.job(
                 jobName, String.format("(SCHEDULED,%s)", rate)).source(connectionName);
+            Map<String, String> fields = new LinkedHashMap<>();
             for(int i = 3; i < jobConfigSegments.length; i++) {
                 String[] fieldSegments = jobConfigSegments[i].split("#");
                 if(fieldSegments.length != 2) {
@@ -142,82 +209,39 @@ public class Plc4xSourceTask extends SourceTask {
                 String fieldAlias = fieldSegments[0];
                 String fieldAddress = fieldSegments[1];
                 jobBuilder.field(fieldAlias, fieldAddress);
-                topics.put(jobName, topic);
+                fields.put(fieldAlias, fieldAddress);
             }
+            jobContexts.put(jobName, new JobContext(connectionName, jobName, topic));
+            jobRates.put(jobName, rate);
+            jobFields.put(jobName, fields);
             jobBuilder.build();
         }
 
+        running = true;
+        droppedRecords.set(0);
+        if (subscribe && subscribe(connectionName, plc4xConnectionString, jobRates, jobFields)) {
+            return;
+        }
+
         ScraperConfigurationTriggeredImpl scraperConfig = builder.build();
 
         try {
             PlcDriverManager plcDriverManager = new PooledPlcDriverManager();
             TriggerCollector triggerCollector = new TriggerCollectorImpl(plcDriverManager);
-            scraper = new TriggeredScraperImpl(scraperConfig, (jobName, sourceName, results) -> {
-                Long timestamp = System.currentTimeMillis();
-
-                Map<String, String> sourcePartition = new HashMap<>();
-                sourcePartition.put("sourceName", sourceName);
-                sourcePartition.put("jobName", jobName);
-
-                Map<String, Long> sourceOffset = Collections.singletonMap("offset", timestamp);
-
-                String topic = topics.get(jobName);
-
-                // Prepare the key structure.
-                Struct key = new Struct(KEY_SCHEMA)
-                    .put(Constants.SOURCE_NAME_FIELD, sourceName)
-                    .put(Constants.JOB_NAME_FIELD, jobName);
-
-                // Build the Schema for the result struct.
-                SchemaBuilder fieldSchemaBuilder = SchemaBuilder.struct()
-                    .name("org.apache.plc4x.kafka.schema.Field");
-
-
-                for (Map.Entry<String, Object> result : results.entrySet()) {
-                    // Get field-name and -value from the results.
-                    String fieldName = result.getKey();
-                    Object fieldValue = result.getValue();
-
-                    // Get the schema for the given value type.
-                    Schema valueSchema = getSchema(fieldValue);
-
-                    // Add the schema description for the current field.
-                    fieldSchemaBuilder.field(fieldName, valueSchema);
-                }
-                Schema fieldSchema = fieldSchemaBuilder.build();
-
-                Schema recordSchema = SchemaBuilder.struct()
-                    .name("org.apache.plc4x.kafka.schema.JobResult")
-                    .doc("PLC Job result. This contains all of the received PLCValues as well as a recieved timestamp")
-                    .field(Constants.FIELDS_CONFIG, fieldSchema)
-                    .field(Constants.TIMESTAMP_CONFIG, Schema.INT64_SCHEMA)
-                    .field(Constants.EXPIRES_CONFIG, Schema.OPTIONAL_INT64_SCHEMA)
-                    .build();
-
-                // Build the struct itself.
-                Struct fieldStruct = new Struct(fieldSchema);
-                for (Map.Entry<String, Object> result : results.entrySet()) {
-                    // Get field-name and -value from the results.
-                    String fieldName = result.getKey();
-                    Object fieldValue = result.getValue();
-                    fieldStruct.put(fieldName, fieldValue);
+            scraper = new TriggeredScraperImpl(scraperConfig, new ResultBuffer(results -> {
+                for (ScrapeResult result : results) {
+                    try {
+                        // Add the new source-record to the buffer.
+                        putRecord(createRecord(result.getJobName(), result.getConnectionAlias(),
+                            result.getTimestamp(), result.getResponse()));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    } catch (RuntimeException e) {
+                        log.warn("Error handling the result of job {}", result.getJobName(), e);
+                    }
                 }
-
-                Struct recordStruct = new Struct(recordSchema)
-                    .put(Constants.FIELDS_CONFIG, fieldStruct)
-                    .put(Constants.TIMESTAMP_CONFIG, timestamp);
-
-                // Prepare the source-record element.
-                SourceRecord record = new SourceRecord(
-                    sourcePartition, sourceOffset,
-                    topic,
-                    KEY_SCHEMA, key,
-                    recordSchema, recordStruct
-                    );
-
-                // Add the new source-record to the buffer.
-                buffer.add(record);
-            }, triggerCollector);
+            }), triggerCollector);
             scraper.start();
             triggerCollector.start();
         } catch (ScraperException e) {
@@ -225,39 +249,261 @@ public class Plc4xSourceTask extends SourceTask {
         }
     }
 
+    /**
+     * Subscribes all fields of every job with the job's rate.
+     *
+     * @return false, if the connection doesn't support subscriptions or subscribing failed,
+     * in which case the jobs need to be scraped.
+     */
+    private boolean subscribe(String connectionName, String connectionString,
+                              Map<String, Integer> jobRates, Map<String, Map<String, String>> jobFields) {
+        PlcConnection connection;
+        try {
+            connection = new PlcDriverManager().getConnection(connectionString);
+        } catch (PlcConnectionException e) {
+            log.warn("Error connecting to {} for subscriptions, falling back to scraping", connectionName, e);
+            return false;
+        }
+        if (!connection.getMetadata().canSubscribe() || !(connection instanceof PlcSubscriber)) {
+            log.info("Connection {} doesn't support subscriptions, falling back to scraping", connectionName);
+            closeQuietly(connection);
+            return false;
+        }
+
+        List<PlcConsumerRegistration> newRegistrations = new ArrayList<>();
+        try {
+            for (Map.Entry<String, Map<String, String>> job : jobFields.entrySet()) {
+                String jobName = job.getKey();
+                Duration rate = Duration.ofMillis(jobRates.get(jobName));
+                PlcSubscriptionRequest.Builder requestBuilder = connection.subscriptionRequestBuilder();
+                for (Map.Entry<String, String> field : job.getValue().entrySet()) {
+                    requestBuilder.addCyclicField(field.getKey(), field.getValue(), rate);
+                }
+                PlcSubscriptionResponse response = requestBuilder.build().execute()
+                    .get(Math.max(pollReturnInterval, 5000), TimeUnit.MILLISECONDS);
+                for (String fieldName : response.getFieldNames()) {
+                    if (response.getResponseCode(fieldName) != PlcResponseCode.OK) {
+                        log.warn("Subscribing field {} of job {} failed with {}",
+                            fieldName, jobName, response.getResponseCode(fieldName));
+                    }
+                }
+                // One consumer per job, merging the values of the job's fields into one record.
+                Map<String, PlcValue> latestValues = new LinkedHashMap<>();
+                for (String fieldName : job.getValue().keySet()) {
+                    latestValues.put(fieldName, null);
+                }
+                // The consumer runs on the connection's I/O thread, so it must never block.
+                newRegistrations.add(((PlcSubscriber) connection).register(event -> {
+                    try {
+                        long timestamp = (event.getTimestamp() != null) ?
+                            event.getTimestamp().toEpochMilli() : System.currentTimeMillis();
+                        SourceRecord record;
+                        synchronized (latestValues) {
+                            for (String fieldName : event.getFieldNames()) {
+                                if (event.getResponseCode(fieldName) == PlcResponseCode.OK) {
+                                    latestValues.put(fieldName, event.getPlcValue(fieldName));
+                                }
+                            }
+                            record = createRecord(jobName, connectionName, timestamp,
+                                latestValues.keySet(), latestValues::get);
+                        }
+                        offerRecord(record);
+                    } catch (RuntimeException e) {
+                        log.warn("Error handling the subscription event of job {}", jobName, e);
+                    }
+                }, response.getSubscriptionHandles()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            newRegistrations.forEach(PlcConsumerRegistration::unregister);
+            closeQuietly(connection);
+            return false;
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            log.warn("Error subscribing the jobs of {}, falling back to scraping", connectionName, e);
+            newRegistrations.forEach(PlcConsumerRegistration::unregister);
+            closeQuietly(connection);
+            return false;
+        }
+        subscriptionConnection = connection;
+        registrations = newRegistrations;
+        return true;
+    }
+
+    /**
+     * Writes a scraped record to the buffer, waiting for space or dropping it, if the buffer is full.
+     */
+    private void putRecord(SourceRecord record) throws InterruptedException {
+        if (dropIfFull) {
+            offerRecord(record);
+            return;
+        }
+        // Waiting in slices allows to give up once the task is stopped.
+        while (running && !buffer.offer(record, 100, TimeUnit.MILLISECONDS)) {
+            log.trace("Buffer full, waiting for poll");
+        }
+    }
+
+    /**
+     * Writes the record to the buffer or drops it, if the buffer is full.
+     */
+    private void offerRecord(SourceRecord record) {
+        if (!buffer.offer(record)) {
+            long dropped = droppedRecords.incrementAndGet();
+            log.debug("Buffer full, dropped record of {} ({} dropped in total)", record.topic(), dropped);
+        }
+    }
+
+    private static void closeQuietly(PlcConnection connection) {
+        try {
+            connection.close();
+        } catch (Exception e) {
+            log.warn("Error closing the connection", e);
+        }
+    }
+
     @Override
     public void stop() {
-        synchronized (this) {            
-            scraper.stop();
+        synchronized (this) {
+            running = false;
+            if (registrations != null) {
+                registrations.forEach(PlcConsumerRegistration::unregister);
+                registrations = null;
+            }
+            if (subscriptionConnection != null) {
+                closeQuietly(subscriptionConnection);
+                subscriptionConnection = null;
+            }
+            if (scraper != null) {
+                scraper.stop();
+            }
             notifyAll(); // wake up thread waiting in awaitFetch
         }
     }
 
     @Override
     public List<SourceRecord> poll() {
-        if(!buffer.isEmpty()) {
-            int numElements = buffer.size();
-            List<SourceRecord> result = new ArrayList<>(numElements);
-            buffer.drainTo(result, numElements);
-            return result;
-        } else {
-            try {
-                List<SourceRecord> result = new ArrayList<>(1);
-                SourceRecord temp = buffer.poll(pollReturnInterval, TimeUnit.MILLISECONDS);
-                if (temp == null) {
-                    return null;
-                }
-                result.add(temp);
-                return result;
-            } catch (InterruptedException e) {
+        try {
+            SourceRecord first = buffer.poll(pollReturnInterval, TimeUnit.MILLISECONDS);
+            if (first == null) {
                 return null;
             }
+            List<SourceRecord> result = new ArrayList<>(Math.min(pollBatchSize, buffer.size() + 1));
+            result.add(first);
+            buffer.drainTo(result, pollBatchSize - 1);
+            // Linger for the batch to fill up.
+            long deadline = System.nanoTime() + pollLingerNanos;
+            while (result.size() < pollBatchSize) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    break;
+                }
+                SourceRecord next = buffer.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    break;
+                }
+                result.add(next);
+                buffer.drainTo(result, pollBatchSize - result.size());
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private SourceRecord createRecord(String jobName, String sourceName, Long timestamp, PlcReadResponse response) {
+        return createRecord(jobName, sourceName, timestamp, response.getFieldNames(), response::getPlcValue);
+    }
+
+    private SourceRecord createRecord(String jobName, String sourceName, Long timestamp,
+                                      Collection<String> fieldNames, Function<String, PlcValue> plcValues) {
+        JobContext jobContext = jobContexts.get(jobName);
+        if ((jobContext == null) || !jobContext.sourceName.equals(sourceName)) {
+            // Should not happen, as only the configured source and jobs are read.
+            jobContext = new JobContext(sourceName, jobName, null);
+        }
+        Map<String, Long> sourceOffset = Collections.singletonMap("offset", timestamp);
+
+        // Convert the values and determine the signature of the field types, which identifies the schema.
+        List<Object> values = new ArrayList<>(fieldNames.size());
+        List<Object> signature = new ArrayList<>(fieldNames.size() * 2);
+        for (String fieldName : fieldNames) {
+            Object fieldValue = toConnectValue(plcValues.apply(fieldName));
+            if (fieldValue == null) {
+                log.debug("Skipping field {} of job {} without a value", fieldName, jobName);
+                continue;
+            }
+            signature.add(fieldName);
+            signature.add(getTypeSignature(fieldValue));
+            values.add(fieldValue);
+        }
+        RecordSchemas schemas = jobContext.getSchemas(signature, values);
+
+        // Build the struct itself.
+        Struct fieldStruct = new Struct(schemas.fieldSchema);
+        for (int i = 0; i < values.size(); i++) {
+            fieldStruct.put(schemas.fields[i], values.get(i));
+        }
+        Struct recordStruct = new Struct(schemas.recordSchema)
+            .put(schemas.fieldsField, fieldStruct)
+            .put(schemas.timestampField, timestamp);
+
+        // Prepare the source-record element.
+        return new SourceRecord(
+            jobContext.sourcePartition, sourceOffset,
+            jobContext.topic,
+            KEY_SCHEMA, jobContext.key,
+            schemas.recordSchema, recordStruct
+        );
+    }
+
+    /**
+     * Converts a PLC value into the value put into the struct.
+     * Lists are either converted into lists of their element's objects or, if enabled,
+     * primitive arrays are emitted as views on their backing arrays.
+     */
+    private Object toConnectValue(PlcValue plcValue) {
+        if (plcValue == null) {
+            return null;
+        }
+        if (primitiveArrays) {
+            List<?> primitiveArray = PrimitiveArrays.asList(plcValue);
+            if (primitiveArray != null) {
+                return primitiveArray;
+            }
         }
+        if (plcValue.isList()) {
+            List<? extends PlcValue> plcValues = plcValue.getList();
+            List<Object> list = new ArrayList<>(plcValues.size());
+            for (PlcValue element : plcValues) {
+                list.add(toConnectValue(element));
+            }
+            return list;
+        }
+        return plcValue.getObject();
     }
 
-    private Schema getSchema(Object value) {
+    /**
+     * @return an object identifying the schema {@link #getSchema(Object)} returns for the given value.
+     */
+    private static Object getTypeSignature(Object value) {
+        if ((value instanceof List) && !(value instanceof PrimitiveArrays.ArrayView)) {
+            List<?> list = (List<?>) value;
+            if (list.isEmpty()) {
+                throw new ConnectException("Unsupported empty lists.");
+            }
+            return Collections.singletonList(getTypeSignature(list.get(0)));
+        }
+        return value.getClass();
+    }
+
+    private static Schema getSchema(Object value) {
         Objects.requireNonNull(value);
 
+        if (value instanceof PrimitiveArrays.ArrayView) {
+            return ((PrimitiveArrays.ArrayView<?>) value).getSchema();
+        }
+
         if(value instanceof List) {
             List list = (List) value;
             if(list.isEmpty()) {
@@ -266,7 +512,7 @@ public class Plc4xSourceTask extends SourceTask {
             // In PLC4X list elements all contain the same type.
             Object firstElement = list.get(0);
             Schema elementSchema = getSchema(firstElement);
-            return SchemaBuilder.array(elementSchema).build();
+            return SchemaBuilder.array(elementSchema).optional().build();
         }
         if (value instanceof BigDecimal) {
 
@@ -311,4 +557,80 @@ public class Plc4xSourceTask extends SourceTask {
         throw new ConnectException(String.format("Unsupported data type %s", value.getClass().getName()));
     }
 
+    /**
+     * Everything about a job, which is the same for all of its records.
+     */
+    private static final class JobContext {
+
+        private final String sourceName;
+        private final String topic;
+        private final Map<String, String> sourcePartition;
+        private final Struct key;
+        // Schemas by the signature of the field types, as these almost never change.
+        private final Map<List<Object>, RecordSchemas> schemas = new ConcurrentHashMap<>();
+
+        private JobContext(String sourceName, String jobName, String topic) {
+            this.sourceName = sourceName;
+            this.topic = topic;
+            Map<String, String> partition = new HashMap<>();
+            partition.put("sourceName", sourceName);
+            partition.put("jobName", jobName);
+            this.sourcePartition = Collections.unmodifiableMap(partition);
+            // Prepare the key structure.
+            this.key = new Struct(KEY_SCHEMA)
+                .put(Constants.SOURCE_NAME_FIELD, sourceName)
+                .put(Constants.JOB_NAME_FIELD, jobName);
+        }
+
+        private RecordSchemas getSchemas(List<Object> signature, List<Object> values) {
+            RecordSchemas recordSchemas = schemas.get(signature);
+            if (recordSchemas == null) {
+                recordSchemas = new RecordSchemas(signature, values);
+                schemas.put(signature, recordSchemas);
+            }
+            return recordSchemas;
+        }
+
+    }
+
+    /**
+     * Schema of the fields and the record for one signature of field types.
+     */
+    private static final class RecordSchemas {
+
+        private final Schema fieldSchema;
+        private final Schema recordSchema;
+        // The struct fields in the order of the values.
+        private final Field[] fields;
+        private final Field fieldsField;
+        private final Field timestampField;
+
+        private RecordSchemas(List<Object> signature, List<Object> values) {
+            // Build the Schema for the result struct.
+            SchemaBuilder fieldSchemaBuilder = SchemaBuilder.struct()
+                .name("org.apache.plc4x.kafka.schema.Field");
+            for (int i = 0; i < values.size(); i++) {
+                // Add the schema description for the current field.
+                fieldSchemaBuilder.field((String) signature.get(2 * i), getSchema(values.get(i)));
+            }
+            fieldSchema = fieldSchemaBuilder.build();
+
+            recordSchema = SchemaBuilder.struct()
+                .name("org.apache.plc4x.kafka.schema.JobResult")
+                .doc("PLC Job result. This contains all of the received PLCValues as well as a recieved timestamp")
+                .field(Constants.FIELDS_CONFIG, fieldSchema)
+                .field(Constants.TIMESTAMP_CONFIG, Schema.INT64_SCHEMA)
+                .field(Constants.EXPIRES_CONFIG, Schema.OPTIONAL_INT64_SCHEMA)
+                .build();
+
+            fields = new Field[values.size()];
+            for (int i = 0; i < fields.length; i++) {
+                fields[i] = fieldSchema.field((String) signature.get(2 * i));
+            }
+            fieldsField = recordSchema.field(Constants.FIELDS_CONFIG);
+            timestampField = recordSchema.field(Constants.TIMESTAMP_CONFIG);
+        }
+
+    }
+
 }
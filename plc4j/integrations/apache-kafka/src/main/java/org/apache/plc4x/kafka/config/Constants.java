@@ -54,6 +54,31 @@ public class Constants {
     public static final String BUFFER_SIZE_DOC = "Default buffer size to be used, if not otherwise configured.";
     public static final Integer BUFFER_SIZE_DEFAULT = 1000;
 
+    public static final String PRIMITIVE_ARRAYS_CONFIG = "primitiveArrays";
+    public static final String PRIMITIVE_ARRAYS_DOC = "Emit arrays of primitive PLC values as Connect arrays with non-optional elements instead of boxed lists.";
+    public static final Boolean PRIMITIVE_ARRAYS_DEFAULT = false;
+
+    public static final String SOURCE_MODE_CONFIG = "mode";
+    public static final String SOURCE_MODE_DOC = "'scrape' polls all jobs, 'subscribe' uses cyclic subscriptions if the connection supports them and falls back to scraping otherwise.";
+    public static final String SOURCE_MODE_SCRAPE = "scrape";
+    public static final String SOURCE_MODE_SUBSCRIBE = "subscribe";
+    public static final String SOURCE_MODE_DEFAULT = SOURCE_MODE_SCRAPE;
+
+    public static final String BUFFER_FULL_POLICY_CONFIG = "bufferFullPolicy";
+    public static final String BUFFER_FULL_POLICY_DOC = "Handling of new records if the buffer is full, 'block' waits for space, 'drop' discards the new record. " +
+        "Only applies to scraping, records of subscriptions are always dropped, as they must not block the connection.";
+    public static final String BUFFER_FULL_POLICY_BLOCK = "block";
+    public static final String BUFFER_FULL_POLICY_DROP = "drop";
+    public static final String BUFFER_FULL_POLICY_DEFAULT = BUFFER_FULL_POLICY_BLOCK;
+
+    public static final String POLL_BATCH_SIZE_CONFIG = "pollBatchSize";
+    public static final String POLL_BATCH_SIZE_DOC = "Max number of records returned by one poll.";
+    public static final Integer POLL_BATCH_SIZE_DEFAULT = 1000;
+
+    public static final String POLL_LINGER_CONFIG = "pollLingerMs";
+    public static final String POLL_LINGER_DOC = "Time a poll waits for the batch to fill up after the first record arrived.";
+    public static final Integer POLL_LINGER_DEFAULT = 0;
+
     /*
      * Config of the task.
      */
@@ -78,6 +103,14 @@ public class Constants {
     public static final String TIMEOUT_DOC = "PLC4X Sink write timeout";
     public static final Integer TIMEOUT_DEFAULT = 5000;
 
+    public static final String COALESCE_CONFIG = "coalesce";
+    public static final String COALESCE_DOC = "Only write the latest value of every field within a batch of records.";
+    public static final Boolean COALESCE_DEFAULT = true;
+
+    public static final String TASK_ID_CONFIG = "task-id";
+    public static final String TASK_ID_DOC = "Index of the task within the connector, used to tell its metrics apart";
+    public static final Integer TASK_ID_DEFAULT = 0;
+
     public static final String TIMESTAMP_CONFIG = "timestamp";
     public static final String TIMESTAMP_DOC = "PLC value timestamp. This is the time that the PLC value is placed in the buffer";
     public static final Integer TIMESTAMP_DEFAULT = 5000;
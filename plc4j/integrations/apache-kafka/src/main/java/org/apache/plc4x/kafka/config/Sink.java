@@ -36,6 +36,7 @@ public class Sink extends AbstractConfig{
     private final String topic;
     private final Integer retries;
     private final Integer timeout;
+    private final Boolean coalesce;
     private final List<Field> fields;
 
     public Sink(String name, Map originals) {
@@ -45,6 +46,7 @@ public class Sink extends AbstractConfig{
         this.topic = getString(Constants.TOPIC_CONFIG);
         this.retries = getInt(Constants.RETRIES_CONFIG);
         this.timeout = getInt(Constants.TIMEOUT_CONFIG);
+        this.coalesce = getBoolean(Constants.COALESCE_CONFIG);
 
         fields = new ArrayList<>(getList(Constants.FIELDS_CONFIG).size());
         for (String field : getList(Constants.FIELDS_CONFIG)) {
@@ -88,6 +90,10 @@ public class Sink extends AbstractConfig{
         return timeout;
     }
 
+    public Boolean getCoalesce() {
+        return coalesce;
+    }
+
     public List<Field> getFields() {
         return fields;
     }
@@ -112,6 +118,11 @@ public class Sink extends AbstractConfig{
                     Constants.TIMEOUT_DEFAULT,
                     ConfigDef.Importance.LOW,
                     Constants.JOBS_DOC)
+            .define(Constants.COALESCE_CONFIG,
+                    ConfigDef.Type.BOOLEAN,
+                    Constants.COALESCE_DEFAULT,
+                    ConfigDef.Importance.LOW,
+                    Constants.COALESCE_DOC)
             .define(Constants.FIELDS_CONFIG,
                     ConfigDef.Type.LIST,
                     Constants.FIELDS_DEFAULT,
@@ -126,6 +137,7 @@ public class Sink extends AbstractConfig{
         query.append(Constants.TOPIC_CONFIG + "=" + topic + ",\n");
         query.append(Constants.RETRIES_CONFIG + "=" + retries + ",\n");
         query.append(Constants.TIMEOUT_CONFIG + "=" + timeout + ",\n");
+        query.append(Constants.COALESCE_CONFIG + "=" + coalesce + ",\n");
         for (Field field : fields) {
             query.append(field.toString());
         }
@@ -36,6 +36,11 @@ public class Source extends AbstractConfig{
     private final String connectionString;
     private final Integer bufferSize;
     private final Integer pollReturnInterval;
+    private final Boolean primitiveArrays;
+    private final String mode;
+    private final String bufferFullPolicy;
+    private final Integer pollBatchSize;
+    private final Integer pollLinger;
     private final List<JobReference> jobReferences;
 
     private static final String JOB_REFERENCES_CONFIG = "jobReferences";
@@ -54,12 +59,38 @@ public class Source extends AbstractConfig{
     public static final String BUFFER_SIZE_DOC = "Default buffer size to be used, if not otherwise configured.";
     public static final Integer BUFFER_SIZE_DEFAULT = 1000;
 
+    public static final String PRIMITIVE_ARRAYS_CONFIG = "primitiveArrays";
+    public static final String PRIMITIVE_ARRAYS_DOC = "Emit arrays of primitive PLC values as Connect arrays with non-optional elements instead of boxed lists.";
+    public static final Boolean PRIMITIVE_ARRAYS_DEFAULT = false;
+
+    public static final String SOURCE_MODE_CONFIG = "mode";
+    public static final String SOURCE_MODE_DOC = "'scrape' polls all jobs, 'subscribe' uses cyclic subscriptions if the connection supports them and falls back to scraping otherwise.";
+    public static final String SOURCE_MODE_DEFAULT = "scrape";
+
+    public static final String BUFFER_FULL_POLICY_CONFIG = "bufferFullPolicy";
+    public static final String BUFFER_FULL_POLICY_DOC = "Handling of new records if the buffer is full, 'block' waits for space, 'drop' discards the new record. " +
+        "Only applies to scraping, records of subscriptions are always dropped, as they must not block the connection.";
+    public static final String BUFFER_FULL_POLICY_DEFAULT = "block";
+
+    public static final String POLL_BATCH_SIZE_CONFIG = "pollBatchSize";
+    public static final String POLL_BATCH_SIZE_DOC = "Max number of records returned by one poll.";
+    public static final Integer POLL_BATCH_SIZE_DEFAULT = 1000;
+
+    public static final String POLL_LINGER_CONFIG = "pollLingerMs";
+    public static final String POLL_LINGER_DOC = "Time a poll waits for the batch to fill up after the first record arrived.";
+    public static final Integer POLL_LINGER_DEFAULT = 0;
+
     public Source(String name, String defaultTopic, Map originals) {
         super(configDef(), originals);
         this.name = name;
         this.connectionString = getString(CONNECTION_STRING_CONFIG);
         this.bufferSize = getInt(BUFFER_SIZE_CONFIG);
         this.pollReturnInterval = getInt(KAFKA_POLL_RETURN_CONFIG);
+        this.primitiveArrays = getBoolean(PRIMITIVE_ARRAYS_CONFIG);
+        this.mode = getString(SOURCE_MODE_CONFIG);
+        this.bufferFullPolicy = getString(BUFFER_FULL_POLICY_CONFIG);
+        this.pollBatchSize = getInt(POLL_BATCH_SIZE_CONFIG);
+        this.pollLinger = getInt(POLL_LINGER_CONFIG);
 
         jobReferences = new ArrayList<>(getList(JOB_REFERENCES_CONFIG).size());
         for (String jobReference : getList(JOB_REFERENCES_CONFIG)) {
@@ -99,6 +130,26 @@ public class Source extends AbstractConfig{
         return pollReturnInterval;
     }
 
+    public Boolean getPrimitiveArrays() {
+        return primitiveArrays;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    public String getBufferFullPolicy() {
+        return bufferFullPolicy;
+    }
+
+    public Integer getPollBatchSize() {
+        return pollBatchSize;
+    }
+
+    public Integer getPollLinger() {
+        return pollLinger;
+    }
+
     public List<JobReference> getJobReferences() {
         return jobReferences;
     }
@@ -119,6 +170,35 @@ public class Source extends AbstractConfig{
                     KAFKA_POLL_RETURN_DEFAULT,
                     ConfigDef.Importance.LOW,
                     KAFKA_POLL_RETURN_DOC)
+            .define(PRIMITIVE_ARRAYS_CONFIG,
+                    ConfigDef.Type.BOOLEAN,
+                    PRIMITIVE_ARRAYS_DEFAULT,
+                    ConfigDef.Importance.LOW,
+                    PRIMITIVE_ARRAYS_DOC)
+            .define(SOURCE_MODE_CONFIG,
+                    ConfigDef.Type.STRING,
+                    SOURCE_MODE_DEFAULT,
+                    ConfigDef.ValidString.in("scrape", "subscribe"),
+                    ConfigDef.Importance.LOW,
+                    SOURCE_MODE_DOC)
+            .define(BUFFER_FULL_POLICY_CONFIG,
+                    ConfigDef.Type.STRING,
+                    BUFFER_FULL_POLICY_DEFAULT,
+                    ConfigDef.ValidString.in("block", "drop"),
+                    ConfigDef.Importance.LOW,
+                    BUFFER_FULL_POLICY_DOC)
+            .define(POLL_BATCH_SIZE_CONFIG,
+                    ConfigDef.Type.INT,
+                    POLL_BATCH_SIZE_DEFAULT,
+                    ConfigDef.Range.atLeast(1),
+                    ConfigDef.Importance.LOW,
+                    POLL_BATCH_SIZE_DOC)
+            .define(POLL_LINGER_CONFIG,
+                    ConfigDef.Type.INT,
+                    POLL_LINGER_DEFAULT,
+                    ConfigDef.Range.atLeast(0),
+                    ConfigDef.Importance.LOW,
+                    POLL_LINGER_DOC)
             .define(JOB_REFERENCES_CONFIG,
                     ConfigDef.Type.LIST,
                     ConfigDef.Importance.LOW,
@@ -132,6 +212,11 @@ public class Source extends AbstractConfig{
         query.append("\t" + CONNECTION_STRING_CONFIG + "=" + connectionString + ",\n");
         query.append("\t" + BUFFER_SIZE_CONFIG + "=" + bufferSize + ",\n");
         query.append("\t" + KAFKA_POLL_RETURN_CONFIG + "=" + pollReturnInterval + ",\n");
+        query.append("\t" + PRIMITIVE_ARRAYS_CONFIG + "=" + primitiveArrays + ",\n");
+        query.append("\t" + SOURCE_MODE_CONFIG + "=" + mode + ",\n");
+        query.append("\t" + BUFFER_FULL_POLICY_CONFIG + "=" + bufferFullPolicy + ",\n");
+        query.append("\t" + POLL_BATCH_SIZE_CONFIG + "=" + pollBatchSize + ",\n");
+        query.append("\t" + POLL_LINGER_CONFIG + "=" + pollLinger + ",\n");
 
         for (JobReference jobReference : jobReferences) {
             query.append(jobReference.toString());
@@ -0,0 +1,257 @@
+/*
+Licensed to the Apache Software Foundation (ASF) under one
+or more contributor license agreements.  See the NOTICE file
+distributed with this work for additional information
+regarding copyright ownership.  The ASF licenses this file
+to you under the Apache License, Version 2.0 (the
+"License"); you may not use this file except in compliance
+with the License.  You may obtain a copy of the License at
+
+  http://www.apache.org/licenses/LICENSE-2.0
+
+Unless required by applicable law or agreed to in writing,
+software distributed under the License is distributed on an
+"AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+KIND, either express or implied.  See the License for the
+specific language governing permissions and limitations
+under the License.
+*/
+package org.apache.plc4x.kafka.util;
+
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.values.*;
+
+import java.util.AbstractList;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * Read-only list views on the backing arrays of PLC4X primitive array values.
+ * They are emitted as Connect arrays with non-optional element schemas without creating
+ * a PlcValue for every single element.
+ */
+public final class PrimitiveArrays {
+
+    private static final Schema BOOLEAN_ARRAY_SCHEMA = SchemaBuilder.array(Schema.BOOLEAN_SCHEMA).optional().build();
+    private static final Schema INT8_ARRAY_SCHEMA = SchemaBuilder.array(Schema.INT8_SCHEMA).optional().build();
+    private static final Schema INT16_ARRAY_SCHEMA = SchemaBuilder.array(Schema.INT16_SCHEMA).optional().build();
+    private static final Schema INT32_ARRAY_SCHEMA = SchemaBuilder.array(Schema.INT32_SCHEMA).optional().build();
+    private static final Schema INT64_ARRAY_SCHEMA = SchemaBuilder.array(Schema.INT64_SCHEMA).optional().build();
+    private static final Schema FLOAT32_ARRAY_SCHEMA = SchemaBuilder.array(Schema.FLOAT32_SCHEMA).optional().build();
+    private static final Schema FLOAT64_ARRAY_SCHEMA = SchemaBuilder.array(Schema.FLOAT64_SCHEMA).optional().build();
+
+    private PrimitiveArrays() {
+    }
+
+    /**
+     * @param value value to be emitted
+     * @return view on the values of the given array or {@code null}, if the value isn't a primitive array
+     */
+    public static ArrayView<?> asList(PlcValue value) {
+        if (value instanceof PlcBOOLArray) {
+            PlcBOOLArray array = (PlcBOOLArray) value;
+            return new BooleanArrayView(array.getBits(), array.getLength());
+        } else if (value instanceof PlcSINTArray) {
+            return new ByteArrayView(((PlcSINTArray) value).getValues());
+        } else if (value instanceof PlcUSINTArray) {
+            return new ShortArrayView(((PlcUSINTArray) value).getValues());
+        } else if (value instanceof PlcINTArray) {
+            return new ShortArrayView(((PlcINTArray) value).getValues());
+        } else if (value instanceof PlcUINTArray) {
+            return new IntArrayView(((PlcUINTArray) value).getValues());
+        } else if (value instanceof PlcDINTArray) {
+            return new IntArrayView(((PlcDINTArray) value).getValues());
+        } else if (value instanceof PlcUDINTArray) {
+            return new LongArrayView(((PlcUDINTArray) value).getValues());
+        } else if (value instanceof PlcLINTArray) {
+            return new LongArrayView(((PlcLINTArray) value).getValues());
+        } else if (value instanceof PlcREALArray) {
+            return new FloatArrayView(((PlcREALArray) value).getValues());
+        } else if (value instanceof PlcLREALArray) {
+            return new DoubleArrayView(((PlcLREALArray) value).getValues());
+        }
+        return null;
+    }
+
+    public abstract static class ArrayView<T> extends AbstractList<T> implements RandomAccess {
+
+        /**
+         * @return schema of the Connect array this view is emitted as.
+         */
+        public abstract Schema getSchema();
+
+    }
+
+    private static final class BooleanArrayView extends ArrayView<Boolean> {
+        private final BitSet bits;
+        private final int length;
+
+        private BooleanArrayView(BitSet bits, int length) {
+            this.bits = bits;
+            this.length = length;
+        }
+
+        @Override
+        public Boolean get(int index) {
+            checkIndex(index, length);
+            return bits.get(index);
+        }
+
+        @Override
+        public int size() {
+            return length;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return BOOLEAN_ARRAY_SCHEMA;
+        }
+    }
+
+    private static final class ByteArrayView extends ArrayView<Byte> {
+        private final byte[] values;
+
+        private ByteArrayView(byte[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Byte get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return INT8_ARRAY_SCHEMA;
+        }
+    }
+
+    private static final class ShortArrayView extends ArrayView<Short> {
+        private final short[] values;
+
+        private ShortArrayView(short[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Short get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return INT16_ARRAY_SCHEMA;
+        }
+    }
+
+    private static final class IntArrayView extends ArrayView<Integer> {
+        private final int[] values;
+
+        private IntArrayView(int[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Integer get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return INT32_ARRAY_SCHEMA;
+        }
+    }
+
+    private static final class LongArrayView extends ArrayView<Long> {
+        private final long[] values;
+
+        private LongArrayView(long[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Long get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return INT64_ARRAY_SCHEMA;
+        }
+    }
+
+    private static final class FloatArrayView extends ArrayView<Float> {
+        private final float[] values;
+
+        private FloatArrayView(float[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Float get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return FLOAT32_ARRAY_SCHEMA;
+        }
+    }
+
+    private static final class DoubleArrayView extends ArrayView<Double> {
+        private final double[] values;
+
+        private DoubleArrayView(double[] values) {
+            this.values = values;
+        }
+
+        @Override
+        public Double get(int index) {
+            return values[index];
+        }
+
+        @Override
+        public int size() {
+            return values.length;
+        }
+
+        @Override
+        public Schema getSchema() {
+            return FLOAT64_ARRAY_SCHEMA;
+        }
+    }
+
+    private static void checkIndex(int index, int length) {
+        if ((index < 0) || (index >= length)) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+    }
+
+}
@@ -20,6 +20,8 @@ package org.apache.plc4x.kafka.config;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
 import org.apache.kafka.common.record.TimestampType;
 
 import org.apache.kafka.connect.sink.SinkRecord;
@@ -79,6 +81,9 @@ public class SinkTaskTest {
         assertEquals("machineSinkA", config.get(0).get(Constants.TOPIC_CONFIG));
         assertEquals("5", config.get(0).get(Constants.RETRIES_CONFIG));
         assertEquals("5000", config.get(0).get(Constants.TIMEOUT_CONFIG));
+        assertEquals("true", config.get(0).get(Constants.COALESCE_CONFIG));
+        assertEquals("0", config.get(0).get(Constants.TASK_ID_CONFIG));
+        assertEquals("1", config.get(1).get(Constants.TASK_ID_CONFIG));
         assertEquals("running#RANDOM/Temporary:Boolean|conveyorEntry#RANDOM/Temporary:Boolean|load#RANDOM/Temporary:Boolean|unload#RANDOM/Temporary:Boolean|transferLeft#RANDOM/Temporary:Boolean|transferRight#RANDOM/Temporary:Boolean|conveyorLeft#RANDOM/Temporary:Boolean|conveyorRight#RANDOM/Temporary:Boolean|numLargeBoxes#STATE/Temporary:Integer|numSmallBoxes#RANDOM/Temporary:Integer",
                     config.get(0).get(Constants.QUERIES_CONFIG));
     }
@@ -134,6 +139,94 @@ public class SinkTaskTest {
         }
     }
 
+    @Test
+    public void coalesceValues() throws Exception {
+        log.info("-----------------SinkTaskTest.Coalesce----------------");
+        Map<String, String> taskConfig = sinkConnector.taskConfigs(2).get(0);
+        Plc4xSinkTask sinkTask = new Plc4xSinkTask();
+
+        Schema fieldSchema = SchemaBuilder.struct()
+            .name("org.apache.plc4x.kafka.schema.Field")
+            .field("running", Schema.BOOLEAN_SCHEMA)
+            .field("numLargeBoxes", Schema.INT32_SCHEMA)
+            .build();
+
+        Schema schema = SchemaBuilder.struct()
+                        .name("org.apache.plc4x.kafka.schema.JobResult")
+                        .field(Constants.FIELDS_CONFIG, fieldSchema)
+                        .field(Constants.TIMESTAMP_CONFIG, Schema.INT64_SCHEMA)
+                        .field("expires", Schema.OPTIONAL_INT64_SCHEMA)
+                        .build();
+
+        List<SinkRecord> records = new ArrayList<>(3);
+        for (int i = 0; i < 3; i++) {
+            Struct fieldsStruct = new Struct(fieldSchema)
+                                    .put("running", (i % 2) == 0)
+                                    .put("numLargeBoxes", i);
+
+            Struct struct = new Struct(schema)
+                                    .put("fields", fieldsStruct)
+                                    .put(Constants.TIMESTAMP_CONFIG, System.currentTimeMillis())
+                                    .put("expires", 0L);
+
+            records.add(new SinkRecord("machineSinkA", 1, schema, struct, schema, struct, i));
+        }
+
+        sinkTask.start(taskConfig);
+        sinkTask.put(records);
+        sinkTask.stop();
+
+        // Only the values of the last record are written.
+        assertEquals(6, sinkTask.getReceivedValues());
+        assertEquals(4, sinkTask.getCoalescedValues());
+        assertEquals(1, sinkTask.getWriteRequests());
+    }
+
+    @Test
+    public void holdBackOffsetsOfPendingWrites() throws Exception {
+        log.info("-----------------SinkTaskTest.PreCommit----------------");
+        Map<String, String> taskConfig = sinkConnector.taskConfigs(2).get(0);
+        Plc4xSinkTask sinkTask = new Plc4xSinkTask();
+
+        Schema fieldSchema = SchemaBuilder.struct()
+            .name("org.apache.plc4x.kafka.schema.Field")
+            .field("running", Schema.BOOLEAN_SCHEMA)
+            .build();
+
+        Schema schema = SchemaBuilder.struct()
+                        .name("org.apache.plc4x.kafka.schema.JobResult")
+                        .field(Constants.FIELDS_CONFIG, fieldSchema)
+                        .field(Constants.TIMESTAMP_CONFIG, Schema.INT64_SCHEMA)
+                        .field("expires", Schema.OPTIONAL_INT64_SCHEMA)
+                        .build();
+
+        Struct struct = new Struct(schema)
+                                .put("fields", new Struct(fieldSchema).put("running", true))
+                                .put(Constants.TIMESTAMP_CONFIG, System.currentTimeMillis())
+                                .put("expires", 0L);
+
+        // The value can't be written, as there is no driver for the connection.
+        SinkRecord record = new SinkRecord("machineSinkA", 1, schema, struct, schema, struct, 42);
+        record.headers().addString(Constants.CONNECTION_STRING_CONFIG, "unknown://127.0.0.1");
+        List<SinkRecord> records = new ArrayList<>(1);
+        records.add(record);
+
+        sinkTask.start(taskConfig);
+        sinkTask.put(records);
+
+        TopicPartition pendingPartition = new TopicPartition("machineSinkA", 1);
+        TopicPartition otherPartition = new TopicPartition("machineSinkA", 2);
+        Map<TopicPartition, OffsetAndMetadata> currentOffsets = new HashMap<>();
+        currentOffsets.put(pendingPartition, new OffsetAndMetadata(43));
+        currentOffsets.put(otherPartition, new OffsetAndMetadata(7));
+        Map<TopicPartition, OffsetAndMetadata> offsets = sinkTask.preCommit(currentOffsets);
+        sinkTask.stop();
+
+        assertEquals(0, sinkTask.getWrittenValues());
+        assertEquals(42, offsets.get(pendingPartition).offset());
+        assertEquals(7, offsets.get(otherPartition).offset());
+    }
+
     private static Map<String, String> toStringMap(Properties properties) {
         Map<String, String> map = new HashMap<>();
         for (String stringPropertyName : properties.stringPropertyNames()) {
@@ -20,19 +20,32 @@ package org.apache.plc4x.kafka.config;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.apache.kafka.connect.source.SourceRecord;
 import org.apache.plc4x.kafka.Plc4xSourceConnector;
 import org.apache.plc4x.kafka.Plc4xSourceTask;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.values.PlcBOOL;
+import org.apache.plc4x.java.spi.values.PlcDINT;
+import org.apache.plc4x.java.spi.values.PlcList;
+import org.apache.plc4x.java.spi.values.PlcREAL;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 
 import java.io.StringReader;
+import java.lang.reflect.Method;
 import java.nio.file.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -69,6 +82,11 @@ public class SourceTaskTest {
         assertEquals("simulated://127.0.0.1", config.get(0).get(Constants.CONNECTION_STRING_CONFIG));
         assertEquals("1000", config.get(0).get(Constants.BUFFER_SIZE_CONFIG));
         assertEquals("5000", config.get(0).get(Constants.KAFKA_POLL_RETURN_CONFIG));
+        assertEquals("false", config.get(0).get(Constants.PRIMITIVE_ARRAYS_CONFIG));
+        assertEquals("scrape", config.get(0).get(Constants.SOURCE_MODE_CONFIG));
+        assertEquals("block", config.get(0).get(Constants.BUFFER_FULL_POLICY_CONFIG));
+        assertEquals("1000", config.get(0).get(Constants.POLL_BATCH_SIZE_CONFIG));
+        assertEquals("0", config.get(0).get(Constants.POLL_LINGER_CONFIG));
         assertEquals("simulateddashboard|machineData|1000|running#RANDOM/Temporary:Boolean|conveyorEntry#RANDOM/Temporary:Boolean|load#RANDOM/Temporary:Boolean|unload#RANDOM/Temporary:Boolean|transferLeft#RANDOM/Temporary:Boolean|transferRight#RANDOM/Temporary:Boolean|conveyorLeft#RANDOM/Temporary:Boolean|conveyorRight#RANDOM/Temporary:Boolean|numLargeBoxes#RANDOM/Temporary:Integer|numSmallBoxes#RANDOM/Temporary:Integer,simulatedheartbeat|simulatedheartbeat|500|active#RANDOM/Temporary:Integer", config.get(0).get(Constants.QUERIES_CONFIG));
     }
 
@@ -90,6 +108,161 @@ public class SourceTaskTest {
         }
     }
 
+    @Test
+    public void subscribeMergesFieldsOfJob() throws Exception {
+        log.info("-----------------SourceTaskTest.Subscribe----------------");
+        Plc4xSourceTask sourceTask = new Plc4xSourceTask();
+        sourceTask.start(subscriptionTaskConfig(1000, Constants.BUFFER_FULL_POLICY_BLOCK, 1000, 0));
+        try {
+            // The simulated device sends one event per field, which are merged into the job's record.
+            Struct fields = null;
+            long deadline = System.currentTimeMillis() + 5000;
+            while ((System.currentTimeMillis() < deadline) && !hasAllFields(fields)) {
+                List<SourceRecord> records = sourceTask.poll();
+                assertNotNull(records);
+                for (SourceRecord record : records) {
+                    assertEquals("machineData", record.topic());
+                    fields = ((Struct) record.value()).getStruct(Constants.FIELDS_CONFIG);
+                }
+            }
+            assertTrue(hasAllFields(fields), "record with the values of all fields");
+        } finally {
+            sourceTask.stop();
+        }
+    }
+
+    @Test
+    public void dropRecordsIfBufferIsFull() throws Exception {
+        log.info("-----------------SourceTaskTest.Drop----------------");
+        Plc4xSourceTask sourceTask = new Plc4xSourceTask();
+        sourceTask.start(subscriptionTaskConfig(2, Constants.BUFFER_FULL_POLICY_DROP, 1000, 0));
+        try {
+            Thread.sleep(1000);
+            // Only the records fitting into the buffer are kept.
+            List<SourceRecord> records = sourceTask.poll();
+            assertNotNull(records);
+            assertTrue(records.size() <= 2, "records fitting into the buffer");
+            // New records are accepted again, once there is space in the buffer.
+            assertNotNull(sourceTask.poll());
+        } finally {
+            sourceTask.stop();
+        }
+    }
+
+    @Test
+    public void pollBatches() throws Exception {
+        log.info("-----------------SourceTaskTest.Batch----------------");
+        Plc4xSourceTask sourceTask = new Plc4xSourceTask();
+        sourceTask.start(subscriptionTaskConfig(1000, Constants.BUFFER_FULL_POLICY_BLOCK, 3, 0));
+        try {
+            Thread.sleep(1000);
+            // Several records are buffered, but at most a batch is returned.
+            List<SourceRecord> records = sourceTask.poll();
+            assertNotNull(records);
+            assertEquals(3, records.size());
+        } finally {
+            sourceTask.stop();
+        }
+
+        sourceTask = new Plc4xSourceTask();
+        sourceTask.start(subscriptionTaskConfig(1000, Constants.BUFFER_FULL_POLICY_BLOCK, 5, 3000));
+        try {
+            // Lingering waits for the batch to fill up, instead of returning the first record.
+            List<SourceRecord> records = sourceTask.poll();
+            assertNotNull(records);
+            assertEquals(5, records.size());
+        } finally {
+            sourceTask.stop();
+        }
+    }
+
+    @Test
+    public void reuseSchemasOfSameSignature() throws Exception {
+        log.info("-----------------SourceTaskTest.Schemas----------------");
+        Plc4xSourceTask sourceTask = new Plc4xSourceTask();
+        sourceTask.start(subscriptionTaskConfig(1000, Constants.BUFFER_FULL_POLICY_BLOCK, 1000, 0));
+        try {
+            Map<String, PlcValue> values = new LinkedHashMap<>();
+            values.put("running", new PlcBOOL(true));
+            values.put("numLargeBoxes", new PlcDINT(1));
+            SourceRecord first = createRecord(sourceTask, values);
+
+            // Records with the same field names and value types share one schema.
+            values.put("running", new PlcBOOL(false));
+            values.put("numLargeBoxes", new PlcDINT(2));
+            SourceRecord second = createRecord(sourceTask, values);
+            assertSame(first.valueSchema(), second.valueSchema());
+            assertEquals(2, ((Struct) second.value()).getStruct(Constants.FIELDS_CONFIG).get("numLargeBoxes"));
+
+            // A changed value type results in a new schema ...
+            values.put("numLargeBoxes", new PlcREAL(2.5f));
+            SourceRecord changed = createRecord(sourceTask, values);
+            assertNotSame(first.valueSchema(), changed.valueSchema());
+            assertEquals(Schema.Type.FLOAT32, getFieldSchema(changed, "numLargeBoxes").type());
+            assertEquals(Schema.Type.INT32, getFieldSchema(first, "numLargeBoxes").type());
+
+            // ... as does a changed element type of a list ...
+            values.put("numLargeBoxes", new PlcList(Arrays.asList(new PlcDINT(1), new PlcDINT(2))));
+            SourceRecord intList = createRecord(sourceTask, values);
+            values.put("numLargeBoxes", new PlcList(Arrays.asList(new PlcREAL(1.5f), new PlcREAL(2.5f))));
+            SourceRecord floatList = createRecord(sourceTask, values);
+            assertNotSame(intList.valueSchema(), floatList.valueSchema());
+            assertEquals(Schema.Type.INT32, getFieldSchema(intList, "numLargeBoxes").valueSchema().type());
+            assertEquals(Schema.Type.FLOAT32, getFieldSchema(floatList, "numLargeBoxes").valueSchema().type());
+
+            // ... or a missing value, while the schemas of known signatures are still reused.
+            values.remove("numLargeBoxes");
+            SourceRecord missing = createRecord(sourceTask, values);
+            assertNull(missing.valueSchema().field(Constants.FIELDS_CONFIG).schema().field("numLargeBoxes"));
+            values.put("numLargeBoxes", new PlcREAL(3.5f));
+            assertSame(changed.valueSchema(), createRecord(sourceTask, values).valueSchema());
+            values.put("numLargeBoxes", new PlcDINT(3));
+            assertSame(first.valueSchema(), createRecord(sourceTask, values).valueSchema());
+        } finally {
+            sourceTask.stop();
+        }
+    }
+
+    /**
+     * Creates a record for the values of the job "machineData" of {@link #subscriptionTaskConfig}.
+     */
+    private static SourceRecord createRecord(Plc4xSourceTask sourceTask, Map<String, PlcValue> values) throws Exception {
+        Method createRecord = Plc4xSourceTask.class.getDeclaredMethod("createRecord",
+            String.class, String.class, Long.class, Collection.class, Function.class);
+        createRecord.setAccessible(true);
+        Function<String, PlcValue> plcValues = values::get;
+        return (SourceRecord) createRecord.invoke(sourceTask, "machineData", "machineA", System.currentTimeMillis(),
+            new ArrayList<>(values.keySet()), plcValues);
+    }
+
+    private static Schema getFieldSchema(SourceRecord record, String fieldName) {
+        return record.valueSchema().field(Constants.FIELDS_CONFIG).schema().field(fieldName).schema();
+    }
+
+    private static boolean hasAllFields(Struct fields) {
+        return (fields != null) && (fields.schema().field("running") != null)
+            && (fields.schema().field("numLargeBoxes") != null);
+    }
+
+    /**
+     * Config of a task subscribing two fields of the simulated device every 50ms.
+     */
+    private static Map<String, String> subscriptionTaskConfig(int bufferSize, String bufferFullPolicy,
+                                                              int pollBatchSize, int pollLinger) {
+        Map<String, String> taskConfig = new HashMap<>();
+        taskConfig.put(Constants.CONNECTION_NAME_CONFIG, "machineA");
+        taskConfig.put(Constants.CONNECTION_STRING_CONFIG, "simulated://127.0.0.1");
+        taskConfig.put(Constants.KAFKA_POLL_RETURN_CONFIG, "5000");
+        taskConfig.put(Constants.BUFFER_SIZE_CONFIG, Integer.toString(bufferSize));
+        taskConfig.put(Constants.SOURCE_MODE_CONFIG, Constants.SOURCE_MODE_SUBSCRIBE);
+        taskConfig.put(Constants.BUFFER_FULL_POLICY_CONFIG, bufferFullPolicy);
+        taskConfig.put(Constants.POLL_BATCH_SIZE_CONFIG, Integer.toString(pollBatchSize));
+        taskConfig.put(Constants.POLL_LINGER_CONFIG, Integer.toString(pollLinger));
+        taskConfig.put(Constants.QUERIES_CONFIG,
+            "machineData|machineData|50|running#RANDOM/Temporary:Boolean|numLargeBoxes#RANDOM/Temporary:Integer");
+        return taskConfig;
+    }
+
     private static Map<String, String> toStringMap(Properties properties) {
         Map<String, String> map = new HashMap<>();
         for (String stringPropertyName : properties.stringPropertyNames()) {
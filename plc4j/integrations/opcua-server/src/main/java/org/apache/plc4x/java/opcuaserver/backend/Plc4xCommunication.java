@@ -23,7 +23,10 @@ package org.apache.plc4x.java.opcuaserver.backend;
 import java.lang.reflect.Array;
 import java.util.List;
 import java.util.Arrays;
+import java.util.Objects;
 import java.util.Random;
+import java.util.Set;
+import java.util.HashSet;
 import java.util.UUID;
 
 import org.eclipse.milo.opcua.sdk.core.AccessLevel;
@@ -76,7 +79,6 @@ import org.eclipse.milo.opcua.stack.core.types.structured.StructureField;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
@@ -90,6 +92,7 @@ import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.model.PlcField;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.TimeUnit;
@@ -105,31 +108,103 @@ import static org.eclipse.milo.opcua.stack.core.types.builtin.unsigned.Unsigned.
 
 public class Plc4xCommunication {
 
-    private PlcDriverManager driverManager;
+    private final PooledPlcDriverManager driverManager;
     private final Logger logger = LoggerFactory.getLogger(getClass());
-    private final Integer DEFAULT_TIMEOUT = 1000000;
+    private final Integer DEFAULT_TIMEOUT = 1000;
     private final Integer DEFAULT_RETRY_BACKOFF = 5000;
+    // Values of tags which aren't monitored are read again once they are older than this.
+    private final Integer DEFAULT_CACHE_MAX_AGE = 1000;
 
-    private Map<String, Long> failedConnectionList = new HashMap<>();
+    private Map<String, Long> failedConnectionList = new ConcurrentHashMap<>();
 
-    Map<NodeId, DataItem> monitoredList = new HashMap<>();
+    Map<UInteger, DataItem> monitoredList = new ConcurrentHashMap<>();
+
+    // Tag of every node providing the value of a tag.
+    private final Map<NodeId, TagReference> tags = new ConcurrentHashMap<>();
+
+    // Latest value of every tag, shared by all attribute reads and monitored items.
+    private final Map<TagReference, DataValue> valueCache = new ConcurrentHashMap<>();
+
+    // Concurrent reads of a tag, which isn't cached, share one read.
+    private final Map<TagReference, CompletableFuture<DataValue>> pendingReads = new ConcurrentHashMap<>();
+
+    // Sampler keeping the monitored tags up to date by connection string.
+    private final Map<String, Plc4xSampler> samplers = new HashMap<>();
 
     public Plc4xCommunication () {
-        driverManager = new PooledPlcDriverManager();
+        // All borrowers of a connection share one physical connection.
+        this(new PooledPlcDriverManager(PooledPlcDriverManager.PoolingMode.SHARED));
+    }
+
+    Plc4xCommunication(PooledPlcDriverManager driverManager) {
+        this.driverManager = driverManager;
     }
 
     public PlcField getField(String tag, String connectionString) throws PlcConnectionException {
         return driverManager.getDriver(connectionString).prepareField(tag);
     }
 
+    /**
+     * Registers the tag providing the value of the node.
+     */
+    public void addTag(NodeId nodeId, String tag, String connectionString) {
+        tags.put(nodeId, new TagReference(connectionString, tag));
+    }
+
     public void addField(DataItem item) {
         logger.info("Adding item to OPC UA monitored list " + item.getReadValueId());
-        monitoredList.put(item.getReadValueId().getNodeId(), item);
+        monitoredList.put(item.getId(), item);
+        updateSampler(item);
     }
 
     public void removeField(DataItem item) {
         logger.info("Removing item from OPC UA monitored list " + item.getReadValueId());
-        monitoredList.remove(item.getReadValueId().getNodeId());
+        monitoredList.remove(item.getId());
+        updateSampler(item);
+    }
+
+    /**
+     * Samples all monitored tags of the item's connection at the fastest requested sampling interval.
+     */
+    private void updateSampler(DataItem item) {
+        TagReference reference = tags.get(item.getReadValueId().getNodeId());
+        if (reference == null) {
+            return;
+        }
+        String connectionString = reference.getConnectionString();
+        Set<String> monitoredTags = new HashSet<>();
+        double samplingInterval = Double.MAX_VALUE;
+        for (DataItem monitoredItem : monitoredList.values()) {
+            TagReference monitoredReference = tags.get(monitoredItem.getReadValueId().getNodeId());
+            if ((monitoredReference != null) && monitoredReference.getConnectionString().equals(connectionString)) {
+                monitoredTags.add(monitoredReference.getTag());
+                samplingInterval = Math.min(samplingInterval, monitoredItem.getSamplingInterval());
+            }
+        }
+
+        synchronized (samplers) {
+            Plc4xSampler sampler = samplers.get(connectionString);
+            if (monitoredTags.isEmpty()) {
+                if (sampler != null) {
+                    sampler.stop();
+                    samplers.remove(connectionString);
+                }
+                return;
+            }
+            if (sampler == null) {
+                sampler = new Plc4xSampler(driverManager, connectionString, valueCache, DEFAULT_TIMEOUT);
+                samplers.put(connectionString, sampler);
+            }
+            sampler.configure(monitoredTags, samplingInterval);
+        }
+    }
+
+    public void shutdown() {
+        synchronized (samplers) {
+            samplers.values().forEach(Plc4xSampler::stop);
+            samplers.clear();
+        }
+        driverManager.close();
     }
 
     public static NodeId getNodeId(String plcValue) {
@@ -195,22 +270,69 @@ public class Plc4xCommunication {
     }
 
     public DataValue getValue(AttributeFilterContext.GetAttributeContext ctx, String tag, String connectionString) {
+        TagReference reference = new TagReference(connectionString, tag);
+
+        // Monitored tags are kept up to date by their sampler, others are cached for a short time.
+        DataValue cached = valueCache.get(reference);
+        if ((cached != null) && (isSampled(reference) ||
+            ((cached.getServerTime() != null) &&
+                (System.currentTimeMillis() - cached.getServerTime().getJavaTime() <= DEFAULT_CACHE_MAX_AGE)))) {
+            return cached;
+        }
+
+        CompletableFuture<DataValue> read = new CompletableFuture<>();
+        CompletableFuture<DataValue> pendingRead = pendingReads.putIfAbsent(reference, read);
+        if (pendingRead != null) {
+            try {
+                return pendingRead.get(DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                logger.debug("Waiting for the read of " + tag + " failed - " + e);
+            }
+            return new DataValue(new Variant(null), StatusCode.BAD);
+        }
+
+        try {
+            DataValue resp = readValue(tag, connectionString);
+            if (resp.getServerTime() != null) {
+                valueCache.put(reference, resp);
+            }
+            read.complete(resp);
+            return resp;
+        } catch (RuntimeException e) {
+            read.completeExceptionally(e);
+            throw e;
+        } finally {
+            pendingReads.remove(reference, read);
+        }
+    }
+
+    private boolean isSampled(TagReference reference) {
+        synchronized (samplers) {
+            Plc4xSampler sampler = samplers.get(reference.getConnectionString());
+            return (sampler != null) && sampler.isSampling(reference.getTag());
+        }
+    }
+
+    private DataValue readValue(String tag, String connectionString) {
         PlcConnection connection = null;
         DataValue resp = new DataValue(new Variant(null), StatusCode.BAD);
 
         //Check if we just polled the connection and it failed. Wait for the backoff counter to expire before we try again.
-        if (failedConnectionList.containsKey(connectionString)) {
-            if (System.currentTimeMillis() > failedConnectionList.get(connectionString) + DEFAULT_RETRY_BACKOFF) {
+        Long failedTime = failedConnectionList.get(connectionString);
+        if (failedTime != null) {
+            if (System.currentTimeMillis() > failedTime + DEFAULT_RETRY_BACKOFF) {
                 failedConnectionList.remove(connectionString);
             } else {
-                logger.debug("Waiting for back off timer - " + ((failedConnectionList.get(connectionString) + DEFAULT_RETRY_BACKOFF) - System.currentTimeMillis()) + " ms left");
+                logger.debug("Waiting for back off timer - " + ((failedTime + DEFAULT_RETRY_BACKOFF) - System.currentTimeMillis()) + " ms left");
                 return resp;
             }
         }
 
         //Try to connect to PLC
         try {
-            connection = driverManager.getConnection(connectionString);            
+            connection = driverManager.getConnection(connectionString);
             logger.debug(connectionString + " Connected");
         } catch (PlcConnectionException e) {
             logger.error("Failed to connect to device, error raised - " + e);
@@ -228,11 +350,6 @@ public class Plc4xCommunication {
             return resp;
         }
 
-        long timeout = DEFAULT_TIMEOUT;
-        if (monitoredList.containsKey(ctx.getNode().getNodeId())) {
-            timeout = (long) monitoredList.get(ctx.getNode().getNodeId()).getSamplingInterval()*1000;
-        }
-
         // Create a new read request:
         // - Give the single item requested an alias name
         PlcReadRequest.Builder builder = connection.readRequestBuilder();
@@ -241,9 +358,9 @@ public class Plc4xCommunication {
 
         PlcReadResponse response = null;
         try {
-            response = readRequest.execute().get(timeout, TimeUnit.MICROSECONDS);
+            response = readRequest.execute().get(DEFAULT_TIMEOUT, TimeUnit.MILLISECONDS);
         } catch (InterruptedException | ExecutionException | TimeoutException e) {
-            logger.warn(e + " Occurred while reading value, using timeout of " + timeout/1000 + "ms");
+            logger.warn(e + " Occurred while reading value, using timeout of " + DEFAULT_TIMEOUT + "ms");
             try {
                 connection.close();
             } catch (Exception exception) {
@@ -252,28 +369,8 @@ public class Plc4xCommunication {
             return resp;
         }
 
-        for (String fieldName : response.getFieldNames()) {
-          if(response.getResponseCode(fieldName) == PlcResponseCode.OK) {
-              int numValues = response.getNumberOfValues(fieldName);
-              if(numValues == 1) {
-                  if (response.getObject(fieldName) instanceof BigInteger) {
-                      resp = new DataValue(new Variant(ulong((BigInteger) response.getObject(fieldName))), StatusCode.GOOD);
-                  } else {
-                      resp = new DataValue(new Variant(response.getObject(fieldName)), StatusCode.GOOD);
-                  }
-              } else {
-                Object array = Array.newInstance(response.getObject(fieldName, 0).getClass(), numValues);
-                for (int i = 0; i < numValues; i++) {
-                    if (response.getObject(fieldName, i) instanceof BigInteger) {
-                        Array.set(array, i, ulong((BigInteger) response.getObject(fieldName, i)));
-                    } else {
-                        Array.set(array, i, response.getObject(fieldName, i));
-                    }
-                }
-                resp = new DataValue(new Variant(array), StatusCode.GOOD);
-              }
-          }
-        }
+        DateTime now = DateTime.now();
+        resp = toDataValue(response, "value-1", now, now);
 
         try {
           connection.close();
@@ -284,6 +381,32 @@ public class Plc4xCommunication {
         return resp;
     }
 
+    /**
+     * Converts the value of a field of the response into an OPC UA data value.
+     */
+    static DataValue toDataValue(PlcReadResponse response, String fieldName, DateTime sourceTime, DateTime serverTime) {
+        if (response.getResponseCode(fieldName) != PlcResponseCode.OK) {
+            return new DataValue(new Variant(null), StatusCode.BAD, null, serverTime);
+        }
+        int numValues = response.getNumberOfValues(fieldName);
+        if (numValues == 1) {
+            if (response.getObject(fieldName) instanceof BigInteger) {
+                return new DataValue(new Variant(ulong((BigInteger) response.getObject(fieldName))), StatusCode.GOOD, sourceTime, serverTime);
+            } else {
+                return new DataValue(new Variant(response.getObject(fieldName)), StatusCode.GOOD, sourceTime, serverTime);
+            }
+        }
+        Object array = Array.newInstance(response.getObject(fieldName, 0).getClass(), numValues);
+        for (int i = 0; i < numValues; i++) {
+            if (response.getObject(fieldName, i) instanceof BigInteger) {
+                Array.set(array, i, ulong((BigInteger) response.getObject(fieldName, i)));
+            } else {
+                Array.set(array, i, response.getObject(fieldName, i));
+            }
+        }
+        return new DataValue(new Variant(array), StatusCode.GOOD, sourceTime, serverTime);
+    }
+
     public void setValue(String tag, String value, String connectionString) {
         PlcConnection connection = null;
         try {
@@ -334,4 +457,43 @@ public class Plc4xCommunication {
         }
         return;
     }
+
+    /**
+     * Tag of a connection, identifying a cached value.
+     */
+    static final class TagReference {
+
+        private final String connectionString;
+        private final String tag;
+
+        TagReference(String connectionString, String tag) {
+            this.connectionString = connectionString;
+            this.tag = tag;
+        }
+
+        String getConnectionString() {
+            return connectionString;
+        }
+
+        String getTag() {
+            return tag;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof TagReference)) {
+                return false;
+            }
+            TagReference that = (TagReference) o;
+            return connectionString.equals(that.connectionString) && tag.equals(that.tag);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(connectionString, tag);
+        }
+    }
 }
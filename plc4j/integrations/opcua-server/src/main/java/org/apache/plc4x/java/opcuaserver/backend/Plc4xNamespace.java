@@ -118,6 +118,7 @@ public class Plc4xNamespace extends ManagedNamespaceWithLifecycle {
         getLifecycleManager().addLifecycle(subscriptionModel);
 
         getLifecycleManager().addStartupTask(this::addNodes);
+        getLifecycleManager().addShutdownTask(plc4xServer::shutdown);
     }
 
     private void addNodes() {
@@ -200,6 +201,7 @@ public class Plc4xNamespace extends ManagedNamespaceWithLifecycle {
                 }
 
                 node.setValue(new DataValue(variant));
+                plc4xServer.addTag(node.getNodeId(), tag, connectionString);
 
                 AttributeLoggingFilter filter = new AttributeLoggingFilter();
 
@@ -0,0 +1,315 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.opcuaserver.backend;
+
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.messages.PlcPreparedRead;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DateTime;
+import org.eclipse.milo.opcua.stack.core.types.builtin.StatusCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.Variant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Keeps the cached values of all monitored tags of one connection up to date.
+ * If the connection supports subscriptions, all tags are subscribed cyclically at the fastest requested
+ * sampling interval. Otherwise they are read in one batched request, which is prepared once and split by
+ * the driver's optimizer, at that interval.
+ * Tags the driver rejects are marked bad and left out, until the set of tags changes.
+ * Subscriptions which haven't delivered an event for several sampling intervals are considered lost,
+ * e.g. as the pooled connection has been reconnected in the background, and are subscribed again.
+ */
+class Plc4xSampler {
+
+    private static final long MIN_SAMPLING_INTERVAL = 100;
+
+    // Number of sampling intervals without any event, after which the subscriptions are renewed.
+    static final int STALE_SAMPLING_INTERVALS = 5;
+
+    private final Logger logger = LoggerFactory.getLogger(getClass());
+
+    private final PlcDriverManager driverManager;
+    private final String connectionString;
+    private final Map<Plc4xCommunication.TagReference, DataValue> valueCache;
+    private final long timeout;
+    private final ScheduledExecutorService scheduler;
+
+    // Requested configuration, changed by the OPC UA server.
+    private volatile Set<String> tags = Collections.emptySet();
+    private volatile long samplingInterval;
+    private ScheduledFuture<?> samplingFuture;
+
+    // State of the sampling thread.
+    private PlcConnection connection;
+    private boolean subscriptionsUnsupported;
+    private Set<String> activeTags;
+    private long activeSamplingInterval;
+    private Set<String> validTags;
+    private PlcPreparedRead preparedRead;
+    private PlcSubscriptionResponse subscriptionResponse;
+    private List<PlcConsumerRegistration> registrations;
+    // Updated by the connection's threads delivering the events.
+    private volatile long lastEventNanos;
+
+    Plc4xSampler(PlcDriverManager driverManager, String connectionString,
+                 Map<Plc4xCommunication.TagReference, DataValue> valueCache, long timeout) {
+        this.driverManager = driverManager;
+        this.connectionString = connectionString;
+        this.valueCache = valueCache;
+        this.timeout = timeout;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "plc4x-sampler-" + connectionString);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return true, if the tag's cached value is kept up to date by this sampler.
+     */
+    boolean isSampling(String tag) {
+        return tags.contains(tag);
+    }
+
+    /**
+     * Sets the tags to sample and the fastest sampling interval requested for them.
+     */
+    synchronized void configure(Set<String> newTags, double newSamplingInterval) {
+        tags = Collections.unmodifiableSet(newTags);
+        long interval = Math.max(MIN_SAMPLING_INTERVAL, (long) newSamplingInterval);
+        if ((samplingFuture == null) || (interval != samplingInterval)) {
+            if (samplingFuture != null) {
+                samplingFuture.cancel(false);
+            }
+            samplingInterval = interval;
+            samplingFuture = scheduler.scheduleWithFixedDelay(this::sample, 0, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    synchronized void stop() {
+        if (samplingFuture != null) {
+            samplingFuture.cancel(false);
+            samplingFuture = null;
+        }
+        scheduler.execute(this::disconnect);
+        scheduler.shutdown();
+    }
+
+    private void sample() {
+        Set<String> currentTags = tags;
+        long currentSamplingInterval = samplingInterval;
+        try {
+            if (connection == null) {
+                connection = driverManager.getConnection(connectionString);
+            }
+            if (!connection.isConnected()) {
+                logger.debug("Connection {} lost", connectionString);
+                markBad(currentTags);
+                disconnect();
+                return;
+            }
+
+            if (!subscriptionsUnsupported && connection.getMetadata().canSubscribe()) {
+                if (!currentTags.equals(activeTags) || (currentSamplingInterval != activeSamplingInterval)) {
+                    subscribe(currentTags, currentSamplingInterval);
+                } else if (isStale()) {
+                    logger.info("No events received from {}, subscribing again", connectionString);
+                    markBad(validTags);
+                    subscribe(currentTags, currentSamplingInterval);
+                }
+                return;
+            }
+
+            if (!currentTags.equals(activeTags)) {
+                // All tags are read in one request, the alias of each field is its tag.
+                PlcReadRequest.Builder builder = connection.readRequestBuilder();
+                validTags = addValidTags(currentTags, tag -> builder.addItem(tag, tag));
+                preparedRead = validTags.isEmpty() ? null : connection.prepareRead(builder.build());
+                activeTags = currentTags;
+            }
+            if (preparedRead == null) {
+                return;
+            }
+            PlcReadResponse response = preparedRead.execute().get(timeout, TimeUnit.MILLISECONDS);
+            DateTime now = DateTime.now();
+            for (String tag : validTags) {
+                valueCache.put(new Plc4xCommunication.TagReference(connectionString, tag),
+                    Plc4xCommunication.toDataValue(response, tag, now, now));
+            }
+        } catch (PlcConnectionException e) {
+            logger.warn("Failed to connect to device {}, error raised - {}", connectionString, e.toString());
+            markBad(currentTags);
+            disconnect();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException | RuntimeException e) {
+            logger.warn("{} Occurred while sampling {}", e, connectionString);
+            markBad(currentTags);
+            disconnect();
+        }
+    }
+
+    /**
+     * Adds every tag to a request, tags the driver rejects are marked bad instead.
+     *
+     * @return the tags added to the request.
+     */
+    private Set<String> addValidTags(Set<String> currentTags, Consumer<String> addTag) {
+        Set<String> added = new HashSet<>(currentTags.size());
+        for (String tag : currentTags) {
+            try {
+                addTag.accept(tag);
+                added.add(tag);
+            } catch (RuntimeException e) {
+                logger.warn("Invalid tag {} of {}, not sampling it - {}", tag, connectionString, e.toString());
+                markBad(Collections.singleton(tag));
+            }
+        }
+        return added;
+    }
+
+    /**
+     * @return true, if no event was received for several sampling intervals.
+     */
+    private boolean isStale() {
+        if ((registrations == null) || validTags.isEmpty()) {
+            return false;
+        }
+        long staleAfter = Math.max(STALE_SAMPLING_INTERVALS * activeSamplingInterval, timeout);
+        return System.nanoTime() - lastEventNanos > TimeUnit.MILLISECONDS.toNanos(staleAfter);
+    }
+
+    private void subscribe(Set<String> currentTags, long currentSamplingInterval)
+        throws InterruptedException, ExecutionException, TimeoutException {
+        unsubscribe();
+        PlcSubscriptionRequest.Builder builder = connection.subscriptionRequestBuilder();
+        validTags = addValidTags(currentTags,
+            tag -> builder.addCyclicField(tag, tag, Duration.ofMillis(currentSamplingInterval)));
+        activeTags = currentTags;
+        activeSamplingInterval = currentSamplingInterval;
+        if (validTags.isEmpty()) {
+            return;
+        }
+        try {
+            subscriptionResponse = builder.build().execute().get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | RuntimeException e) {
+            // Fall back to reading the tags.
+            logger.info("Subscribing the tags of {} failed, reading them instead - {}", connectionString, e.toString());
+            subscriptionsUnsupported = true;
+            activeTags = null;
+            return;
+        }
+        lastEventNanos = System.nanoTime();
+        registrations = new ArrayList<>();
+        // Several fields may share one handle, every event is only handled once.
+        Set<PlcSubscriptionHandle> handles = Collections.newSetFromMap(new IdentityHashMap<>());
+        handles.addAll(subscriptionResponse.getSubscriptionHandles());
+        for (PlcSubscriptionHandle handle : handles) {
+            registrations.add(handle.register(event -> {
+                lastEventNanos = System.nanoTime();
+                DateTime sourceTime = (event.getTimestamp() != null) ?
+                    new DateTime(Date.from(event.getTimestamp())) : DateTime.now();
+                DateTime now = DateTime.now();
+                for (String tag : event.getFieldNames()) {
+                    valueCache.put(new Plc4xCommunication.TagReference(connectionString, tag),
+                        Plc4xCommunication.toDataValue(event, tag, sourceTime, now));
+                }
+            }));
+        }
+        DateTime now = DateTime.now();
+        for (String tag : subscriptionResponse.getFieldNames()) {
+            if (subscriptionResponse.getResponseCode(tag) != PlcResponseCode.OK) {
+                logger.warn("Subscribing tag {} failed with {}", tag, subscriptionResponse.getResponseCode(tag));
+                valueCache.put(new Plc4xCommunication.TagReference(connectionString, tag),
+                    new DataValue(new Variant(null), StatusCode.BAD, null, now));
+            }
+        }
+    }
+
+    private void unsubscribe() {
+        if (registrations != null) {
+            registrations.forEach(PlcConsumerRegistration::unregister);
+            registrations = null;
+        }
+        if (subscriptionResponse != null) {
+            try {
+                if (connection.isConnected() && !subscriptionResponse.getSubscriptionHandles().isEmpty()) {
+                    connection.unsubscriptionRequestBuilder()
+                        .addHandles(subscriptionResponse.getSubscriptionHandles())
+                        .build().execute();
+                }
+            } catch (RuntimeException e) {
+                logger.debug("Unsubscribing from {} failed", connectionString, e);
+            }
+            subscriptionResponse = null;
+        }
+    }
+
+    private void markBad(Set<String> currentTags) {
+        DateTime now = DateTime.now();
+        for (String tag : currentTags) {
+            valueCache.put(new Plc4xCommunication.TagReference(connectionString, tag),
+                new DataValue(new Variant(null), StatusCode.BAD, null, now));
+        }
+    }
+
+    private void disconnect() {
+        if (connection != null) {
+            unsubscribe();
+            try {
+                connection.close();
+            } catch (Exception e) {
+                logger.warn("Closing connection failed with error - " + e);
+            }
+            connection = null;
+        }
+        preparedRead = null;
+        validTags = null;
+        activeTags = null;
+        activeSamplingInterval = 0;
+    }
+
+}
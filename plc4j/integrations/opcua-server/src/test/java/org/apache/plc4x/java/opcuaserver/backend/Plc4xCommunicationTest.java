@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.opcuaserver.backend;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.utils.connectionpool.PooledPlcDriverManager;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class Plc4xCommunicationTest {
+
+    private static final String CONNECTION_STRING = "test://plc";
+
+    private final AtomicInteger reads = new AtomicInteger();
+
+    // Response of the next read, completed by the test if set.
+    private volatile CompletableFuture<PlcReadResponse> nextResponse;
+
+    private ExecutorService executorService;
+
+    private Plc4xCommunication communication;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        PooledPlcDriverManager driverManager = mock(PooledPlcDriverManager.class);
+        PlcConnection connection = mock(PlcConnection.class, RETURNS_DEEP_STUBS);
+        PlcReadRequest.Builder builder = mock(PlcReadRequest.Builder.class);
+        PlcReadRequest request = mock(PlcReadRequest.class);
+        when(driverManager.getConnection(CONNECTION_STRING)).thenReturn(connection);
+        when(connection.getMetadata().canRead()).thenReturn(true);
+        when(connection.readRequestBuilder()).thenReturn(builder);
+        when(builder.addItem(anyString(), anyString())).thenReturn(builder);
+        when(builder.build()).thenReturn(request);
+        doAnswer(invocation -> {
+            reads.incrementAndGet();
+            CompletableFuture<PlcReadResponse> response = nextResponse;
+            return (response != null) ? response : CompletableFuture.completedFuture(response(42));
+        }).when(request).execute();
+
+        executorService = Executors.newFixedThreadPool(2);
+        communication = new Plc4xCommunication(driverManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executorService.shutdownNow();
+        communication.shutdown();
+    }
+
+    @Test
+    void valuesAreCached() {
+        DataValue first = communication.getValue(null, "tag", CONNECTION_STRING);
+        DataValue second = communication.getValue(null, "tag", CONNECTION_STRING);
+
+        assertTrue(first.getStatusCode().isGood());
+        assertEquals(42, first.getValue().getValue());
+        assertEquals(42, second.getValue().getValue());
+        assertEquals(1, reads.get());
+    }
+
+    @Test
+    void valuesAreReadAgainOnceExpired() throws Exception {
+        communication.getValue(null, "tag", CONNECTION_STRING);
+        TimeUnit.MILLISECONDS.sleep(1500);
+        communication.getValue(null, "tag", CONNECTION_STRING);
+
+        assertEquals(2, reads.get());
+    }
+
+    @Test
+    void concurrentReadsAreShared() throws Exception {
+        nextResponse = new CompletableFuture<>();
+        Future<DataValue> first = executorService.submit(() -> communication.getValue(null, "tag", CONNECTION_STRING));
+        long deadline = System.currentTimeMillis() + 5000;
+        while ((reads.get() == 0) && (System.currentTimeMillis() < deadline)) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        Future<DataValue> second = executorService.submit(() -> communication.getValue(null, "tag", CONNECTION_STRING));
+        // Give the second reader the time to find the pending read.
+        TimeUnit.MILLISECONDS.sleep(200);
+        nextResponse.complete(response(42));
+
+        assertEquals(42, first.get(5, TimeUnit.SECONDS).getValue().getValue());
+        assertEquals(42, second.get(5, TimeUnit.SECONDS).getValue().getValue());
+        assertEquals(1, reads.get());
+    }
+
+    private static PlcReadResponse response(Object value) {
+        PlcReadResponse response = mock(PlcReadResponse.class);
+        when(response.getResponseCode(anyString())).thenReturn(PlcResponseCode.OK);
+        when(response.getNumberOfValues(anyString())).thenReturn(1);
+        when(response.getObject(anyString())).thenReturn(value);
+        return response;
+    }
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.opcuaserver.backend;
+
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.messages.PlcPreparedRead;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionEvent;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionResponse;
+import org.apache.plc4x.java.api.model.PlcConsumerRegistration;
+import org.apache.plc4x.java.api.model.PlcSubscriptionHandle;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.eclipse.milo.opcua.stack.core.types.builtin.DataValue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class Plc4xSamplerTest {
+
+    private static final String CONNECTION_STRING = "test://plc";
+
+    private final Map<Plc4xCommunication.TagReference, DataValue> valueCache = new ConcurrentHashMap<>();
+
+    private PlcDriverManager driverManager;
+
+    private PlcConnection connection;
+
+    private Plc4xSampler sampler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        driverManager = mock(PlcDriverManager.class);
+        connection = mock(PlcConnection.class, RETURNS_DEEP_STUBS);
+        when(driverManager.getConnection(CONNECTION_STRING)).thenReturn(connection);
+        when(connection.isConnected()).thenReturn(true);
+        sampler = new Plc4xSampler(driverManager, CONNECTION_STRING, valueCache, 200);
+    }
+
+    @AfterEach
+    void tearDown() {
+        sampler.stop();
+    }
+
+    @Test
+    void tagsAreReadInOnePreparedRequest() throws Exception {
+        when(connection.getMetadata().canSubscribe()).thenReturn(false);
+        PlcReadRequest.Builder builder = mock(PlcReadRequest.Builder.class);
+        PlcReadRequest request = mock(PlcReadRequest.class);
+        PlcPreparedRead preparedRead = mock(PlcPreparedRead.class);
+        when(connection.readRequestBuilder()).thenReturn(builder);
+        when(builder.addItem(anyString(), anyString())).thenReturn(builder);
+        // The invalid tag must neither spoil the other tags nor the connection.
+        when(builder.addItem("invalid", "invalid")).thenThrow(new PlcInvalidFieldException("invalid"));
+        when(builder.build()).thenReturn(request);
+        when(connection.prepareRead(request)).thenReturn(preparedRead);
+        when(preparedRead.execute()).thenReturn(CompletableFuture.completedFuture(response(42)));
+
+        sampler.configure(new HashSet<>(Arrays.asList("tag1", "tag2", "invalid")), 100);
+
+        awaitGood("tag1");
+        awaitGood("tag2");
+        assertEquals(42, getCached("tag1").getValue().getValue());
+        assertTrue(getCached("invalid").getStatusCode().isBad());
+
+        // The request is prepared once and executed on every sampling interval.
+        verify(preparedRead, timeout(2000).atLeast(3)).execute();
+        verify(connection, times(1)).prepareRead(request);
+        verify(driverManager, times(1)).getConnection(CONNECTION_STRING);
+        verify(connection, never()).close();
+    }
+
+    @Test
+    void tagsAreSubscribedAndRenewedIfStale() throws Exception {
+        when(connection.getMetadata().canSubscribe()).thenReturn(true);
+        PlcSubscriptionRequest.Builder builder = mock(PlcSubscriptionRequest.Builder.class);
+        PlcSubscriptionRequest request = mock(PlcSubscriptionRequest.class);
+        PlcSubscriptionResponse response = mock(PlcSubscriptionResponse.class);
+        PlcSubscriptionHandle handle = mock(PlcSubscriptionHandle.class);
+        PlcConsumerRegistration registration = mock(PlcConsumerRegistration.class);
+        when(connection.subscriptionRequestBuilder()).thenReturn(builder);
+        when(builder.addCyclicField(anyString(), anyString(), any(Duration.class))).thenReturn(builder);
+        when(builder.build()).thenReturn(request);
+        doReturn(CompletableFuture.completedFuture(response)).when(request).execute();
+        when(response.getSubscriptionHandles()).thenReturn(Collections.singletonList(handle));
+        when(response.getFieldNames()).thenReturn(Collections.singleton("tag"));
+        when(response.getResponseCode("tag")).thenReturn(PlcResponseCode.OK);
+        AtomicReference<Consumer<PlcSubscriptionEvent>> consumer = new AtomicReference<>();
+        when(handle.register(any())).then(invocation -> {
+            consumer.set(invocation.getArgument(0));
+            return registration;
+        });
+
+        sampler.configure(Collections.singleton("tag"), 100);
+
+        verify(builder, timeout(2000)).addCyclicField(eq("tag"), eq("tag"), eq(Duration.ofMillis(100)));
+        verify(handle, timeout(2000)).register(any());
+        consumer.get().accept(event(7));
+        assertEquals(7, getCached("tag").getValue().getValue());
+        assertTrue(getCached("tag").getStatusCode().isGood());
+
+        // Without any further events the subscription is considered lost and renewed.
+        verify(connection, timeout(5000).times(2)).subscriptionRequestBuilder();
+        verify(registration, timeout(2000)).unregister();
+        assertTrue(getCached("tag").getStatusCode().isBad());
+    }
+
+    private void awaitGood(String tag) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            DataValue value = valueCache.get(new Plc4xCommunication.TagReference(CONNECTION_STRING, tag));
+            if ((value != null) && value.getStatusCode().isGood()) {
+                return;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private DataValue getCached(String tag) {
+        DataValue value = valueCache.get(new Plc4xCommunication.TagReference(CONNECTION_STRING, tag));
+        assertNotNull(value, tag);
+        return value;
+    }
+
+    private static PlcReadResponse response(Object value) {
+        PlcReadResponse response = mock(PlcReadResponse.class);
+        when(response.getResponseCode(anyString())).thenReturn(PlcResponseCode.OK);
+        when(response.getNumberOfValues(anyString())).thenReturn(1);
+        when(response.getObject(anyString())).thenReturn(value);
+        return response;
+    }
+
+    private static PlcSubscriptionEvent event(Object value) {
+        PlcSubscriptionEvent event = mock(PlcSubscriptionEvent.class);
+        when(event.getTimestamp()).thenReturn(Instant.now());
+        when(event.getFieldNames()).thenReturn(Collections.singleton("tag"));
+        when(event.getResponseCode("tag")).thenReturn(PlcResponseCode.OK);
+        when(event.getNumberOfValues("tag")).thenReturn(1);
+        when(event.getObject("tag")).thenReturn(value);
+        return event;
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.HashedWheelTimer;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of matching an incoming response to one of the pending requests in the
+ * {@link Plc4xNettyWrapper}, once using the checks of every registration (linear scan) and
+ * once using correlation keys.
+ */
+public class HandlerMatchingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class MyState {
+
+        @Param({"1", "16", "256"})
+        int outstandingRequests;
+
+        @Param({"false", "true"})
+        boolean correlated;
+
+        HashedWheelTimer timer;
+        EmbeddedChannel channel;
+        Plc4xNettyWrapper<Frame> SUT;
+        ChannelHandlerContext channelHandlerContext;
+        ConversationContext<Frame> context;
+        int next;
+        long handled;
+
+        @Setup(Level.Trial)
+        public void doSetup() {
+            timer = new HashedWheelTimer();
+            channel = new EmbeddedChannel();
+            FrameProtocol protocol = new FrameProtocol();
+            SUT = new Plc4xNettyWrapper<>(timer, channel.pipeline(), false, protocol, Frame.class);
+            channel.pipeline().addLast(SUT);
+            channelHandlerContext = channel.pipeline().context(SUT);
+            context = protocol.getContext();
+            for (int i = 0; i < outstandingRequests; i++) {
+                register(i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void doTearDown() {
+            channel.finishAndReleaseAll();
+            timer.stop();
+        }
+
+        void register(int id) {
+            ConversationContext.SendRequestContext<Frame> request = context.sendRequest(new Frame(id))
+                .expectResponse(Frame.class, Duration.ofHours(1));
+            if (correlated) {
+                request = request.correlate(Frame::getId, id);
+            }
+            request.check(frame -> frame.getId() == id)
+                .handle(frame -> handled++);
+            // Don't let the sent requests pile up in the channel.
+            channel.outboundMessages().clear();
+        }
+
+    }
+
+    @Benchmark
+    @Warmup(iterations = 5, time = 1)
+    @Measurement(iterations = 5, time = 1)
+    @Fork(3)
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public long measureResponseMatching(MyState myState) throws Exception {
+        // Always answer the request which was registered first,
+        // which has the most registrations queued in front of it.
+        int id = myState.next;
+        myState.next = (id + 1) % myState.outstandingRequests;
+        List<Object> out = new ArrayList<>();
+        myState.SUT.decode(myState.channelHandlerContext, new Frame(id), out);
+        // Keep the number of outstanding requests constant.
+        myState.register(id);
+        return myState.handled;
+    }
+
+    public static class Frame {
+
+        private final int id;
+
+        public Frame(int id) {
+            this.id = id;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+    }
+
+    private static class FrameProtocol extends Plc4xProtocolBase<Frame> {
+
+        ConversationContext<Frame> getContext() {
+            return context;
+        }
+
+        @Override
+        public void close(ConversationContext<Frame> context) {
+            // Nothing to do here
+        }
+
+    }
+
+}
@@ -49,6 +49,15 @@ public interface ConversationContext<T> {
 
         SendRequestContext<T> check(Predicate<T> checker);
 
+        /**
+         * Optionally correlates the response by a key (e.g. a transaction or invoke id), which allows looking up the
+         * handler in constant time instead of evaluating the checks of all pending requests. Has to be called after
+         * {@link #expectResponse(Class, Duration)} and before the first {@link #unwrap(Function)}. The key extractor is
+         * applied to every incoming message of the expected type, so it should be a constant (e.g. a method reference).
+         * Any checks are still evaluated on the message found by the key.
+         */
+        SendRequestContext<T> correlate(Function<T, ?> keyExtractor, Object key);
+
         ContextHandler handle(Consumer<T> packetConsumer);
 
         SendRequestContext<T> onTimeout(Consumer<TimeoutException> packetConsumer);
@@ -19,11 +19,12 @@
 package org.apache.plc4x.java.spi;
 
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageCodec;
-import org.apache.commons.codec.binary.Hex;
 import org.apache.plc4x.java.spi.generation.Message;
 import org.apache.plc4x.java.spi.generation.MessageIO;
+import org.apache.plc4x.java.spi.generation.PreSerializedMessage;
 import org.apache.plc4x.java.spi.generation.ReadBuffer;
 import org.apache.plc4x.java.spi.generation.WriteBuffer;
 import org.slf4j.Logger;
@@ -48,12 +49,32 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
 
     @Override
     protected void encode(ChannelHandlerContext ctx, T packet, ByteBuf byteBuf) {
+        int startIndex = byteBuf.writerIndex();
+        if(packet instanceof PreSerializedMessage) {
+            byteBuf.writeBytes(((PreSerializedMessage) packet).getSerializedBytes());
+            if(LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Sending pre-serialized bytes to PLC for message {} as data {}", packet,
+                    ByteBufUtil.hexDump(byteBuf, startIndex, byteBuf.writerIndex() - startIndex));
+            }
+            return;
+        }
         try {
-            WriteBuffer buffer = new WriteBuffer(packet.getLengthInBytes(), !bigEndian);
+            // Serialize the packet directly into the outbound buffer.
+            int lengthInBytes = packet.getLengthInBytes();
+            byteBuf.ensureWritable(lengthInBytes);
+            WriteBuffer buffer = new WriteBuffer(byteBuf, !bigEndian);
             io.serialize(buffer, packet);
-            byteBuf.writeBytes(buffer.getData());
-            LOGGER.debug("Sending bytes to PLC for message {} as data {}", packet, Hex.encodeHexString(buffer.getData()));
+            // Anything not explicitly written (like a trailing partial byte) is sent as zeros.
+            if(buffer.getPos() < lengthInBytes) {
+                byteBuf.writeZero(lengthInBytes - buffer.getPos());
+            }
+            if(LOGGER.isDebugEnabled()) {
+                LOGGER.debug("Sending bytes to PLC for message {} as data {}", packet,
+                    ByteBufUtil.hexDump(byteBuf, startIndex, byteBuf.writerIndex() - startIndex));
+            }
         } catch (Exception e) {
+            // Don't send partially serialized packets.
+            byteBuf.writerIndex(startIndex);
             LOGGER.warn("Error encoding package [{}]: {}", packet, e.getMessage(), e);
         }
     }
@@ -63,7 +84,7 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
         LOGGER.trace("Receiving bytes, trying to decode Message...");
         // As long as there is data available, continue checking the content.
         while(byteBuf.readableBytes() > 0) {
-            byte[] bytes = null;
+            ByteBuf packetBuf = null;
             try {
                 // Check if enough data is present to process the entire package.
                 int packetSize = getPacketSize(byteBuf);
@@ -71,10 +92,9 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
                     return;
                 }
 
-                // Read the packet data into a new ReadBuffer
-                bytes = new byte[packetSize];
-                byteBuf.readBytes(bytes);
-                ReadBuffer readBuffer = new ReadBuffer(bytes, !bigEndian);
+                // Parse the packet data directly from the received buffer (without copying it)
+                packetBuf = byteBuf.readSlice(packetSize);
+                ReadBuffer readBuffer = new ReadBuffer(packetBuf, !bigEndian);
 
                 // Parse the packet.
                 T packet = io.parse(readBuffer, parserArgs);
@@ -88,9 +108,9 @@ public abstract class GeneratedDriverByteToMessageCodec<T extends Message> exten
                     return;
                 }
             } catch (Exception e) {
-                if(bytes != null) {
+                if(packetBuf != null) {
                     LOGGER.warn("Error decoding package with content [{}]: {}",
-                        Hex.encodeHexString(bytes), e.getMessage(), e);
+                        ByteBufUtil.hexDump(packetBuf), e.getMessage(), e);
                 }
                 // Just remove any trailing junk ... if there is any.
                 removeRestOfCorruptPackage(byteBuf);
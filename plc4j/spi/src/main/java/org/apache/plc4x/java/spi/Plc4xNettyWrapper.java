@@ -23,6 +23,8 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
 import io.netty.handler.codec.MessageToMessageCodec;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timer;
 import io.vavr.control.Either;
 import org.apache.plc4x.java.spi.events.CloseConnectionEvent;
 import org.apache.plc4x.java.spi.events.ConnectEvent;
@@ -32,16 +34,22 @@ import org.apache.plc4x.java.spi.events.DisconnectedEvent;
 import org.apache.plc4x.java.spi.internal.DefaultExpectRequestContext;
 import org.apache.plc4x.java.spi.internal.DefaultSendRequestContext;
 import org.apache.plc4x.java.spi.internal.HandlerRegistration;
+import org.apache.plc4x.java.spi.transaction.RequestTransactionManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
-import java.time.Instant;
 import java.util.Deque;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -52,15 +60,36 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
     private static final Logger logger = LoggerFactory.getLogger(Plc4xNettyWrapper.class);
 
     private final Plc4xProtocolBase<T> protocolBase;
+    /** Marker for messages not matching the checks of a registration */
+    private static final Object NO_MATCH = new Object();
+
     private final Queue<HandlerRegistration> registeredHandlers;
+    /**
+     * Registrations with a correlation key, indexed by their key extractor.
+     * An index is removed as soon as it is empty, as callers might pass a new extractor instance every time.
+     */
+    private final Map<Function<?, ?>, CorrelationIndex> correlatedHandlers;
     private final ChannelPipeline pipeline;
     private final boolean passive;
+    /** Used to fire the timeouts of the registered handlers, no matter if any other messages arrive */
+    private final Timer timer;
 
+    /**
+     * @deprecated pass the timer of the connection using
+     * {@link #Plc4xNettyWrapper(Timer, ChannelPipeline, boolean, Plc4xProtocolBase, Class)}.
+     */
+    @Deprecated
     public Plc4xNettyWrapper(ChannelPipeline pipeline, boolean passive, Plc4xProtocolBase<T> protocol, Class<T> clazz) {
+        this(DefaultTimer.INSTANCE, pipeline, passive, protocol, clazz);
+    }
+
+    public Plc4xNettyWrapper(Timer timer, ChannelPipeline pipeline, boolean passive, Plc4xProtocolBase<T> protocol, Class<T> clazz) {
         super(clazz, Object.class);
+        this.timer = timer;
         this.pipeline = pipeline;
         this.passive = passive;
         this.registeredHandlers = new ConcurrentLinkedQueue<>();
+        this.correlatedHandlers = new ConcurrentHashMap<>();
         this.protocolBase = protocol;
         this.protocolBase.setContext(new ConversationContext<T>() {
             @Override
@@ -92,7 +121,7 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
             public SendRequestContext<T> sendRequest(T packet) {
                 return new DefaultSendRequestContext<>(handler -> {
                     logger.trace("Adding Response Handler ...");
-                    registeredHandlers.add(handler);
+                    register(handler);
                 }, packet, this);
             }
 
@@ -100,7 +129,7 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
             public ExpectRequestContext<T> expectRequest(Class<T> clazz, Duration timeout) {
                 return new DefaultExpectRequestContext<>(handler -> {
                     logger.trace("Adding Request Handler ...");
-                    registeredHandlers.add(handler);
+                    register(handler);
                 }, clazz, timeout, this);
             }
 
@@ -125,9 +154,32 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
     @Override
     protected void decode(ChannelHandlerContext channelHandlerContext, T t, List<Object> list) throws Exception {
         logger.trace("Decoding {}", t);
-        // Just iterate the list to find a suitable  Handler
+        // First try to find the handler by its correlation key.
+        for (CorrelationIndex index : this.correlatedHandlers.values()) {
+            if (!index.type.isInstance(t)) {
+                continue;
+            }
+            final Object key = index.keyExtractor.apply(t);
+            final HandlerRegistration registration = (key != null) ? index.registrations.get(key) : null;
+            if (registration == null) {
+                continue;
+            }
+            if (registration.isCancelled()) {
+                logger.debug("Removing {} as it was cancelled!", registration);
+                removeFromIndex(index, key, registration);
+                continue;
+            }
+            final Object instance = evaluate(registration, t);
+            if (instance == NO_MATCH) {
+                continue;
+            }
+            removeFromIndex(index, key, registration);
+            if (handle(registration, t, instance)) {
+                return;
+            }
+        }
 
-        registrations:
+        // Just iterate the list to find a suitable  Handler
         for (Iterator<HandlerRegistration> iter = this.registeredHandlers.iterator(); iter.hasNext(); ) {
             HandlerRegistration registration = iter.next();
             // Check if the handler can still be used or should be removed
@@ -137,65 +189,203 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
                 iter.remove();
                 continue;
             }
-            // Timeout?
-            final Instant now = Instant.now();
-            if (registration.getTimeoutAt().isBefore(now)) {
-                logger.debug("Removing {} as its timed out (timeout of {} was set till {} and now is {})",
-                    registration, registration.getTimeout(), registration.getTimeoutAt(), now);
-                // pass timeout back to caller so it can do ie. transaction compensation
-                registration.getOnTimeoutConsumer().accept(new TimeoutException());
-                iter.remove();
-                continue;
-            }
             logger.trace("Checking handler {} for Object of type {}", registration, t.getClass().getSimpleName());
             if (registration.getExpectClazz().isInstance(t)) {
                 logger.trace("Handler {} has right expected type {}, checking condition", registration, registration.getExpectClazz().getSimpleName());
-                // Check all Commands / Functions
-                Deque<Either<Function<?, ?>, Predicate<?>>> commands = registration.getCommands();
-                Object instance = t;
-                for (Iterator<Either<Function<?, ?>, Predicate<?>>> iterator = commands.iterator(); iterator.hasNext(); ) {
-                    Either<Function<?, ?>, Predicate<?>> either = iterator.next();
-                    if (either.isLeft()) {
-                        Function unwrap = either.getLeft();
-                        instance = unwrap.apply(instance);
-                    } else {
-                        Predicate predicate = either.get();
-                        if (predicate.test(instance) == false) {
-                            // We do not match -> cannot handle
-                            logger.trace("Registration {} with predicate {} does not match object {} (currently wrapped to {})", registration, predicate,
-                                t.getClass().getSimpleName(), instance.getClass().getSimpleName());
-                            continue registrations;
-                        }
-                    }
+                final Object instance = evaluate(registration, t);
+                if (instance == NO_MATCH) {
+                    continue;
+                }
+                iter.remove();
+                if (handle(registration, t, instance)) {
+                    return;
                 }
-                logger.trace("Handler {} accepts element {}, calling handle method", registration, t);
-                this.registeredHandlers.remove(registration);
-                Consumer handler = registration.getPacketConsumer();
-                handler.accept(instance);
-                // Confirm that it was handled!
-                registration.confirmHandled();
-                return;
             }
         }
         logger.trace("None of {} registered handlers could handle message {}, using default decode method", this.registeredHandlers.size(), t);
         protocolBase.decode(new DefaultConversationContext<>(channelHandlerContext, passive), t);
     }
 
+    /**
+     * Runs all commands (unwraps and checks) of the registration on the given message.
+     *
+     * @return the unwrapped message or {@link #NO_MATCH} if any of the checks failed.
+     */
+    private Object evaluate(HandlerRegistration registration, T t) {
+        // Check all Commands / Functions
+        Deque<Either<Function<?, ?>, Predicate<?>>> commands = registration.getCommands();
+        Object instance = t;
+        for (Iterator<Either<Function<?, ?>, Predicate<?>>> iterator = commands.iterator(); iterator.hasNext(); ) {
+            Either<Function<?, ?>, Predicate<?>> either = iterator.next();
+            if (either.isLeft()) {
+                Function unwrap = either.getLeft();
+                instance = unwrap.apply(instance);
+            } else {
+                Predicate predicate = either.get();
+                if (predicate.test(instance) == false) {
+                    // We do not match -> cannot handle
+                    logger.trace("Registration {} with predicate {} does not match object {} (currently wrapped to {})", registration, predicate,
+                        t.getClass().getSimpleName(), instance.getClass().getSimpleName());
+                    return NO_MATCH;
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Passes the message to the handler of an already unregistered registration.
+     *
+     * @return true, if the message was handled, false if the registration had already timed out.
+     */
+    private boolean handle(HandlerRegistration registration, T t, Object instance) {
+        // This also cancels the pending timeout, if the timeout fired in the meantime, it's too late.
+        if (!registration.complete()) {
+            logger.debug("Registration {} accepts element {}, but it has already timed out", registration, t);
+            return false;
+        }
+        logger.trace("Handler {} accepts element {}, calling handle method", registration, t);
+        Consumer handler = registration.getPacketConsumer();
+        handler.accept(instance);
+        // Confirm that it was handled!
+        registration.confirmHandled();
+        return true;
+    }
+
+    /**
+     * Adds the registration to the list of handlers (or the correlation index, if it has a key) and schedules its
+     * timeout on the timer, so it fires on time even if no other message is received in the meantime.
+     */
+    private void register(HandlerRegistration registration) {
+        if (!registration.hasCorrelationKey() || !index(registration)) {
+            registeredHandlers.add(registration);
+        }
+        registration.setTimeoutHandle(timer.newTimeout(
+            timeout -> onTimeout(registration), registration.getTimeout().toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * @return true, if the registration was added to the correlation index,
+     * false if it has to be handled by the linear scan (e.g. as another request with the same key is pending).
+     */
+    @SuppressWarnings("unchecked")
+    private boolean index(HandlerRegistration registration) {
+        final boolean[] indexed = new boolean[1];
+        // Adding is atomic with removing the index once it is empty, so no registration is added to a removed index.
+        correlatedHandlers.compute(registration.getCorrelationKeyExtractor(), (keyExtractor, index) -> {
+            if (index == null) {
+                index = new CorrelationIndex(registration.getExpectClazz(), (Function<Object, Object>) keyExtractor);
+            }
+            if (index.type != registration.getExpectClazz()) {
+                return index.registrations.isEmpty() ? null : index;
+            }
+            final Object key = registration.getCorrelationKey();
+            final HandlerRegistration previous = index.registrations.putIfAbsent(key, registration);
+            indexed[0] = (previous == null) ||
+                (previous.isCancelled() && index.registrations.replace(key, previous, registration));
+            return index.registrations.isEmpty() ? null : index;
+        });
+        return indexed[0];
+    }
+
+    private void unregister(HandlerRegistration registration) {
+        if (registration.hasCorrelationKey()) {
+            final CorrelationIndex index = correlatedHandlers.get(registration.getCorrelationKeyExtractor());
+            if ((index != null) && removeFromIndex(index, registration.getCorrelationKey(), registration)) {
+                return;
+            }
+        }
+        registeredHandlers.remove(registration);
+    }
+
+    /**
+     * Removes the registration from the index and the index itself, if it doesn't hold any registrations anymore.
+     *
+     * @return true, if the registration was removed.
+     */
+    private boolean removeFromIndex(CorrelationIndex index, Object key, HandlerRegistration registration) {
+        if (!index.registrations.remove(key, registration)) {
+            return false;
+        }
+        correlatedHandlers.computeIfPresent(index.keyExtractor,
+            (keyExtractor, current) -> ((current == index) && current.registrations.isEmpty()) ? null : current);
+        return true;
+    }
+
+    private void onTimeout(HandlerRegistration registration) {
+        if (!registration.complete()) {
+            return;
+        }
+        unregister(registration);
+        if (registration.isCancelled()) {
+            return;
+        }
+        logger.debug("Removing {} as its timed out (timeout of {} was set till {})",
+            registration, registration.getTimeout(), registration.getTimeoutAt());
+        // pass timeout back to caller so it can do ie. transaction compensation
+        final Consumer<TimeoutException> onTimeoutConsumer = registration.getOnTimeoutConsumer();
+        if (onTimeoutConsumer == null) {
+            return;
+        }
+        // Notify the caller on the event loop of the channel (if there is one) to not block the timer thread.
+        final Channel channel = pipeline.channel();
+        if (channel != null) {
+            try {
+                channel.eventLoop().execute(() -> onTimeoutConsumer.accept(new TimeoutException()));
+                return;
+            } catch (RejectedExecutionException e) {
+                logger.debug("Event loop is shutting down, notifying {} directly", registration);
+            }
+        }
+        onTimeoutConsumer.accept(new TimeoutException());
+    }
+
     @Override
     public void userEventTriggered(ChannelHandlerContext ctx, Object evt) throws Exception {
         // If the connection has just been established, start setting up the connection
         // by sending a connection request to the plc.
         if (evt instanceof ConnectEvent) {
+            setTransactionExecutor(ctx.channel().eventLoop());
             this.protocolBase.onConnect(new DefaultConversationContext<>(ctx, passive));
         } else if (evt instanceof DisconnectEvent) {
             this.protocolBase.onDisconnect(new DefaultConversationContext<>(ctx, passive));
+            setTransactionExecutor(null);
         } else if (evt instanceof CloseConnectionEvent) {
             this.protocolBase.close(new DefaultConversationContext<>(ctx, passive));
+            setTransactionExecutor(null);
         } else {
             super.userEventTriggered(ctx, evt);
         }
     }
 
+    /**
+     * Runs the transactions of the protocol on the given executor (or directly again, if it is null),
+     * so a transaction and the handling of its response are processed by the same thread.
+     */
+    private void setTransactionExecutor(Executor executor) {
+        RequestTransactionManager transactionManager = protocolBase.getTransactionManager();
+        if (transactionManager != null) {
+            transactionManager.setExecutor(executor);
+        }
+    }
+
+    /**
+     * Pending registrations sharing one key extractor, indexed by their correlation key.
+     */
+    private static class CorrelationIndex {
+
+        private final Class<?> type;
+        private final Function<Object, Object> keyExtractor;
+        private final ConcurrentMap<Object, HandlerRegistration> registrations;
+
+        private CorrelationIndex(Class<?> type, Function<Object, Object> keyExtractor) {
+            this.type = type;
+            this.keyExtractor = keyExtractor;
+            this.registrations = new ConcurrentHashMap<>();
+        }
+
+    }
+
     public class DefaultConversationContext<T1> implements ConversationContext<T1> {
         private final ChannelHandlerContext channelHandlerContext;
         private final boolean passive;
@@ -237,7 +427,7 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
         public SendRequestContext<T1> sendRequest(T1 packet) {
             return new DefaultSendRequestContext<>(handler -> {
                 logger.trace("Adding Response Handler ...");
-                registeredHandlers.add(handler);
+                register(handler);
             }, packet, this);
         }
 
@@ -245,9 +435,16 @@ public class Plc4xNettyWrapper<T> extends MessageToMessageCodec<T, Object> {
         public ExpectRequestContext<T1> expectRequest(Class<T1> clazz, Duration timeout) {
             return new DefaultExpectRequestContext<>(handler -> {
                 logger.trace("Adding Request Handler ...");
-                registeredHandlers.add(handler);
+                register(handler);
             }, clazz, timeout, this);
         }
     }
 
+    /** Timer for wrappers created without one, only started if such a wrapper is created */
+    private static final class DefaultTimer {
+
+        private static final Timer INSTANCE = new HashedWheelTimer();
+
+    }
+
 }
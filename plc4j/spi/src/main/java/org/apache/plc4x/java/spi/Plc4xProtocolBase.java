@@ -29,8 +29,10 @@ import org.apache.plc4x.java.api.messages.PlcUnsubscriptionResponse;
 import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteResponse;
 import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.transaction.RequestTransactionManager;
 
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
 
 public abstract class Plc4xProtocolBase<T> {
 
@@ -50,6 +52,16 @@ public abstract class Plc4xProtocolBase<T> {
         this.context = context;
     }
 
+    /**
+     * Protocols using a {@link RequestTransactionManager} return it here, so the operations of its transactions
+     * are run by the event loop of the channel, as long as the channel is connected.
+     *
+     * @return transaction manager of this protocol or null, if it doesn't use one.
+     */
+    public RequestTransactionManager getTransactionManager() {
+        return null;
+    }
+
     public void onConnect(ConversationContext<T> context) {
         // Intentionally do nothing here
     }
@@ -74,6 +86,19 @@ public abstract class Plc4xProtocolBase<T> {
         throw new NotImplementedException("");
     }
 
+    /**
+     * Prepares a read request, which is executed repeatedly, for execution.
+     * Protocols can override this to build the request message only once and then just
+     * patch the per-message parts (like transaction ids) every time the returned supplier is called.
+     * The returned supplier is only valid as long as this protocol instance is used.
+     *
+     * @param readRequest read request to be executed repeatedly.
+     * @return supplier executing the read request every time it is called.
+     */
+    public Supplier<CompletableFuture<PlcReadResponse>> prepareRead(PlcReadRequest readRequest) {
+        return () -> read(readRequest);
+    }
+
     public CompletableFuture<PlcWriteResponse> write(PlcWriteRequest writeRequest) {
         throw new NotImplementedException("");
     }
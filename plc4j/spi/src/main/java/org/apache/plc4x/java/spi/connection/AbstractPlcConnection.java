@@ -57,6 +57,12 @@ public abstract class AbstractPlcConnection implements PlcConnection, PlcConnect
     private Plc4xProtocolBase<?> protocol;
     private BaseOptimizer optimizer;
 
+    /**
+     * Used for preparing read requests on connections without an optimizer.
+     * It doesn't split requests and therefore just forwards them to the protocol.
+     */
+    private static final BaseOptimizer NOOP_OPTIMIZER = new BaseOptimizer() {};
+
     /**
      * @deprecated only for compatibility reasons.
      */
@@ -153,6 +159,15 @@ public abstract class AbstractPlcConnection implements PlcConnection, PlcConnect
         return protocol.read(readRequest);
     }
 
+    @Override
+    public PlcPreparedRead prepareRead(PlcReadRequest readRequest) {
+        if (!canRead()) {
+            throw new PlcUnsupportedOperationException("The connection does not support reading");
+        }
+        BaseOptimizer readOptimizer = (optimizer != null) ? optimizer : NOOP_OPTIMIZER;
+        return readOptimizer.prepareRead(readRequest, () -> protocol);
+    }
+
     @Override
     public CompletableFuture<PlcWriteResponse> write(PlcWriteRequest writeRequest) {
         if(optimizer != null) {
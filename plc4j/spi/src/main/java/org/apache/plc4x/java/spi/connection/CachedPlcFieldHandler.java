@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.plc4x.java.spi.connection;
+
+import org.apache.plc4x.java.api.model.PlcField;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link PlcFieldHandler} caching the fields created by another field handler by their field query.
+ * <p>
+ * Parsing a field query usually means trying a number of regular expressions and applications (e.g. the scraper)
+ * tend to build requests for the same few addresses over and over again. As fields are immutable, the instances
+ * can simply be shared by all requests of all connections of a driver.
+ * <p>
+ * The number of cached fields is limited. If the limit is reached, arbitrary entries are evicted (this keeps the
+ * cache lock-free, as long as the limit is big enough for the working set, hardly any entries are evicted anyway).
+ * Field queries which can't be parsed are not cached, so the exception is thrown every time.
+ */
+public class CachedPlcFieldHandler implements PlcFieldHandler {
+
+    public static final int DEFAULT_MAX_SIZE = 10000;
+
+    private final PlcFieldHandler delegate;
+    private final int maxSize;
+    private final Map<String, PlcField> cache = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachedPlcFieldHandler(PlcFieldHandler delegate) {
+        this(delegate, DEFAULT_MAX_SIZE);
+    }
+
+    public CachedPlcFieldHandler(PlcFieldHandler delegate, int maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than zero. Was " + maxSize);
+        }
+        this.delegate = delegate;
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public PlcField createField(String fieldQuery) {
+        PlcField field = cache.get(fieldQuery);
+        if (field != null) {
+            hits.increment();
+            return field;
+        }
+        misses.increment();
+        // Parsed outside of the map, so parsing doesn't block other threads. If two threads parse the same query
+        // at the same time, both results are equal anyway.
+        field = delegate.createField(fieldQuery);
+        if (field != null) {
+            cache.put(fieldQuery, field);
+            evictIfNecessary(fieldQuery);
+        }
+        return field;
+    }
+
+    private void evictIfNecessary(String addedFieldQuery) {
+        Iterator<String> iterator = cache.keySet().iterator();
+        while ((cache.size() > maxSize) && iterator.hasNext()) {
+            // Don't evict the field just added, it's likely to be used again soon.
+            if (!iterator.next().equals(addedFieldQuery)) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    public PlcFieldHandler getDelegate() {
+        return delegate;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getSize() {
+        return cache.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return ratio of the lookups answered from the cache (0 if there were no lookups yet).
+     */
+    public double getHitRate() {
+        long numHits = hits.sum();
+        long numLookups = numHits + misses.sum();
+        return (numLookups == 0) ? 0.0 : ((double) numHits) / numLookups;
+    }
+
+    public void clear() {
+        cache.clear();
+    }
+
+    @Override
+    public String toString() {
+        return "CachedPlcFieldHandler{" +
+            "delegate=" + delegate.getClass().getSimpleName() +
+            ", size=" + getSize() +
+            ", maxSize=" + maxSize +
+            ", hits=" + getHitCount() +
+            ", misses=" + getMissCount() +
+            ", evictions=" + getEvictionCount() +
+            '}';
+    }
+
+}
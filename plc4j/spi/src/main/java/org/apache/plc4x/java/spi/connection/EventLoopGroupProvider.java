@@ -0,0 +1,269 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.oio.OioEventLoopGroup;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.concurrent.DefaultThreadFactory;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Process-wide provider of the Netty {@link EventLoopGroup}s used by the {@link NettyChannelFactory} implementations.
+ * <p>
+ * Instead of creating a new group (and with that one thread per core) for every connection, all connections share
+ * one bounded non-blocking group and one group for blocking (OIO) transports. The groups are reference counted:
+ * they are created on the first {@link #acquire()} / {@link #acquireBlocking()} and shut down gracefully as soon as
+ * the last connection using them has released them again.
+ * <p>
+ * On Linux the native epoll transport is used, if it is available on the classpath and can be loaded. The channel
+ * classes matching the selected transport can be obtained via {@link #getSocketChannelClass()} and
+ * {@link #getDatagramChannelClass()}.
+ * <p>
+ * The provider can be configured using the following system properties (read when the provider is first used):
+ * <ul>
+ *     <li>{@value #THREADS_PROPERTY}: number of threads of the shared group (default: 0, Netty's default of twice
+ *     the number of cores)</li>
+ *     <li>{@value #NATIVE_PROPERTY}: use the native epoll transport when available (default: true)</li>
+ * </ul>
+ */
+public class EventLoopGroupProvider {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLoopGroupProvider.class);
+
+    public static final String THREADS_PROPERTY = "org.apache.plc4x.java.spi.eventloop.threads";
+    public static final String NATIVE_PROPERTY = "org.apache.plc4x.java.spi.eventloop.native";
+
+    private static final EventLoopGroupProvider INSTANCE = new EventLoopGroupProvider(
+        Integer.getInteger(THREADS_PROPERTY, 0),
+        Boolean.parseBoolean(System.getProperty(NATIVE_PROPERTY, "true")));
+
+    private final int numberOfThreads;
+    private final boolean useEpoll;
+
+    private EventLoopGroup eventLoopGroup;
+    private int eventLoopGroupReferences;
+
+    private EventLoopGroup blockingEventLoopGroup;
+    private int blockingEventLoopGroupReferences;
+
+    public static EventLoopGroupProvider getInstance() {
+        return INSTANCE;
+    }
+
+    EventLoopGroupProvider(int numberOfThreads, boolean useNative) {
+        this.numberOfThreads = numberOfThreads;
+        this.useEpoll = useNative && isEpollAvailable();
+        logger.debug("Using {} transport for shared event loop group", useEpoll ? "epoll" : "nio");
+    }
+
+    /**
+     * Get a reference to the shared non-blocking event loop group.
+     * Every call has to be matched by a call to {@link #release(EventLoopGroup)}.
+     *
+     * @return the shared event loop group.
+     */
+    public synchronized EventLoopGroup acquire() {
+        if (eventLoopGroup == null || eventLoopGroup.isShuttingDown()) {
+            DefaultThreadFactory threadFactory = new DefaultThreadFactory("plc4x-eventloop");
+            eventLoopGroup = useEpoll ?
+                EpollSupport.createEventLoopGroup(numberOfThreads, threadFactory) :
+                new NioEventLoopGroup(numberOfThreads, threadFactory);
+            eventLoopGroupReferences = 0;
+            logger.debug("Created shared event loop group with {} threads", getNumberOfThreads());
+        }
+        eventLoopGroupReferences++;
+        return eventLoopGroup;
+    }
+
+    /**
+     * Get a reference to the shared event loop group for blocking (OIO) channels.
+     * As these channels need a dedicated thread per channel, the group is not bounded.
+     * Every call has to be matched by a call to {@link #release(EventLoopGroup)}.
+     *
+     * @return the shared blocking event loop group.
+     */
+    @SuppressWarnings("deprecation")
+    public synchronized EventLoopGroup acquireBlocking() {
+        if (blockingEventLoopGroup == null || blockingEventLoopGroup.isShuttingDown()) {
+            blockingEventLoopGroup = new OioEventLoopGroup(0, new DefaultThreadFactory("plc4x-oio-eventloop"));
+            blockingEventLoopGroupReferences = 0;
+        }
+        blockingEventLoopGroupReferences++;
+        return blockingEventLoopGroup;
+    }
+
+    /**
+     * Give back a group obtained by {@link #acquire()} or {@link #acquireBlocking()}.
+     * If the last reference is released, the group is shut down.
+     * Groups not managed by this provider are simply shut down, as they have been created for a single connection.
+     *
+     * @param group group to be released (may be null).
+     */
+    public synchronized void release(EventLoopGroup group) {
+        if (group == null) {
+            return;
+        }
+        if (group == eventLoopGroup) {
+            if (--eventLoopGroupReferences <= 0) {
+                logger.debug("Last reference to shared event loop group released, shutting it down");
+                eventLoopGroupReferences = 0;
+                eventLoopGroup = null;
+                shutdown(group);
+            }
+        } else if (group == blockingEventLoopGroup) {
+            if (--blockingEventLoopGroupReferences <= 0) {
+                logger.debug("Last reference to shared blocking event loop group released, shutting it down");
+                blockingEventLoopGroupReferences = 0;
+                blockingEventLoopGroup = null;
+                shutdown(group);
+            }
+        } else {
+            shutdown(group);
+        }
+    }
+
+    public boolean isNativeTransport() {
+        return useEpoll;
+    }
+
+    /**
+     * @return channel class for TCP connections matching the group returned by {@link #acquire()}.
+     */
+    public Class<? extends Channel> getSocketChannelClass() {
+        return useEpoll ? EpollSupport.getSocketChannelClass() : NioSocketChannel.class;
+    }
+
+    /**
+     * @return channel class for UDP connections matching the group returned by {@link #acquire()}.
+     */
+    public Class<? extends Channel> getDatagramChannelClass() {
+        return useEpoll ? EpollSupport.getDatagramChannelClass() : NioDatagramChannel.class;
+    }
+
+    /**
+     * @return number of connections currently using the shared non-blocking group.
+     */
+    public synchronized int getNumberOfReferences() {
+        return eventLoopGroupReferences;
+    }
+
+    /**
+     * @return number of connections currently using the shared blocking group.
+     */
+    public synchronized int getNumberOfBlockingReferences() {
+        return blockingEventLoopGroupReferences;
+    }
+
+    /**
+     * @return number of event loops (threads) of the shared non-blocking group (0, if it's not running).
+     */
+    public synchronized int getNumberOfThreads() {
+        return countExecutors(eventLoopGroup);
+    }
+
+    /**
+     * @return number of event loops (threads) of the shared blocking group (0, if it's not running).
+     */
+    public synchronized int getNumberOfBlockingThreads() {
+        return countExecutors(blockingEventLoopGroup);
+    }
+
+    /**
+     * @return number of pending tasks for each event loop of the shared non-blocking group.
+     */
+    public synchronized List<Integer> getPendingTasks() {
+        if (eventLoopGroup == null) {
+            return Collections.emptyList();
+        }
+        List<Integer> pendingTasks = new ArrayList<>();
+        for (EventExecutor executor : eventLoopGroup) {
+            if (executor instanceof SingleThreadEventExecutor) {
+                pendingTasks.add(((SingleThreadEventExecutor) executor).pendingTasks());
+            }
+        }
+        return pendingTasks;
+    }
+
+    private static int countExecutors(EventLoopGroup group) {
+        if (group == null) {
+            return 0;
+        }
+        int count = 0;
+        for (EventExecutor ignored : group) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void shutdown(EventLoopGroup group) {
+        if (!group.isShuttingDown()) {
+            group.shutdownGracefully(0, 2, TimeUnit.SECONDS);
+        }
+    }
+
+    private static boolean isEpollAvailable() {
+        try {
+            Class.forName("io.netty.channel.epoll.Epoll", false, EventLoopGroupProvider.class.getClassLoader());
+            return EpollSupport.isAvailable();
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * All references to the optional epoll classes are kept in this class,
+     * so it is only loaded if the native transport is actually available.
+     */
+    private static class EpollSupport {
+
+        private static boolean isAvailable() {
+            return Epoll.isAvailable();
+        }
+
+        private static EventLoopGroup createEventLoopGroup(int numberOfThreads, DefaultThreadFactory threadFactory) {
+            return new EpollEventLoopGroup(numberOfThreads, threadFactory);
+        }
+
+        private static Class<? extends Channel> getSocketChannelClass() {
+            return EpollSocketChannel.class;
+        }
+
+        private static Class<? extends Channel> getDatagramChannelClass() {
+            return EpollDatagramChannel.class;
+        }
+
+    }
+
+}
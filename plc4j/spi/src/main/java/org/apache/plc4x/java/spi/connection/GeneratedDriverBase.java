@@ -40,9 +40,15 @@ public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implement
 
     public static final String PROPERTY_PLC4X_FORCE_AWAIT_SETUP_COMPLETE = "PLC4X_FORCE_AWAIT_SETUP_COMPLETE";
 
+    /** Maximum number of parsed fields cached per driver, 0 disables the cache */
+    public static final String PROPERTY_PLC4X_FIELD_CACHE_SIZE = "PLC4X_FIELD_CACHE_SIZE";
+
     private static final Pattern URI_PATTERN = Pattern.compile(
         "^(?<protocolCode>[a-z0-9\\-]*)(:(?<transportCode>[a-z0-9]*))?://(?<transportConfig>[^?]*)(\\?(?<paramString>.*))?");
 
+    private final Object fieldCacheLock = new Object();
+    private volatile PlcFieldHandler sharedFieldHandler;
+
     protected abstract Class<? extends Configuration> getConfigurationType();
 
     protected boolean canRead() {
@@ -77,6 +83,27 @@ public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implement
         // Override in derived drivers.
     }
 
+    /**
+     * @return the cache of parsed fields shared by all connections of this driver or null, if it is disabled.
+     */
+    public CachedPlcFieldHandler getFieldCache() {
+        PlcFieldHandler fieldHandler = getSharedFieldHandler();
+        return (fieldHandler instanceof CachedPlcFieldHandler) ? (CachedPlcFieldHandler) fieldHandler : null;
+    }
+
+    private PlcFieldHandler getSharedFieldHandler() {
+        if (sharedFieldHandler == null) {
+            synchronized (fieldCacheLock) {
+                if (sharedFieldHandler == null) {
+                    int cacheSize = Integer.getInteger(PROPERTY_PLC4X_FIELD_CACHE_SIZE, CachedPlcFieldHandler.DEFAULT_MAX_SIZE);
+                    sharedFieldHandler = (cacheSize > 0) ?
+                        new CachedPlcFieldHandler(getFieldHandler(), cacheSize) : getFieldHandler();
+                }
+            }
+        }
+        return sharedFieldHandler;
+    }
+
     @Override
     public PlcConnection getConnection(String connectionString) throws PlcConnectionException {
         // Split up the connection string into it's individual segments.
@@ -140,7 +167,7 @@ public abstract class GeneratedDriverBase<BASE_PACKET extends Message> implement
 
         return new DefaultNettyPlcConnection(
             canRead(), canWrite(), canSubscribe(),
-            getFieldHandler(),
+            getSharedFieldHandler(),
             getValueHandler(),
             configuration,
             channelFactory,
@@ -24,17 +24,17 @@ import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Adapter with sensible defaults for a Netty Based Channel Factory.
  * <p>
- * By Default Nettys {@link NioEventLoopGroup} is used.
+ * By Default the process-wide shared group of the {@link EventLoopGroupProvider} is used.
  * Transports which have to use a different EventLoopGroup have to override {@link #getEventLoopGroup()}.
  */
 public abstract class NettyChannelFactory implements ChannelFactory {
@@ -79,11 +79,20 @@ public abstract class NettyChannelFactory implements ChannelFactory {
      * Has to be in accordance with {@link #getChannel()}
      * otherwise a Runtime Exception will be produced by Netty
      * <p>
-     * By Default Nettys {@link NioEventLoopGroup} is used.
+     * By Default the shared group of the {@link EventLoopGroupProvider} is used.
      * Transports which have to use a different EventLoopGroup have to override {@link #getEventLoopGroup()}.
+     * The group is handed back via {@link #releaseEventLoopGroup(EventLoopGroup)} as soon as the channel is closed.
      */
     public EventLoopGroup getEventLoopGroup() {
-        return new NioEventLoopGroup();
+        return EventLoopGroupProvider.getInstance().acquire();
+    }
+
+    /**
+     * Called as soon as the channel using the group returned by {@link #getEventLoopGroup()} is closed
+     * (or could not be connected). Shared groups are released, all others shut down.
+     */
+    protected void releaseEventLoopGroup(EventLoopGroup eventLoopGroup) {
+        EventLoopGroupProvider.getInstance().release(eventLoopGroup);
     }
 
     @Override
@@ -92,25 +101,42 @@ public abstract class NettyChannelFactory implements ChannelFactory {
             Bootstrap bootstrap = createBootstrap();
 
             final EventLoopGroup workerGroup = getEventLoopGroup();
-            if(workerGroup != null) {
-                bootstrap.group(workerGroup);
-            }
-
-            bootstrap.channel(getChannel());
-            // Callback to allow subclasses to modify the Bootstrap
-
-            configureBootstrap(bootstrap);
-            bootstrap.handler(channelHandler);
-            // Start the client.
-            final ChannelFuture f = bootstrap.connect(address);
-            f.addListener(future -> {
-                if (!future.isSuccess()) {
-                    logger.info("Unable to connect, shutting down worker thread.");
-                    workerGroup.shutdownGracefully();
+            // Make sure the group is only released once, no matter if the connect failed or the channel was closed.
+            final AtomicBoolean released = new AtomicBoolean(false);
+            final ChannelFuture f;
+            final Channel channel;
+            try {
+                if(workerGroup != null) {
+                    bootstrap.group(workerGroup);
                 }
-            });
 
-            final Channel channel = f.channel();
+                bootstrap.channel(getChannel());
+                // Callback to allow subclasses to modify the Bootstrap
+
+                configureBootstrap(bootstrap);
+                bootstrap.handler(channelHandler);
+                // Start the client.
+                f = bootstrap.connect(address);
+                f.addListener(future -> {
+                    if (!future.isSuccess() && released.compareAndSet(false, true)) {
+                        logger.info("Unable to connect, releasing worker group.");
+                        releaseEventLoopGroup(workerGroup);
+                    }
+                });
+
+                channel = f.channel();
+                channel.closeFuture().addListener(future -> {
+                    if (released.compareAndSet(false, true)) {
+                        releaseEventLoopGroup(workerGroup);
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Without the listeners nobody else would hand back the group.
+                if ((workerGroup != null) && released.compareAndSet(false, true)) {
+                    releaseEventLoopGroup(workerGroup);
+                }
+                throw e;
+            }
 
             // It seems the embedded channel operates differently.
             // Intentionally using the class name as we don't want to require a
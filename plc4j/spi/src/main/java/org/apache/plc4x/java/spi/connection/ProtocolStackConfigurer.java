@@ -20,6 +20,7 @@
 package org.apache.plc4x.java.spi.connection;
 
 import io.netty.channel.ChannelPipeline;
+import io.netty.util.Timer;
 import org.apache.plc4x.java.spi.Plc4xProtocolBase;
 import org.apache.plc4x.java.spi.configuration.Configuration;
 import org.apache.plc4x.java.spi.generation.Message;
@@ -28,4 +29,14 @@ public interface ProtocolStackConfigurer<T extends Message> {
 
     Plc4xProtocolBase<T> configurePipeline(Configuration configuration, ChannelPipeline pipeline, boolean passive);
 
+    /**
+     * Called by the connection, which hands in the timer shared by all of its connections. Stacks creating their
+     * own {@link org.apache.plc4x.java.spi.Plc4xNettyWrapper} should override this and pass the timer on.
+     * @param timer timer used to schedule the timeouts of the requests sent over this pipeline.
+     */
+    default Plc4xProtocolBase<T> configurePipeline(Configuration configuration, ChannelPipeline pipeline, boolean passive,
+                                                   Timer timer) {
+        return configurePipeline(configuration, pipeline, passive);
+    }
+
 }
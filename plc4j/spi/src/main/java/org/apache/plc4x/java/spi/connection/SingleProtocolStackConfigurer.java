@@ -24,6 +24,7 @@ import static org.apache.plc4x.java.spi.configuration.ConfigurationFactory.*;
 import io.netty.buffer.ByteBuf;
 import io.netty.channel.ChannelHandler;
 import io.netty.channel.ChannelPipeline;
+import io.netty.util.Timer;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.spi.Plc4xNettyWrapper;
 import org.apache.plc4x.java.spi.Plc4xProtocolBase;
@@ -83,12 +84,19 @@ public class SingleProtocolStackConfigurer<BASE_PACKET_CLASS extends Message> im
     @Override
     public Plc4xProtocolBase<BASE_PACKET_CLASS> configurePipeline(
             Configuration configuration, ChannelPipeline pipeline, boolean passive) {
+        return configurePipeline(configuration, pipeline, passive, DefaultNettyPlcConnection.timer);
+    }
+
+    /** Applies the given Stack to the Pipeline */
+    @Override
+    public Plc4xProtocolBase<BASE_PACKET_CLASS> configurePipeline(
+            Configuration configuration, ChannelPipeline pipeline, boolean passive, Timer timer) {
         pipeline.addLast(getMessageCodec(configuration));
         Plc4xProtocolBase<BASE_PACKET_CLASS> protocol = configure(configuration, createInstance(protocolClass));
         if(driverContextClass != null) {
             protocol.setDriverContext(configure(configuration, createInstance(driverContextClass)));
         }
-        Plc4xNettyWrapper<BASE_PACKET_CLASS> context = new Plc4xNettyWrapper<>(pipeline, passive, protocol, basePacketClass);
+        Plc4xNettyWrapper<BASE_PACKET_CLASS> context = new Plc4xNettyWrapper<>(timer, pipeline, passive, protocol, basePacketClass);
         pipeline.addLast(context);
         return protocol;
     }
@@ -16,76 +16,91 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-
 package org.apache.plc4x.java.spi.generation;
 
-import com.github.jinahya.bit.io.ArrayByteInput;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
-import org.apache.plc4x.java.spi.generation.io.MyDefaultBitInput;
 
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.nio.charset.Charset;
+import java.util.BitSet;
 
+/**
+ * Bit-oriented reader used by the generated parsers.
+ * <p>
+ * The data is read directly from a Netty {@link ByteBuf} (byte arrays are simply wrapped), so frames received from
+ * the network can be parsed without copying them first. Values starting on a byte boundary with a length of 8, 16, 32
+ * or 64 bits are read using the buffers (endianness aware) getters, only unaligned values and values with odd bit
+ * lengths are assembled bit by bit.
+ */
 public class ReadBuffer {
 
-    private final MyDefaultBitInput bi;
+    private final ByteBuf buffer;
+    private final int startIndex;
+    private final int endIndex;
     private final boolean littleEndian;
-    private final long totalBytes;
+
+    // Absolute index of the next byte to be fetched from the buffer.
+    private int index;
+    // Byte currently being consumed bit by bit and the number of its bits not read yet.
+    private int currentByte;
+    private int bitsAvailable;
 
     public ReadBuffer(byte[] input) {
         this(input, false);
     }
 
     public ReadBuffer(byte[] input, boolean littleEndian) {
-        ArrayByteInput abi = new ArrayByteInput(input);
-        this.bi = new MyDefaultBitInput(abi);
+        this(Unpooled.wrappedBuffer(input), littleEndian);
+    }
+
+    /**
+     * Creates a reader for the readable bytes of the given buffer.
+     * The data is not copied and the reader index of the buffer is not modified, so the buffer must neither be
+     * changed nor released as long as this reader is used.
+     *
+     * @param input        buffer containing the data.
+     * @param littleEndian true, if multi-byte values are encoded little endian.
+     */
+    public ReadBuffer(ByteBuf input, boolean littleEndian) {
+        this.buffer = input;
+        this.startIndex = input.readerIndex();
+        this.endIndex = input.writerIndex();
         this.littleEndian = littleEndian;
-        this.totalBytes = input.length;
+        this.index = startIndex;
     }
 
     public int getPos() {
-        return (int) bi.getPos();
+        return index - startIndex;
     }
 
     public byte[] getBytes(int startPos, int endPos) {
         int numBytes = endPos - startPos;
         byte[] data = new byte[numBytes];
-        System.arraycopy(bi.getDelegate().getSource(), startPos, data, 0, numBytes);
+        buffer.getBytes(startIndex + startPos, data);
         return data;
     }
 
     public long getTotalBytes() {
-        return totalBytes;
+        return endIndex - startIndex;
     }
 
     public boolean hasMore(int numBits) {
-        return (numBits / 8) <= (totalBytes - getPos());
+        return (numBits / 8) <= (getTotalBytes() - getPos());
     }
 
     public byte peekByte(int offset) throws ParseException {
-        // Remember the old index.
-        int oldIndex = bi.getDelegate().getIndex();
-        try {
-            // Set the delegate to the desired position.
-            bi.getDelegate().index(oldIndex + offset);
-            // Read the byte.
-            return bi.readByte(false, 8);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
-        } finally {
-            // Reset the delegate to the old index.
-            bi.getDelegate().index(oldIndex);
+        int peekIndex = index + offset;
+        if (peekIndex < startIndex || peekIndex >= endIndex) {
+            throw new ParseException("Error reading: position " + (peekIndex - startIndex) + " is out of bounds");
         }
+        return buffer.getByte(peekIndex);
     }
 
     public boolean readBit() throws ParseException {
-        try {
-            return bi.readBoolean();
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
-        }
+        return readBits(1) == 1;
     }
 
     public byte readUnsignedByte(int bitLength) throws ParseException {
@@ -95,11 +110,7 @@ public class ReadBuffer {
         if (bitLength > 7) {
             throw new ParseException("unsigned byte can only contain max 4 bits");
         }
-        try {
-            return bi.readByte(true, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
-        }
+        return (byte) readBits(bitLength);
     }
 
     public short readUnsignedShort(int bitLength) throws ParseException {
@@ -109,12 +120,13 @@ public class ReadBuffer {
         if (bitLength > 15) {
             throw new ParseException("unsigned short can only contain max 8 bits");
         }
-        try {
-            // No need to flip here as we're only reading one byte.
-            return bi.readShort(true, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if (isAligned(bitLength, 8)) {
+            short value = buffer.getUnsignedByte(index);
+            index += 1;
+            return value;
         }
+        // No need to flip here as we're only reading one byte.
+        return (short) readBits(bitLength);
     }
 
     public int readUnsignedInt(int bitLength) throws ParseException {
@@ -124,15 +136,16 @@ public class ReadBuffer {
         if (bitLength > 31) {
             throw new ParseException("unsigned int can only contain max 16 bits");
         }
-        try {
-            if (littleEndian) {
-                int intValue = bi.readInt(true, bitLength);
-                return Integer.reverseBytes(intValue) >>> 16;
-            }
-            return bi.readInt(true, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if (isAligned(bitLength, 16)) {
+            int value = littleEndian ? buffer.getUnsignedShortLE(index) : buffer.getUnsignedShort(index);
+            index += 2;
+            return value;
+        }
+        int intValue = (int) readBits(bitLength);
+        if (littleEndian) {
+            return Integer.reverseBytes(intValue) >>> 16;
         }
+        return intValue;
     }
 
     public long readUnsignedLong(int bitLength) throws ParseException {
@@ -142,15 +155,16 @@ public class ReadBuffer {
         if (bitLength > 63) {
             throw new ParseException("unsigned long can only contain max 32 bits");
         }
-        try {
-            if (littleEndian) {
-                final long longValue = bi.readLong(true, bitLength);
-                return Long.reverseBytes(longValue) >>> 32;
-            }
-            return bi.readLong(true, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if (isAligned(bitLength, 32)) {
+            long value = littleEndian ? buffer.getUnsignedIntLE(index) : buffer.getUnsignedInt(index);
+            index += 4;
+            return value;
+        }
+        long longValue = readBits(bitLength);
+        if (littleEndian) {
+            return Long.reverseBytes(longValue) >>> 32;
         }
+        return longValue;
     }
 
     public BigInteger readUnsignedBigInteger(int bitLength) throws ParseException {
@@ -161,20 +175,13 @@ public class ReadBuffer {
         if (bitLength > 64) {
             throw new ParseException("unsigned long can only contain max 64 bits");
         }
-        try {
-            // Read as signed value
-            Long val = bi.readLong(false, bitLength);
-            if (littleEndian) {
-                val = Long.reverseBytes(val);
-            }
-            if (val >= 0) {
-                return BigInteger.valueOf(val);
-            } else {
-                BigInteger constant = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(2)).add(BigInteger.valueOf(2));
-                return BigInteger.valueOf(val).add(constant);
-            }
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        // Read as signed value
+        long val = readLong(bitLength);
+        if (val >= 0) {
+            return BigInteger.valueOf(val);
+        } else {
+            BigInteger constant = BigInteger.valueOf(Long.MAX_VALUE).multiply(BigInteger.valueOf(2)).add(BigInteger.valueOf(2));
+            return BigInteger.valueOf(val).add(constant);
         }
     }
 
@@ -185,11 +192,12 @@ public class ReadBuffer {
         if (bitLength > 8) {
             throw new ParseException("byte can only contain max 8 bits");
         }
-        try {
-            return bi.readByte(false, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if (isAligned(bitLength, 8)) {
+            byte value = buffer.getByte(index);
+            index += 1;
+            return value;
         }
+        return (byte) readSignedBits(bitLength);
     }
 
     public short readShort(int bitLength) throws ParseException {
@@ -199,14 +207,16 @@ public class ReadBuffer {
         if (bitLength > 16) {
             throw new ParseException("short can only contain max 16 bits");
         }
-        try {
-            if (littleEndian) {
-                return Short.reverseBytes(bi.readShort(false, bitLength));
-            }
-            return bi.readShort(false, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if (isAligned(bitLength, 16)) {
+            short value = littleEndian ? buffer.getShortLE(index) : buffer.getShort(index);
+            index += 2;
+            return value;
+        }
+        short shortValue = (short) readSignedBits(bitLength);
+        if (littleEndian) {
+            return Short.reverseBytes(shortValue);
         }
+        return shortValue;
     }
 
     public int readInt(int bitLength) throws ParseException {
@@ -216,14 +226,16 @@ public class ReadBuffer {
         if (bitLength > 32) {
             throw new ParseException("int can only contain max 32 bits");
         }
-        try {
-            if (littleEndian) {
-                return Integer.reverseBytes(bi.readInt(false, bitLength));
-            }
-            return bi.readInt(false, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if (isAligned(bitLength, 32)) {
+            int value = littleEndian ? buffer.getIntLE(index) : buffer.getInt(index);
+            index += 4;
+            return value;
         }
+        int intValue = (int) readSignedBits(bitLength);
+        if (littleEndian) {
+            return Integer.reverseBytes(intValue);
+        }
+        return intValue;
     }
 
     public long readLong(int bitLength) throws ParseException {
@@ -233,14 +245,16 @@ public class ReadBuffer {
         if (bitLength > 64) {
             throw new ParseException("long can only contain max 64 bits");
         }
-        try {
-            if (littleEndian) {
-                return Long.reverseBytes(bi.readLong(false, bitLength));
-            }
-            return bi.readLong(false, bitLength);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if (isAligned(bitLength, 64)) {
+            long value = littleEndian ? buffer.getLongLE(index) : buffer.getLong(index);
+            index += 8;
+            return value;
+        }
+        long longValue = readSignedBits(bitLength);
+        if (littleEndian) {
+            return Long.reverseBytes(longValue);
         }
+        return longValue;
     }
 
     public BigInteger readBigInteger(int bitLength) throws ParseException {
@@ -248,37 +262,33 @@ public class ReadBuffer {
     }
 
     public float readFloat(int bitLength) throws ParseException {
-        try {
-            if (bitLength == 16) {
-                // https://en.wikipedia.org/wiki/Half-precision_floating-point_format
-                final boolean sign = bi.readBoolean();
-                final byte exponent = bi.readByte(true, 5);
-                final short fraction = bi.readShort(true, 10);
-                if ((exponent >= 1) && (exponent <= 30)) {
-                    return (sign ? 1 : -1) * (2 ^ (exponent - 15)) * (1 + (fraction / 10f));
-                } else if (exponent == 0) {
-                    if (fraction == 0) {
-                        return 0.0f;
-                    } else {
-                        return (sign ? 1 : -1) * (2 ^ (-14)) * (fraction / 10f);
-                    }
-                } else if (exponent == 31) {
-                    if (fraction == 0) {
-                        return sign ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
-                    } else {
-                        return Float.NaN;
-                    }
+        if (bitLength == 16) {
+            // https://en.wikipedia.org/wiki/Half-precision_floating-point_format
+            final boolean sign = readBit();
+            final byte exponent = (byte) readBits(5);
+            final short fraction = (short) readBits(10);
+            if ((exponent >= 1) && (exponent <= 30)) {
+                return (sign ? 1 : -1) * (2 ^ (exponent - 15)) * (1 + (fraction / 10f));
+            } else if (exponent == 0) {
+                if (fraction == 0) {
+                    return 0.0f;
                 } else {
-                    throw new NumberFormatException();
+                    return (sign ? 1 : -1) * (2 ^ (-14)) * (fraction / 10f);
+                }
+            } else if (exponent == 31) {
+                if (fraction == 0) {
+                    return sign ? Float.POSITIVE_INFINITY : Float.NEGATIVE_INFINITY;
+                } else {
+                    return Float.NaN;
                 }
-            } else if (bitLength == 32) {
-                int intValue = readInt(32);
-                return Float.intBitsToFloat(intValue);
             } else {
-                throw new UnsupportedOperationException("unsupported bit length (only 16 and 32 supported)");
+                throw new NumberFormatException();
             }
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        } else if (bitLength == 32) {
+            int intValue = readInt(32);
+            return Float.intBitsToFloat(intValue);
+        } else {
+            throw new UnsupportedOperationException("unsupported bit length (only 16 and 32 supported)");
         }
     }
 
@@ -295,17 +305,254 @@ public class ReadBuffer {
         throw new UnsupportedOperationException("not implemented yet");
     }
 
+    /**
+     * Reads the given number of single bits (most significant bit of each byte first) into a {@link BitSet}.
+     */
+    public BitSet readBitArray(int count) throws ParseException {
+        BitSet bits = new BitSet(count);
+        for (int i = 0; i < count; i++) {
+            if ((bitsAvailable == 0) && (count - i >= 8)) {
+                // Aligned: process a whole byte at once.
+                checkAvailable(1, count);
+                int value = buffer.getUnsignedByte(index++);
+                for (int bit = 0; bit < 8; bit++) {
+                    if ((value & (0x80 >>> bit)) != 0) {
+                        bits.set(i + bit);
+                    }
+                }
+                i += 7;
+            } else if (readBit()) {
+                bits.set(i);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Reads the given number of signed 8 bit values.
+     */
+    public byte[] readByteArray(int count) throws ParseException {
+        byte[] values = new byte[count];
+        if (bitsAvailable == 0) {
+            checkAvailable(count, count);
+            buffer.getBytes(index, values);
+            index += count;
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = readByte(8);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of unsigned 8 bit values.
+     */
+    public short[] readUnsignedShortArray(int count) throws ParseException {
+        short[] values = new short[count];
+        if (bitsAvailable == 0) {
+            checkAvailable(count, count);
+            for (int i = 0; i < count; i++) {
+                values[i] = buffer.getUnsignedByte(index++);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = readUnsignedShort(8);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of signed 16 bit values.
+     */
+    public short[] readShortArray(int count) throws ParseException {
+        short[] values = new short[count];
+        if (bitsAvailable == 0) {
+            checkAvailable(count * 2, count);
+            for (int i = 0; i < count; i++, index += 2) {
+                values[i] = littleEndian ? buffer.getShortLE(index) : buffer.getShort(index);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = readShort(16);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of unsigned 16 bit values.
+     */
+    public int[] readUnsignedIntArray(int count) throws ParseException {
+        int[] values = new int[count];
+        if (bitsAvailable == 0) {
+            checkAvailable(count * 2, count);
+            for (int i = 0; i < count; i++, index += 2) {
+                values[i] = littleEndian ? buffer.getUnsignedShortLE(index) : buffer.getUnsignedShort(index);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = readUnsignedInt(16);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of signed 32 bit values.
+     */
+    public int[] readIntArray(int count) throws ParseException {
+        int[] values = new int[count];
+        if (bitsAvailable == 0) {
+            checkAvailable(count * 4, count);
+            for (int i = 0; i < count; i++, index += 4) {
+                values[i] = littleEndian ? buffer.getIntLE(index) : buffer.getInt(index);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = readInt(32);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of unsigned 32 bit values.
+     */
+    public long[] readUnsignedLongArray(int count) throws ParseException {
+        long[] values = new long[count];
+        if (bitsAvailable == 0) {
+            checkAvailable(count * 4, count);
+            for (int i = 0; i < count; i++, index += 4) {
+                values[i] = littleEndian ? buffer.getUnsignedIntLE(index) : buffer.getUnsignedInt(index);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = readUnsignedLong(32);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of signed 64 bit values.
+     */
+    public long[] readLongArray(int count) throws ParseException {
+        long[] values = new long[count];
+        if (bitsAvailable == 0) {
+            checkAvailable(count * 8, count);
+            for (int i = 0; i < count; i++, index += 8) {
+                values[i] = littleEndian ? buffer.getLongLE(index) : buffer.getLong(index);
+            }
+        } else {
+            for (int i = 0; i < count; i++) {
+                values[i] = readLong(64);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of 32 bit floating point values.
+     */
+    public float[] readFloatArray(int count) throws ParseException {
+        int[] bits = readIntArray(count);
+        float[] values = new float[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Float.intBitsToFloat(bits[i]);
+        }
+        return values;
+    }
+
+    /**
+     * Reads the given number of 64 bit floating point values.
+     */
+    public double[] readDoubleArray(int count) throws ParseException {
+        long[] bits = readLongArray(count);
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = Double.longBitsToDouble(bits[i]);
+        }
+        return values;
+    }
+
     public String readString(int bitLength, String encoding) {
         byte[] strBytes = new byte[bitLength / 8];
-        for (int i = 0; (i < (bitLength / 8)) && hasMore(8); i++) {
-            try {
-                strBytes[i] = readByte(8);
-            } catch (Exception e) {
-                throw new PlcRuntimeException(e);
+        if (bitsAvailable == 0) {
+            // Aligned: copy as many bytes as are available in one go.
+            int numBytes = (int) Math.min(strBytes.length, getTotalBytes() - getPos());
+            buffer.getBytes(index, strBytes, 0, numBytes);
+            index += numBytes;
+        } else {
+            for (int i = 0; (i < (bitLength / 8)) && hasMore(8); i++) {
+                try {
+                    strBytes[i] = readByte(8);
+                } catch (Exception e) {
+                    throw new PlcRuntimeException(e);
+                }
             }
         }
         //replaceAll function removes and leading ' char or hypens.
         return new String(strBytes, Charset.forName(encoding.replaceAll("[^a-zA-Z0-9]","")));
     }
 
+    /**
+     * Checks if a value of the given length can be read using one of the buffers getters:
+     * the current position has to be on a byte boundary and the length has to match the size of the getter.
+     */
+    private boolean isAligned(int bitLength, int getterBitLength) throws ParseException {
+        if ((bitLength != getterBitLength) || (bitsAvailable != 0)) {
+            return false;
+        }
+        if (index + (getterBitLength / 8) > endIndex) {
+            throw new ParseException("Error reading: not enough data for reading " + bitLength + " bits at position " +
+                getPos());
+        }
+        return true;
+    }
+
+    /**
+     * Checks if the given number of bytes for an array of values can be read from the current position.
+     */
+    private void checkAvailable(int numBytes, int count) throws ParseException {
+        if ((count < 0) || (index + numBytes > endIndex)) {
+            throw new ParseException("Error reading: not enough data for reading " + count + " array items at position " +
+                getPos());
+        }
+    }
+
+    /**
+     * Reads the given number of bits (max 64) most significant bit first as unsigned value.
+     */
+    private long readBits(int numBits) throws ParseException {
+        long value = 0;
+        int remaining = numBits;
+        while (remaining > 0) {
+            if (bitsAvailable == 0) {
+                if (index >= endIndex) {
+                    throw new ParseException("Error reading: not enough data for reading " + numBits +
+                        " bits at position " + getPos());
+                }
+                currentByte = buffer.getUnsignedByte(index++);
+                bitsAvailable = 8;
+            }
+            int numBitsFromCurrentByte = Math.min(remaining, bitsAvailable);
+            bitsAvailable -= numBitsFromCurrentByte;
+            value = (value << numBitsFromCurrentByte) |
+                ((currentByte >>> bitsAvailable) & ((1 << numBitsFromCurrentByte) - 1));
+            remaining -= numBitsFromCurrentByte;
+        }
+        return value;
+    }
+
+    /**
+     * Reads the given number of bits (max 64) as two's complement value, sign extending it to 64 bits.
+     */
+    private long readSignedBits(int numBits) throws ParseException {
+        long value = readBits(numBits);
+        int shift = Long.SIZE - numBits;
+        return (value << shift) >> shift;
+    }
+
 }
@@ -16,57 +16,82 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-
 package org.apache.plc4x.java.spi.generation;
 
-import com.github.jinahya.bit.io.BufferByteOutput;
-import org.apache.plc4x.java.spi.generation.io.MyDefaultBitOutput;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 
-import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.BigInteger;
-import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
+/**
+ * Bit-oriented writer used by the generated serializers.
+ * <p>
+ * The data is written directly into a Netty {@link ByteBuf}: either a fixed size buffer wrapping a byte array (which
+ * is available via {@link #getData()}) or a buffer provided by the caller, like the outbound buffer of a channel, so
+ * messages can be serialized without any intermediate copy. Byte-aligned values with a length of 8, 16, 32 or 64 bits
+ * are written using the buffers (endianness aware) setters, only unaligned values are assembled bit by bit.
+ */
 public class WriteBuffer {
 
-    private final ByteBuffer bb;
-    private final BufferByteOutput bbo;
-    private final MyDefaultBitOutput bo;
+    private final ByteBuf buffer;
+    private final byte[] data;
+    private final int startIndex;
     private final boolean littleEndian;
 
+    // Byte currently being assembled bit by bit and the number of its bits already written.
+    private int currentByte;
+    private int bitsUsed;
+
     public WriteBuffer(int size) {
         this(size, false);
     }
 
     public WriteBuffer(int size, boolean littleEndian) {
-        bb = ByteBuffer.allocate(size);
-        bbo = new BufferByteOutput(bb);
-        bo = new MyDefaultBitOutput(bbo);
+        this.data = new byte[size];
+        this.buffer = Unpooled.wrappedBuffer(data).clear();
+        this.startIndex = 0;
         this.littleEndian = littleEndian;
     }
 
+    /**
+     * Creates a writer appending the data at the current writer index of the given buffer.
+     *
+     * @param output       buffer the data is written to.
+     * @param littleEndian true, if multi-byte values should be encoded little endian.
+     */
+    public WriteBuffer(ByteBuf output, boolean littleEndian) {
+        this.data = null;
+        this.buffer = output;
+        this.startIndex = output.writerIndex();
+        this.littleEndian = littleEndian;
+    }
+
+    /**
+     * @return the backing array, if this buffer was created with a fixed size, otherwise a copy of the bytes written.
+     */
     public byte[] getData() {
-        return bb.array();
+        if (data != null) {
+            return data;
+        }
+        return ByteBufUtil.getBytes(buffer, startIndex, getPos());
     }
 
     public int getPos() {
-        return (int) bo.getPos();
+        return buffer.writerIndex() - startIndex;
     }
 
     public byte[] getBytes(int startPos, int endPos) {
         int numBytes = endPos - startPos;
-        byte[] data = new byte[numBytes];
-        System.arraycopy(bb.array(), startPos, data, 0, numBytes);
-        return data;
+        byte[] bytes = new byte[numBytes];
+        buffer.getBytes(startIndex + startPos, bytes);
+        return bytes;
     }
 
     public void writeBit(boolean value) throws ParseException {
-        try {
-            bo.writeBoolean(value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
-        }
+        writeBits(1, value ? 1 : 0);
     }
 
     public void writeUnsignedByte(int bitLength, byte value) throws ParseException {
@@ -76,11 +101,7 @@ public class WriteBuffer {
         if(bitLength > 8) {
             throw new ParseException("unsigned byte can only contain max 8 bits");
         }
-        try {
-            bo.writeByte(true, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
-        }
+        writeBits(bitLength, value);
     }
 
     public void writeUnsignedShort(int bitLength, short value) throws ParseException {
@@ -90,11 +111,11 @@ public class WriteBuffer {
         if(bitLength > 16) {
             throw new ParseException("unsigned short can only contain max 16 bits");
         }
-        try {
-            bo.writeShort(true, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if(isAligned(bitLength, 8)) {
+            buffer.writeByte(value);
+            return;
         }
+        writeBits(bitLength, value);
     }
 
     public void writeUnsignedInt(int bitLength, int value) throws ParseException {
@@ -104,14 +125,18 @@ public class WriteBuffer {
         if(bitLength > 32) {
             throw new ParseException("unsigned int can only contain max 32 bits");
         }
-        try {
+        if(isAligned(bitLength, 16)) {
             if(littleEndian) {
-                value = Integer.reverseBytes(value) >> 16;
+                buffer.writeShortLE(value);
+            } else {
+                buffer.writeShort(value);
             }
-            bo.writeInt(true, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+            return;
+        }
+        if(littleEndian) {
+            value = Integer.reverseBytes(value) >> 16;
         }
+        writeBits(bitLength, value);
     }
 
     public void writeUnsignedLong(int bitLength, long value) throws ParseException {
@@ -121,14 +146,18 @@ public class WriteBuffer {
         if(bitLength > 63) {
             throw new ParseException("unsigned long can only contain max 63 bits");
         }
-        try {
+        if(isAligned(bitLength, 32)) {
             if(littleEndian) {
-                value = Long.reverseBytes(value) >> 32;
+                buffer.writeIntLE((int) value);
+            } else {
+                buffer.writeInt((int) value);
             }
-            bo.writeLong(true, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+            return;
+        }
+        if(littleEndian) {
+            value = Long.reverseBytes(value) >> 32;
         }
+        writeBits(bitLength, value);
     }
 
     public void writeUnsignedBigInteger(int bitLength, BigInteger value) throws ParseException {
@@ -166,11 +195,11 @@ public class WriteBuffer {
         if(bitLength > 8) {
             throw new ParseException("byte can only contain max 8 bits");
         }
-        try {
-            bo.writeByte(false, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+        if(isAligned(bitLength, 8)) {
+            buffer.writeByte(value);
+            return;
         }
+        writeSignedBits(bitLength, value);
     }
 
     public void writeShort(int bitLength, short value) throws ParseException {
@@ -180,14 +209,18 @@ public class WriteBuffer {
         if(bitLength > 16) {
             throw new ParseException("short can only contain max 16 bits");
         }
-        try {
+        if(isAligned(bitLength, 16)) {
             if(littleEndian) {
-                value = Short.reverseBytes(value);
+                buffer.writeShortLE(value);
+            } else {
+                buffer.writeShort(value);
             }
-            bo.writeShort(false, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+            return;
         }
+        if(littleEndian) {
+            value = Short.reverseBytes(value);
+        }
+        writeSignedBits(bitLength, value);
     }
 
     public void writeInt(int bitLength, int value) throws ParseException {
@@ -197,14 +230,18 @@ public class WriteBuffer {
         if(bitLength > 32) {
             throw new ParseException("int can only contain max 32 bits");
         }
-        try {
+        if(isAligned(bitLength, 32)) {
             if(littleEndian) {
-                value = Integer.reverseBytes(value);
+                buffer.writeIntLE(value);
+            } else {
+                buffer.writeInt(value);
             }
-            bo.writeInt(false, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+            return;
+        }
+        if(littleEndian) {
+            value = Integer.reverseBytes(value);
         }
+        writeSignedBits(bitLength, value);
     }
 
     public void writeLong(int bitLength, long value) throws ParseException {
@@ -214,14 +251,18 @@ public class WriteBuffer {
         if(bitLength > 64) {
             throw new ParseException("long can only contain max 64 bits");
         }
-        try {
+        if(isAligned(bitLength, 64)) {
             if(littleEndian) {
-                value = Long.reverseBytes(value);
+                buffer.writeLongLE(value);
+            } else {
+                buffer.writeLong(value);
             }
-            bo.writeLong(false, bitLength, value);
-        } catch (IOException e) {
-            throw new ParseException("Error reading", e);
+            return;
         }
+        if(littleEndian) {
+            value = Long.reverseBytes(value);
+        }
+        writeSignedBits(bitLength, value);
     }
 
     public void writeBigInteger(int bitLength, BigInteger value) throws ParseException {
@@ -255,12 +296,63 @@ public class WriteBuffer {
 
     public void writeString(int bitLength, String encoding, String value) throws ParseException {
         final byte[] bytes = value.getBytes(Charset.forName(encoding));
-        try {
-            for (byte aByte : bytes) {
-                bo.writeByte(false, 8, aByte);
+        if(bitsUsed == 0) {
+            writeBytes(bytes);
+            return;
+        }
+        for (byte aByte : bytes) {
+            writeBits(8, aByte);
+        }
+    }
+
+    /**
+     * Checks if a value of the given length can be written using one of the buffers setters:
+     * the current position has to be on a byte boundary and the length has to match the size of the setter.
+     */
+    private boolean isAligned(int bitLength, int setterBitLength) throws ParseException {
+        if((bitLength != setterBitLength) || (bitsUsed != 0)) {
+            return false;
+        }
+        ensureWritable(setterBitLength / 8);
+        return true;
+    }
+
+    private void writeBytes(byte[] bytes) throws ParseException {
+        ensureWritable(bytes.length);
+        buffer.writeBytes(bytes);
+    }
+
+    /**
+     * Writes the given number of least significant bits (max 64) of the value most significant bit first.
+     */
+    private void writeBits(int numBits, long value) throws ParseException {
+        int remaining = numBits;
+        while (remaining > 0) {
+            int numBitsToCurrentByte = Math.min(remaining, 8 - bitsUsed);
+            remaining -= numBitsToCurrentByte;
+            int bits = (int) (value >>> remaining) & ((1 << numBitsToCurrentByte) - 1);
+            currentByte = (currentByte << numBitsToCurrentByte) | bits;
+            bitsUsed += numBitsToCurrentByte;
+            if (bitsUsed == 8) {
+                ensureWritable(1);
+                buffer.writeByte(currentByte);
+                currentByte = 0;
+                bitsUsed = 0;
             }
-        } catch (IOException e) {
-           throw new ParseException("Error writing string", e);
+        }
+    }
+
+    /**
+     * Writes the sign followed by the given number of least significant bits (max 64) minus one of the value.
+     */
+    private void writeSignedBits(int numBits, long value) throws ParseException {
+        writeBits(1, value < 0 ? 1 : 0);
+        writeBits(numBits - 1, value);
+    }
+
+    private void ensureWritable(int numBytes) throws ParseException {
+        if (buffer.maxWritableBytes() < numBytes) {
+            throw new ParseException("Error writing: buffer overflow at position " + getPos());
         }
     }
 
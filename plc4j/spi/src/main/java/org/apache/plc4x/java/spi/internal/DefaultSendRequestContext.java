@@ -52,13 +52,17 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
 
     protected Duration timeout = Duration.ofMillis(1000);
 
+    protected Function<?, ?> correlationKeyExtractor;
+
+    protected Object correlationKey;
+
     public DefaultSendRequestContext(Consumer<HandlerRegistration> finisher, T request, ConversationContext<T> context) {
         this.finisher = finisher;
         this.request = request;
         this.context = context;
     }
 
-    protected DefaultSendRequestContext(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Duration timeout, Consumer<HandlerRegistration> finisher, Object request, ConversationContext<?> context, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer) {
+    protected DefaultSendRequestContext(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Duration timeout, Consumer<HandlerRegistration> finisher, Object request, ConversationContext<?> context, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer, Function<?, ?> correlationKeyExtractor, Object correlationKey) {
         this.commands = commands;
         this.timeout = timeout;
         this.finisher = finisher;
@@ -68,6 +72,8 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
         this.packetConsumer = packetConsumer;
         this.onTimeoutConsumer = onTimeoutConsumer;
         this.errorConsumer = errorConsumer;
+        this.correlationKeyExtractor = correlationKeyExtractor;
+        this.correlationKey = correlationKey;
     }
 
     @Override
@@ -87,6 +93,22 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
         return this;
     }
 
+    @Override
+    public ConversationContext.SendRequestContext<T> correlate(Function<T, ?> keyExtractor, Object key) {
+        if (expectClazz == null) {
+            throw new ConversationContext.PlcWiringException("expectResponse must be called before correlate");
+        }
+        if (commands.stream().anyMatch(Either::isLeft)) {
+            throw new ConversationContext.PlcWiringException("correlate must be called before first unwrap");
+        }
+        if (this.correlationKeyExtractor != null) {
+            throw new ConversationContext.PlcWiringException("can't correlate by multiple keys");
+        }
+        this.correlationKeyExtractor = keyExtractor;
+        this.correlationKey = key;
+        return this;
+    }
+
     @Override
     public DefaultContextHandler handle(Consumer<T> packetConsumer) {
         if (this.packetConsumer != null) {
@@ -94,7 +116,7 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
         }
         this.packetConsumer = packetConsumer;
         final HandlerRegistration registration = new HandlerRegistration(commands, expectClazz, packetConsumer,
-            onTimeoutConsumer, errorConsumer, timeout);
+            onTimeoutConsumer, errorConsumer, timeout, correlationKeyExtractor, correlationKey);
         finisher.accept(registration);
         context.sendToWire(request);
         return new DefaultContextHandler(registration::hasHandled, registration::cancel);
@@ -127,7 +149,7 @@ public class DefaultSendRequestContext<T> implements ConversationContext.SendReq
             onTimeoutConsumer = new NoopTimeoutConsumer();
         }
         commands.addLast(Either.left(unwrapper));
-        return new DefaultSendRequestContext<>(commands, timeout, finisher, request, context, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer);
+        return new DefaultSendRequestContext<>(commands, timeout, finisher, request, context, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer, correlationKeyExtractor, correlationKey);
     }
 
     @Override
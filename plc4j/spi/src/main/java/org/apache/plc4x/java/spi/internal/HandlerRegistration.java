@@ -19,6 +19,7 @@
 
 package org.apache.plc4x.java.spi.internal;
 
+import io.netty.util.Timeout;
 import io.vavr.control.Either;
 
 import java.time.Duration;
@@ -52,8 +53,22 @@ public class HandlerRegistration {
     private volatile boolean cancelled = false;
     private volatile boolean handled = false;
 
+    /** Set as soon as the registration was either used to handle a message or timed out */
+    private final AtomicBoolean completed = new AtomicBoolean(false);
+    private volatile Timeout timeoutHandle;
+
+    /** Optional function extracting the correlation key from an incoming message of the expected type */
+    private final Function<?, ?> correlationKeyExtractor;
+    private final Object correlationKey;
+
     public HandlerRegistration(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer, Duration timeout) {
+        this(commands, expectClazz, packetConsumer, onTimeoutConsumer, errorConsumer, timeout, null, null);
+    }
+
+    public HandlerRegistration(Deque<Either<Function<?, ?>, Predicate<?>>> commands, Class<?> expectClazz, Consumer<?> packetConsumer, Consumer<TimeoutException> onTimeoutConsumer, BiConsumer<?, ? extends Throwable> errorConsumer, Duration timeout, Function<?, ?> correlationKeyExtractor, Object correlationKey) {
         this.commands = commands;
+        this.correlationKeyExtractor = correlationKeyExtractor;
+        this.correlationKey = correlationKey;
         this.expectClazz = expectClazz;
         this.packetConsumer = packetConsumer;
         this.onTimeoutConsumer = onTimeoutConsumer;
@@ -82,6 +97,18 @@ public class HandlerRegistration {
         return errorConsumer;
     }
 
+    public Function<?, ?> getCorrelationKeyExtractor() {
+        return correlationKeyExtractor;
+    }
+
+    public Object getCorrelationKey() {
+        return correlationKey;
+    }
+
+    public boolean hasCorrelationKey() {
+        return correlationKeyExtractor != null && correlationKey != null;
+    }
+
     public Duration getTimeout() {
         return timeout;
     }
@@ -90,8 +117,33 @@ public class HandlerRegistration {
         return timeoutAt;
     }
 
+    public void setTimeoutHandle(Timeout timeoutHandle) {
+        this.timeoutHandle = timeoutHandle;
+    }
+
+    /**
+     * Marks this registration as completed (either handled or timed out) and cancels the scheduled timeout.
+     *
+     * @return true, if this call completed the registration, false if it was already completed before.
+     */
+    public boolean complete() {
+        if (!completed.compareAndSet(false, true)) {
+            return false;
+        }
+        cancelTimeout();
+        return true;
+    }
+
     public void cancel() {
         this.cancelled = true;
+        cancelTimeout();
+    }
+
+    private void cancelTimeout() {
+        final Timeout timeout = this.timeoutHandle;
+        if (timeout != null) {
+            timeout.cancel();
+        }
     }
 
     public boolean isCancelled() {
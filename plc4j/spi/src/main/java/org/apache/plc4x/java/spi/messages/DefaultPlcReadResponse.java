@@ -27,6 +27,7 @@ import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.spi.utils.XmlSerializable;
 import org.apache.plc4x.java.spi.values.PlcList;
+import org.apache.plc4x.java.spi.values.PlcPrimitiveArray;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.spi.values.PlcStruct;
 import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
@@ -79,9 +80,8 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public int getNumberOfValues(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
-        if(fieldInternal instanceof PlcList) {
-            PlcList plcList = (PlcList) fieldInternal;
-            return plcList.getLength();
+        if((fieldInternal instanceof PlcList) || (fieldInternal instanceof PlcPrimitiveArray)) {
+            return fieldInternal.getLength();
         } else {
             return 1;
         }
@@ -136,6 +136,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Object> getAllObjects(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Object> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getObject(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Object> items = new ArrayList<>(plcList.getLength());
@@ -177,6 +185,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Boolean> getAllBooleans(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Boolean> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getBoolean(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Boolean> items = new ArrayList<>(plcList.getLength());
@@ -218,6 +234,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Byte> getAllBytes(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Byte> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getByte(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Byte> items = new ArrayList<>(plcList.getLength());
@@ -259,6 +283,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Short> getAllShorts(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Short> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getShort(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Short> items = new ArrayList<>(plcList.getLength());
@@ -300,6 +332,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Integer> getAllIntegers(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Integer> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getInteger(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Integer> items = new ArrayList<>(plcList.getLength());
@@ -341,6 +381,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<BigInteger> getAllBigIntegers(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<BigInteger> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getBigInteger(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<BigInteger> items = new ArrayList<>(plcList.getLength());
@@ -382,6 +430,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Long> getAllLongs(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Long> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getLong(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Long> items = new ArrayList<>(plcList.getLength());
@@ -423,6 +479,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Float> getAllFloats(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Float> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getFloat(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Float> items = new ArrayList<>(plcList.getLength());
@@ -464,6 +528,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<Double> getAllDoubles(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<Double> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getDouble(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<Double> items = new ArrayList<>(plcList.getLength());
@@ -505,6 +577,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<BigDecimal> getAllBigDecimals(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<BigDecimal> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getBigDecimal(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<BigDecimal> items = new ArrayList<>(plcList.getLength());
@@ -546,6 +626,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<String> getAllStrings(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<String> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getString(i));
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<String> items = new ArrayList<>(plcList.getLength());
@@ -587,6 +675,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<LocalTime> getAllTimes(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<LocalTime> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getIndex(i).getTime());
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<LocalTime> items = new ArrayList<>(plcList.getLength());
@@ -628,6 +724,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<LocalDate> getAllDates(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<LocalDate> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getIndex(i).getDate());
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<LocalDate> items = new ArrayList<>(plcList.getLength());
@@ -669,6 +773,14 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
     @JsonIgnore
     public Collection<LocalDateTime> getAllDateTimes(String name) {
         PlcValue fieldInternal = getFieldInternal(name);
+        if(fieldInternal instanceof PlcPrimitiveArray) {
+            PlcPrimitiveArray plcArray = (PlcPrimitiveArray) fieldInternal;
+            List<LocalDateTime> items = new ArrayList<>(plcArray.getLength());
+            for (int i = 0; i < plcArray.getLength(); i++) {
+                items.add(plcArray.getIndex(i).getDateTime());
+            }
+            return items;
+        }
         if(fieldInternal instanceof PlcList) {
             PlcList plcList = (PlcList) fieldInternal;
             List<LocalDateTime> items = new ArrayList<>(plcList.getLength());
@@ -706,12 +818,11 @@ public class DefaultPlcReadResponse implements PlcReadResponse, XmlSerializable
 
     protected PlcValue getFieldIndexInternal(String name, int index) {
         final PlcValue field = getFieldInternal(name);
-        if(field instanceof PlcList) {
-            PlcList plcList = (PlcList) field;
-            if(index > (plcList.getLength() - 1)) {
+        if((field instanceof PlcList) || (field instanceof PlcPrimitiveArray)) {
+            if(index > (field.getLength() - 1)) {
                 return null;
             }
-            return plcList.getIndex(index);
+            return field.getIndex(index);
         }
         if(index != 0) {
             return null;
@@ -29,7 +29,6 @@ import org.apache.plc4x.java.api.messages.PlcWriteRequest;
 import org.apache.plc4x.java.api.messages.PlcWriteResponse;
 import org.apache.plc4x.java.api.model.PlcField;
 import org.apache.plc4x.java.spi.utils.XmlSerializable;
-import org.apache.plc4x.java.spi.values.PlcList;
 import org.apache.plc4x.java.api.value.PlcValue;
 import org.apache.plc4x.java.api.value.PlcValueHandler;
 import org.apache.plc4x.java.spi.connection.PlcFieldHandler;
@@ -134,9 +133,8 @@ public class DefaultPlcWriteRequest implements PlcWriteRequest, XmlSerializable
     @JsonIgnore
     public int getNumberOfValues(String name) {
         final PlcValue value = fields.get(name).getValue();
-        if(value instanceof PlcList) {
-            PlcList list = (PlcList) value;
-            return list.getLength();
+        if(value.isList()) {
+            return value.getLength();
         }
         return 1;
     }
@@ -158,9 +156,8 @@ public class DefaultPlcWriteRequest implements PlcWriteRequest, XmlSerializable
             }
             ((XmlSerializable) field).xmlSerialize(fieldNameElement);
             final PlcValue value = fieldValueItem.getValue();
-            if(value instanceof PlcList) {
-                PlcList list = (PlcList) value;
-                for (PlcValue plcValue : list.getList()) {
+            if(value.isList()) {
+                for (PlcValue plcValue : value.getList()) {
                     Element fieldValueElement = doc.createElement("value");
                     fieldValueElement.setTextContent(plcValue.getString());
                     fieldNameElement.appendChild(fieldValueElement);
@@ -19,6 +19,7 @@ under the License.
 package org.apache.plc4x.java.spi.optimizer;
 
 import io.vavr.control.Either;
+import org.apache.plc4x.java.api.exceptions.*;
 import org.apache.plc4x.java.api.messages.*;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
 import org.apache.plc4x.java.api.value.PlcValue;
@@ -27,45 +28,97 @@ import org.apache.plc4x.java.spi.context.DriverContext;
 import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
 import org.apache.plc4x.java.spi.messages.DefaultPlcWriteResponse;
 import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.function.Supplier;
 
 public abstract class BaseOptimizer {
 
+    private static final Logger logger = LoggerFactory.getLogger(BaseOptimizer.class);
+
     protected List<PlcRequest> processReadRequest(PlcReadRequest readRequest, DriverContext driverContext) {
         return Collections.singletonList(readRequest);
     }
 
     protected PlcReadResponse processReadResponses(PlcReadRequest readRequest, Map<PlcRequest, Either<PlcResponse, Exception>> readResponses) {
-        Map<String, ResponseItem<PlcValue>> fields = new HashMap<>();
+        Map<String, ResponseItem<PlcValue>> fields = new HashMap<>(getMapCapacity(readRequest.getNumberOfFields()));
         for (Map.Entry<PlcRequest, Either<PlcResponse, Exception>> requestsEntries : readResponses.entrySet()) {
             PlcReadRequest curRequest = (PlcReadRequest) requestsEntries.getKey();
             Either<PlcResponse, Exception> readResponse = requestsEntries.getValue();
             for (String fieldName : curRequest.getFieldNames()) {
-                if (readResponse.isLeft()) {
-                    PlcReadResponse subReadResponse = (PlcReadResponse) readResponse.getLeft();
-                    PlcResponseCode responseCode = subReadResponse.getResponseCode(fieldName);
-                    PlcValue value = (responseCode == PlcResponseCode.OK) ?
-                        subReadResponse.getAsPlcValue().getValue(fieldName) : null;
-                    fields.put(fieldName, new ResponseItem<>(responseCode, value));
-                } else {
-                    fields.put(fieldName, new ResponseItem<>(PlcResponseCode.INTERNAL_ERROR, null));
-                }
+                fields.put(fieldName, getResponseItem(readResponse, fieldName));
             }
         }
         return new DefaultPlcReadResponse(readRequest, fields);
     }
 
+    /**
+     * Gets the result for one field out of the result of a sub-request.
+     * If the sub-request failed, the field gets the response code matching the exception.
+     *
+     * @param readResponse response to the sub-request or the exception it failed with.
+     * @param fieldName    name of the field in the sub-request.
+     * @return response item for the field.
+     */
+    protected static ResponseItem<PlcValue> getResponseItem(Either<PlcResponse, Exception> readResponse, String fieldName) {
+        if (readResponse.isRight()) {
+            return new ResponseItem<>(getResponseCode(readResponse.get()), null);
+        }
+        PlcReadResponse subReadResponse = (PlcReadResponse) readResponse.getLeft();
+        // Take over the item as it is, without going through the value accessors.
+        if (subReadResponse instanceof DefaultPlcReadResponse) {
+            ResponseItem<PlcValue> responseItem = ((DefaultPlcReadResponse) subReadResponse).getValues().get(fieldName);
+            if (responseItem != null) {
+                return (responseItem.getCode() == PlcResponseCode.OK) ?
+                    responseItem : new ResponseItem<>(responseItem.getCode(), null);
+            }
+        }
+        PlcResponseCode responseCode = subReadResponse.getResponseCode(fieldName);
+        PlcValue value = (responseCode == PlcResponseCode.OK) ? subReadResponse.getPlcValue(fieldName) : null;
+        return new ResponseItem<>(responseCode, value);
+    }
+
+    /**
+     * Translates the exception a sub-request failed with into the response code reported for each of its fields.
+     *
+     * @param exception exception the sub-request failed with.
+     * @return response code for the fields of the failed sub-request.
+     */
+    protected static PlcResponseCode getResponseCode(Exception exception) {
+        if ((exception instanceof TimeoutException) || (exception instanceof PlcTimeoutException) ||
+            (exception instanceof PlcProtocolTimeoutException)) {
+            return PlcResponseCode.REMOTE_BUSY;
+        } else if (exception instanceof PlcInvalidFieldException) {
+            return PlcResponseCode.INVALID_ADDRESS;
+        } else if ((exception instanceof PlcIncompatibleDatatypeException) ||
+            (exception instanceof PlcUnsupportedDataTypeException)) {
+            return PlcResponseCode.INVALID_DATATYPE;
+        } else if (exception instanceof PlcFieldRangeException) {
+            return PlcResponseCode.INVALID_DATA;
+        } else if ((exception instanceof PlcUnsupportedOperationException) ||
+            (exception instanceof PlcNotImplementedException)) {
+            return PlcResponseCode.UNSUPPORTED;
+        } else if (exception instanceof PlcProtocolException) {
+            return PlcResponseCode.REMOTE_ERROR;
+        }
+        return PlcResponseCode.INTERNAL_ERROR;
+    }
+
     protected List<PlcRequest> processWriteRequest(PlcWriteRequest writeRequest, DriverContext driverContext) {
         return Collections.singletonList(writeRequest);
     }
 
     protected PlcWriteResponse processWriteResponses(PlcWriteRequest writeRequest,
                                                      Map<PlcRequest, Either<PlcResponse, Exception>> writeResponses) {
-        Map<String, PlcResponseCode> fields = new HashMap<>();
+        Map<String, PlcResponseCode> fields = new HashMap<>(getMapCapacity(writeRequest.getNumberOfFields()));
         for (Map.Entry<PlcRequest, Either<PlcResponse, Exception>> requestsEntries : writeResponses.entrySet()) {
             PlcWriteRequest subWriteRequest = (PlcWriteRequest) requestsEntries.getKey();
             Either<PlcResponse, Exception> writeResponse = requestsEntries.getValue();
@@ -74,7 +127,7 @@ public abstract class BaseOptimizer {
                     PlcWriteResponse subWriteResponse = (PlcWriteResponse) writeResponse.getLeft();
                     fields.put(fieldName, subWriteResponse.getResponseCode(fieldName));
                 } else {
-                    fields.put(fieldName, PlcResponseCode.INTERNAL_ERROR);
+                    fields.put(fieldName, getResponseCode(writeResponse.get()));
                 }
             }
         }
@@ -109,6 +162,32 @@ public abstract class BaseOptimizer {
             response -> processReadResponses(readRequest, response));
     }
 
+    /**
+     * Prepares a read request for repeated execution.
+     * The split into sub-requests and the prepared sub-requests of the protocol are kept between executions
+     * and are only rebuilt if the protocol instance changes (reconnect) or if the key returned by
+     * {@link #getPreparedReadKey(DriverContext)} for the current driver context differs from the one
+     * the sub-requests were built for.
+     *
+     * @param readRequest    read request to be executed repeatedly.
+     * @param readerSupplier supplies the protocol instance currently used by the connection.
+     * @return handle for executing the read request.
+     */
+    public PlcPreparedRead prepareRead(PlcReadRequest readRequest, Supplier<Plc4xProtocolBase<?>> readerSupplier) {
+        return new PreparedRead(readRequest, readerSupplier);
+    }
+
+    /**
+     * Returns the parts of the driver context the output of {@link #processReadRequest(PlcReadRequest, DriverContext)}
+     * depends on (like a negotiated PDU size). Prepared reads are re-split as soon as this key changes.
+     *
+     * @param driverContext current driver context.
+     * @return key for the driver context or {@code null} if the split does not depend on the context.
+     */
+    protected Object getPreparedReadKey(DriverContext driverContext) {
+        return null;
+    }
+
     public CompletableFuture<PlcWriteResponse> optimizedWrite(PlcWriteRequest writeRequest, Plc4xProtocolBase writer) {
         List<PlcRequest> subRequests = processWriteRequest(writeRequest, writer.getDriverContext());
         return send(writeRequest, subRequests, request -> writer.write((PlcWriteRequest) request),
@@ -146,32 +225,39 @@ public abstract class BaseOptimizer {
             CompletableFuture<PlcResponse> parentFuture = new CompletableFuture<>();
 
             // Create one sub-request for every single field and store the futures in a map.
-            Map<PlcRequest, CompletableFuture<PlcResponse>> subFutures = new HashMap<>();
+            Map<PlcRequest, CompletableFuture<PlcResponse>> subFutures = new LinkedHashMap<>(getMapCapacity(requests.size()));
             for (PlcRequest subRequest : requests) {
-                subFutures.put(subRequest, sender.apply(subRequest));
+                CompletableFuture<PlcResponse> subFuture;
+                try {
+                    subFuture = sender.apply(subRequest);
+                } catch (RuntimeException e) {
+                    subFuture = new CompletableFuture<>();
+                    subFuture.completeExceptionally(e);
+                }
+                subFutures.put(subRequest, subFuture);
             }
 
-            // As soon as all sub-futures are done, merge the individual responses back to one big response.
-            CompletableFuture.allOf(subFutures.values().toArray(new CompletableFuture[0])).thenApply(aVoid -> {
-                Map<PlcRequest, Either<PlcResponse, Exception>> results = new HashMap<>();
+            // As soon as all sub-futures are done (no matter if successfully or not), merge the individual
+            // responses back to one big response. Failed sub-requests only affect the fields they contained.
+            CompletableFuture<?>[] completions = subFutures.values().stream()
+                .map(subFuture -> subFuture.handle((response, throwable) -> null))
+                .toArray(CompletableFuture[]::new);
+            CompletableFuture.allOf(completions).thenRun(() -> {
+                Map<PlcRequest, Either<PlcResponse, Exception>> results = new HashMap<>(getMapCapacity(subFutures.size()));
                 for (Map.Entry<PlcRequest, CompletableFuture<PlcResponse>> subFutureEntry : subFutures.entrySet()) {
                     PlcRequest subRequest = subFutureEntry.getKey();
                     CompletableFuture<PlcResponse> subFuture = subFutureEntry.getValue();
                     try {
-                        final PlcResponse subResponse = subFuture.get();
-                        results.put(subRequest, Either.left(subResponse));
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        results.put(subRequest, Either.right(new Exception("Something went wrong")));
-                    } catch (Exception e) {
-                        results.put(subRequest, Either.right(new Exception("Something went wrong")));
+                        results.put(subRequest, Either.left(subFuture.join()));
+                    } catch (CompletionException | CancellationException e) {
+                        Exception cause = unwrap(e);
+                        logger.debug("Sub-request {} failed", subRequest, cause);
+                        results.put(subRequest, Either.right(cause));
                     }
                 }
-                PlcResponse response = responseProcessor.apply(results);
-                parentFuture.complete(response);
-                return Void.TYPE;
+                parentFuture.complete(responseProcessor.apply(results));
             }).exceptionally(throwable -> {
-                // TODO: If would be cool if we could still process all of the successful ones ...
+                // Only happens if processing the responses failed.
                 parentFuture.completeExceptionally(throwable);
                 return null;
             });
@@ -181,4 +267,83 @@ public abstract class BaseOptimizer {
         }
     }
 
+    private class PreparedRead implements PlcPreparedRead {
+
+        private final PlcReadRequest readRequest;
+        private final Supplier<Plc4xProtocolBase<?>> readerSupplier;
+        private volatile ReadPlan plan;
+
+        private PreparedRead(PlcReadRequest readRequest, Supplier<Plc4xProtocolBase<?>> readerSupplier) {
+            this.readRequest = Objects.requireNonNull(readRequest);
+            this.readerSupplier = Objects.requireNonNull(readerSupplier);
+        }
+
+        @Override
+        public PlcReadRequest getRequest() {
+            return readRequest;
+        }
+
+        @Override
+        public CompletableFuture<PlcReadResponse> execute() {
+            ReadPlan currentPlan = getPlan();
+            return send(readRequest, currentPlan.subRequests,
+                currentPlan::execute,
+                response -> processReadResponses(readRequest, response));
+        }
+
+        private ReadPlan getPlan() {
+            Plc4xProtocolBase<?> reader = readerSupplier.get();
+            Object key = getPreparedReadKey(reader.getDriverContext());
+            ReadPlan currentPlan = plan;
+            if ((currentPlan == null) || (currentPlan.reader != reader) || !Objects.equals(currentPlan.key, key)) {
+                logger.debug("(Re-)Building prepared read for {} with key {}", readRequest, key);
+                currentPlan = new ReadPlan(reader, key, processReadRequest(readRequest, reader.getDriverContext()));
+                plan = currentPlan;
+            }
+            return currentPlan;
+        }
+
+    }
+
+    private static final class ReadPlan {
+
+        private final Plc4xProtocolBase<?> reader;
+        private final Object key;
+        private final List<PlcRequest> subRequests;
+        // Sub-requests are created per plan and looked up by identity.
+        private final Map<PlcRequest, Supplier<CompletableFuture<PlcReadResponse>>> executors;
+
+        private ReadPlan(Plc4xProtocolBase<?> reader, Object key, List<PlcRequest> subRequests) {
+            this.reader = reader;
+            this.key = key;
+            this.subRequests = subRequests;
+            this.executors = new IdentityHashMap<>(getMapCapacity(subRequests.size()));
+            for (PlcRequest subRequest : subRequests) {
+                executors.put(subRequest, reader.prepareRead((PlcReadRequest) subRequest));
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private CompletableFuture<PlcResponse> execute(PlcRequest subRequest) {
+            return (CompletableFuture<PlcResponse>) (CompletableFuture<?>) executors.get(subRequest).get();
+        }
+
+    }
+
+    private static Exception unwrap(Throwable throwable) {
+        Throwable cause = throwable;
+        while (((cause instanceof CompletionException) || (cause instanceof ExecutionException)) &&
+            (cause.getCause() != null)) {
+            cause = cause.getCause();
+        }
+        return (cause instanceof Exception) ? (Exception) cause : new Exception(cause);
+    }
+
+    /**
+     * @return initial capacity of a hash map holding the given number of entries without rehashing.
+     */
+    protected static int getMapCapacity(int numberOfEntries) {
+        return (int) (numberOfEntries / 0.75f) + 1;
+    }
+
 }
@@ -16,21 +16,23 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-
 package org.apache.plc4x.java.spi.transaction;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Executor;
 import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 /**
@@ -42,24 +44,40 @@ import java.util.function.Consumer;
  *     <li>Pass Runnable</li>
  *     <li>On Request or Response unregister Slot</li>
  * </ul>
+ * <p>
+ * Every connection has its own instance and there is no thread pool: the operations of the transactions are run by
+ * the executor set using {@link #setExecutor(Executor)}. Protocols returning their instance from
+ * {@link org.apache.plc4x.java.spi.Plc4xProtocolBase#getTransactionManager()} get the event loop of their channel
+ * set, as soon as it is connected. Without an executor, the operation of a transaction is run directly by the thread
+ * submitting it or, if it had to wait for a free slot, by the thread ending the previous transaction.
+ * <p>
+ * The number of transactions in flight is limited using a lock-free permit counter.
  */
 public class RequestTransactionManager {
 
     private static final Logger logger = LoggerFactory.getLogger(RequestTransactionManager.class);
 
-    /** Executor that performs all operations */
-    static final ExecutorService executor = Executors.newFixedThreadPool(4);
+    /** Executor that performs all operations (runs them directly, if not set otherwise) */
+    private volatile Executor executor = Runnable::run;
     private final Set<RequestTransaction> runningRequests;
     /** How many Transactions are allowed to run at the same time? */
-    private int numberOfConcurrentRequests;
+    private volatile int numberOfConcurrentRequests;
+    /** Number of transactions currently in flight, only modified using compare-and-set */
+    private final AtomicInteger numberOfActiveRequests = new AtomicInteger(0);
     /** Assigns each request a Unique Transaction Id, especially important for failure handling */
     private AtomicInteger transactionId = new AtomicInteger(0);
     /** Important, this is a FIFO Queue for Fairness! */
     private Queue<RequestTransaction> workLog = new ConcurrentLinkedQueue<>();
+    /** Size of the work log (the size of a ConcurrentLinkedQueue is expensive to compute) */
+    private final AtomicInteger queueDepth = new AtomicInteger(0);
+
+    /** Metrics about the time transactions had to wait for a free slot */
+    private final LongAdder numberOfStartedRequests = new LongAdder();
+    private final LongAdder totalWaitTimeNanos = new LongAdder();
+    private final AtomicLong maxWaitTimeNanos = new AtomicLong(0);
 
     public RequestTransactionManager(int numberOfConcurrentRequests) {
         this.numberOfConcurrentRequests = numberOfConcurrentRequests;
-        // Immutable Map
         runningRequests = ConcurrentHashMap.newKeySet();
     }
 
@@ -74,7 +92,7 @@ public class RequestTransactionManager {
     public void setNumberOfConcurrentRequests(int numberOfConcurrentRequests) {
         // If we reduced the number of concurrent requests and more requests are in-flight
         // than should be, at least log a warning.
-        if(numberOfConcurrentRequests < runningRequests.size()) {
+        if(numberOfConcurrentRequests < numberOfActiveRequests.get()) {
             logger.warn("The number of concurrent requests was reduced and currently more requests are in flight.");
         }
 
@@ -84,6 +102,15 @@ public class RequestTransactionManager {
         processWorklog();
     }
 
+    /**
+     * Sets the executor running the operations of the transactions.
+     *
+     * @param executor executor (e.g. the event loop of the channel) or null for running them directly.
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = (executor != null) ? executor : Runnable::run;
+    }
+
     public void submit(Consumer<RequestTransaction> context) {
         RequestTransaction transaction = startRequest();
         context.accept(transaction);
@@ -94,27 +121,109 @@ public class RequestTransactionManager {
         assert handle.operation != null;
         // Add this Request with this handle i the Worklog
         // Put Transaction into Worklog
+        handle.submittedAt = System.nanoTime();
+        queueDepth.incrementAndGet();
         this.workLog.add(handle);
         // Try to Process the Worklog
         processWorklog();
     }
 
     private void processWorklog() {
-        while (runningRequests.size() < getNumberOfConcurrentRequests() && !workLog.isEmpty()) {
-            RequestTransaction next = workLog.remove();
-            this.runningRequests.add(next);
-            Future<?> completionFuture = executor.submit(next.operation);
-            next.setCompletionFuture(completionFuture);
+        // Only remove an item from the work log, after successfully acquiring a permit for it.
+        // If somebody else was faster, give the permit back and check again, as another item might
+        // have been added while we were holding the permit.
+        while (!workLog.isEmpty() && tryAcquirePermit()) {
+            RequestTransaction next = workLog.poll();
+            if (next == null) {
+                releasePermit();
+                continue;
+            }
+            queueDepth.decrementAndGet();
+            start(next);
         }
     }
 
+    private boolean tryAcquirePermit() {
+        while (true) {
+            int active = numberOfActiveRequests.get();
+            if (active >= numberOfConcurrentRequests) {
+                return false;
+            }
+            if (numberOfActiveRequests.compareAndSet(active, active + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private void releasePermit() {
+        numberOfActiveRequests.decrementAndGet();
+    }
+
+    private void start(RequestTransaction transaction) {
+        long waitTime = System.nanoTime() - transaction.submittedAt;
+        numberOfStartedRequests.increment();
+        totalWaitTimeNanos.add(waitTime);
+        maxWaitTimeNanos.accumulateAndGet(waitTime, Math::max);
+
+        this.runningRequests.add(transaction);
+        CompletableFuture<Void> completionFuture = new CompletableFuture<>();
+        transaction.setCompletionFuture(completionFuture);
+        executor.execute(() -> {
+            // The transaction might have been failed, before it was started.
+            if (completionFuture.isDone()) {
+                return;
+            }
+            try {
+                transaction.operation.run();
+                completionFuture.complete(null);
+            } catch (Exception e) {
+                logger.warn("Error running transaction {}, ending it", transaction.transactionId, e);
+                completionFuture.completeExceptionally(e);
+                if (runningRequests.contains(transaction)) {
+                    endRequest(transaction);
+                }
+            }
+        });
+    }
 
     public RequestTransaction startRequest() {
         return new RequestTransaction(this, this.transactionId.getAndIncrement());
     }
 
+    /**
+     * @return number of transactions currently in flight.
+     */
     public int getNumberOfActiveRequests() {
-        return this.runningRequests.size();
+        return numberOfActiveRequests.get();
+    }
+
+    /**
+     * @return number of transactions waiting for a free slot.
+     */
+    public int getQueueDepth() {
+        return queueDepth.get();
+    }
+
+    /**
+     * @return number of transactions started since the creation of this manager.
+     */
+    public long getNumberOfStartedRequests() {
+        return numberOfStartedRequests.sum();
+    }
+
+    /**
+     * @return average time the started transactions had to wait for a free slot.
+     */
+    public Duration getAverageWaitTime() {
+        long started = numberOfStartedRequests.sum();
+        return (started == 0) ? Duration.ZERO : Duration.ofNanos(totalWaitTimeNanos.sum() / started);
+    }
+
+    /**
+     * @return longest time a transaction had to wait for a free slot.
+     */
+    public Duration getMaxWaitTime() {
+        return Duration.ofNanos(maxWaitTimeNanos.get());
     }
 
     private void failRequest(RequestTransaction transaction) {
@@ -125,10 +234,10 @@ public class RequestTransactionManager {
     }
 
     private void endRequest(RequestTransaction transaction) {
-        if (!this.runningRequests.contains(transaction)) {
+        if (!this.runningRequests.remove(transaction)) {
             throw new IllegalArgumentException("Unknown Transaction or Transaction already finished!");
         }
-        this.runningRequests.remove(transaction);
+        releasePermit();
         // Process the worklog, a slot should be free now
         processWorklog();
     }
@@ -141,6 +250,8 @@ public class RequestTransactionManager {
         /** The iniital operation to perform to kick off the request */
         private Runnable operation;
         private Future<?> completionFuture;
+        /** Time the transaction was put into the work log */
+        private long submittedAt;
 
         public RequestTransaction(RequestTransactionManager parent, int transactionId) {
             this.parent = parent;
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.plc4x.java.spi.values;
+
+import com.fasterxml.jackson.annotation.*;
+import org.apache.plc4x.java.api.value.PlcValue;
+
+import java.util.BitSet;
+
+/**
+ * List of booleans ({@link PlcBOOL} elements) backed by a {@link BitSet}.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "className")
+public class PlcBOOLArray extends PlcPrimitiveArray {
+
+    private final BitSet bits;
+    // A BitSet doesn't know about trailing false bits, so the length has to be kept separately.
+    private final int length;
+
+    public PlcBOOLArray(BitSet bits, int length) {
+        this.bits = bits;
+        this.length = length;
+    }
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public PlcBOOLArray(@JsonProperty("values") boolean[] values) {
+        this.bits = new BitSet(values.length);
+        this.length = values.length;
+        for (int i = 0; i < values.length; i++) {
+            bits.set(i, values[i]);
+        }
+    }
+
+    /**
+     * @return the backing bit set (not a copy, so it must not be modified).
+     */
+    @JsonIgnore
+    public BitSet getBits() {
+        return bits;
+    }
+
+    @JsonProperty("values")
+    public boolean[] getValues() {
+        boolean[] values = new boolean[length];
+        for (int i = bits.nextSetBit(0); (i >= 0) && (i < length); i = bits.nextSetBit(i + 1)) {
+            values[i] = true;
+        }
+        return values;
+    }
+
+    @Override
+    @JsonIgnore
+    public int getLength() {
+        return length;
+    }
+
+    @Override
+    protected PlcValue createElement(int i) {
+        return new PlcBOOL(bits.get(i));
+    }
+
+    @Override
+    @JsonIgnore
+    public Object getObject(int i) {
+        return bits.get(i);
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean getBoolean(int i) {
+        return bits.get(i);
+    }
+
+    @Override
+    @JsonIgnore
+    public String getString(int i) {
+        return Boolean.toString(bits.get(i));
+    }
+
+}
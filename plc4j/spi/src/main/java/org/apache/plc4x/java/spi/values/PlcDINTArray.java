@@ -0,0 +1,82 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.plc4x.java.spi.values;
+
+import com.fasterxml.jackson.annotation.*;
+import org.apache.plc4x.java.api.value.PlcValue;
+
+/**
+ * List of signed 32 bit integers ({@link PlcDINT} elements) backed by a int[].
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "className")
+public class PlcDINTArray extends PlcPrimitiveArray {
+
+    private final int[] values;
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public PlcDINTArray(@JsonProperty("values") int[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @return the backing array (not a copy, so it must not be modified).
+     */
+    @JsonProperty("values")
+    public int[] getValues() {
+        return values;
+    }
+
+    @Override
+    @JsonIgnore
+    public int getLength() {
+        return values.length;
+    }
+
+    @Override
+    protected PlcValue createElement(int i) {
+        return new PlcDINT(values[i]);
+    }
+
+    @Override
+    @JsonIgnore
+    public Object getObject(int i) {
+        return values[i];
+    }
+
+    @Override
+    @JsonIgnore
+    public int getInteger(int i) {
+        return values[i];
+    }
+
+    @Override
+    @JsonIgnore
+    public long getLong(int i) {
+        return values[i];
+    }
+
+    @Override
+    @JsonIgnore
+    public String getString(int i) {
+        return String.valueOf(values[i]);
+    }
+
+}
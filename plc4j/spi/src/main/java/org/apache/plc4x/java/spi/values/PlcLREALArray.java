@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.plc4x.java.spi.values;
+
+import com.fasterxml.jackson.annotation.*;
+import org.apache.plc4x.java.api.value.PlcValue;
+
+/**
+ * List of 64 bit floating point values ({@link PlcLREAL} elements) backed by a double[].
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.CLASS, property = "className")
+public class PlcLREALArray extends PlcPrimitiveArray {
+
+    private final double[] values;
+
+    @JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
+    public PlcLREALArray(@JsonProperty("values") double[] values) {
+        this.values = values;
+    }
+
+    /**
+     * @return the backing array (not a copy, so it must not be modified).
+     */
+    @JsonProperty("values")
+    public double[] getValues() {
+        return values;
+    }
+
+    @Override
+    @JsonIgnore
+    public int getLength() {
+        return values.length;
+    }
+
+    @Override
+    protected PlcValue createElement(int i) {
+        return new PlcLREAL(values[i]);
+    }
+
+    @Override
+    @JsonIgnore
+    public Object getObject(int i) {
+        return values[i];
+    }
+
+    @Override
+    @JsonIgnore
+    public double getDouble(int i) {
+        return values[i];
+    }
+
+    @Override
+    @JsonIgnore
+    public String getString(int i) {
+        return String.valueOf(values[i]);
+    }
+
+}
@@ -0,0 +1,268 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package org.apache.plc4x.java.spi.values;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.utils.XmlSerializable;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Base class of list values backed by an array of primitives (e.g. {@link PlcREALArray} backed by a float[]).
+ * <p>
+ * Compared to a {@link PlcList} this saves the element objects (and the boxed values they wrap), which makes a
+ * difference for large arrays. The list view ({@link #getIndex(int)}, {@link #getList()}) is still supported, the
+ * element values are created on access. Consumers interested in the plain values can use the element accessors
+ * (e.g. {@link #getFloat(int)}), which don't create element values where the type is natural for the array.
+ */
+public abstract class PlcPrimitiveArray extends PlcValueAdapter {
+
+    /**
+     * Concatenates the given values (e.g. the parts of an array read with several requests) into one array.
+     * All values have to be primitive arrays of the same type or single elements of that type.
+     *
+     * @param values parts of the array in order.
+     * @return concatenated array or null, if the values can't be concatenated into a primitive array.
+     */
+    public static PlcPrimitiveArray concat(List<? extends PlcValue> values) {
+        Class<?> type = null;
+        for (PlcValue value : values) {
+            if (value instanceof PlcPrimitiveArray) {
+                if ((type != null) && (type != value.getClass())) {
+                    return null;
+                }
+                type = value.getClass();
+            } else if ((value == null) || value.isList()) {
+                return null;
+            }
+        }
+        if (type == PlcBOOLArray.class) {
+            BitSet bits = new BitSet();
+            int length = 0;
+            for (PlcValue value : values) {
+                if (value instanceof PlcBOOLArray) {
+                    PlcBOOLArray part = (PlcBOOLArray) value;
+                    BitSet partBits = part.getBits();
+                    for (int i = partBits.nextSetBit(0); (i >= 0) && (i < part.getLength()); i = partBits.nextSetBit(i + 1)) {
+                        bits.set(length + i);
+                    }
+                    length += part.getLength();
+                } else {
+                    bits.set(length++, value.getBoolean());
+                }
+            }
+            return new PlcBOOLArray(bits, length);
+        } else if (type == PlcSINTArray.class) {
+            return new PlcSINTArray(concat(values, PlcSINTArray.class, PlcSINTArray::getValues,
+                value -> new byte[]{value.getByte()}, byte[]::new));
+        } else if (type == PlcUSINTArray.class) {
+            return new PlcUSINTArray(concat(values, PlcUSINTArray.class, PlcUSINTArray::getValues,
+                value -> new short[]{value.getShort()}, short[]::new));
+        } else if (type == PlcINTArray.class) {
+            return new PlcINTArray(concat(values, PlcINTArray.class, PlcINTArray::getValues,
+                value -> new short[]{value.getShort()}, short[]::new));
+        } else if (type == PlcUINTArray.class) {
+            return new PlcUINTArray(concat(values, PlcUINTArray.class, PlcUINTArray::getValues,
+                value -> new int[]{value.getInteger()}, int[]::new));
+        } else if (type == PlcDINTArray.class) {
+            return new PlcDINTArray(concat(values, PlcDINTArray.class, PlcDINTArray::getValues,
+                value -> new int[]{value.getInteger()}, int[]::new));
+        } else if (type == PlcUDINTArray.class) {
+            return new PlcUDINTArray(concat(values, PlcUDINTArray.class, PlcUDINTArray::getValues,
+                value -> new long[]{value.getLong()}, long[]::new));
+        } else if (type == PlcLINTArray.class) {
+            return new PlcLINTArray(concat(values, PlcLINTArray.class, PlcLINTArray::getValues,
+                value -> new long[]{value.getLong()}, long[]::new));
+        } else if (type == PlcREALArray.class) {
+            return new PlcREALArray(concat(values, PlcREALArray.class, PlcREALArray::getValues,
+                value -> new float[]{value.getFloat()}, float[]::new));
+        } else if (type == PlcLREALArray.class) {
+            return new PlcLREALArray(concat(values, PlcLREALArray.class, PlcLREALArray::getValues,
+                value -> new double[]{value.getDouble()}, double[]::new));
+        }
+        return null;
+    }
+
+    /**
+     * @param arrayValues  returns the backing array of a part being an array.
+     * @param elementValue returns a part being a single element as array of length 1.
+     * @param newArray     creates the resulting array.
+     */
+    private static <T extends PlcPrimitiveArray, A> A concat(List<? extends PlcValue> values, Class<T> type,
+                                                             Function<T, A> arrayValues,
+                                                             Function<PlcValue, A> elementValue,
+                                                             IntFunction<A> newArray) {
+        List<A> parts = new ArrayList<>(values.size());
+        int length = 0;
+        for (PlcValue value : values) {
+            A part = type.isInstance(value) ? arrayValues.apply(type.cast(value)) : elementValue.apply(value);
+            parts.add(part);
+            length += Array.getLength(part);
+        }
+        A result = newArray.apply(length);
+        int offset = 0;
+        for (A part : parts) {
+            int partLength = Array.getLength(part);
+            System.arraycopy(part, 0, result, offset, partLength);
+            offset += partLength;
+        }
+        return result;
+    }
+
+    /**
+     * @param i index of the element.
+     * @return newly created value of the element at the given index.
+     */
+    protected abstract PlcValue createElement(int i);
+
+    @Override
+    @JsonIgnore
+    public Object getObject() {
+        return getList();
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isList() {
+        return true;
+    }
+
+    @Override
+    @JsonIgnore
+    public PlcValue getIndex(int i) {
+        if ((i < 0) || (i >= getLength())) {
+            throw new IndexOutOfBoundsException("Index: " + i + ", Size: " + getLength());
+        }
+        return createElement(i);
+    }
+
+    @Override
+    @JsonIgnore
+    public List<PlcValue> getList() {
+        return new ElementList();
+    }
+
+    @JsonIgnore
+    public Object getObject(int i) {
+        return getIndex(i).getObject();
+    }
+
+    @JsonIgnore
+    public boolean getBoolean(int i) {
+        return getIndex(i).getBoolean();
+    }
+
+    @JsonIgnore
+    public byte getByte(int i) {
+        return getIndex(i).getByte();
+    }
+
+    @JsonIgnore
+    public short getShort(int i) {
+        return getIndex(i).getShort();
+    }
+
+    @JsonIgnore
+    public int getInteger(int i) {
+        return getIndex(i).getInteger();
+    }
+
+    @JsonIgnore
+    public long getLong(int i) {
+        return getIndex(i).getLong();
+    }
+
+    @JsonIgnore
+    public BigInteger getBigInteger(int i) {
+        return getIndex(i).getBigInteger();
+    }
+
+    @JsonIgnore
+    public float getFloat(int i) {
+        return getIndex(i).getFloat();
+    }
+
+    @JsonIgnore
+    public double getDouble(int i) {
+        return getIndex(i).getDouble();
+    }
+
+    @JsonIgnore
+    public BigDecimal getBigDecimal(int i) {
+        return getIndex(i).getBigDecimal();
+    }
+
+    @JsonIgnore
+    public String getString(int i) {
+        return getIndex(i).getString();
+    }
+
+    @Override
+    @JsonIgnore
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < getLength(); i++) {
+            if (i > 0) {
+                sb.append(",");
+            }
+            sb.append(getString(i));
+        }
+        return sb.append("]").toString();
+    }
+
+    @Override
+    public void xmlSerialize(Element parent) {
+        // Serialized just like a PlcList, so the format doesn't depend on the internal representation.
+        Document doc = parent.getOwnerDocument();
+        Element plcValueElement = doc.createElement("PlcList");
+        parent.appendChild(plcValueElement);
+        for (int i = 0; i < getLength(); i++) {
+            ((XmlSerializable) createElement(i)).xmlSerialize(plcValueElement);
+        }
+    }
+
+    private class ElementList extends AbstractList<PlcValue> implements RandomAccess {
+
+        @Override
+        public PlcValue get(int index) {
+            return getIndex(index);
+        }
+
+        @Override
+        public int size() {
+            return getLength();
+        }
+
+    }
+
+}
@@ -21,7 +21,12 @@ package org.apache.plc4x.java.spi;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelPipeline;
+import io.netty.channel.EventLoop;
+import io.netty.util.HashedWheelTimer;
 import org.apache.plc4x.java.spi.events.ConnectEvent;
+import org.apache.plc4x.java.spi.events.DisconnectEvent;
+import org.apache.plc4x.java.spi.transaction.RequestTransactionManager;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,14 +34,22 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.lang.reflect.Field;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.Map;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -50,6 +63,10 @@ class Plc4xNettyWrapperTest {
     ChannelHandlerContext channelHandlerContext;
     @Mock
     Channel channel;
+    @Mock
+    EventLoop eventLoop;
+
+    HashedWheelTimer timer;
 
     Plc4xNettyWrapper<Date> wrapper;
 
@@ -57,7 +74,8 @@ class Plc4xNettyWrapperTest {
 
     @BeforeEach
     void setUp() throws Exception {
-        wrapper = new Plc4xNettyWrapper<>(channelPipeline, false, protocol, Date.class);
+        timer = new HashedWheelTimer();
+        wrapper = new Plc4xNettyWrapper<>(timer, channelPipeline, false, protocol, Date.class);
 
         ArgumentCaptor<ConversationContext<Date>> captor = ArgumentCaptor.forClass(ConversationContext.class);
         doNothing().when(protocol).onConnect(captor.capture());
@@ -68,6 +86,11 @@ class Plc4xNettyWrapperTest {
         conversationContext = captor.getValue();
     }
 
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
     @Test // see PLC4X-207 / PLC4X-257
     void conversationTimeoutTest() throws Exception {
         AtomicBoolean timeout = new AtomicBoolean(false);
@@ -86,18 +109,136 @@ class Plc4xNettyWrapperTest {
                 handled.set(true);
             });
 
-        Thread.sleep(750);
+        Thread.sleep(250);
         assertFalse(timeout.get(), "timeout");
         assertFalse(handled.get(), "handled");
         assertFalse(error.get(), "error");
 
-        wrapper.decode(channelHandlerContext, new Date(), new ArrayList<>());
-
-        assertTrue(timeout.get());
-
+        // The timeout has to fire even if no other message arrives.
+        Thread.sleep(750);
         assertTrue(timeout.get(), "timeout");
         assertFalse(handled.get(), "handled");
         assertFalse(error.get(), "error");
 
+        // A late response must not be handled anymore.
+        wrapper.decode(channelHandlerContext, new Date(), new ArrayList<>());
+        assertFalse(handled.get(), "handled");
+        assertFalse(handler.isDone(), "done");
+    }
+
+    @Test
+    void conversationHandledBeforeTimeoutTest() throws Exception {
+        AtomicBoolean timeout = new AtomicBoolean(false);
+        AtomicBoolean handled = new AtomicBoolean(false);
+
+        ConversationContext.ContextHandler handler = conversationContext.sendRequest(new Date())
+            .expectResponse(Date.class, Duration.ofMillis(500))
+            .onTimeout(e -> {
+                timeout.set(true);
+            })
+            .handle((answer) -> {
+                handled.set(true);
+            });
+
+        wrapper.decode(channelHandlerContext, new Date(), new ArrayList<>());
+        assertTrue(handled.get(), "handled");
+        assertTrue(handler.isDone(), "done");
+
+        // The timeout has been cancelled, so it must not fire anymore.
+        Thread.sleep(750);
+        assertFalse(timeout.get(), "timeout");
+    }
+
+    @Test
+    void correlatedResponsesTest() throws Exception {
+        AtomicInteger handledFirst = new AtomicInteger(0);
+        AtomicInteger handledSecond = new AtomicInteger(0);
+
+        conversationContext.sendRequest(new Date(1))
+            .expectResponse(Date.class, Duration.ofMillis(500))
+            .correlate(Date::getTime, 1L)
+            .handle((answer) -> handledFirst.incrementAndGet());
+        conversationContext.sendRequest(new Date(2))
+            .expectResponse(Date.class, Duration.ofMillis(500))
+            .correlate(Date::getTime, 2L)
+            .handle((answer) -> handledSecond.incrementAndGet());
+
+        // Responses arrive out of order.
+        wrapper.decode(channelHandlerContext, new Date(2), new ArrayList<>());
+        assertEquals(0, handledFirst.get(), "first");
+        assertEquals(1, handledSecond.get(), "second");
+
+        wrapper.decode(channelHandlerContext, new Date(1), new ArrayList<>());
+        assertEquals(1, handledFirst.get(), "first");
+        assertEquals(1, handledSecond.get(), "second");
+
+        // Unknown keys are passed on to the protocol.
+        wrapper.decode(channelHandlerContext, new Date(3), new ArrayList<>());
+        verify(protocol).decode(any(), eq(new Date(3)));
+    }
+
+    @Test
+    void correlationIndexIsRemovedOnceEmptyTest() throws Exception {
+        AtomicInteger handled = new AtomicInteger(0);
+        for (long i = 0; i < 10; i++) {
+            conversationContext.sendRequest(new Date(i))
+                .expectResponse(Date.class, Duration.ofMillis(500))
+                .correlate(newExtractor(), i)
+                .handle((answer) -> handled.incrementAndGet());
+            wrapper.decode(channelHandlerContext, new Date(i), new ArrayList<>());
+        }
+        assertEquals(10, handled.get(), "handled");
+        assertTrue(getCorrelatedHandlers().isEmpty(), "correlated handlers");
+
+        // Timed out registrations are removed from the index as well.
+        conversationContext.sendRequest(new Date(42))
+            .expectResponse(Date.class, Duration.ofMillis(100))
+            .correlate(newExtractor(), 42L)
+            .handle((answer) -> handled.incrementAndGet());
+        assertEquals(1, getCorrelatedHandlers().size(), "correlated handlers");
+        Thread.sleep(500);
+        assertTrue(getCorrelatedHandlers().isEmpty(), "correlated handlers");
+    }
+
+    @Test
+    void transactionsRunOnEventLoopWhileConnectedTest() throws Exception {
+        RequestTransactionManager tm = new RequestTransactionManager(1);
+        when(protocol.getTransactionManager()).thenReturn(tm);
+        when(channel.eventLoop()).thenReturn(eventLoop);
+        wrapper.userEventTriggered(channelHandlerContext, new ConnectEvent());
+
+        AtomicInteger started = new AtomicInteger(0);
+        RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
+        transaction.submit(started::incrementAndGet);
+        ArgumentCaptor<Runnable> operation = ArgumentCaptor.forClass(Runnable.class);
+        verify(eventLoop).execute(operation.capture());
+        assertEquals(0, started.get(), "started");
+        operation.getValue().run();
+        assertEquals(1, started.get(), "started");
+        transaction.endRequest();
+
+        // Once disconnected, the event loop must not be used anymore.
+        wrapper.userEventTriggered(channelHandlerContext, new DisconnectEvent());
+        RequestTransactionManager.RequestTransaction next = tm.startRequest();
+        next.submit(started::incrementAndGet);
+        assertEquals(2, started.get(), "started");
+        next.endRequest();
+        verify(eventLoop).execute(any());
+    }
+
+    /** Returns a new extractor instance on every call, just like a capturing lambda would. */
+    private static Function<Date, Long> newExtractor() {
+        return new Function<Date, Long>() {
+            @Override
+            public Long apply(Date date) {
+                return date.getTime();
+            }
+        };
+    }
+
+    private Map<?, ?> getCorrelatedHandlers() throws Exception {
+        Field field = Plc4xNettyWrapper.class.getDeclaredField("correlatedHandlers");
+        field.setAccessible(true);
+        return (Map<?, ?>) field.get(wrapper);
     }
-}
\ No newline at end of file
+}
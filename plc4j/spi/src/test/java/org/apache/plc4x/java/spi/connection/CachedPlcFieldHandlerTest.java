@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedPlcFieldHandlerTest {
+
+    private final AtomicInteger numberOfParsedFields = new AtomicInteger(0);
+
+    private final PlcFieldHandler parser = fieldQuery -> {
+        if (fieldQuery.startsWith("invalid")) {
+            throw new PlcInvalidFieldException(fieldQuery);
+        }
+        numberOfParsedFields.incrementAndGet();
+        return new PlcField() {};
+    };
+
+    @Test
+    void fieldsAreParsedOnce() {
+        CachedPlcFieldHandler cache = new CachedPlcFieldHandler(parser);
+
+        PlcField first = cache.createField("%DB1.DBW0:INT");
+        PlcField second = cache.createField("%DB1.DBW0:INT");
+        PlcField other = cache.createField("%DB1.DBW2:INT");
+
+        assertSame(first, second);
+        assertNotSame(first, other);
+        assertEquals(2, numberOfParsedFields.get());
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.getSize());
+        assertEquals(1.0 / 3, cache.getHitRate(), 0.0001);
+    }
+
+    @Test
+    void invalidFieldsAreNotCached() {
+        CachedPlcFieldHandler cache = new CachedPlcFieldHandler(parser);
+
+        assertThrows(PlcInvalidFieldException.class, () -> cache.createField("invalid"));
+        assertThrows(PlcInvalidFieldException.class, () -> cache.createField("invalid"));
+
+        assertEquals(0, cache.getSize());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    @Test
+    void sizeIsLimited() {
+        CachedPlcFieldHandler cache = new CachedPlcFieldHandler(parser, 10);
+
+        for (int i = 0; i < 100; i++) {
+            cache.createField("field" + i);
+        }
+
+        assertEquals(10, cache.getSize());
+        assertEquals(90, cache.getEvictionCount());
+    }
+
+}
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventLoopGroupProviderTest {
+
+    @Test
+    void sharedGroupIsReferenceCounted() {
+        EventLoopGroupProvider provider = new EventLoopGroupProvider(2, false);
+
+        EventLoopGroup first = provider.acquire();
+        EventLoopGroup second = provider.acquire();
+        assertSame(first, second);
+        assertEquals(2, provider.getNumberOfReferences());
+        assertEquals(2, provider.getNumberOfThreads());
+        assertEquals(2, provider.getPendingTasks().size());
+
+        provider.release(first);
+        assertEquals(1, provider.getNumberOfReferences());
+        assertFalse(first.isShuttingDown());
+
+        provider.release(second);
+        assertEquals(0, provider.getNumberOfReferences());
+        assertEquals(0, provider.getNumberOfThreads());
+        assertTrue(first.isShuttingDown());
+
+        // After the last release a new group has to be created.
+        EventLoopGroup third = provider.acquire();
+        assertNotSame(first, third);
+        provider.release(third);
+    }
+
+    @Test
+    void unmanagedGroupIsShutDownOnRelease() {
+        EventLoopGroupProvider provider = new EventLoopGroupProvider(1, false);
+        EventLoopGroup group = new NioEventLoopGroup(1);
+
+        provider.release(group);
+        assertTrue(group.isShuttingDown());
+        assertEquals(0, provider.getNumberOfReferences());
+    }
+
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.connection;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NettyChannelFactoryTest {
+
+    @Test
+    void sharedGroupIsReleasedIfTheBootstrapFails() {
+        EventLoopGroupProvider provider = new EventLoopGroupProvider(1, false);
+        NettyChannelFactory channelFactory = new NettyChannelFactory(new InetSocketAddress("localhost", 102)) {
+            @Override
+            public Class<? extends Channel> getChannel() {
+                return NioSocketChannel.class;
+            }
+
+            @Override
+            public void configureBootstrap(Bootstrap bootstrap) {
+                throw new IllegalArgumentException("invalid transport configuration");
+            }
+
+            @Override
+            public EventLoopGroup getEventLoopGroup() {
+                return provider.acquire();
+            }
+
+            @Override
+            protected void releaseEventLoopGroup(EventLoopGroup eventLoopGroup) {
+                provider.release(eventLoopGroup);
+            }
+        };
+
+        assertThrows(PlcConnectionException.class,
+            () -> channelFactory.createChannel(new ChannelInboundHandlerAdapter()));
+        assertEquals(0, provider.getNumberOfReferences());
+        assertEquals(0, provider.getNumberOfThreads());
+    }
+
+}
@@ -18,9 +18,12 @@
  */
 package org.apache.plc4x.java.spi.generation;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import org.junit.jupiter.api.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -37,4 +40,72 @@ class ReadBufferTest {
 
         assertEquals(value, answer);
     }
-}
\ No newline at end of file
+
+    @Test
+    void readAlignedAndUnalignedValues() throws Exception {
+        final ReadBuffer buffer = new ReadBuffer(new byte[] {(byte) 0xA5, (byte) 0xF0, 0x12, 0x34, 0x56, 0x78});
+        assertTrue(buffer.readBit());
+        assertEquals(2, buffer.readUnsignedByte(3));
+        assertEquals(5, buffer.readByte(4));
+        assertEquals(-1, buffer.readByte(4));
+        // The partially read byte counts as consumed.
+        assertEquals(2, buffer.getPos());
+        assertEquals(0x012, buffer.readUnsignedInt(12));
+        assertEquals(0x3456, buffer.readUnsignedInt(16));
+        assertEquals(0x78, buffer.readUnsignedShort(8));
+        assertFalse(buffer.hasMore(8));
+        assertThrows(ParseException.class, () -> buffer.readByte(8));
+    }
+
+    @Test
+    void readLittleEndianValues() throws Exception {
+        final ReadBuffer buffer = new ReadBuffer(new byte[] {0x01, 0x02, 0x03, 0x04, 0x05, 0x06}, true);
+        assertEquals(0x0201, buffer.readUnsignedInt(16));
+        assertEquals(0x06050403, buffer.readInt(32));
+    }
+
+    @Test
+    void readFromByteBufWithoutModifyingIt() throws Exception {
+        final ByteBuf byteBuf = Unpooled.directBuffer();
+        byteBuf.writeBytes(new byte[] {(byte) 0xFF, 0x00, 0x00, 0x00, 0x2A, 0x12, 0x34});
+        byteBuf.skipBytes(1);
+        try {
+            final ReadBuffer buffer = new ReadBuffer(byteBuf, false);
+            assertEquals(6, buffer.getTotalBytes());
+            assertEquals(42, buffer.readLong(32));
+            assertEquals(0x12, buffer.peekByte(0));
+            assertArrayEquals(new byte[] {0x12, 0x34}, buffer.getBytes(4, 6));
+            assertEquals(1, byteBuf.readerIndex());
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+    @Test
+    void readArrays() throws Exception {
+        final ReadBuffer buffer = new ReadBuffer(new byte[] {
+            (byte) 0xA0, 0x40, (byte) 0xFF, (byte) 0xFE, 0x00, 0x01, 0x3F, (byte) 0x80, 0x00, 0x00, (byte) 0x80});
+        BitSet bits = buffer.readBitArray(10);
+        assertTrue(bits.get(0));
+        assertTrue(bits.get(2));
+        assertTrue(bits.get(9));
+        assertEquals(3, bits.cardinality());
+        // The remaining 6 bits of the second byte.
+        assertEquals(0, buffer.readUnsignedShort(6));
+        assertArrayEquals(new short[] {-2, 1}, buffer.readShortArray(2));
+        assertArrayEquals(new float[] {1.0f}, buffer.readFloatArray(1));
+        assertThrows(ParseException.class, () -> buffer.readUnsignedIntArray(1));
+        assertArrayEquals(new short[] {0x80}, buffer.readUnsignedShortArray(1));
+    }
+
+    @Test
+    void readUnalignedAndLittleEndianArrays() throws Exception {
+        final ReadBuffer buffer = new ReadBuffer(new byte[] {0x0F, 0x02, 0x01, 0x04, 0x03, 0x00}, true);
+        assertEquals(0, buffer.readUnsignedByte(4));
+        assertArrayEquals(new byte[] {(byte) 0xF0}, buffer.readByteArray(1));
+        assertEquals(2, buffer.readUnsignedByte(4));
+        // Aligned again.
+        assertArrayEquals(new int[] {0x0401, 0x0003}, buffer.readUnsignedIntArray(2));
+    }
+
+}
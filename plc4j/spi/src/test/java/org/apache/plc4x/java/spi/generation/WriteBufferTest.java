@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.generation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteBufferTest {
+
+    @Test
+    void writeAlignedAndUnalignedValues() throws Exception {
+        final WriteBuffer buffer = new WriteBuffer(6);
+        buffer.writeBit(true);
+        buffer.writeUnsignedByte(3, (byte) 2);
+        buffer.writeByte(4, (byte) 5);
+        buffer.writeUnsignedInt(16, 0xF012);
+        buffer.writeUnsignedShort(4, (short) 3);
+        buffer.writeShort(4, (short) -1);
+        buffer.writeUnsignedInt(16, 0x5678);
+        assertEquals(6, buffer.getPos());
+        assertArrayEquals(new byte[] {(byte) 0xA5, (byte) 0xF0, 0x12, 0x3F, 0x56, 0x78}, buffer.getData());
+        assertThrows(ParseException.class, () -> buffer.writeByte(8, (byte) 1));
+    }
+
+    @Test
+    void writeLittleEndianValues() throws Exception {
+        final WriteBuffer buffer = new WriteBuffer(6, true);
+        buffer.writeUnsignedInt(16, 0x0201);
+        buffer.writeInt(32, 0x06050403);
+        assertArrayEquals(new byte[] {0x01, 0x02, 0x03, 0x04, 0x05, 0x06}, buffer.getData());
+    }
+
+    @Test
+    void writeIntoByteBuf() throws Exception {
+        final ByteBuf byteBuf = Unpooled.directBuffer(2);
+        byteBuf.writeByte(0xFF);
+        try {
+            final WriteBuffer buffer = new WriteBuffer(byteBuf, false);
+            buffer.writeLong(64, 42L);
+            buffer.writeString(16, "UTF-8", "hi");
+            assertEquals(10, buffer.getPos());
+            assertEquals(11, byteBuf.readableBytes());
+            assertEquals(42L, byteBuf.getLong(1));
+            assertArrayEquals(new byte[] {'h', 'i'}, buffer.getBytes(8, 10));
+        } finally {
+            byteBuf.release();
+        }
+    }
+
+}
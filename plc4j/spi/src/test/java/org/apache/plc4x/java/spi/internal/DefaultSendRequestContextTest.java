@@ -68,6 +68,16 @@ class DefaultSendRequestContextTest {
         assertThat(SUT.commands.getLast().get(), notNullValue());
     }
 
+    @Test
+    void correlate() {
+        assertThrows(ConversationContext.PlcWiringException.class, () -> SUT.correlate(Object::hashCode, 42));
+        SUT.expectResponse(Object.class, Duration.ZERO);
+        SUT.correlate(Object::hashCode, 42);
+        assertThat(SUT.correlationKeyExtractor, notNullValue());
+        assertThat(SUT.correlationKey, is(42));
+        assertThrows(ConversationContext.PlcWiringException.class, () -> SUT.correlate(Object::hashCode, 43));
+    }
+
     @Test
     void handle() {
         assertThat(SUT.packetConsumer, nullValue());
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.apache.plc4x.java.spi.optimizer;
+
+import org.apache.plc4x.java.api.messages.PlcPreparedRead;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.api.messages.PlcRequest;
+import org.apache.plc4x.java.api.model.PlcField;
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.ConversationContext;
+import org.apache.plc4x.java.spi.Plc4xProtocolBase;
+import org.apache.plc4x.java.spi.context.DriverContext;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadRequest;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.apache.plc4x.java.spi.values.PlcDINT;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseOptimizerTest {
+
+    @Test
+    void failedSubRequestsOnlyAffectTheirOwnFields() throws Exception {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            fields.put("field" + i, new TestField(i));
+        }
+        PlcReadRequest request = new DefaultPlcReadRequest(null, fields);
+
+        PlcReadResponse response = new SingleFieldOptimizer().optimizedRead(request, new TestProtocol())
+            .get(1, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 100; i++) {
+            String fieldName = "field" + i;
+            if (i == 42) {
+                assertEquals(PlcResponseCode.REMOTE_BUSY, response.getResponseCode(fieldName));
+                assertNull(response.getPlcValue(fieldName));
+            } else if (i == 43) {
+                assertEquals(PlcResponseCode.INTERNAL_ERROR, response.getResponseCode(fieldName));
+            } else {
+                assertEquals(PlcResponseCode.OK, response.getResponseCode(fieldName));
+                assertEquals(Integer.valueOf(i), response.getInteger(fieldName));
+            }
+        }
+    }
+
+    @Test
+    void preparedReadsAreOnlySplitWhenTheKeyChanges() throws Exception {
+        LinkedHashMap<String, PlcField> fields = new LinkedHashMap<>();
+        for (int i = 0; i < 10; i++) {
+            fields.put("field" + i, new TestField(i));
+        }
+        PlcReadRequest request = new DefaultPlcReadRequest(null, fields);
+        AtomicInteger splits = new AtomicInteger();
+        AtomicInteger key = new AtomicInteger();
+        BaseOptimizer optimizer = new SingleFieldOptimizer() {
+            @Override
+            protected List<PlcRequest> processReadRequest(PlcReadRequest readRequest, DriverContext driverContext) {
+                splits.incrementAndGet();
+                return super.processReadRequest(readRequest, driverContext);
+            }
+
+            @Override
+            protected Object getPreparedReadKey(DriverContext driverContext) {
+                return key.get();
+            }
+        };
+        TestProtocol protocol = new TestProtocol();
+        PlcPreparedRead preparedRead = optimizer.prepareRead(request, () -> protocol);
+
+        for (int execution = 0; execution < 3; execution++) {
+            PlcReadResponse response = preparedRead.execute().get(1, TimeUnit.SECONDS);
+            assertEquals(Integer.valueOf(7), response.getInteger("field7"));
+        }
+        assertEquals(1, splits.get());
+        assertEquals(10, protocol.preparedReads.get());
+
+        key.incrementAndGet();
+        preparedRead.execute().get(1, TimeUnit.SECONDS);
+        assertEquals(2, splits.get());
+        assertEquals(20, protocol.preparedReads.get());
+    }
+
+    private static class TestField implements PlcField {
+
+        private final int value;
+
+        private TestField(int value) {
+            this.value = value;
+        }
+
+    }
+
+    private static class TestProtocol extends Plc4xProtocolBase<Object> {
+
+        private final AtomicInteger preparedReads = new AtomicInteger();
+
+        @Override
+        public Supplier<CompletableFuture<PlcReadResponse>> prepareRead(PlcReadRequest readRequest) {
+            preparedReads.incrementAndGet();
+            return super.prepareRead(readRequest);
+        }
+
+        @Override
+        public CompletableFuture<PlcReadResponse> read(PlcReadRequest readRequest) {
+            String fieldName = readRequest.getFieldNames().iterator().next();
+            int value = ((TestField) readRequest.getField(fieldName)).value;
+            if (value == 42) {
+                CompletableFuture<PlcReadResponse> future = new CompletableFuture<>();
+                future.completeExceptionally(new TimeoutException());
+                return future;
+            } else if (value == 43) {
+                throw new IllegalStateException("Not connected");
+            }
+            Map<String, ResponseItem<PlcValue>> values =
+                Collections.singletonMap(fieldName, new ResponseItem<>(PlcResponseCode.OK, new PlcDINT(value)));
+            return CompletableFuture.completedFuture(new DefaultPlcReadResponse(readRequest, values));
+        }
+
+        @Override
+        public void close(ConversationContext<Object> context) {
+            // Nothing to do.
+        }
+
+    }
+
+}
@@ -25,10 +25,21 @@ import org.junit.jupiter.api.Test;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RequestTransactionManagerTest {
@@ -124,6 +135,147 @@ public class RequestTransactionManagerTest {
         assertEquals(0, tm.getNumberOfActiveRequests());
     }
 
+    @Test
+    public void queuedRequestsAreCounted() {
+        RequestTransactionManager tm = new RequestTransactionManager(1);
+        RequestTransactionManager.RequestTransaction first = tm.startRequest();
+        first.submit(() -> {});
+        RequestTransactionManager.RequestTransaction second = tm.startRequest();
+        CompletableFuture<Void> secondStarted = new CompletableFuture<>();
+        second.submit(() -> secondStarted.complete(null));
+
+        // The second one has to wait for the first one to finish.
+        assertEquals(1, tm.getNumberOfActiveRequests());
+        assertEquals(1, tm.getQueueDepth());
+        assertFalse(secondStarted.isDone());
+
+        first.endRequest();
+        assertTrue(secondStarted.isDone());
+        assertEquals(1, tm.getNumberOfActiveRequests());
+        assertEquals(0, tm.getQueueDepth());
+        assertEquals(2, tm.getNumberOfStartedRequests());
+
+        second.endRequest();
+        assertEquals(0, tm.getNumberOfActiveRequests());
+        assertThrows(IllegalArgumentException.class, second::endRequest);
+    }
+
+    @Test
+    public void concurrencyLimitIsNeverExceeded() throws InterruptedException {
+        int numberOfRequests = 1000;
+        RequestTransactionManager tm = new RequestTransactionManager(3);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        CountDownLatch finished = new CountDownLatch(numberOfRequests);
+        ExecutorService submitters = Executors.newFixedThreadPool(8);
+        ExecutorService responders = Executors.newFixedThreadPool(8);
+        try {
+            for (int i = 0; i < numberOfRequests; i++) {
+                submitters.execute(() -> {
+                    RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
+                    transaction.submit(() -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        responders.execute(() -> {
+                            inFlight.decrementAndGet();
+                            transaction.endRequest();
+                            finished.countDown();
+                        });
+                    });
+                });
+            }
+            assertTrue(finished.await(30, TimeUnit.SECONDS));
+        } finally {
+            submitters.shutdownNow();
+            responders.shutdownNow();
+        }
+        assertTrue(maxInFlight.get() <= 3);
+        assertEquals(0, tm.getNumberOfActiveRequests());
+        assertEquals(0, tm.getQueueDepth());
+        assertEquals(numberOfRequests, tm.getNumberOfStartedRequests());
+    }
+
+    @Test
+    public void reentrantCompletionStartsQueuedTransactionsInOrder() {
+        RequestTransactionManager tm = new RequestTransactionManager(1);
+        List<String> started = new ArrayList<>();
+        RequestTransactionManager.RequestTransaction first = tm.startRequest();
+        first.submit(() -> started.add("first"));
+        // Both are queued, as the first one is still in flight.
+        RequestTransactionManager.RequestTransaction second = tm.startRequest();
+        second.submit(() -> {
+            started.add("second");
+            // Ending the transaction while it is still running starts the next queued one right away,
+            // which in turn keeps submitting new ones from within its operation.
+            second.endRequest();
+            assertEquals(103, started.size());
+        });
+        RequestTransactionManager.RequestTransaction third = tm.startRequest();
+        third.submit(() -> {
+            started.add("third");
+            third.endRequest();
+            submitChained(tm, 0, 100, started, () -> {});
+        });
+        assertEquals(2, tm.getQueueDepth());
+
+        first.endRequest();
+
+        assertEquals(103, started.size());
+        assertEquals(Arrays.asList("first", "second", "third", "0", "1"), started.subList(0, 5));
+        assertEquals("99", started.get(102));
+        assertEquals(0, tm.getNumberOfActiveRequests());
+        assertEquals(0, tm.getQueueDepth());
+        assertEquals(103, tm.getNumberOfStartedRequests());
+    }
+
+    @Test
+    public void reentrantCompletionOnExecutor() throws InterruptedException {
+        RequestTransactionManager tm = new RequestTransactionManager(1);
+        ExecutorService eventLoop = Executors.newSingleThreadExecutor();
+        try {
+            tm.setExecutor(eventLoop);
+            List<String> started = new CopyOnWriteArrayList<>();
+            List<Thread> threads = new CopyOnWriteArrayList<>();
+            CountDownLatch finished = new CountDownLatch(1);
+            RequestTransactionManager.RequestTransaction first = tm.startRequest();
+            first.submit(() -> {
+                started.add("first");
+                threads.add(Thread.currentThread());
+                first.endRequest();
+                // Submitted from the executor's thread while no transaction is in flight.
+                submitChained(tm, 0, 100, started, () -> {
+                    threads.add(Thread.currentThread());
+                    finished.countDown();
+                });
+            });
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            assertEquals(101, started.size());
+            assertEquals("99", started.get(100));
+            assertEquals(threads.get(0), threads.get(1));
+            assertEquals(0, tm.getNumberOfActiveRequests());
+            assertEquals(0, tm.getQueueDepth());
+        } finally {
+            eventLoop.shutdownNow();
+        }
+    }
+
+    /**
+     * Submits a transaction ending itself and submitting the next one from within its operation.
+     */
+    private void submitChained(RequestTransactionManager tm, int index, int numberOfRequests, List<String> started,
+                               Runnable whenDone) {
+        RequestTransactionManager.RequestTransaction transaction = tm.startRequest();
+        transaction.submit(() -> {
+            started.add(Integer.toString(index));
+            assertEquals(1, tm.getNumberOfActiveRequests());
+            transaction.endRequest();
+            if (index + 1 < numberOfRequests) {
+                submitChained(tm, index + 1, numberOfRequests, started, whenDone);
+            } else {
+                whenDone.run();
+            }
+        });
+    }
+
     @Test
     @Disabled("This test is randomly failing on Jenkins")
     public void abortTransactionFromExternally() throws ExecutionException, InterruptedException {
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.spi.values;
+
+import org.apache.plc4x.java.api.types.PlcResponseCode;
+import org.apache.plc4x.java.api.value.PlcValue;
+import org.apache.plc4x.java.spi.messages.DefaultPlcReadResponse;
+import org.apache.plc4x.java.spi.messages.utils.ResponseItem;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks that the primitive arrays behave exactly like a {@link PlcList} of the same element values.
+ */
+class PlcPrimitiveArrayTest {
+
+    private static Stream<Arguments> arrays() {
+        return Stream.of(
+            Arguments.of(new PlcBOOLArray(new boolean[]{true, false, false, true}),
+                list(new PlcBOOL(true), new PlcBOOL(false), new PlcBOOL(false), new PlcBOOL(true))),
+            Arguments.of(new PlcSINTArray(new byte[]{Byte.MIN_VALUE, 0, Byte.MAX_VALUE}),
+                list(new PlcSINT(Byte.MIN_VALUE), new PlcSINT((byte) 0), new PlcSINT(Byte.MAX_VALUE))),
+            Arguments.of(new PlcUSINTArray(new short[]{0, 42, 255}),
+                list(new PlcUSINT((short) 0), new PlcUSINT((short) 42), new PlcUSINT((short) 255))),
+            Arguments.of(new PlcINTArray(new short[]{Short.MIN_VALUE, -1, Short.MAX_VALUE}),
+                list(new PlcINT(Short.MIN_VALUE), new PlcINT((short) -1), new PlcINT(Short.MAX_VALUE))),
+            Arguments.of(new PlcUINTArray(new int[]{0, 42, 65535}),
+                list(new PlcUINT(0), new PlcUINT(42), new PlcUINT(65535))),
+            Arguments.of(new PlcDINTArray(new int[]{Integer.MIN_VALUE, -1, Integer.MAX_VALUE}),
+                list(new PlcDINT(Integer.MIN_VALUE), new PlcDINT(-1), new PlcDINT(Integer.MAX_VALUE))),
+            Arguments.of(new PlcUDINTArray(new long[]{0, 42, 4294967295L}),
+                list(new PlcUDINT(0L), new PlcUDINT(42L), new PlcUDINT(4294967295L))),
+            Arguments.of(new PlcLINTArray(new long[]{Long.MIN_VALUE, -1, Long.MAX_VALUE}),
+                list(new PlcLINT(Long.MIN_VALUE), new PlcLINT(-1L), new PlcLINT(Long.MAX_VALUE))),
+            Arguments.of(new PlcREALArray(new float[]{-1.5f, 0.0f, 3.25f}),
+                list(new PlcREAL(-1.5f), new PlcREAL(0.0f), new PlcREAL(3.25f))),
+            Arguments.of(new PlcLREALArray(new double[]{-1.5, 0.0, Double.MAX_VALUE}),
+                list(new PlcLREAL(-1.5), new PlcLREAL(0.0), new PlcLREAL(Double.MAX_VALUE)))
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("arrays")
+    void elementsMatchList(PlcPrimitiveArray array, PlcList list) {
+        assertTrue(array.isList());
+        assertEquals(list.getLength(), array.getLength());
+        assertEquals(list.getLength(), array.getList().size());
+        for (int i = 0; i < list.getLength(); i++) {
+            PlcValue expected = list.getIndex(i);
+            assertEquals(expected.getClass(), array.getIndex(i).getClass());
+            assertEquals(expected.getObject(), array.getIndex(i).getObject());
+            assertEquals(expected.getObject(), array.getList().get(i).getObject());
+            // The element accessors must not differ from the ones of the element values.
+            assertEquals(expected.getObject(), array.getObject(i));
+            assertEquals(expected.getString(), array.getString(i));
+        }
+        assertEquals(list.getObject().toString(), array.getObject().toString());
+        assertThrows(IndexOutOfBoundsException.class, () -> array.getIndex(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> array.getIndex(list.getLength()));
+    }
+
+    @ParameterizedTest
+    @MethodSource("arrays")
+    void xmlSerializeLikePlcList(PlcPrimitiveArray array, PlcList list) throws Exception {
+        String expected = toXml(list::xmlSerialize);
+        assertTrue(expected.contains("<PlcList>"), expected);
+        assertEquals(expected, toXml(array::xmlSerialize));
+    }
+
+    @ParameterizedTest
+    @MethodSource("arrays")
+    void readResponseAccessorsMatchList(PlcPrimitiveArray array, PlcList list) {
+        DefaultPlcReadResponse expected = readResponse(list);
+        DefaultPlcReadResponse actual = readResponse(array);
+
+        assertEquals(expected.getNumberOfValues("field"), actual.getNumberOfValues("field"));
+        for (int i = 0; i < list.getLength(); i++) {
+            assertEquals(expected.getObject("field", i), actual.getObject("field", i));
+            assertEquals(expected.getString("field", i), actual.getString("field", i));
+        }
+        List<Function<DefaultPlcReadResponse, Object>> getters = Arrays.asList(
+            response -> response.getAllObjects("field"),
+            response -> response.getAllBooleans("field"),
+            response -> response.getAllBytes("field"),
+            response -> response.getAllShorts("field"),
+            response -> response.getAllIntegers("field"),
+            response -> response.getAllLongs("field"),
+            response -> response.getAllBigIntegers("field"),
+            response -> response.getAllFloats("field"),
+            response -> response.getAllDoubles("field"),
+            response -> response.getAllBigDecimals("field"),
+            response -> response.getAllStrings("field"));
+        for (Function<DefaultPlcReadResponse, Object> getter : getters) {
+            // Conversions not supported by the element type have to fail the same way.
+            assertEquals(resultOf(() -> getter.apply(expected)), resultOf(() -> getter.apply(actual)));
+        }
+    }
+
+    @Test
+    void boolArrayKeepsTrailingFalseBits() {
+        BitSet bits = new BitSet();
+        bits.set(1);
+        PlcBOOLArray array = new PlcBOOLArray(bits, 4);
+        assertEquals(4, array.getLength());
+        assertArrayEquals(new boolean[]{false, true, false, false}, array.getValues());
+        assertFalse(array.getBoolean(3));
+        assertEquals("[false,true,false,false]", array.toString());
+    }
+
+    @Test
+    void concatArraysAndSingleElements() {
+        PlcPrimitiveArray ints = PlcPrimitiveArray.concat(Arrays.asList(
+            new PlcDINTArray(new int[]{1, 2}), new PlcDINTArray(new int[]{3}), new PlcDINT(4)));
+        assertTrue(ints instanceof PlcDINTArray);
+        assertArrayEquals(new int[]{1, 2, 3, 4}, ((PlcDINTArray) ints).getValues());
+
+        PlcPrimitiveArray bools = PlcPrimitiveArray.concat(Arrays.asList(
+            new PlcBOOLArray(new boolean[]{true, false}), new PlcBOOL(false), new PlcBOOLArray(new boolean[]{false, true})));
+        assertTrue(bools instanceof PlcBOOLArray);
+        assertArrayEquals(new boolean[]{true, false, false, false, true}, ((PlcBOOLArray) bools).getValues());
+    }
+
+    @Test
+    void concatOnlyArraysOfOneType() {
+        assertNull(PlcPrimitiveArray.concat(Arrays.asList(
+            new PlcDINTArray(new int[]{1}), new PlcUDINTArray(new long[]{2}))));
+        assertNull(PlcPrimitiveArray.concat(Arrays.asList(new PlcDINTArray(new int[]{1}), list(new PlcDINT(2)))));
+        assertNull(PlcPrimitiveArray.concat(Arrays.asList(new PlcDINT(1), new PlcDINT(2))));
+    }
+
+    private static PlcList list(PlcValue... values) {
+        return new PlcList(Arrays.asList(values));
+    }
+
+    private static DefaultPlcReadResponse readResponse(PlcValue value) {
+        // The request is only needed for the field names, which aren't used here.
+        return new DefaultPlcReadResponse(null,
+            Collections.singletonMap("field", new ResponseItem<>(PlcResponseCode.OK, value)));
+    }
+
+    /**
+     * @return the result (as list) of the given supplier or the class of the exception it threw.
+     */
+    private static Object resultOf(Supplier<Object> supplier) {
+        try {
+            Object result = supplier.get();
+            return (result instanceof Iterable) ? toList((Iterable<?>) result) : result;
+        } catch (RuntimeException e) {
+            return e.getClass();
+        }
+    }
+
+    private static List<Object> toList(Iterable<?> iterable) {
+        List<Object> list = new ArrayList<>();
+        iterable.forEach(list::add);
+        return list;
+    }
+
+    private static String toXml(Consumer<Element> serializer) throws Exception {
+        Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+        Element root = doc.createElement("root");
+        doc.appendChild(root);
+        serializer.accept(root);
+        StringWriter writer = new StringWriter();
+        TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(writer));
+        return writer.toString();
+    }
+
+}
@@ -17,6 +17,7 @@
 
 package org.apache.plc4x.java.utils.connectionpool;
 
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.apache.commons.pool2.KeyedObjectPool;
 import org.apache.commons.pool2.impl.GenericKeyedObjectPool;
@@ -32,14 +33,45 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Proxy;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
-public class PooledPlcDriverManager extends PlcDriverManager {
+public class PooledPlcDriverManager extends PlcDriverManager implements AutoCloseable {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(PooledPlcDriverManager.class);
 
+    static final long SHARED_HEALTH_CHECK_INTERVAL_MS = 1_000;
+    static final long SHARED_IDLE_TIMEOUT_MS = 60_000;
+
+    /**
+     * How connections are lent out.
+     */
+    public enum PoolingMode {
+        /**
+         * Every borrower gets a connection of its own, taken from a pool of connections per key.
+         */
+        EXCLUSIVE,
+        /**
+         * All borrowers of a key share one connection, which is reconnected in the background if it breaks.
+         * Only suitable for drivers with asynchronous connections, which can handle concurrent requests.
+         */
+        SHARED
+    }
+
     private KeyedObjectPool<PoolKey, PlcConnection> keyedObjectPool;
 
+    private final PoolingMode poolingMode;
+
+    // Only used in shared mode.
+    private final ConcurrentMap<PoolKey, SharedPlcConnection> sharedConnections = new ConcurrentHashMap<>();
+    private ScheduledExecutorService sharedConnectionScheduler;
+    private ExecutorService sharedConnectionConnectExecutor;
+
     // Marker class do detected a non null value
     static final NoPlcAuthentication noPlcAuthentication = new NoPlcAuthentication();
 
@@ -53,6 +85,19 @@ public class PooledPlcDriverManager extends PlcDriverManager {
         this(GenericKeyedObjectPool::new, poolKeyFactory);
     }
 
+    public PooledPlcDriverManager(PoolingMode poolingMode) {
+        this(poolingMode, new PoolKeyFactory());
+    }
+
+    public PooledPlcDriverManager(PoolingMode poolingMode, PoolKeyFactory poolKeyFactory) {
+        setFromPoolCreator(GenericKeyedObjectPool::new);
+        this.poolKeyFactory = poolKeyFactory;
+        this.poolingMode = poolingMode;
+        if (poolingMode == PoolingMode.SHARED) {
+            startSharedConnectionScheduler();
+        }
+    }
+
     public PooledPlcDriverManager(ClassLoader classLoader) {
         this(classLoader, new PoolKeyFactory());
     }
@@ -61,6 +106,7 @@ public class PooledPlcDriverManager extends PlcDriverManager {
         super(classLoader);
         setFromPoolCreator(GenericKeyedObjectPool::new);
         this.poolKeyFactory = poolKeyFactory;
+        this.poolingMode = PoolingMode.EXCLUSIVE;
     }
 
     public PooledPlcDriverManager(PoolCreator poolCreator) {
@@ -70,31 +116,62 @@ public class PooledPlcDriverManager extends PlcDriverManager {
     public PooledPlcDriverManager(PoolCreator poolCreator, PoolKeyFactory poolKeyFactory) {
         setFromPoolCreator(poolCreator);
         this.poolKeyFactory = poolKeyFactory;
+        this.poolingMode = PoolingMode.EXCLUSIVE;
     }
 
     public PooledPlcDriverManager(ClassLoader classLoader, PoolCreator poolCreator) {
         super(classLoader);
         setFromPoolCreator(poolCreator);
         poolKeyFactory = new PoolKeyFactory();
+        poolingMode = PoolingMode.EXCLUSIVE;
     }
 
     private void setFromPoolCreator(PoolCreator poolCreator) {
         this.keyedObjectPool = poolCreator.createPool(new PooledPlcConnectionFactory() {
             @Override
             public PlcConnection create(PoolKey key) throws Exception {
-                PlcAuthentication plcAuthentication = key.plcAuthentication;
-                String url = key.url;
-                if (plcAuthentication == noPlcAuthentication) {
-                    LOGGER.debug("getting actual connection for {}", url);
-                    return PooledPlcDriverManager.super.getConnection(url);
-                } else {
-                    LOGGER.debug("getting actual connection for {} and plcAuthentication {}", url, plcAuthentication);
-                    return PooledPlcDriverManager.super.getConnection(url, plcAuthentication);
-                }
+                return createConnection(key);
             }
         });
     }
 
+    private void startSharedConnectionScheduler() {
+        sharedConnectionScheduler = Executors.newSingleThreadScheduledExecutor(
+            new BasicThreadFactory.Builder()
+                .namingPattern("plc4x-shared-connection-thread-%d")
+                .daemon(true)
+                .build()
+        );
+        // Connecting blocks, so it is kept off the scheduler.
+        sharedConnectionConnectExecutor = Executors.newCachedThreadPool(
+            new BasicThreadFactory.Builder()
+                .namingPattern("plc4x-shared-connect-thread-%d")
+                .daemon(true)
+                .build()
+        );
+        sharedConnectionScheduler.scheduleWithFixedDelay(() -> {
+            for (SharedPlcConnection sharedConnection : sharedConnections.values()) {
+                try {
+                    sharedConnection.checkHealth();
+                } catch (RuntimeException e) {
+                    LOGGER.warn("Error checking shared connection {}", sharedConnection.getPoolKey(), e);
+                }
+            }
+        }, SHARED_HEALTH_CHECK_INTERVAL_MS, SHARED_HEALTH_CHECK_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    private PlcConnection createConnection(PoolKey key) throws PlcConnectionException {
+        PlcAuthentication plcAuthentication = key.plcAuthentication;
+        String url = key.url;
+        if (plcAuthentication == noPlcAuthentication) {
+            LOGGER.debug("getting actual connection for {}", url);
+            return super.getConnection(url);
+        } else {
+            LOGGER.debug("getting actual connection for {} and plcAuthentication {}", url, plcAuthentication);
+            return super.getConnection(url, plcAuthentication);
+        }
+    }
+
     @Override
     public PlcConnection getConnection(String url) throws PlcConnectionException {
         return getConnection(url, noPlcAuthentication);
@@ -110,6 +187,9 @@ public class PooledPlcDriverManager extends PlcDriverManager {
                 LOGGER.debug("Try to borrow an object for url {}", url);
             }
         }
+        if (poolingMode == PoolingMode.SHARED) {
+            return getSharedConnection(poolKey);
+        }
         PlcConnection plcConnection;
         try {
             plcConnection = keyedObjectPool.borrowObject(poolKey);
@@ -145,6 +225,47 @@ public class PooledPlcDriverManager extends PlcDriverManager {
         });
     }
 
+    private PlcConnection getSharedConnection(PoolKey poolKey) throws PlcConnectionException {
+        while (true) {
+            SharedPlcConnection sharedConnection = sharedConnections.computeIfAbsent(poolKey,
+                key -> new SharedPlcConnection(key, this::createConnection, sharedConnectionScheduler,
+                    sharedConnectionConnectExecutor, SHARED_IDLE_TIMEOUT_MS, closed -> sharedConnections.remove(closed.getPoolKey(), closed)));
+            // A connection closed in the meantime is replaced by a new one.
+            if (!sharedConnection.retain()) {
+                sharedConnections.remove(poolKey, sharedConnection);
+                continue;
+            }
+            try {
+                sharedConnection.getConnection(true);
+            } catch (PlcConnectionException | RuntimeException e) {
+                sharedConnection.release();
+                throw e;
+            }
+            return new SharedPlcConnectionHandle(sharedConnection);
+        }
+    }
+
+    /**
+     * Closes all pooled connections and stops the background threads of the shared mode.
+     * Connections still borrowed are closed as well.
+     */
+    @Override
+    public void close() {
+        if (poolingMode == PoolingMode.SHARED) {
+            sharedConnectionScheduler.shutdownNow();
+            sharedConnectionConnectExecutor.shutdownNow();
+            for (SharedPlcConnection sharedConnection : sharedConnections.values()) {
+                sharedConnection.close();
+            }
+            return;
+        }
+        try {
+            keyedObjectPool.close();
+        } catch (Exception e) {
+            LOGGER.warn("Error closing the connection pool", e);
+        }
+    }
+
     @FunctionalInterface
     public interface PoolCreator {
         KeyedObjectPool<PoolKey, PlcConnection> createPool(PooledPlcConnectionFactory pooledPlcConnectionFactory);
@@ -152,6 +273,9 @@ public class PooledPlcDriverManager extends PlcDriverManager {
 
     // TODO: maybe export to jmx // generic poolKey has builtin jmx too
     public Map<String, Number> getStatistics() {
+        if (poolingMode == PoolingMode.SHARED) {
+            return getSharedStatistics();
+        }
         HashMap<String, Number> statistics = new HashMap<>();
         statistics.put("numActive", keyedObjectPool.getNumActive());
         statistics.put("numIdle", keyedObjectPool.getNumIdle());
@@ -173,6 +297,29 @@ public class PooledPlcDriverManager extends PlcDriverManager {
         return statistics;
     }
 
+    private Map<String, Number> getSharedStatistics() {
+        HashMap<String, Number> statistics = new HashMap<>();
+        int numActive = 0;
+        int numIdle = 0;
+        for (SharedPlcConnection sharedConnection : sharedConnections.values()) {
+            String key = sharedConnection.getPoolKey().toString();
+            int refCount = sharedConnection.getRefCount();
+            if (refCount > 0) {
+                numActive += refCount;
+            } else {
+                numIdle++;
+            }
+            statistics.put(key + ".numActive", refCount);
+            statistics.put(key + ".healthy", sharedConnection.isHealthy() ? 1 : 0);
+            statistics.put(key + ".connects", sharedConnection.getConnects());
+            statistics.put(key + ".failures", sharedConnection.getFailures());
+        }
+        statistics.put("pools.count", sharedConnections.size());
+        statistics.put("numActive", numActive);
+        statistics.put("numIdle", numIdle);
+        return statistics;
+    }
+
     private static final class NoPlcAuthentication implements PlcAuthentication {
 
     }
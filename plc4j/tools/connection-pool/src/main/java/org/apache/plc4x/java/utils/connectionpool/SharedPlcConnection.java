@@ -0,0 +1,338 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Physical connection shared by all borrowers of one {@link PoolKey}.
+ * Borrowers are counted, the connection is closed once it wasn't borrowed for the idle timeout.
+ * If the connection breaks, it is reconnected in the background as long as it is borrowed.
+ * Subscriptions and requests built on the broken connection are not carried over to the new one.
+ * Connecting is done outside of the monitor, only one connect is in flight at any time.
+ */
+final class SharedPlcConnection {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedPlcConnection.class);
+
+    static final long INITIAL_RECONNECT_DELAY_MS = 500;
+    static final long MAX_RECONNECT_DELAY_MS = 30_000;
+
+    @FunctionalInterface
+    interface ConnectionFactory {
+        PlcConnection create(PoolKey poolKey) throws PlcConnectionException;
+    }
+
+    private final PoolKey poolKey;
+    private final ConnectionFactory connectionFactory;
+    private final ScheduledExecutorService scheduler;
+    private final Executor connectExecutor;
+    private final long idleTimeoutMs;
+    private final Consumer<SharedPlcConnection> onClose;
+
+    // All state is guarded by this.
+    private PlcConnection connection;
+    // The connect in flight, if any.
+    private CompletableFuture<PlcConnection> connecting;
+    private int refCount;
+    private boolean closed;
+    private long reconnectDelayMs = INITIAL_RECONNECT_DELAY_MS;
+    private ScheduledFuture<?> reconnectFuture;
+    private ScheduledFuture<?> idleCloseFuture;
+    private long connects;
+    private long failures;
+
+    SharedPlcConnection(PoolKey poolKey, ConnectionFactory connectionFactory, ScheduledExecutorService scheduler,
+                        Executor connectExecutor, long idleTimeoutMs, Consumer<SharedPlcConnection> onClose) {
+        this.poolKey = poolKey;
+        this.connectionFactory = connectionFactory;
+        this.scheduler = scheduler;
+        this.connectExecutor = connectExecutor;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.onClose = onClose;
+    }
+
+    PoolKey getPoolKey() {
+        return poolKey;
+    }
+
+    /**
+     * Registers a new borrower.
+     *
+     * @return false, if this connection was already closed and a new one has to be used.
+     */
+    synchronized boolean retain() {
+        if (closed) {
+            return false;
+        }
+        refCount++;
+        if (idleCloseFuture != null) {
+            idleCloseFuture.cancel(false);
+            idleCloseFuture = null;
+        }
+        return true;
+    }
+
+    /**
+     * Deregisters a borrower, the connection is closed if it is not borrowed again within the idle timeout.
+     */
+    synchronized void release() {
+        refCount--;
+        if ((refCount == 0) && !closed) {
+            idleCloseFuture = scheduler.schedule(this::closeIfIdle, idleTimeoutMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Returns the connected physical connection, connecting it if necessary.
+     * Fails fast while waiting for the backoff of a scheduled reconnect.
+     *
+     * @param waitForConnect if false, a connect already in flight is not waited for either.
+     * @return the connected physical connection.
+     */
+    PlcConnection getConnection(boolean waitForConnect) throws PlcConnectionException {
+        CompletableFuture<PlcConnection> future;
+        boolean connect = false;
+        synchronized (this) {
+            if (closed) {
+                throw new PlcConnectionException("Shared connection " + poolKey + " is closed");
+            }
+            if (connection != null) {
+                if (connection.isConnected()) {
+                    return connection;
+                }
+                failed("connection lost");
+            }
+            if ((reconnectFuture != null) || ((connecting != null) && !waitForConnect)) {
+                throw new PlcConnectionException("Shared connection " + poolKey + " is reconnecting");
+            }
+            if (connecting == null) {
+                connecting = new CompletableFuture<>();
+                connect = true;
+            }
+            future = connecting;
+        }
+        if (connect) {
+            connect(future);
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PlcConnectionException("Interrupted while connecting " + poolKey, e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof PlcConnectionException) {
+                throw (PlcConnectionException) e.getCause();
+            }
+            throw new PlcConnectionException("Error connecting " + poolKey, e.getCause());
+        }
+    }
+
+    /**
+     * @return the physical connection without connecting it, null if there currently is none.
+     */
+    synchronized PlcConnection getConnectionIfPresent() {
+        return connection;
+    }
+
+    synchronized boolean isConnected() {
+        if (connection == null) {
+            return false;
+        }
+        if (!connection.isConnected()) {
+            failed("connection lost");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Called regularly to detect broken connections, which are then reconnected in the background.
+     */
+    synchronized void checkHealth() {
+        if ((connection != null) && !connection.isConnected()) {
+            failed("connection lost");
+        }
+    }
+
+    /**
+     * Discards the physical connection and schedules reconnecting it.
+     */
+    synchronized void failed(Object reason) {
+        failures++;
+        LOGGER.debug("Shared connection {} failed: {}", poolKey, reason);
+        if (connection != null) {
+            closeQuietly(connection);
+            connection = null;
+        }
+        scheduleReconnect();
+    }
+
+    synchronized int getRefCount() {
+        return refCount;
+    }
+
+    synchronized boolean isHealthy() {
+        return (connection != null) && connection.isConnected();
+    }
+
+    synchronized long getConnects() {
+        return connects;
+    }
+
+    synchronized long getFailures() {
+        return failures;
+    }
+
+    /**
+     * Closes the connection no matter if it is still borrowed.
+     */
+    void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closeNow();
+        }
+        onClose.accept(this);
+    }
+
+    /**
+     * Creates the physical connection and completes the future of the connect in flight with it.
+     * Must not be called while holding the monitor.
+     */
+    private void connect(CompletableFuture<PlcConnection> future) {
+        PlcConnection newConnection;
+        try {
+            newConnection = connectionFactory.create(poolKey);
+        } catch (PlcConnectionException | RuntimeException e) {
+            synchronized (this) {
+                connecting = null;
+                failures++;
+                scheduleReconnect();
+            }
+            future.completeExceptionally(e);
+            return;
+        }
+        boolean discard;
+        synchronized (this) {
+            connecting = null;
+            discard = closed;
+            if (!closed) {
+                connection = newConnection;
+                connects++;
+                reconnectDelayMs = INITIAL_RECONNECT_DELAY_MS;
+                if (reconnectFuture != null) {
+                    reconnectFuture.cancel(false);
+                    reconnectFuture = null;
+                }
+            }
+        }
+        if (discard) {
+            closeQuietly(newConnection);
+            future.completeExceptionally(new PlcConnectionException("Shared connection " + poolKey + " is closed"));
+            return;
+        }
+        future.complete(newConnection);
+    }
+
+    private void scheduleReconnect() {
+        if (closed || (reconnectFuture != null) || (refCount == 0)) {
+            // Connections which aren't borrowed are connected again with the next borrower.
+            return;
+        }
+        LOGGER.debug("Reconnecting shared connection {} in {}ms", poolKey, reconnectDelayMs);
+        // The scheduler only triggers the reconnect, connecting may block and is done by the connect executor.
+        reconnectFuture = scheduler.schedule(() -> {
+            try {
+                connectExecutor.execute(this::reconnect);
+            } catch (RejectedExecutionException e) {
+                LOGGER.debug("Not reconnecting shared connection {} anymore", poolKey);
+            }
+        }, reconnectDelayMs, TimeUnit.MILLISECONDS);
+        reconnectDelayMs = Math.min(reconnectDelayMs * 2, MAX_RECONNECT_DELAY_MS);
+    }
+
+    private void reconnect() {
+        CompletableFuture<PlcConnection> future;
+        synchronized (this) {
+            reconnectFuture = null;
+            if (closed || (connection != null) || (connecting != null)) {
+                return;
+            }
+            future = new CompletableFuture<>();
+            connecting = future;
+        }
+        connect(future);
+        if (future.isCompletedExceptionally()) {
+            LOGGER.debug("Reconnecting shared connection {} failed", poolKey);
+        } else {
+            LOGGER.info("Reconnected shared connection {}", poolKey);
+        }
+    }
+
+    private void closeIfIdle() {
+        synchronized (this) {
+            idleCloseFuture = null;
+            if ((refCount > 0) || closed) {
+                return;
+            }
+            LOGGER.debug("Closing idle shared connection {}", poolKey);
+            closeNow();
+        }
+        onClose.accept(this);
+    }
+
+    private void closeNow() {
+        closed = true;
+        if (reconnectFuture != null) {
+            reconnectFuture.cancel(false);
+            reconnectFuture = null;
+        }
+        if (idleCloseFuture != null) {
+            idleCloseFuture.cancel(false);
+            idleCloseFuture = null;
+        }
+        if (connection != null) {
+            closeQuietly(connection);
+            connection = null;
+        }
+    }
+
+    private void closeQuietly(PlcConnection plcConnection) {
+        try {
+            plcConnection.close();
+        } catch (Exception e) {
+            LOGGER.debug("Error closing shared connection {}", poolKey, e);
+        }
+    }
+
+}
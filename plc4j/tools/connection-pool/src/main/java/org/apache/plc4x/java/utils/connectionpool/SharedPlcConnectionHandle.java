@@ -0,0 +1,134 @@
+/*
+ Licensed to the Apache Software Foundation (ASF) under one
+ or more contributor license agreements.  See the NOTICE file
+ distributed with this work for additional information
+ regarding copyright ownership.  The ASF licenses this file
+ to you under the Apache License, Version 2.0 (the
+ "License"); you may not use this file except in compliance
+ with the License.  You may obtain a copy of the License at
+
+   http://www.apache.org/licenses/LICENSE-2.0
+
+ Unless required by applicable law or agreed to in writing,
+ software distributed under the License is distributed on an
+ "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ KIND, either express or implied.  See the License for the
+ specific language governing permissions and limitations
+ under the License.
+ */
+package org.apache.plc4x.java.utils.connectionpool;
+
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcInvalidFieldException;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
+import org.apache.plc4x.java.api.messages.PlcPreparedRead;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcUnsubscriptionRequest;
+import org.apache.plc4x.java.api.messages.PlcWriteRequest;
+import org.apache.plc4x.java.api.metadata.PlcConnectionMetadata;
+import org.apache.plc4x.java.api.model.PlcField;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Connection lent to one borrower of a {@link SharedPlcConnection}.
+ * All calls are delegated to the current physical connection, closing the handle only returns it.
+ */
+final class SharedPlcConnectionHandle implements PlcConnection {
+
+    private final SharedPlcConnection sharedConnection;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
+
+    SharedPlcConnectionHandle(SharedPlcConnection sharedConnection) {
+        this.sharedConnection = sharedConnection;
+    }
+
+    private PlcConnection delegate() {
+        if (closed.get()) {
+            throw new IllegalStateException("Connection not valid anymore");
+        }
+        try {
+            // Don't block the borrower while the connection is being reconnected.
+            return sharedConnection.getConnection(false);
+        } catch (PlcConnectionException e) {
+            throw new PlcRuntimeException("Shared connection " + sharedConnection.getPoolKey() + " not available", e);
+        }
+    }
+
+    @Override
+    public void connect() throws PlcConnectionException {
+        if (closed.get()) {
+            throw new IllegalStateException("Connection not valid anymore");
+        }
+        sharedConnection.getConnection(true);
+    }
+
+    @Override
+    public boolean isConnected() {
+        if (closed.get()) {
+            throw new IllegalStateException("Connection not valid anymore");
+        }
+        return sharedConnection.isConnected();
+    }
+
+    @Override
+    public void close() {
+        if (!closed.compareAndSet(false, true)) {
+            throw new IllegalStateException("Connection not valid anymore");
+        }
+        sharedConnection.release();
+    }
+
+    @Override
+    @Deprecated
+    public PlcField prepareField(String fieldQuery) throws PlcInvalidFieldException {
+        return delegate().prepareField(fieldQuery);
+    }
+
+    @Override
+    public PlcConnectionMetadata getMetadata() {
+        return delegate().getMetadata();
+    }
+
+    @Override
+    public CompletableFuture<Void> ping() {
+        return delegate().ping();
+    }
+
+    @Override
+    public PlcReadRequest.Builder readRequestBuilder() {
+        return delegate().readRequestBuilder();
+    }
+
+    @Override
+    public PlcPreparedRead prepareRead(PlcReadRequest readRequest) {
+        return delegate().prepareRead(readRequest);
+    }
+
+    @Override
+    public PlcWriteRequest.Builder writeRequestBuilder() {
+        return delegate().writeRequestBuilder();
+    }
+
+    @Override
+    public PlcSubscriptionRequest.Builder subscriptionRequestBuilder() {
+        return delegate().subscriptionRequestBuilder();
+    }
+
+    @Override
+    public PlcUnsubscriptionRequest.Builder unsubscriptionRequestBuilder() {
+        return delegate().unsubscriptionRequestBuilder();
+    }
+
+    @Override
+    public String toString() {
+        return "SharedPlcConnectionHandle{" +
+            "poolKey=" + sharedConnection.getPoolKey() +
+            ", connection=" + sharedConnection.getConnectionIfPresent() +
+            ", closed=" + closed.get() +
+            '}';
+    }
+}
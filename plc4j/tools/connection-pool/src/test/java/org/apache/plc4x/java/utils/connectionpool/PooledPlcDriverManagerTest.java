@@ -24,6 +24,7 @@ import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.authentication.PlcAuthentication;
 import org.apache.plc4x.java.api.authentication.PlcUsernamePasswordAuthentication;
 import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.exceptions.PlcUnsupportedOperationException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcSubscriptionRequest;
@@ -71,6 +72,8 @@ class PooledPlcDriverManagerTest implements WithAssertions {
 
     private ExecutorService executorService;
 
+    private PooledPlcDriverManager sharedSUT;
+
     @SuppressWarnings("unchecked")
     @BeforeEach
     void setUp() throws Exception {
@@ -88,6 +91,9 @@ class PooledPlcDriverManagerTest implements WithAssertions {
     @AfterEach
     void tearDown() {
         executorService.shutdown();
+        if (sharedSUT != null) {
+            sharedSUT.close();
+        }
     }
 
     @Test
@@ -267,6 +273,162 @@ class PooledPlcDriverManagerTest implements WithAssertions {
         );
     }
 
+    @Test
+    void sharedConnection() throws Exception {
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> new DummyPlcConnection(invocationOnMock.getArgument(0)));
+        createSharedSUT();
+
+        LinkedList<Callable<PlcConnection>> callables = new LinkedList<>();
+        // This: should result in one open connection, shared by all borrowers
+        IntStream.range(0, 20).forEach(i -> callables.add(() -> {
+            try {
+                return sharedSUT.getConnection("dummydummy:single/socket1/socket2?fancyOption=true");
+            } catch (PlcConnectionException e) {
+                throw new RuntimeException(e);
+            }
+        }));
+        List<Future<PlcConnection>> futures = executorService.invokeAll(callables);
+        List<PlcConnection> connections = new LinkedList<>();
+        for (Future<PlcConnection> future : futures) {
+            connections.add(future.get());
+        }
+
+        verify(plcDriver, times(1)).getConnection(anyString());
+        assertThat(sharedSUT.getStatistics()).contains(
+            entry("pools.count", 1),
+            entry("numActive", 20),
+            entry("PoolKey{url='dummydummy:single/socket1/socket2?fancyOption=true'}.numActive", 20),
+            entry("PoolKey{url='dummydummy:single/socket1/socket2?fancyOption=true'}.healthy", 1)
+        );
+
+        for (PlcConnection connection : connections) {
+            assertThat(connection.isConnected()).isEqualTo(true);
+            connection.close();
+        }
+        // The connection is kept for the next borrower
+        assertThat(sharedSUT.getStatistics()).contains(
+            entry("pools.count", 1),
+            entry("numActive", 0),
+            entry("numIdle", 1)
+        );
+
+        PlcConnection connection = connections.get(0);
+        assertThatThrownBy(connection::isConnected).isInstanceOf(IllegalStateException.class).hasMessage("Connection not valid anymore");
+        assertThatThrownBy(connection::close).isInstanceOf(IllegalStateException.class).hasMessage("Connection not valid anymore");
+        assertThatThrownBy(connection::readRequestBuilder).isInstanceOf(IllegalStateException.class).hasMessage("Connection not valid anymore");
+    }
+
+    @Test
+    void sharedConnectionReconnects() throws Exception {
+        List<DummyPlcConnection> physicalConnections = new CopyOnWriteArrayList<>();
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> {
+            DummyPlcConnection dummyPlcConnection = new DummyPlcConnection(invocationOnMock.getArgument(0));
+            physicalConnections.add(dummyPlcConnection);
+            return dummyPlcConnection;
+        });
+        createSharedSUT();
+
+        PlcConnection connection = sharedSUT.getConnection("dummydummy:breakIt");
+        assertThat(physicalConnections).hasSize(1);
+
+        // The connection breaks, it should be replaced in the background
+        physicalConnections.get(0).connected = false;
+        long deadline = System.currentTimeMillis() + 10_000;
+        while ((physicalConnections.size() < 2) && (System.currentTimeMillis() < deadline)) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertThat(physicalConnections).hasSize(2);
+        assertThat(connection.isConnected()).isEqualTo(true);
+        assertThat(sharedSUT.getStatistics()).contains(
+            entry("PoolKey{url='dummydummy:breakIt'}.connects", 2L),
+            entry("PoolKey{url='dummydummy:breakIt'}.failures", 1L)
+        );
+        connection.close();
+    }
+
+    @Test
+    void sharedConnectionFailsFastWhileReconnecting() throws Exception {
+        List<DummyPlcConnection> physicalConnections = new CopyOnWriteArrayList<>();
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> {
+            DummyPlcConnection dummyPlcConnection = new DummyPlcConnection(invocationOnMock.getArgument(0));
+            physicalConnections.add(dummyPlcConnection);
+            return dummyPlcConnection;
+        });
+        createSharedSUT();
+
+        PlcConnection connection = sharedSUT.getConnection("dummydummy:breakIt");
+        physicalConnections.get(0).connected = false;
+
+        // The reconnect is delayed by the backoff, using the connection in the meantime fails right away.
+        assertThatThrownBy(connection::readRequestBuilder)
+            .isInstanceOf(PlcRuntimeException.class)
+            .hasCauseInstanceOf(PlcConnectionException.class);
+        assertThatThrownBy(() -> sharedSUT.getConnection("dummydummy:breakIt"))
+            .isInstanceOf(PlcConnectionException.class);
+        assertThat(physicalConnections).hasSize(1);
+
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!connection.isConnected() && (System.currentTimeMillis() < deadline)) {
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        assertThat(connection.isConnected()).isEqualTo(true);
+        assertThat(physicalConnections).hasSize(2);
+        connection.close();
+    }
+
+    @Test
+    void sharedConnectionConnectsOutsideOfLock() throws Exception {
+        CountDownLatch connectStarted = new CountDownLatch(1);
+        CountDownLatch connectReleased = new CountDownLatch(1);
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> {
+            connectStarted.countDown();
+            connectReleased.await();
+            return new DummyPlcConnection(invocationOnMock.getArgument(0));
+        });
+        createSharedSUT();
+
+        Future<PlcConnection> first = executorService.submit(() -> sharedSUT.getConnection("dummydummy:slow"));
+        assertThat(connectStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<PlcConnection> second = executorService.submit(() -> sharedSUT.getConnection("dummydummy:slow"));
+
+        // The pending connect neither blocks other callers of the shared connection ...
+        Future<Map<String, Number>> statistics = executorService.submit(sharedSUT::getStatistics);
+        assertThat(statistics.get(5, TimeUnit.SECONDS)).contains(
+            entry("PoolKey{url='dummydummy:slow'}.healthy", 0)
+        );
+
+        // ... nor is it done twice.
+        connectReleased.countDown();
+        PlcConnection firstConnection = first.get(5, TimeUnit.SECONDS);
+        PlcConnection secondConnection = second.get(5, TimeUnit.SECONDS);
+        verify(plcDriver, times(1)).getConnection(anyString());
+        assertThat(firstConnection.isConnected()).isEqualTo(true);
+        assertThat(secondConnection.isConnected()).isEqualTo(true);
+        firstConnection.close();
+        secondConnection.close();
+    }
+
+    @Test
+    void closeSharedConnections() throws Exception {
+        when(plcDriver.getConnection(anyString())).then(invocationOnMock -> new DummyPlcConnection(invocationOnMock.getArgument(0)));
+        createSharedSUT();
+
+        PlcConnection connection = sharedSUT.getConnection("dummydummy:closeIt");
+        sharedSUT.close();
+
+        assertThat(connection.isConnected()).isEqualTo(false);
+        assertThat(sharedSUT.getStatistics()).contains(
+            entry("pools.count", 0)
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private void createSharedSUT() throws Exception {
+        sharedSUT = new PooledPlcDriverManager(PooledPlcDriverManager.PoolingMode.SHARED);
+        Map<String, PlcDriver> driverMap = (Map) FieldUtils.getField(PooledPlcDriverManager.class, "driverMap", true).get(sharedSUT);
+        driverMap.put("dummydummy", plcDriver);
+    }
+
     @Test
     public void testOtherConstructors() {
         assertThat(new PooledPlcDriverManager()).isNotNull();
@@ -274,6 +436,9 @@ class PooledPlcDriverManagerTest implements WithAssertions {
         assertThat(new PooledPlcDriverManager(PooledPlcDriverManager.class.getClassLoader())).isNotNull();
         assertThat(new PooledPlcDriverManager(
             PooledPlcDriverManager.class.getClassLoader(), new PoolKeyFactory())).isNotNull();
+        try (PooledPlcDriverManager sharedDriverManager = new PooledPlcDriverManager(PooledPlcDriverManager.PoolingMode.SHARED)) {
+            assertThat(sharedDriverManager).isNotNull();
+        }
     }
 
     class DummyPlcConnection implements PlcConnection, PlcConnectionMetadata {
@@ -282,7 +447,7 @@ class PooledPlcDriverManagerTest implements WithAssertions {
 
         private final PlcAuthentication plcAuthentication;
 
-        boolean connected = false;
+        volatile boolean connected = false;
 
         public DummyPlcConnection(String url) {
             this(url, null);
@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper;
+
+/**
+ * Callback interface to handle the results of a scraper in batches.
+ * Results are collected by a buffer and handed over together, either when the configured batch size is reached
+ * or when the flush interval elapsed.
+ */
+@FunctionalInterface
+public interface BatchResultHandler {
+
+    /**
+     * Callback handler.
+     * @param results results collected since the last call, oldest first
+     */
+    void handle(ScrapeResult[] results);
+
+    /**
+     * Adapts a {@link ResultHandler} to the batch interface by calling it for every single result.
+     * @param resultHandler handler to call for every result
+     * @return batch handler delegating to the given handler
+     */
+    static BatchResultHandler of(ResultHandler resultHandler) {
+        return results -> {
+            for (ScrapeResult result : results) {
+                resultHandler.handle(result.getJobName(), result.getConnectionAlias(), result.getResults());
+            }
+        };
+    }
+
+}
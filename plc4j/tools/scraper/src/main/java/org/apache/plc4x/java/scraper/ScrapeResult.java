@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper;
+
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.apache.plc4x.java.scraper.triggeredscraper.TriggeredScraperImpl;
+
+import java.util.Map;
+
+/**
+ * Result of one run of a {@link ScraperTask} as handed to a {@link BatchResultHandler}.
+ * The response is only converted to a map if {@link #getResults()} is called.
+ */
+public class ScrapeResult {
+
+    private final String jobName;
+    private final String connectionAlias;
+    private final long timestamp;
+    private final PlcReadResponse response;
+    private Map<String, Object> results;
+
+    public ScrapeResult(String jobName, String connectionAlias, long timestamp, PlcReadResponse response) {
+        this.jobName = jobName;
+        this.connectionAlias = connectionAlias;
+        this.timestamp = timestamp;
+        this.response = response;
+    }
+
+    /**
+     * @return name of the job (from config)
+     */
+    public String getJobName() {
+        return jobName;
+    }
+
+    /**
+     * @return alias of the connection (<b>not</b> connection String)
+     */
+    public String getConnectionAlias() {
+        return connectionAlias;
+    }
+
+    /**
+     * @return time the response was received in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public PlcReadResponse getResponse() {
+        return response;
+    }
+
+    /**
+     * @return results in the form alias to result value
+     */
+    public Map<String, Object> getResults() {
+        if (results == null) {
+            results = TriggeredScraperImpl.convertPlcResponseToMap(response);
+        }
+        return results;
+    }
+
+    @Override
+    public String toString() {
+        return "ScrapeResult{" +
+            "jobName='" + jobName + '\'' +
+            ", connectionAlias='" + connectionAlias + '\'' +
+            ", timestamp=" + timestamp +
+            '}';
+    }
+
+}
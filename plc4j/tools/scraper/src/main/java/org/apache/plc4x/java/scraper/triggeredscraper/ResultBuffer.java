@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.plc4x.java.scraper.BatchResultHandler;
+import org.apache.plc4x.java.scraper.ScrapeResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * bounded ring buffer between the scraper tasks and a {@link BatchResultHandler}
+ *
+ * The tasks offer their results to the buffer, a single flush thread hands them to the handler in batches as soon as
+ * the batch size is reached or the flush interval elapsed since the first buffered result.
+ * If the handler can't keep up and the buffer is full, the {@link OverflowPolicy} decides what happens to new results.
+ */
+public class ResultBuffer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ResultBuffer.class);
+
+    public static final int DEFAULT_CAPACITY = 10_000;
+    public static final int DEFAULT_BATCH_SIZE = 1_000;
+    public static final long DEFAULT_FLUSH_INTERVAL_MS = 100;
+
+    /**
+     * defines the handling of new results if the buffer is full
+     */
+    public enum OverflowPolicy {
+        /**
+         * the offering task waits until there is space in the buffer, so the scraping slows down to the speed of the handler
+         */
+        BLOCK,
+        /**
+         * the oldest result in the buffer is dropped
+         */
+        DROP_OLDEST,
+        /**
+         * the new result replaces the latest buffered result of the same job and connection, so only the most recent
+         * sample per source is kept until the handler catches up. If there is none, the new result is dropped.
+         */
+        SAMPLE
+    }
+
+    private final BatchResultHandler batchResultHandler;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final OverflowPolicy overflowPolicy;
+
+    private final ScrapeResult[] ring;
+    private int head;
+    private int count;
+    private boolean running;
+    private Thread flushThread;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+
+    private final AtomicLong droppedResults = new AtomicLong(0);
+    private final AtomicLong deliveredResults = new AtomicLong(0);
+    private final AtomicLong deliveredBatches = new AtomicLong(0);
+
+    public ResultBuffer(BatchResultHandler batchResultHandler) {
+        this(batchResultHandler, DEFAULT_CAPACITY, DEFAULT_BATCH_SIZE, DEFAULT_FLUSH_INTERVAL_MS, OverflowPolicy.BLOCK);
+    }
+
+    /**
+     * @param batchResultHandler    handler the results are handed to
+     * @param capacity              max number of buffered results
+     * @param batchSize             max number of results handed over at once, a batch is flushed as soon as it is reached
+     * @param flushIntervalMs       max time a result waits for the batch to fill up
+     * @param overflowPolicy        handling of new results if the buffer is full
+     */
+    public ResultBuffer(BatchResultHandler batchResultHandler, int capacity, int batchSize, long flushIntervalMs, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || batchSize <= 0 || flushIntervalMs < 0) {
+            throw new IllegalArgumentException(String.format("Invalid buffer configuration (capacity %d, batch size %d, flush interval %d ms)", capacity, batchSize, flushIntervalMs));
+        }
+        this.batchResultHandler = Objects.requireNonNull(batchResultHandler);
+        this.ring = new ScrapeResult[capacity];
+        this.batchSize = Math.min(batchSize, capacity);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.overflowPolicy = Objects.requireNonNull(overflowPolicy);
+    }
+
+    /**
+     * starts the flush thread
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (running) {
+                return;
+            }
+            running = true;
+            flushThread = new Thread(this::flush, "triggeredscraper-resultbuffer-thread");
+            flushThread.setDaemon(true);
+            flushThread.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * stops the flush thread after all buffered results have been handed over
+     * @throws InterruptedException if interrupted while waiting for the flush thread
+     */
+    public void stop() throws InterruptedException {
+        Thread thread;
+        lock.lock();
+        try {
+            running = false;
+            thread = flushThread;
+            flushThread = null;
+            notEmpty.signalAll();
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (thread != null) {
+            thread.join();
+        }
+    }
+
+    /**
+     * adds a result to the buffer
+     * @param result the result
+     * @throws InterruptedException if interrupted while waiting for space with {@link OverflowPolicy#BLOCK}
+     */
+    public void offer(ScrapeResult result) throws InterruptedException {
+        lock.lock();
+        try {
+            if (count == ring.length) {
+                switch (overflowPolicy) {
+                    case BLOCK:
+                        while (count == ring.length && running) {
+                            notFull.await();
+                        }
+                        if (count == ring.length) {
+                            // Not running anymore, so nobody is going to make space.
+                            droppedResults.incrementAndGet();
+                            return;
+                        }
+                        break;
+                    case DROP_OLDEST:
+                        ring[head] = null;
+                        head = (head + 1) % ring.length;
+                        count--;
+                        droppedResults.incrementAndGet();
+                        break;
+                    case SAMPLE:
+                        replaceLatest(result);
+                        droppedResults.incrementAndGet();
+                        return;
+                }
+            }
+            ring[(head + count) % ring.length] = result;
+            count++;
+            if (count == 1 || count == batchSize) {
+                notEmpty.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void replaceLatest(ScrapeResult result) {
+        for (int i = count - 1; i >= 0; i--) {
+            int index = (head + i) % ring.length;
+            if (Objects.equals(ring[index].getJobName(), result.getJobName()) &&
+                Objects.equals(ring[index].getConnectionAlias(), result.getConnectionAlias())) {
+                ring[index] = result;
+                return;
+            }
+        }
+    }
+
+    private void flush() {
+        while (true) {
+            ScrapeResult[] batch;
+            lock.lock();
+            try {
+                while (running && count == 0) {
+                    notEmpty.await();
+                }
+                if (count == 0) {
+                    return;
+                }
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                long remaining = flushIntervalNanos;
+                while (running && count < batchSize && remaining > 0) {
+                    remaining = notEmpty.awaitNanos(deadline - System.nanoTime());
+                }
+                batch = drain();
+                notFull.signalAll();
+            } catch (InterruptedException e) {
+                LOGGER.warn("Flushing of results was interrupted, {} results are not handed over", count);
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                batchResultHandler.handle(batch);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Handling of {} results failed", batch.length, e);
+            }
+            deliveredBatches.incrementAndGet();
+            deliveredResults.addAndGet(batch.length);
+        }
+    }
+
+    private ScrapeResult[] drain() {
+        ScrapeResult[] batch = new ScrapeResult[Math.min(count, batchSize)];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = ring[head];
+            ring[head] = null;
+            head = (head + 1) % ring.length;
+        }
+        count -= batch.length;
+        return batch;
+    }
+
+    /**
+     * @return number of results currently waiting in the buffer
+     */
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return count;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    /**
+     * @return number of results dropped because the buffer was full
+     */
+    public long getDroppedResults() {
+        return droppedResults.get();
+    }
+
+    public long getDeliveredResults() {
+        return deliveredResults.get();
+    }
+
+    public long getDeliveredBatches() {
+        return deliveredBatches.get();
+    }
+
+    @Override
+    public String toString() {
+        return "ResultBuffer{" +
+            "capacity=" + ring.length +
+            ", batchSize=" + batchSize +
+            ", flushIntervalMs=" + TimeUnit.NANOSECONDS.toMillis(flushIntervalNanos) +
+            ", overflowPolicy=" + overflowPolicy +
+            '}';
+    }
+
+}
@@ -72,7 +72,7 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
     private final ExecutorService executorService;
     private ScheduledFuture<?> statisticsLogger;
 
-    private final ResultHandler resultHandler;
+    private final ResultBuffer resultBuffer;
 
     private final MultiValuedMap<ScrapeJob, ScraperTask> tasks = new ArrayListValuedHashMap<>();
     private final MultiValuedMap<ScraperTask, ScheduledFuture<?>> scraperTaskMap = new ArrayListValuedHashMap<>();
@@ -108,6 +108,30 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
         this(resultHandler, plcDriverManager, config.getJobs(),triggerCollector,DEFAULT_FUTURE_TIME_OUT);
     }
 
+    /**
+     * Creates a Scraper instance from a configuration handing the results in batches to the given buffer.
+     * By default a {@link PooledPlcDriverManager} is used.
+     * @param config Configuration to use.
+     * @param resultBuffer buffer collecting the acquired data for its batch result handler
+     * @param triggerCollector the trigger collector
+     * @throws ScraperException something went wrong
+     */
+    public TriggeredScraperImpl(ScraperConfiguration config, ResultBuffer resultBuffer, TriggerCollector triggerCollector) throws ScraperException {
+        this(resultBuffer, createPooledDriverManager(), config.getJobs(),triggerCollector,DEFAULT_FUTURE_TIME_OUT,20,5);
+    }
+
+    /**
+     * Creates a Scraper instance from a configuration handing the results in batches to the given buffer.
+     * @param config Configuration to use.
+     * @param plcDriverManager external DriverManager
+     * @param resultBuffer buffer collecting the acquired data for its batch result handler
+     * @param triggerCollector the trigger collector
+     * @throws ScraperException something went wrong
+     */
+    public TriggeredScraperImpl(ScraperConfiguration config, PlcDriverManager plcDriverManager, ResultBuffer resultBuffer, TriggerCollector triggerCollector) throws ScraperException {
+        this(resultBuffer, plcDriverManager, config.getJobs(),triggerCollector,DEFAULT_FUTURE_TIME_OUT,20,5);
+    }
+
     /**
      * Creates a Scraper instance from a configuration.
      * @param config Configuration to use.
@@ -135,7 +159,21 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
     }
 
     public TriggeredScraperImpl(ResultHandler resultHandler, PlcDriverManager plcDriverManager, List<ScrapeJob> jobs,TriggerCollector triggerCollector, long futureTimeOut, int poolSizeScheduler, int poolSizeExecutor) {
-        this.resultHandler = resultHandler;
+        this(new ResultBuffer(BatchResultHandler.of(resultHandler)),plcDriverManager,jobs,triggerCollector,futureTimeOut,poolSizeScheduler,poolSizeExecutor);
+    }
+
+    /**
+     * Creates a Scraper instance handing the results in batches to the given buffer.
+     * @param resultBuffer buffer collecting the acquired data for its batch result handler
+     * @param plcDriverManager external DriverManager
+     * @param jobs list of jobs that scraper shall handle
+     * @param triggerCollector a collection that centralizes the trigger requests and joins them to grouped plc requests
+     * @param futureTimeOut max duration of future to return a result
+     * @param poolSizeScheduler the pool size of the scheduler
+     * @param poolSizeExecutor the pool size of the executor
+     */
+    public TriggeredScraperImpl(ResultBuffer resultBuffer, PlcDriverManager plcDriverManager, List<ScrapeJob> jobs,TriggerCollector triggerCollector, long futureTimeOut, int poolSizeScheduler, int poolSizeExecutor) {
+        this.resultBuffer = resultBuffer;
         Validate.notEmpty(jobs);
         if (!(plcDriverManager instanceof PooledPlcDriverManager)) {
             LOGGER.warn("The Triggered Scraper is intended to be used with a Pooled Connection. In other situations leaks could occur!");
@@ -193,6 +231,7 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
     public void start() {
         // Schedule all jobs
         LOGGER.info("Starting jobs...");
+        resultBuffer.start();
         //start iterating over all available jobs
         for(ScrapeJob job:jobs){
             //iterate over all source the jobs shall performed on
@@ -216,7 +255,7 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
                         job.getFields(),
                         futureTimeOut,
                         executorService,
-                        resultHandler,
+                        resultBuffer,
                         (TriggeredScrapeJobImpl) job,
                         triggerCollector);
 
@@ -281,6 +320,14 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
         if((statisticsLogger != null) && (!statisticsLogger.isCancelled())) {
             statisticsLogger.cancel(false);
         }
+
+        // Hand over the remaining results
+        try {
+            resultBuffer.stop();
+        } catch (InterruptedException e) {
+            LOGGER.warn("Interrupted while handing over the remaining results", e);
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -372,4 +419,29 @@ public class TriggeredScraperImpl implements Scraper, TriggeredScraperMBean {
     public int getNumberOfActiveTasks() {
         return (int) scraperTaskMap.entries().stream().filter(entry -> !entry.getValue().isDone()).count();
     }
+
+    @Override
+    public int getResultQueueDepth() {
+        return resultBuffer.getQueueDepth();
+    }
+
+    @Override
+    public int getResultQueueCapacity() {
+        return resultBuffer.getCapacity();
+    }
+
+    @Override
+    public long getDroppedResults() {
+        return resultBuffer.getDroppedResults();
+    }
+
+    @Override
+    public long getDeliveredResults() {
+        return resultBuffer.getDeliveredResults();
+    }
+
+    @Override
+    public long getDeliveredBatches() {
+        return resultBuffer.getDeliveredBatches();
+    }
 }
@@ -30,4 +30,20 @@ public interface TriggeredScraperMBean {
 
     int getNumberOfActiveTasks();
 
+    /**
+     * @return number of results waiting to be handed to the result handler
+     */
+    int getResultQueueDepth();
+
+    int getResultQueueCapacity();
+
+    /**
+     * @return number of results dropped because the result handler could not keep up
+     */
+    long getDroppedResults();
+
+    long getDeliveredResults();
+
+    long getDeliveredBatches();
+
 }
@@ -26,7 +26,7 @@ import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
-import org.apache.plc4x.java.scraper.ResultHandler;
+import org.apache.plc4x.java.scraper.ScrapeResult;
 import org.apache.plc4x.java.scraper.ScraperTask;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
 import org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.TriggerHandler;
@@ -36,7 +36,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.TimeUnit;
@@ -57,7 +56,7 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
     private final Map<String, String> fields;
     private final long requestTimeoutMs;
     private final ExecutorService executorService;
-    private final ResultHandler resultHandler;
+    private final ResultBuffer resultBuffer;
     private final TriggerHandler triggerHandler;
 
     private final AtomicLong requestCounter = new AtomicLong(0);
@@ -73,7 +72,7 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
                                 Map<String, String> fields,
                                 long requestTimeoutMs,
                                 ExecutorService executorService,
-                                ResultHandler resultHandler,
+                                ResultBuffer resultBuffer,
                                 TriggeredScrapeJobImpl triggeredScrapeJob,
                                 TriggerCollector triggerCollector) throws ScraperException {
         this.driverManager = driverManager;
@@ -83,7 +82,7 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
         this.fields = fields;
         this.requestTimeoutMs = requestTimeoutMs;
         this.executorService = executorService;
-        this.resultHandler = resultHandler;
+        this.resultBuffer = resultBuffer;
         this.triggerHandler = new TriggerHandlerImpl(triggeredScrapeJob.getTriggerConfig(),triggeredScrapeJob,this,triggerCollector);
     }
 
@@ -143,8 +142,12 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
                 successCounter.incrementAndGet();
                 // Validate response
                 validateResponse(plcReadResponse);
-                // Handle response (Async)
-                CompletableFuture.runAsync(() -> resultHandler.handle(jobName, connectionAlias, TriggeredScraperImpl.convertPlcResponseToMap(plcReadResponse)), executorService);
+                // Hand over response to the result buffer, it's handled in batches
+                resultBuffer.offer(new ScrapeResult(jobName, connectionAlias, System.currentTimeMillis(), plcReadResponse));
+            } catch (InterruptedException e) {
+                LOGGER.warn("Scraping of Job {}, Connection-Alias {} was interrupted", jobName, connectionAlias);
+                Thread.currentThread().interrupt();
+                handleException(e);
             } catch (Exception e) {
                 LOGGER.warn("Exception during scraping of Job {}, Connection-Alias {}: Error-message: {} - for stack-trace change logging to DEBUG", jobName,connectionAlias,e.getCause());
                 handleException(e);
@@ -239,7 +242,7 @@ public class TriggeredScraperTask implements ScraperTask, TriggeredScraperTaskMB
             ", connectionString='" + connectionString + '\'' +
             ", requestTimeoutMs=" + requestTimeoutMs +
             ", executorService=" + executorService +
-            ", resultHandler=" + resultHandler +
+            ", resultBuffer=" + resultBuffer +
             ", triggerHandler=" + triggerHandler +
             '}';
     }
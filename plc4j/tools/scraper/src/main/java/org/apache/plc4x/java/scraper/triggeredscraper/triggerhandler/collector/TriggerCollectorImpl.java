@@ -21,21 +21,24 @@ package org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector;
 import org.apache.commons.lang3.concurrent.BasicThreadFactory;
 import org.apache.plc4x.java.PlcDriverManager;
 import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.exceptions.PlcConnectionException;
+import org.apache.plc4x.java.api.exceptions.PlcRuntimeException;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.scraper.exception.ScraperException;
-import org.apache.plc4x.java.scraper.triggeredscraper.TriggeredScraperImpl;
 import org.apache.plc4x.java.utils.connectionpool.PooledPlcDriverManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
 import java.util.concurrent.*;
 
 /**
  * default implementation for TriggerCollector
+ *
+ * Triggers are kept in a queue ordered by the time they are due next. Every scheduler run only takes the due
+ * triggers from the head of the queue, groups them by connection and reads each group asynchronously, so a slow
+ * or unreachable PLC neither delays the triggers of other PLCs nor blocks the scheduler.
  */
 public class TriggerCollectorImpl implements TriggerCollector {
     private static final Logger logger = LoggerFactory.getLogger( TriggerCollectorImpl.class );
@@ -46,6 +49,10 @@ public class TriggerCollectorImpl implements TriggerCollector {
 
     private final PlcDriverManager plcDriverManager;
     private final Map<String,RequestElement> currentRequestElements;
+    // request elements waiting for their next acquirement ordered by due time, elements being acquired are not contained
+    private final PriorityQueue<RequestElement> scheduledRequestElements;
+    // acquirements per connection string that did not finish yet (even if their timeout elapsed)
+    private final Map<String,CompletableFuture<?>> pendingAcquirements;
     private long schedulerInterval;
     private final long futureTimeout;
 
@@ -58,6 +65,9 @@ public class TriggerCollectorImpl implements TriggerCollector {
         }
         this.plcDriverManager = plcDriverManager;
         this.currentRequestElements = new ConcurrentHashMap<>();
+        this.scheduledRequestElements = new PriorityQueue<>(
+            (element1, element2) -> Long.signum(element1.getNextDueNanos() - element2.getNextDueNanos()));
+        this.pendingAcquirements = new ConcurrentHashMap<>();
         this.schedulerInterval = schedulerInterval;
         this.futureTimeout = futureTimeout;
 
@@ -101,14 +111,17 @@ public class TriggerCollectorImpl implements TriggerCollector {
         }
 
         RequestElement requestElement = new RequestElement(plcConnectionString,plcField,interval, uuid);
-        if(!currentRequestElements.containsValue(requestElement)){
-            currentRequestElements.put(uuid,requestElement);
-            if(logger.isDebugEnabled()) {
-                logger.debug("Received request to: {} for PLC: {}", plcField, plcConnectionString);
+        synchronized (scheduledRequestElements) {
+            if(!currentRequestElements.containsValue(requestElement)){
+                currentRequestElements.put(uuid,requestElement);
+                //initially the trigger is due immediately
+                requestElement.setNextDueNanos(System.nanoTime());
+                scheduledRequestElements.add(requestElement);
+                if(logger.isDebugEnabled()) {
+                    logger.debug("Received request to: {} for PLC: {}", plcField, plcConnectionString);
+                }
+                return uuid;
             }
-            return uuid;
-        }
-        else{
             if(logger.isTraceEnabled()) {
                 logger.trace("Received a placed trigger");
             }
@@ -116,91 +129,157 @@ public class TriggerCollectorImpl implements TriggerCollector {
                 if(requestElementFromMap.equals(requestElement)){
                     //detect shortest interval if trigger used more than once
                     if(requestElementFromMap.getScanIntervalMs()>interval){
+                        long shortening = TimeUnit.MILLISECONDS.toNanos(requestElementFromMap.getScanIntervalMs() - interval);
                         requestElementFromMap.setScanIntervalMs(interval);
+                        //re-insert to keep the queue ordered, elements currently acquired are rescheduled afterwards anyway
+                        if(scheduledRequestElements.remove(requestElementFromMap)){
+                            requestElementFromMap.setNextDueNanos(requestElementFromMap.getNextDueNanos() - shortening);
+                            scheduledRequestElements.add(requestElementFromMap);
+                        }
                     }
                     return requestElementFromMap.getUuid();
                 }
             }
+        }
 
-            //should not happen
-            throw new ScraperException(String.format("Could not evaluate UUID for given trigger (%s,%s). Should not happen please report!",plcField,plcConnectionString));
+        //should not happen
+        throw new ScraperException(String.format("Could not evaluate UUID for given trigger (%s,%s). Should not happen please report!",plcField,plcConnectionString));
+    }
+
+    /**
+     * acquire all triggers that are due, one asynchronous read per connection
+     * (run by the scheduler, package-private so tests can run it deterministically)
+     */
+    void processActiveTrigger(){
+        for(Map.Entry<String,List<RequestElement>> entry:pollDueRequestElements().entrySet()){
+            acquireTriggers(entry.getKey(),entry.getValue());
         }
+    }
 
+    /**
+     * takes all due request elements from the schedule
+     *
+     * @return the due request elements grouped by connection string
+     */
+    private Map<String,List<RequestElement>> pollDueRequestElements(){
+        long currentNanos = System.nanoTime();
+        Map<String,List<RequestElement>> dueRequestElements = new HashMap<>();
+        synchronized (scheduledRequestElements) {
+            RequestElement requestElement = scheduledRequestElements.peek();
+            while(requestElement!=null && requestElement.getNextDueNanos()-currentNanos<=0){
+                scheduledRequestElements.poll();
+                dueRequestElements.computeIfAbsent(requestElement.getPlcConnectionString(), key -> new ArrayList<>())
+                    .add(requestElement);
+                requestElement = scheduledRequestElements.peek();
+            }
+        }
+        return dueRequestElements;
     }
 
     /**
-     * acquire all triggers within given interval from definition
+     * reads the given triggers of one connection, the results are set as soon as the response arrives
+     * and the triggers are rescheduled afterwards, no matter if the read succeeded, failed or timed out
+     *
+     * @param plcConnectionString   connection string of all given triggers
+     * @param requestElements       the due triggers
      */
-    private void processActiveTrigger(){
-        LocalDateTime currentTimestamp = LocalDateTime.now();
-        Map<String, PlcReadRequest.Builder> plcReadRequestBuilderMap = new HashMap<>();
-        Map<String, PlcReadResponse> plcReadResponseMap = new HashMap<>();
-        List<RequestElement> activeRequestElements = new ArrayList<>();
-        List<PlcConnection> plcConnectionList = new ArrayList<>();
-        PlcConnection plcConnection=null;
-        for(Map.Entry<String,RequestElement> entry:currentRequestElements.entrySet()){
-            if(entry.getValue().getLastAcquirement().isBefore(
-                currentTimestamp
-                    .minus(entry.getValue().scanIntervalMs,ChronoUnit.MILLIS))
-            ){
-                String plcConnectionString = entry.getValue().plcConnectionString;
-                if(!plcReadRequestBuilderMap.containsKey(plcConnectionString)){
-                    try {
-                        String info = "";
-                        if(logger.isTraceEnabled()) {
-                            info = String.format("acquiring trigger connection to (%s)", plcConnectionString);
-                            logger.trace("acquiring trigger connection to ({})", plcConnectionString);
-                        }
-                        plcConnection = TriggeredScraperImpl.getPlcConnection(plcDriverManager,plcConnectionString,executorService,futureTimeout,info);
-                        plcConnectionList.add(plcConnection);
-                        plcReadRequestBuilderMap.put(plcConnectionString,plcConnection.readRequestBuilder());
-                        plcReadRequestBuilderMap.get(plcConnectionString).addItem(entry.getKey(),entry.getValue().getPlcField());
-                        activeRequestElements.add(entry.getValue());
-                    } catch (InterruptedException e) {
-                        logger.warn("Acquirement of PLC-Connection was interrupted",e);
-                        Thread.currentThread().interrupt();
-                    } catch (ExecutionException e) {
-                        logger.warn("Acquirement of PLC-Connection could not be executed",e);
-                    } catch (TimeoutException e) {
-                        logger.warn("Acquirement of PLC-Connection was timeouted",e);
-                    }
-                }
-                else{
-                    plcReadRequestBuilderMap.get(plcConnectionString).addItem(entry.getKey(),entry.getValue().getPlcField());
-                    activeRequestElements.add(entry.getValue());
+    private void acquireTriggers(String plcConnectionString, List<RequestElement> requestElements){
+        if(pendingAcquirements.containsKey(plcConnectionString)){
+            //don't pile up requests to a PLC that did not answer the last one yet
+            logger.debug("Previous acquirement of triggers from ({}) still pending, skipping", plcConnectionString);
+            reschedule(requestElements);
+            return;
+        }
+        if(logger.isTraceEnabled()) {
+            logger.trace("acquiring trigger connection to ({})", plcConnectionString);
+        }
+        CompletableFuture<PlcReadResponse> acquirement = CompletableFuture
+            .supplyAsync(() -> getPlcConnection(plcConnectionString), executorService)
+            .thenCompose(plcConnection -> read(plcConnection, requestElements));
+        pendingAcquirements.put(plcConnectionString, acquirement);
+        acquirement.whenComplete((plcReadResponse, throwable) -> pendingAcquirements.remove(plcConnectionString, acquirement));
+
+        withTimeout(acquirement, plcConnectionString).whenComplete((plcReadResponse, throwable) -> {
+            if(throwable!=null){
+                logger.warn("Acquirement of triggers from ({}) failed", plcConnectionString, throwable);
+            }
+            else{
+                for(RequestElement requestElement:requestElements){
+                    requestElement.setResult(plcReadResponse.getObject(requestElement.getUuid()));
                 }
             }
+            reschedule(requestElements);
+        });
+    }
+
+    private PlcConnection getPlcConnection(String plcConnectionString){
+        try {
+            return plcDriverManager.getConnection(plcConnectionString);
+        } catch (PlcConnectionException e) {
+            throw new PlcRuntimeException("Unable to instantiate connection to " + plcConnectionString, e);
         }
+    }
 
-        for(Map.Entry<String,PlcReadRequest.Builder> entry: plcReadRequestBuilderMap.entrySet()){
-            try {
-                PlcReadResponse plcReadResponse = entry.getValue().build().execute().get(futureTimeout, TimeUnit.MILLISECONDS);
-                plcReadResponseMap.put(entry.getKey(), plcReadResponse);
-            } catch (InterruptedException e) {
-                logger.warn("Extraction of PlcResponse was interrupted",e);
-                Thread.currentThread().interrupt();
-            } catch (ExecutionException e) {
-                logger.warn("Extraction of PlcResponse could not be executed",e);
-            } catch (TimeoutException e) {
-                logger.warn("Extraction of PlcResponse was timeouted",e);
+    /**
+     * reads all given triggers with one request and closes the connection as soon as the response arrived
+     */
+    private CompletableFuture<PlcReadResponse> read(PlcConnection plcConnection, List<RequestElement> requestElements){
+        CompletableFuture<? extends PlcReadResponse> responseFuture;
+        try {
+            PlcReadRequest.Builder plcReadRequestBuilder = plcConnection.readRequestBuilder();
+            for(RequestElement requestElement:requestElements){
+                plcReadRequestBuilder.addItem(requestElement.getUuid(),requestElement.getPlcField());
             }
+            responseFuture = plcReadRequestBuilder.build().execute();
+        } catch (RuntimeException e) {
+            closeConnection(plcConnection);
+            throw e;
         }
+        return responseFuture
+            .whenComplete((plcReadResponse, throwable) -> closeConnection(plcConnection))
+            .thenApply(plcReadResponse -> plcReadResponse);
+    }
 
-        LocalDateTime currentTime = LocalDateTime.now();
-        for(RequestElement requestElement:activeRequestElements){
-            requestElement.setResult(plcReadResponseMap.get(requestElement.getPlcConnectionString()).getObject(requestElement.getUuid()));
-            requestElement.setLastAcquirement(currentTime);
+    private void closeConnection(PlcConnection plcConnection){
+        try {
+            plcConnection.close();
+        } catch (Exception e) {
+            logger.warn("Could not close connection ...");
         }
-        for(PlcConnection plcConnectionFromList:plcConnectionList){
-            if(plcConnectionFromList!=null){
-                try {
-                    plcConnectionFromList.close();
-                } catch (Exception e) {
-                    logger.warn("Could not close connection ...");
-                }
+    }
+
+    /**
+     * @return a future completed with the result of the given one or exceptionally after the future timeout
+     */
+    private <T> CompletableFuture<T> withTimeout(CompletableFuture<T> future, String plcConnectionString){
+        CompletableFuture<T> timedFuture = new CompletableFuture<>();
+        ScheduledFuture<?> timeout = scheduledExecutorService.schedule(
+            () -> timedFuture.completeExceptionally(new TimeoutException(
+                String.format("Acquirement of triggers from (%s) was timeouted after %d ms",plcConnectionString,futureTimeout))),
+            futureTimeout, TimeUnit.MILLISECONDS);
+        future.whenComplete((result, throwable) -> {
+            timeout.cancel(false);
+            if(throwable!=null){
+                timedFuture.completeExceptionally(throwable);
             }
-        }
+            else{
+                timedFuture.complete(result);
+            }
+        });
+        return timedFuture;
+    }
 
+    /**
+     * puts the given request elements back into the schedule, they are due again after their scan interval
+     */
+    private void reschedule(List<RequestElement> requestElements){
+        long currentNanos = System.nanoTime();
+        synchronized (scheduledRequestElements) {
+            for(RequestElement requestElement:requestElements){
+                requestElement.setNextDueNanos(currentNanos + TimeUnit.MILLISECONDS.toNanos(requestElement.getScanIntervalMs()));
+                scheduledRequestElements.add(requestElement);
+            }
+        }
     }
 
     /**
@@ -244,12 +323,12 @@ public class TriggerCollectorImpl implements TriggerCollector {
 
 
     class RequestElement{
-        private String plcConnectionString;
-        private String plcField;
-        private LocalDateTime lastAcquirement;
-        private Object result;
-        private String uuid;
-        private long scanIntervalMs;
+        private final String plcConnectionString;
+        private final String plcField;
+        private long nextDueNanos;
+        private volatile Object result;
+        private final String uuid;
+        private volatile long scanIntervalMs;
 
 
         RequestElement(String plcConnectionString, String plcField, long scanIntervalMs, String uuid) {
@@ -257,8 +336,6 @@ public class TriggerCollectorImpl implements TriggerCollector {
             this.plcField = plcField;
             this.uuid = uuid;
             this.scanIntervalMs = scanIntervalMs;
-            //set initial acquirement to a long time ago
-            this.lastAcquirement = LocalDateTime.of(1,1,1,1,1,1);
         }
 
         String getPlcConnectionString() {
@@ -289,12 +366,15 @@ public class TriggerCollectorImpl implements TriggerCollector {
             this.scanIntervalMs = scanIntervalMs;
         }
 
-        LocalDateTime getLastAcquirement() {
-            return lastAcquirement;
+        /**
+         * @return the {@link System#nanoTime()} at which the trigger is acquired next, only valid while scheduled
+         */
+        long getNextDueNanos() {
+            return nextDueNanos;
         }
 
-        void setLastAcquirement(LocalDateTime lastAcquirement) {
-            this.lastAcquirement = lastAcquirement;
+        void setNextDueNanos(long nextDueNanos) {
+            this.nextDueNanos = nextDueNanos;
         }
 
         @Override
@@ -316,7 +396,6 @@ public class TriggerCollectorImpl implements TriggerCollector {
             return "RequestElement{" +
                 "plcConnectionString='" + plcConnectionString + '\'' +
                 ", plcField='" + plcField + '\'' +
-                ", lastAcquirement=" + lastAcquirement +
                 ", result=" + result +
                 ", uuid='" + uuid + '\'' +
                 ", scanIntervalMs=" + scanIntervalMs +
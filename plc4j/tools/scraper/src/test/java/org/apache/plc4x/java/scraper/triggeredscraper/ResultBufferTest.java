@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper.triggeredscraper;
+
+import org.apache.plc4x.java.scraper.ScrapeResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.core.IsEqual.equalTo;
+
+/**
+ * testing batching and overflow handling of the result buffer
+ */
+class ResultBufferTest {
+
+    @Test
+    void resultsAreHandedOverInBatches() throws Exception {
+        List<ScrapeResult[]> batches = new ArrayList<>();
+        ResultBuffer resultBuffer = new ResultBuffer(batches::add, 100, 10, 10_000, ResultBuffer.OverflowPolicy.BLOCK);
+        resultBuffer.start();
+        for (int i = 0; i < 25; i++) {
+            resultBuffer.offer(result("job", "source", i));
+        }
+        // Stopping hands over the remaining results without waiting for the flush interval
+        resultBuffer.stop();
+
+        assertThat(batches.stream().map(batch -> batch.length).collect(Collectors.toList()), contains(10, 10, 5));
+        assertThat(resultBuffer.getDeliveredResults(), equalTo(25L));
+        assertThat(resultBuffer.getDeliveredBatches(), equalTo(3L));
+        assertThat(resultBuffer.getDroppedResults(), equalTo(0L));
+    }
+
+    @Test
+    void oldestResultsAreDropped() throws Exception {
+        List<ScrapeResult> results = new ArrayList<>();
+        ResultBuffer resultBuffer = new ResultBuffer(batch -> results.addAll(Arrays.asList(batch)), 3, 3, 0, ResultBuffer.OverflowPolicy.DROP_OLDEST);
+        for (int i = 0; i < 5; i++) {
+            resultBuffer.offer(result("job", "source", i));
+        }
+        assertThat(resultBuffer.getQueueDepth(), equalTo(3));
+        resultBuffer.start();
+        resultBuffer.stop();
+
+        assertThat(results.stream().map(ScrapeResult::getTimestamp).collect(Collectors.toList()), contains(2L, 3L, 4L));
+        assertThat(resultBuffer.getDroppedResults(), equalTo(2L));
+    }
+
+    @Test
+    void latestResultPerSourceIsSampled() throws Exception {
+        List<ScrapeResult> results = new ArrayList<>();
+        ResultBuffer resultBuffer = new ResultBuffer(batch -> results.addAll(Arrays.asList(batch)), 3, 3, 0, ResultBuffer.OverflowPolicy.SAMPLE);
+        resultBuffer.offer(result("job", "source1", 0));
+        resultBuffer.offer(result("job", "source2", 1));
+        resultBuffer.offer(result("job", "source1", 2));
+        resultBuffer.offer(result("job", "source2", 3));
+        resultBuffer.offer(result("job", "source3", 4));
+        resultBuffer.start();
+        resultBuffer.stop();
+
+        assertThat(results.stream().map(ScrapeResult::getTimestamp).collect(Collectors.toList()), contains(0L, 3L, 2L));
+        assertThat(resultBuffer.getDroppedResults(), equalTo(2L));
+    }
+
+    private static ScrapeResult result(String jobName, String connectionAlias, long timestamp) {
+        return new ScrapeResult(jobName, connectionAlias, timestamp, null);
+    }
+
+}
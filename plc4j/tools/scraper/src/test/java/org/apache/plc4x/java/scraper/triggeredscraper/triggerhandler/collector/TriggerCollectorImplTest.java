@@ -0,0 +1,217 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.plc4x.java.scraper.triggeredscraper.triggerhandler.collector;
+
+import org.apache.plc4x.java.PlcDriverManager;
+import org.apache.plc4x.java.api.PlcConnection;
+import org.apache.plc4x.java.api.messages.PlcReadRequest;
+import org.apache.plc4x.java.api.messages.PlcReadResponse;
+import org.assertj.core.api.WithAssertions;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class TriggerCollectorImplTest implements WithAssertions {
+
+    private static final long FUTURE_TIMEOUT = 200;
+
+    @Mock
+    PlcDriverManager driverManager;
+
+    TriggerCollectorImpl collector;
+
+    /** Reads executed by the collector in the order of their execution */
+    BlockingQueue<Read> reads;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        reads = new LinkedBlockingQueue<>();
+        when(driverManager.getConnection(anyString())).thenAnswer(invocation -> mockConnection(invocation.getArgument(0)));
+        collector = new TriggerCollectorImpl(driverManager, 1_000, FUTURE_TIMEOUT, 1, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        collector.stop();
+    }
+
+    @Test
+    void dueTriggersAreReadInDueOrder() throws Exception {
+        String fast = collector.submitTrigger("fast", "mock:plc", 100);
+        String slow = collector.submitTrigger("slow", "mock:plc", 60_000);
+
+        // Initially all triggers are due and read with one request per connection.
+        collector.processActiveTrigger();
+        Read read = nextRead();
+        assertThat(read.fields).containsExactlyInAnyOrder("fast", "slow");
+        read.respond("fast", 1, "slow", 2);
+        assertThat(collector.requestResult(fast)).isEqualTo(1);
+        assertThat(collector.requestResult(slow)).isEqualTo(2);
+
+        // Nothing is due right after the response.
+        collector.processActiveTrigger();
+        assertNoRead();
+
+        // Only the trigger with the short interval is due again.
+        TimeUnit.MILLISECONDS.sleep(150);
+        collector.processActiveTrigger();
+        read = nextRead();
+        assertThat(read.fields).containsExactly("fast");
+        read.respond("fast", 3);
+        assertThat(collector.requestResult(fast)).isEqualTo(3);
+        assertThat(collector.requestResult(slow)).isEqualTo(2);
+    }
+
+    @Test
+    void triggersAreSkippedWhileReadIsInFlight() throws Exception {
+        collector.submitTrigger("first", "mock:plc", 50);
+        collector.processActiveTrigger();
+        Read pending = nextRead();
+
+        // A trigger of the same connection becoming due is not read while the previous read is in flight ...
+        String second = collector.submitTrigger("second", "mock:plc", 50);
+        // ... while the triggers of other connections are not delayed by it.
+        String other = collector.submitTrigger("other", "mock:other", 50);
+        collector.processActiveTrigger();
+        Read otherRead = nextRead();
+        assertThat(otherRead.connectionString).isEqualTo("mock:other");
+        otherRead.respond("other", 42);
+        assertThat(collector.requestResult(other)).isEqualTo(42);
+        assertNoRead();
+        assertThat(collector.requestResult(second)).isNull();
+
+        // Once the read finished, all triggers of the connection are read together again.
+        pending.respond("first", 1);
+        TimeUnit.MILLISECONDS.sleep(100);
+        collector.processActiveTrigger();
+        List<Read> next = new ArrayList<>();
+        next.add(nextRead());
+        next.add(nextRead());
+        Read read = next.stream().filter(r -> r.connectionString.equals("mock:plc")).findFirst()
+            .orElseThrow(AssertionError::new);
+        assertThat(read.fields).containsExactlyInAnyOrder("first", "second");
+        read.respond("first", 1, "second", 2);
+        assertThat(collector.requestResult(second)).isEqualTo(2);
+    }
+
+    @Test
+    void timedOutReadsAreRescheduled() throws Exception {
+        String trigger = collector.submitTrigger("field", "mock:plc", 50);
+        collector.processActiveTrigger();
+        Read late = nextRead();
+
+        // After the timeout the trigger is rescheduled, but not read again before the late read finished.
+        TimeUnit.MILLISECONDS.sleep(FUTURE_TIMEOUT + 100);
+        collector.processActiveTrigger();
+        assertNoRead();
+
+        // The result of the timed out read is dropped, the connection is closed nevertheless.
+        late.respond("field", 1);
+        assertThat(collector.requestResult(trigger)).isNull();
+        verify(late.connection).close();
+
+        collector.processActiveTrigger();
+        Read read = nextRead();
+        read.respond("field", 2);
+        assertThat(collector.requestResult(trigger)).isEqualTo(2);
+    }
+
+    private Read nextRead() throws InterruptedException {
+        Read read = reads.poll(1, TimeUnit.SECONDS);
+        assertThat(read).as("read").isNotNull();
+        return read;
+    }
+
+    private void assertNoRead() throws InterruptedException {
+        assertThat(reads.poll(100, TimeUnit.MILLISECONDS)).as("read").isNull();
+    }
+
+    private PlcConnection mockConnection(String connectionString) {
+        PlcConnection connection = mock(PlcConnection.class);
+        when(connection.readRequestBuilder()).thenAnswer(invocation -> {
+            List<String> uuids = Collections.synchronizedList(new ArrayList<>());
+            List<String> fields = Collections.synchronizedList(new ArrayList<>());
+            PlcReadRequest.Builder builder = mock(PlcReadRequest.Builder.class);
+            when(builder.addItem(anyString(), anyString())).thenAnswer(addItem -> {
+                uuids.add(addItem.getArgument(0));
+                fields.add(addItem.getArgument(1));
+                return builder;
+            });
+            PlcReadRequest request = mock(PlcReadRequest.class);
+            when(builder.build()).thenReturn(request);
+            when(request.execute()).thenAnswer(execute -> {
+                Read read = new Read(connectionString, connection, uuids, fields);
+                reads.add(read);
+                return read.response;
+            });
+            return builder;
+        });
+        return connection;
+    }
+
+    private static class Read {
+
+        private final String connectionString;
+        private final PlcConnection connection;
+        private final List<String> uuids;
+        private final List<String> fields;
+        private final CompletableFuture<PlcReadResponse> response = new CompletableFuture<>();
+
+        private Read(String connectionString, PlcConnection connection, List<String> uuids, List<String> fields) {
+            this.connectionString = connectionString;
+            this.connection = connection;
+            this.uuids = uuids;
+            this.fields = fields;
+        }
+
+        /**
+         * Completes the read with the given field names (the names used by the collector are the uuids of the
+         * triggers, so they are mapped by the field queries here) and values.
+         */
+        private void respond(Object... fieldsAndValues) {
+            PlcReadResponse plcReadResponse = mock(PlcReadResponse.class);
+            for (int i = 0; i < fieldsAndValues.length; i += 2) {
+                when(plcReadResponse.getObject(uuidOf((String) fieldsAndValues[i]))).thenReturn(fieldsAndValues[i + 1]);
+            }
+            response.complete(plcReadResponse);
+        }
+
+        private String uuidOf(String field) {
+            return uuids.get(fields.indexOf(field));
+        }
+    }
+}
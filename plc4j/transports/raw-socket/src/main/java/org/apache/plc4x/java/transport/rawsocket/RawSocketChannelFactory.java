@@ -21,9 +21,8 @@ package org.apache.plc4x.java.transport.rawsocket;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.ThreadPerChannelEventLoop;
-import io.netty.channel.oio.OioEventLoopGroup;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
+import org.apache.plc4x.java.spi.connection.EventLoopGroupProvider;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
 import org.apache.plc4x.java.utils.pcap.netty.config.PcapChannelOption;
 import org.apache.plc4x.java.utils.rawsockets.netty.address.RawSocketAddress;
@@ -56,9 +55,13 @@ public class RawSocketChannelFactory extends NettyChannelFactory implements HasC
         return true;
     }
 
+    /**
+     * Raw sockets are blocking, so they use the shared group for blocking channels,
+     * which still provides a dedicated thread for every channel.
+     */
     @Override
     public EventLoopGroup getEventLoopGroup() {
-        return new ThreadPerChannelEventLoop(new OioEventLoopGroup());
+        return EventLoopGroupProvider.getInstance().acquireBlocking();
     }
 
     @Override
@@ -21,8 +21,8 @@ package org.apache.plc4x.java.transport.tcp;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelOption;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
+import org.apache.plc4x.java.spi.connection.EventLoopGroupProvider;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,7 +46,7 @@ public class TcpChannelFactory extends NettyChannelFactory implements HasConfigu
 
     @Override
     public Class<? extends Channel> getChannel() {
-        return NioSocketChannel.class;
+        return EventLoopGroupProvider.getInstance().getSocketChannelClass();
     }
 
     @Override
@@ -21,8 +21,8 @@ package org.apache.plc4x.java.transport.udp;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelPipeline;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import org.apache.plc4x.java.spi.configuration.HasConfiguration;
+import org.apache.plc4x.java.spi.connection.EventLoopGroupProvider;
 import org.apache.plc4x.java.spi.connection.NettyChannelFactory;
 import org.apache.plc4x.java.transport.udp.protocol.DatagramUnpackingHandler;
 import org.slf4j.Logger;
@@ -47,7 +47,7 @@ public class UdpChannelFactory extends NettyChannelFactory implements HasConfigu
 
     @Override
     public Class<? extends Channel> getChannel() {
-        return NioDatagramChannel.class;
+        return EventLoopGroupProvider.getInstance().getDatagramChannelClass();
     }
 
     @Override
@@ -23,7 +23,7 @@ import org.apache.plc4x.java.api.PlcConnection;
 import org.apache.plc4x.java.api.messages.PlcReadRequest;
 import org.apache.plc4x.java.api.messages.PlcReadResponse;
 import org.apache.plc4x.java.api.types.PlcResponseCode;
-import org.apache.plc4x.java.spi.values.PlcList;
+import org.apache.plc4x.java.api.value.PlcValue;
 import org.junit.jupiter.api.Assertions;
 
 import java.util.ArrayList;
@@ -61,8 +61,8 @@ public abstract class ManualTest {
                 Assertions.assertEquals(fieldName, readResponse.getFieldNames().iterator().next());
                 Assertions.assertEquals(PlcResponseCode.OK, readResponse.getResponseCode(fieldName));
                 Assertions.assertNotNull(readResponse.getPlcValue(fieldName));
-                if(readResponse.getPlcValue(fieldName) instanceof PlcList) {
-                    PlcList plcList = (PlcList) readResponse.getPlcValue(fieldName);
+                if(readResponse.getPlcValue(fieldName).isList()) {
+                    PlcValue plcList = readResponse.getPlcValue(fieldName);
                     List<Object> expectedValues = (List<Object>) testCase.expectedReadValue;
                     for (int j = 0; j < expectedValues.size(); j++) {
                         Assertions.assertEquals(expectedValues.get(j), plcList.getIndex(j).getObject());
@@ -105,8 +105,8 @@ public abstract class ManualTest {
                     String fieldName = testCase.address;
                     Assertions.assertEquals(PlcResponseCode.OK, readResponse.getResponseCode(fieldName));
                     Assertions.assertNotNull(readResponse.getPlcValue(fieldName));
-                    if (readResponse.getPlcValue(fieldName) instanceof PlcList) {
-                        PlcList plcList = (PlcList) readResponse.getPlcValue(fieldName);
+                    if (readResponse.getPlcValue(fieldName).isList()) {
+                        PlcValue plcList = readResponse.getPlcValue(fieldName);
                         List<Object> expectedValues = (List<Object>) testCase.expectedReadValue;
                         for (int j = 0; j < expectedValues.size(); j++) {
                             Assertions.assertEquals(expectedValues.get(j), plcList.getIndex(j).getObject());
@@ -364,16 +364,21 @@ plc4c_return_code plc4c_driver_s7_create_s7_identify_remote_request(
   payload_item->return_code = plc4c_s7_read_write_data_transport_error_code_OK;
   payload_item->transport_size =
       plc4c_s7_read_write_data_transport_size_OCTET_STRING;
-  payload_item->szl_index = 0x0000;
-  payload_item->szl_id = malloc(sizeof(plc4c_s7_read_write_szl_id));
-  if (payload_item->szl_id == NULL) {
+  payload_item->s7_payload_user_data_item_cpu_function_read_szl_request_szl_index =
+      0x0000;
+  payload_item->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id =
+      malloc(sizeof(plc4c_s7_read_write_szl_id));
+  if (payload_item
+          ->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id ==
+      NULL) {
     return NO_MEMORY;
   }
-  payload_item->szl_id->type_class =
-      plc4c_s7_read_write_szl_module_type_class_CPU;
-  payload_item->szl_id->sublist_extract = 0x00;
-  payload_item->szl_id->sublist_list =
-      plc4c_s7_read_write_szl_sublist_MODULE_IDENTIFICATION;
+  payload_item->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id
+      ->type_class = plc4c_s7_read_write_szl_module_type_class_CPU;
+  payload_item->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id
+      ->sublist_extract = 0x00;
+  payload_item->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id
+      ->sublist_list = plc4c_s7_read_write_szl_sublist_MODULE_IDENTIFICATION;
   plc4c_utils_list_insert_head_value(
       (*s7_identify_remote_request_packet)
           ->payload->payload->payload->s7_payload_user_data_items,
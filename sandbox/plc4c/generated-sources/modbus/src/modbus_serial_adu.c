@@ -34,34 +34,6 @@ plc4c_return_code plc4c_modbus_read_write_modbus_serial_adu_parse(plc4c_spi_read
     return NO_MEMORY;
   }
 
-  // Simple Field (transactionId)
-  uint16_t transactionId = 0;
-  _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &transactionId);
-  if(_res != OK) {
-    return _res;
-  }
-  (*_message)->transaction_id = transactionId;
-
-  // Reserved Field (Compartmentalized so the "reserved" variable can't leak)
-  {
-    uint16_t _reserved = 0;
-    _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &_reserved);
-    if(_res != OK) {
-      return _res;
-    }
-    if(_reserved != 0x0000) {
-      printf("Expected constant value '%d' but got '%d' for reserved field.", 0x0000, _reserved);
-    }
-  }
-
-  // Simple Field (length)
-  uint16_t length = 0;
-  _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &length);
-  if(_res != OK) {
-    return _res;
-  }
-  (*_message)->length = length;
-
   // Simple Field (address)
   uint8_t address = 0;
   _res = plc4c_spi_read_unsigned_byte(io, 8, (uint8_t*) &address);
@@ -84,24 +56,6 @@ plc4c_return_code plc4c_modbus_read_write_modbus_serial_adu_parse(plc4c_spi_read
 plc4c_return_code plc4c_modbus_read_write_modbus_serial_adu_serialize(plc4c_spi_write_buffer* io, plc4c_modbus_read_write_modbus_serial_adu* _message) {
   plc4c_return_code _res = OK;
 
-  // Simple Field (transactionId)
-  _res = plc4c_spi_write_unsigned_short(io, 16, _message->transaction_id);
-  if(_res != OK) {
-    return _res;
-  }
-
-  // Reserved Field
-  _res = plc4c_spi_write_unsigned_short(io, 16, 0x0000);
-  if(_res != OK) {
-    return _res;
-  }
-
-  // Simple Field (length)
-  _res = plc4c_spi_write_unsigned_short(io, 16, _message->length);
-  if(_res != OK) {
-    return _res;
-  }
-
   // Simple Field (address)
   _res = plc4c_spi_write_unsigned_byte(io, 8, _message->address);
   if(_res != OK) {
@@ -124,15 +78,6 @@ uint16_t plc4c_modbus_read_write_modbus_serial_adu_length_in_bytes(plc4c_modbus_
 uint16_t plc4c_modbus_read_write_modbus_serial_adu_length_in_bits(plc4c_modbus_read_write_modbus_serial_adu* _message) {
   uint16_t lengthInBits = 0;
 
-  // Simple field (transactionId)
-  lengthInBits += 16;
-
-  // Reserved Field (reserved)
-  lengthInBits += 16;
-
-  // Simple field (length)
-  lengthInBits += 16;
-
   // Simple field (address)
   lengthInBits += 8;
 
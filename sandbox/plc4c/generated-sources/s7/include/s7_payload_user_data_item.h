@@ -27,6 +27,9 @@
 #include "data_transport_error_code.h"
 #include "data_transport_size.h"
 #include "s7_payload_user_data_item.h"
+#include "s7_var_payload_data_item.h"
+#include "s7_cyclic_time_base.h"
+#include "s7_var_request_parameter_item.h"
 #include "szl_id.h"
 #include "szl_data_tree_item.h"
 
@@ -37,14 +40,21 @@ extern "C" {
 
 // Structure used to contain the discriminator values for discriminated types using this as a parent
 struct plc4c_s7_read_write_s7_payload_user_data_item_discriminator {
+  unsigned int cpuFunctionGroup;
   unsigned int cpuFunctionType;
+  uint8_t cpuSubfunction;
 };
 typedef struct plc4c_s7_read_write_s7_payload_user_data_item_discriminator plc4c_s7_read_write_s7_payload_user_data_item_discriminator;
 
 // Enum assigning each sub-type an individual id.
 enum plc4c_s7_read_write_s7_payload_user_data_item_type {
-  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_request = 0,
-  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_response = 1};
+  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_push = 0,
+  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_request = 1,
+  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_request = 2,
+  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_response = 3,
+  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_response = 4,
+  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_request = 5,
+  plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_response = 6};
 typedef enum plc4c_s7_read_write_s7_payload_user_data_item_type plc4c_s7_read_write_s7_payload_user_data_item_type;
 
 // Function to get the discriminator values for a given type.
@@ -59,12 +69,31 @@ struct plc4c_s7_read_write_s7_payload_user_data_item {
   /* Properties */
   plc4c_s7_read_write_data_transport_error_code return_code;
   plc4c_s7_read_write_data_transport_size transport_size;
-  plc4c_s7_read_write_szl_id* szl_id;
-  uint16_t szl_index;
   union {
+    struct { /* S7PayloadUserDataItemCyclicServicesPush */
+      plc4c_list* s7_payload_user_data_item_cyclic_services_push_items;
+    };
+    struct { /* S7PayloadUserDataItemCyclicServicesUnsubscribeRequest */
+      uint8_t s7_payload_user_data_item_cyclic_services_unsubscribe_request_function;
+      uint8_t s7_payload_user_data_item_cyclic_services_unsubscribe_request_job_id;
+    };
+    struct { /* S7PayloadUserDataItemCyclicServicesSubscribeRequest */
+      plc4c_s7_read_write_s7_cyclic_time_base s7_payload_user_data_item_cyclic_services_subscribe_request_time_base;
+      uint8_t s7_payload_user_data_item_cyclic_services_subscribe_request_time_factor;
+      plc4c_list* s7_payload_user_data_item_cyclic_services_subscribe_request_items;
+    };
+    struct { /* S7PayloadUserDataItemCyclicServicesUnsubscribeResponse */
+    };
+    struct { /* S7PayloadUserDataItemCyclicServicesSubscribeResponse */
+      plc4c_list* s7_payload_user_data_item_cyclic_services_subscribe_response_items;
+    };
     struct { /* S7PayloadUserDataItemCpuFunctionReadSzlRequest */
+      plc4c_s7_read_write_szl_id* s7_payload_user_data_item_cpu_function_read_szl_request_szl_id;
+      uint16_t s7_payload_user_data_item_cpu_function_read_szl_request_szl_index;
     };
     struct { /* S7PayloadUserDataItemCpuFunctionReadSzlResponse */
+      plc4c_s7_read_write_szl_id* s7_payload_user_data_item_cpu_function_read_szl_response_szl_id;
+      uint16_t s7_payload_user_data_item_cpu_function_read_szl_response_szl_index;
       plc4c_list* s7_payload_user_data_item_cpu_function_read_szl_response_items;
     };
   };
@@ -74,7 +103,7 @@ typedef struct plc4c_s7_read_write_s7_payload_user_data_item plc4c_s7_read_write
 // Create an empty NULL-struct
 plc4c_s7_read_write_s7_payload_user_data_item plc4c_s7_read_write_s7_payload_user_data_item_null();
 
-plc4c_return_code plc4c_s7_read_write_s7_payload_user_data_item_parse(plc4c_spi_read_buffer* io, unsigned int cpuFunctionType, plc4c_s7_read_write_s7_payload_user_data_item** message);
+plc4c_return_code plc4c_s7_read_write_s7_payload_user_data_item_parse(plc4c_spi_read_buffer* io, unsigned int cpuFunctionType, unsigned int cpuFunctionGroup, uint8_t cpuSubfunction, plc4c_s7_read_write_s7_payload_user_data_item** message);
 
 plc4c_return_code plc4c_s7_read_write_s7_payload_user_data_item_serialize(plc4c_spi_write_buffer* io, plc4c_s7_read_write_s7_payload_user_data_item* message);
 
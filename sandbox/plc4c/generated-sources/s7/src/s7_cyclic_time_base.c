@@ -0,0 +1,80 @@
+/*
+  Licensed to the Apache Software Foundation (ASF) under one
+  or more contributor license agreements.  See the NOTICE file
+  distributed with this work for additional information
+  regarding copyright ownership.  The ASF licenses this file
+  to you under the Apache License, Version 2.0 (the
+  "License"); you may not use this file except in compliance
+  with the License.  You may obtain a copy of the License at
+
+    http://www.apache.org/licenses/LICENSE-2.0
+
+  Unless required by applicable law or agreed to in writing,
+  software distributed under the License is distributed on an
+  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+  KIND, either express or implied.  See the License for the
+  specific language governing permissions and limitations
+  under the License.
+*/
+
+#include "s7_cyclic_time_base.h"
+#include <string.h>
+
+
+// Create an empty NULL-struct
+static const plc4c_s7_read_write_s7_cyclic_time_base plc4c_s7_read_write_s7_cyclic_time_base_null_const;
+
+plc4c_s7_read_write_s7_cyclic_time_base plc4c_s7_read_write_s7_cyclic_time_base_null() {
+  return plc4c_s7_read_write_s7_cyclic_time_base_null_const;
+}
+
+plc4c_s7_read_write_s7_cyclic_time_base plc4c_s7_read_write_s7_cyclic_time_base_value_of(char* value_string) {
+    if(strcmp(value_string, "B01SEC") == 0) {
+        return plc4c_s7_read_write_s7_cyclic_time_base_B01SEC;
+    }
+    if(strcmp(value_string, "B1SEC") == 0) {
+        return plc4c_s7_read_write_s7_cyclic_time_base_B1SEC;
+    }
+    if(strcmp(value_string, "B10SEC") == 0) {
+        return plc4c_s7_read_write_s7_cyclic_time_base_B10SEC;
+    }
+    return -1;
+}
+
+int plc4c_s7_read_write_s7_cyclic_time_base_num_values() {
+  return 3;
+}
+
+plc4c_s7_read_write_s7_cyclic_time_base plc4c_s7_read_write_s7_cyclic_time_base_value_for_index(int index) {
+    switch(index) {
+      case 0: {
+        return plc4c_s7_read_write_s7_cyclic_time_base_B01SEC;
+      }
+      case 1: {
+        return plc4c_s7_read_write_s7_cyclic_time_base_B1SEC;
+      }
+      case 2: {
+        return plc4c_s7_read_write_s7_cyclic_time_base_B10SEC;
+      }
+      default: {
+        return -1;
+      }
+    }
+}
+
+uint16_t plc4c_s7_read_write_s7_cyclic_time_base_get_milliseconds(plc4c_s7_read_write_s7_cyclic_time_base value) {
+  switch(value) {
+    case plc4c_s7_read_write_s7_cyclic_time_base_B01SEC: { /* '0x00' */
+      return 100;
+    }
+    case plc4c_s7_read_write_s7_cyclic_time_base_B1SEC: { /* '0x01' */
+      return 1000;
+    }
+    case plc4c_s7_read_write_s7_cyclic_time_base_B10SEC: { /* '0x02' */
+      return 10000;
+    }
+    default: {
+      return 0;
+    }
+  }
+}
@@ -126,7 +126,7 @@ plc4c_return_code plc4c_s7_read_write_s7_parameter_user_data_item_parse(plc4c_sp
                     
     // Optional Field (dataUnitReferenceNumber) (Can be skipped, if a given expression evaluates to false)
     uint8_t* dataUnitReferenceNumber = NULL;
-    if((cpuFunctionType) == (8)) {
+    if(((cpuFunctionType) == (8)) || ((cpuFunctionType) == (0))) {
       dataUnitReferenceNumber = malloc(sizeof(uint8_t));
       if(dataUnitReferenceNumber == NULL) {
         return NO_MEMORY;
@@ -145,7 +145,7 @@ plc4c_return_code plc4c_s7_read_write_s7_parameter_user_data_item_parse(plc4c_sp
                     
     // Optional Field (lastDataUnit) (Can be skipped, if a given expression evaluates to false)
     uint8_t* lastDataUnit = NULL;
-    if((cpuFunctionType) == (8)) {
+    if(((cpuFunctionType) == (8)) || ((cpuFunctionType) == (0))) {
       lastDataUnit = malloc(sizeof(uint8_t));
       if(lastDataUnit == NULL) {
         return NO_MEMORY;
@@ -164,7 +164,7 @@ plc4c_return_code plc4c_s7_read_write_s7_parameter_user_data_item_parse(plc4c_sp
                     
     // Optional Field (errorCode) (Can be skipped, if a given expression evaluates to false)
     uint16_t* errorCode = NULL;
-    if((cpuFunctionType) == (8)) {
+    if(((cpuFunctionType) == (8)) || ((cpuFunctionType) == (0))) {
       errorCode = malloc(sizeof(uint16_t));
       if(errorCode == NULL) {
         return NO_MEMORY;
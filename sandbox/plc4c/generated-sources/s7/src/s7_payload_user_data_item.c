@@ -25,10 +25,20 @@
 // (The order is identical to the enum constants so we can use the
 // enum constant to directly access a given types discriminator values)
 const plc4c_s7_read_write_s7_payload_user_data_item_discriminator plc4c_s7_read_write_s7_payload_user_data_item_discriminators[] = {
+  {/* plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_push */
+   .cpuFunctionType = 0x00, .cpuFunctionGroup = 0x02, .cpuSubfunction = -1},
+  {/* plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_request */
+   .cpuFunctionType = 0x04, .cpuFunctionGroup = 0x02, .cpuSubfunction = 0x04},
+  {/* plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_request */
+   .cpuFunctionType = 0x04, .cpuFunctionGroup = 0x02, .cpuSubfunction = -1},
+  {/* plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_response */
+   .cpuFunctionType = 0x08, .cpuFunctionGroup = 0x02, .cpuSubfunction = 0x04},
+  {/* plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_response */
+   .cpuFunctionType = 0x08, .cpuFunctionGroup = 0x02, .cpuSubfunction = -1},
   {/* plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_request */
-   .cpuFunctionType = 0x04},
+   .cpuFunctionType = 0x04, .cpuFunctionGroup = -1, .cpuSubfunction = -1},
   {/* plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_response */
-   .cpuFunctionType = 0x08}
+   .cpuFunctionType = 0x08, .cpuFunctionGroup = -1, .cpuSubfunction = -1}
 };
 
 // Function returning the discriminator values for a given type constant.
@@ -51,7 +61,7 @@ uint16_t PLC4C_S7_READ_WRITE_S7_PAYLOAD_USER_DATA_ITEM_CPU_FUNCTION_READ_SZL_RES
 }
 
 // Parse function.
-plc4c_return_code plc4c_s7_read_write_s7_payload_user_data_item_parse(plc4c_spi_read_buffer* io, unsigned int cpuFunctionType, plc4c_s7_read_write_s7_payload_user_data_item** _message) {
+plc4c_return_code plc4c_s7_read_write_s7_payload_user_data_item_parse(plc4c_spi_read_buffer* io, unsigned int cpuFunctionType, unsigned int cpuFunctionGroup, uint8_t cpuSubfunction, plc4c_s7_read_write_s7_payload_user_data_item** _message) {
   uint16_t startPos = plc4c_spi_read_get_pos(io);
   uint16_t curPos;
   plc4c_return_code _res = OK;
@@ -85,29 +95,193 @@ plc4c_return_code plc4c_s7_read_write_s7_payload_user_data_item_parse(plc4c_spi_
     return _res;
   }
 
-  // Simple Field (szlId)
-  plc4c_s7_read_write_szl_id* szlId;
-  _res = plc4c_s7_read_write_szl_id_parse(io, (void*) &szlId);
-  if(_res != OK) {
-    return _res;
-  }
-  (*_message)->szl_id = szlId;
+  // Switch Field (Depending on the discriminator values, passes the instantiation to a sub-type)
+  if((cpuFunctionType == 0x00) && (cpuFunctionGroup == 0x02)) { /* S7PayloadUserDataItemCyclicServicesPush */
+    (*_message)->_type = plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_push;
+                    
+    // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+    uint16_t itemsCount = 0;
+    _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &itemsCount);
+    if(_res != OK) {
+      return _res;
+    }
 
-  // Simple Field (szlIndex)
-  uint16_t szlIndex = 0;
-  _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &szlIndex);
-  if(_res != OK) {
-    return _res;
-  }
-  (*_message)->szl_index = szlIndex;
 
-  // Switch Field (Depending on the discriminator values, passes the instantiation to a sub-type)
+                    
+    // Array field (items)
+    plc4c_list* items = NULL;
+    plc4c_utils_list_create(&items);
+    if(items == NULL) {
+      return NO_MEMORY;
+    }
+    {
+      // Count array
+      uint8_t itemCount = itemsCount;
+      for(int curItem = 0; curItem < itemCount; curItem++) {
+        bool lastItem = curItem == (itemCount - 1);
+        plc4c_s7_read_write_s7_var_payload_data_item* _value = NULL;
+        _res = plc4c_s7_read_write_s7_var_payload_data_item_parse(io, lastItem, (void*) &_value);
+        if(_res != OK) {
+          return _res;
+        }
+        plc4c_utils_list_insert_head_value(items, _value);
+      }
+    }
+    (*_message)->s7_payload_user_data_item_cyclic_services_push_items = items;
+
+  } else 
+  if((cpuFunctionType == 0x04) && (cpuFunctionGroup == 0x02) && (cpuSubfunction == 0x04)) { /* S7PayloadUserDataItemCyclicServicesUnsubscribeRequest */
+    (*_message)->_type = plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_request;
+                    
+    // Simple Field (function)
+    uint8_t function = 0;
+    _res = plc4c_spi_read_unsigned_byte(io, 8, (uint8_t*) &function);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cyclic_services_unsubscribe_request_function = function;
+
+                    
+    // Simple Field (jobId)
+    uint8_t jobId = 0;
+    _res = plc4c_spi_read_unsigned_byte(io, 8, (uint8_t*) &jobId);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cyclic_services_unsubscribe_request_job_id = jobId;
+
+  } else 
+  if((cpuFunctionType == 0x04) && (cpuFunctionGroup == 0x02)) { /* S7PayloadUserDataItemCyclicServicesSubscribeRequest */
+    (*_message)->_type = plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_request;
+                    
+    // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+    uint16_t itemsCount = 0;
+    _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &itemsCount);
+    if(_res != OK) {
+      return _res;
+    }
+
+
+                    
+    // Enum field (timeBase)
+    plc4c_s7_read_write_s7_cyclic_time_base timeBase = plc4c_s7_read_write_s7_cyclic_time_base_null();
+    _res = plc4c_spi_read_unsigned_byte(io, 8, (uint8_t*) &timeBase);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cyclic_services_subscribe_request_time_base = timeBase;
+
+                    
+    // Simple Field (timeFactor)
+    uint8_t timeFactor = 0;
+    _res = plc4c_spi_read_unsigned_byte(io, 8, (uint8_t*) &timeFactor);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cyclic_services_subscribe_request_time_factor = timeFactor;
+
+                    
+    // Array field (items)
+    plc4c_list* items = NULL;
+    plc4c_utils_list_create(&items);
+    if(items == NULL) {
+      return NO_MEMORY;
+    }
+    {
+      // Count array
+      uint8_t itemCount = itemsCount;
+      for(int curItem = 0; curItem < itemCount; curItem++) {
+        bool lastItem = curItem == (itemCount - 1);
+        plc4c_s7_read_write_s7_var_request_parameter_item* _value = NULL;
+        _res = plc4c_s7_read_write_s7_var_request_parameter_item_parse(io, (void*) &_value);
+        if(_res != OK) {
+          return _res;
+        }
+        plc4c_utils_list_insert_head_value(items, _value);
+      }
+    }
+    (*_message)->s7_payload_user_data_item_cyclic_services_subscribe_request_items = items;
+
+  } else 
+  if((cpuFunctionType == 0x08) && (cpuFunctionGroup == 0x02) && (cpuSubfunction == 0x04)) { /* S7PayloadUserDataItemCyclicServicesUnsubscribeResponse */
+    (*_message)->_type = plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_response;
+  } else 
+  if((cpuFunctionType == 0x08) && (cpuFunctionGroup == 0x02)) { /* S7PayloadUserDataItemCyclicServicesSubscribeResponse */
+    (*_message)->_type = plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_response;
+                    
+    // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+    uint16_t itemsCount = 0;
+    _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &itemsCount);
+    if(_res != OK) {
+      return _res;
+    }
+
+
+                    
+    // Array field (items)
+    plc4c_list* items = NULL;
+    plc4c_utils_list_create(&items);
+    if(items == NULL) {
+      return NO_MEMORY;
+    }
+    {
+      // Count array
+      uint8_t itemCount = itemsCount;
+      for(int curItem = 0; curItem < itemCount; curItem++) {
+        bool lastItem = curItem == (itemCount - 1);
+        plc4c_s7_read_write_s7_var_payload_data_item* _value = NULL;
+        _res = plc4c_s7_read_write_s7_var_payload_data_item_parse(io, lastItem, (void*) &_value);
+        if(_res != OK) {
+          return _res;
+        }
+        plc4c_utils_list_insert_head_value(items, _value);
+      }
+    }
+    (*_message)->s7_payload_user_data_item_cyclic_services_subscribe_response_items = items;
+
+  } else 
   if(cpuFunctionType == 0x04) { /* S7PayloadUserDataItemCpuFunctionReadSzlRequest */
     (*_message)->_type = plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_request;
+                    
+    // Simple Field (szlId)
+    plc4c_s7_read_write_szl_id* szlId;
+    _res = plc4c_s7_read_write_szl_id_parse(io, (void*) &szlId);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id = szlId;
+
+                    
+    // Simple Field (szlIndex)
+    uint16_t szlIndex = 0;
+    _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &szlIndex);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cpu_function_read_szl_request_szl_index = szlIndex;
+
   } else 
   if(cpuFunctionType == 0x08) { /* S7PayloadUserDataItemCpuFunctionReadSzlResponse */
     (*_message)->_type = plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_response;
                     
+    // Simple Field (szlId)
+    plc4c_s7_read_write_szl_id* szlId;
+    _res = plc4c_s7_read_write_szl_id_parse(io, (void*) &szlId);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cpu_function_read_szl_response_szl_id = szlId;
+
+                    
+    // Simple Field (szlIndex)
+    uint16_t szlIndex = 0;
+    _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &szlIndex);
+    if(_res != OK) {
+      return _res;
+    }
+    (*_message)->s7_payload_user_data_item_cpu_function_read_szl_response_szl_index = szlIndex;
+
+                    
     // Const Field (szlItemLength)
     uint16_t szlItemLength = 0;
     _res = plc4c_spi_read_unsigned_short(io, 16, (uint16_t*) &szlItemLength);
@@ -177,26 +351,139 @@ plc4c_return_code plc4c_s7_read_write_s7_payload_user_data_item_serialize(plc4c_
     return _res;
   }
 
-  // Simple Field (szlId)
-  _res = plc4c_s7_read_write_szl_id_serialize(io, _message->szl_id);
-  if(_res != OK) {
-    return _res;
-  }
-
-  // Simple Field (szlIndex)
-  _res = plc4c_spi_write_unsigned_short(io, 16, _message->szl_index);
-  if(_res != OK) {
-    return _res;
-  }
-
   // Switch Field (Depending of the current type, serialize the sub-type elements)
   switch(_message->_type) {
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_push: {
+
+      // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+      _res = plc4c_spi_write_unsigned_short(io, 16, plc4c_spi_evaluation_helper_count(_message->s7_payload_user_data_item_cyclic_services_push_items));
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Array field (items)
+      {
+        uint8_t itemCount = plc4c_utils_list_size(_message->s7_payload_user_data_item_cyclic_services_push_items);
+        for(int curItem = 0; curItem < itemCount; curItem++) {
+          bool lastItem = curItem == (itemCount - 1);
+          plc4c_s7_read_write_s7_var_payload_data_item* _value = (plc4c_s7_read_write_s7_var_payload_data_item*) plc4c_utils_list_get_value(_message->s7_payload_user_data_item_cyclic_services_push_items, curItem);
+          _res = plc4c_s7_read_write_s7_var_payload_data_item_serialize(io, (void*) _value, lastItem);
+          if(_res != OK) {
+            return _res;
+          }
+        }
+      }
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_request: {
+
+      // Simple Field (function)
+      _res = plc4c_spi_write_unsigned_byte(io, 8, _message->s7_payload_user_data_item_cyclic_services_unsubscribe_request_function);
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Simple Field (jobId)
+      _res = plc4c_spi_write_unsigned_byte(io, 8, _message->s7_payload_user_data_item_cyclic_services_unsubscribe_request_job_id);
+      if(_res != OK) {
+        return _res;
+      }
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_request: {
+
+      // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+      _res = plc4c_spi_write_unsigned_short(io, 16, plc4c_spi_evaluation_helper_count(_message->s7_payload_user_data_item_cyclic_services_subscribe_request_items));
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Enum field (timeBase)
+      _res = plc4c_spi_write_unsigned_byte(io, 8, _message->s7_payload_user_data_item_cyclic_services_subscribe_request_time_base);
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Simple Field (timeFactor)
+      _res = plc4c_spi_write_unsigned_byte(io, 8, _message->s7_payload_user_data_item_cyclic_services_subscribe_request_time_factor);
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Array field (items)
+      {
+        uint8_t itemCount = plc4c_utils_list_size(_message->s7_payload_user_data_item_cyclic_services_subscribe_request_items);
+        for(int curItem = 0; curItem < itemCount; curItem++) {
+          bool lastItem = curItem == (itemCount - 1);
+          plc4c_s7_read_write_s7_var_request_parameter_item* _value = (plc4c_s7_read_write_s7_var_request_parameter_item*) plc4c_utils_list_get_value(_message->s7_payload_user_data_item_cyclic_services_subscribe_request_items, curItem);
+          _res = plc4c_s7_read_write_s7_var_request_parameter_item_serialize(io, (void*) _value);
+          if(_res != OK) {
+            return _res;
+          }
+        }
+      }
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_response: {
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_response: {
+
+      // Implicit Field (itemsCount) (Used for parsing, but it's value is not stored as it's implicitly given by the objects content)
+      _res = plc4c_spi_write_unsigned_short(io, 16, plc4c_spi_evaluation_helper_count(_message->s7_payload_user_data_item_cyclic_services_subscribe_response_items));
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Array field (items)
+      {
+        uint8_t itemCount = plc4c_utils_list_size(_message->s7_payload_user_data_item_cyclic_services_subscribe_response_items);
+        for(int curItem = 0; curItem < itemCount; curItem++) {
+          bool lastItem = curItem == (itemCount - 1);
+          plc4c_s7_read_write_s7_var_payload_data_item* _value = (plc4c_s7_read_write_s7_var_payload_data_item*) plc4c_utils_list_get_value(_message->s7_payload_user_data_item_cyclic_services_subscribe_response_items, curItem);
+          _res = plc4c_s7_read_write_s7_var_payload_data_item_serialize(io, (void*) _value, lastItem);
+          if(_res != OK) {
+            return _res;
+          }
+        }
+      }
+
+      break;
+    }
     case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_request: {
 
+      // Simple Field (szlId)
+      _res = plc4c_s7_read_write_szl_id_serialize(io, _message->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id);
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Simple Field (szlIndex)
+      _res = plc4c_spi_write_unsigned_short(io, 16, _message->s7_payload_user_data_item_cpu_function_read_szl_request_szl_index);
+      if(_res != OK) {
+        return _res;
+      }
+
       break;
     }
     case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_response: {
 
+      // Simple Field (szlId)
+      _res = plc4c_s7_read_write_szl_id_serialize(io, _message->s7_payload_user_data_item_cpu_function_read_szl_response_szl_id);
+      if(_res != OK) {
+        return _res;
+      }
+
+      // Simple Field (szlIndex)
+      _res = plc4c_spi_write_unsigned_short(io, 16, _message->s7_payload_user_data_item_cpu_function_read_szl_response_szl_index);
+      if(_res != OK) {
+        return _res;
+      }
+
       // Const Field (szlItemLength)
       plc4c_spi_write_unsigned_short(io, 16, PLC4C_S7_READ_WRITE_S7_PAYLOAD_USER_DATA_ITEM_CPU_FUNCTION_READ_SZL_RESPONSE_SZL_ITEM_LENGTH());
 
@@ -242,20 +529,105 @@ uint16_t plc4c_s7_read_write_s7_payload_user_data_item_length_in_bits(plc4c_s7_r
   // Implicit Field (dataLength)
   lengthInBits += 16;
 
-  // Simple field (szlId)
-  lengthInBits += plc4c_s7_read_write_szl_id_length_in_bits(_message->szl_id);
-
-  // Simple field (szlIndex)
-  lengthInBits += 16;
-
   // Depending of the current type, add the length of sub-type elements ...
   switch(_message->_type) {
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_push: {
+
+      // Implicit Field (itemsCount)
+      lengthInBits += 16;
+
+
+      // Array field
+      if(_message->s7_payload_user_data_item_cyclic_services_push_items != NULL) {
+        plc4c_list_element* curElement = _message->s7_payload_user_data_item_cyclic_services_push_items->tail;
+        while (curElement != NULL) {
+          lengthInBits += plc4c_s7_read_write_s7_var_payload_data_item_length_in_bits((plc4c_s7_read_write_s7_var_payload_data_item*) curElement->value);
+          curElement = curElement->next;
+        }
+      }
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_request: {
+
+      // Simple field (function)
+      lengthInBits += 8;
+
+
+      // Simple field (jobId)
+      lengthInBits += 8;
+
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_request: {
+
+      // Implicit Field (itemsCount)
+      lengthInBits += 16;
+
+
+      // Enum Field (timeBase)
+      lengthInBits += 8;
+
+
+      // Simple field (timeFactor)
+      lengthInBits += 8;
+
+
+      // Array field
+      if(_message->s7_payload_user_data_item_cyclic_services_subscribe_request_items != NULL) {
+        plc4c_list_element* curElement = _message->s7_payload_user_data_item_cyclic_services_subscribe_request_items->tail;
+        while (curElement != NULL) {
+          lengthInBits += plc4c_s7_read_write_s7_var_request_parameter_item_length_in_bits((plc4c_s7_read_write_s7_var_request_parameter_item*) curElement->value);
+          curElement = curElement->next;
+        }
+      }
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_unsubscribe_response: {
+
+      break;
+    }
+    case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cyclic_services_subscribe_response: {
+
+      // Implicit Field (itemsCount)
+      lengthInBits += 16;
+
+
+      // Array field
+      if(_message->s7_payload_user_data_item_cyclic_services_subscribe_response_items != NULL) {
+        plc4c_list_element* curElement = _message->s7_payload_user_data_item_cyclic_services_subscribe_response_items->tail;
+        while (curElement != NULL) {
+          lengthInBits += plc4c_s7_read_write_s7_var_payload_data_item_length_in_bits((plc4c_s7_read_write_s7_var_payload_data_item*) curElement->value);
+          curElement = curElement->next;
+        }
+      }
+
+      break;
+    }
     case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_request: {
 
+      // Simple field (szlId)
+      lengthInBits += plc4c_s7_read_write_szl_id_length_in_bits(_message->s7_payload_user_data_item_cpu_function_read_szl_request_szl_id);
+
+
+      // Simple field (szlIndex)
+      lengthInBits += 16;
+
+
       break;
     }
     case plc4c_s7_read_write_s7_payload_user_data_item_type_plc4c_s7_read_write_s7_payload_user_data_item_cpu_function_read_szl_response: {
 
+      // Simple field (szlId)
+      lengthInBits += plc4c_s7_read_write_szl_id_length_in_bits(_message->s7_payload_user_data_item_cpu_function_read_szl_response_szl_id);
+
+
+      // Simple field (szlIndex)
+      lengthInBits += 16;
+
+
       // Const Field (szlItemLength)
       lengthInBits += 16;
 